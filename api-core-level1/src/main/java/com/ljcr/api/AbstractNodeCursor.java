@@ -0,0 +1,225 @@
+package com.ljcr.api;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Skeleton of a {@link NodeCursor} keeping a stack of reusable frames, one per depth.
+ * <p>
+ * Adapters extend {@link Frame} with a reference to their native item (and the state needed to iterate
+ * its elements) and implement {@link #nextChild(Frame, Frame)}. The frame of the current item is
+ * {@link #current()}; frames are allocated once per depth and reused for all items at that depth.
+ *
+ * @param <F> - adapter specific frame type
+ */
+public abstract class AbstractNodeCursor<F extends AbstractNodeCursor.Frame> implements NodeCursor {
+
+    public static class Frame {
+        String name;
+        boolean object;
+        boolean collection;
+        int index;
+        int count;
+        boolean open;
+
+        /**
+         * Describes the item of this frame
+         */
+        public final void reset(@Nullable String name, boolean object, boolean collection) {
+            this.name = name;
+            this.object = object;
+            this.collection = collection;
+        }
+
+        @Nullable
+        public final String getName() {
+            return name;
+        }
+
+        public final boolean isContainer() {
+            return object || collection;
+        }
+    }
+
+    private F[] frames;
+    private int depth = -1;
+    private Event event;
+    private boolean skip;
+    private boolean done;
+
+    @SuppressWarnings("unchecked")
+    protected AbstractNodeCursor() {
+        this.frames = (F[]) new Frame[8];
+    }
+
+    protected abstract F newFrame();
+
+    /**
+     * Initializes the frame of the root item
+     */
+    protected abstract void setRoot(F frame);
+
+    /**
+     * Prepares the iteration over the elements of a container. Not called if the elements are skipped
+     */
+    protected void open(F frame) {
+    }
+
+    /**
+     * Moves the iteration of <code>parent</code> to its next element and describes it in <code>child</code>
+     *
+     * @return false if <code>parent</code> has no more elements
+     */
+    protected abstract boolean nextChild(F parent, F child);
+
+    /**
+     * Releases the iteration state of a container opened by {@link #open(Frame)}
+     */
+    protected void close(F frame) {
+    }
+
+    @Nonnull
+    protected final F current() {
+        if (depth < 0 || event == null) {
+            throw new IllegalStateException("Cursor is not positioned on an item");
+        }
+        return frames[depth];
+    }
+
+    @Nullable
+    @Override
+    public final Event next() {
+        if (done) {
+            return null;
+        } else if (event == null) {
+            depth = 0;
+            F root = frameAt(0);
+            setRoot(root);
+            return enter(root);
+        } else if (event == Event.ENTER) {
+            F parent = frames[depth];
+            if (skip) {
+                skip = false;
+                return exit(parent);
+            }
+            parent.open = true;
+            open(parent);
+            return advance(parent);
+        } else if (depth == 0) {
+            return finish();
+        }
+        depth--;
+        return advance(frames[depth]);
+    }
+
+    private Event advance(F parent) {
+        F child = frameAt(depth + 1);
+        if (nextChild(parent, child)) {
+            child.index = parent.count++;
+            depth++;
+            return enter(child);
+        }
+        return exit(parent);
+    }
+
+    private Event enter(F frame) {
+        frame.count = 0;
+        frame.open = false;
+        event = frame.isContainer() ? Event.ENTER : Event.NEXT;
+        return event;
+    }
+
+    private Event exit(F frame) {
+        release(frame);
+        event = Event.EXIT;
+        return event;
+    }
+
+    private Event finish() {
+        done = true;
+        event = null;
+        return null;
+    }
+
+    private void release(F frame) {
+        if (frame.open) {
+            frame.open = false;
+            close(frame);
+        }
+    }
+
+    private F frameAt(int idx) {
+        if (idx == frames.length) {
+            frames = Arrays.copyOf(frames, idx * 2);
+        }
+        F frame = frames[idx];
+        if (frame == null) {
+            frame = newFrame();
+            frames[idx] = frame;
+        }
+        return frame;
+    }
+
+    @Nullable
+    @Override
+    public final Event getEvent() {
+        return event;
+    }
+
+    @Override
+    public final int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public final int getIndex() {
+        return current().index;
+    }
+
+    @Nullable
+    @Override
+    public String getName() {
+        return current().name;
+    }
+
+    @Override
+    public final boolean isObject() {
+        return current().object;
+    }
+
+    @Override
+    public final boolean isCollection() {
+        return current().collection;
+    }
+
+    @Override
+    public final void skipChildren() {
+        if (event != Event.ENTER) {
+            throw new IllegalStateException("Cursor is not positioned on a container: " + event);
+        }
+        skip = true;
+    }
+
+    /**
+     * @throws IllegalStateException if the cursor is not positioned on a scalar
+     */
+    @Nonnull
+    protected final F currentValue() {
+        if (event != Event.NEXT) {
+            throw new IllegalStateException("Cursor is not positioned on a value: " + event);
+        }
+        return frames[depth];
+    }
+
+    @Override
+    public void close() {
+        for (int idx = Math.min(depth, frames.length - 1); idx >= 0; idx--) {
+            if (frames[idx] != null) {
+                release(frames[idx]);
+            }
+        }
+        done = true;
+        event = null;
+    }
+}
@@ -3,6 +3,12 @@
  */
 package com.ljcr.api;
 
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Set;
+
 /**
  * The <code>AccessControlManager</code> object is accessed via {@link
  * Session#getAccessControlManager()}. It provides methods for: <ul>
@@ -13,4 +19,27 @@ package com.ljcr.api;
  */
 public interface AccessControlManager {
 
+    /**
+     * Returns the privileges the session has for the node at
+     * <code>absPath</code>.
+     *
+     * @param absPath an absolute path.
+     * @return the privileges of the session at this path, possibly empty.
+     * @throws RepositoryException if another error occurs.
+     */
+    @Nonnull
+    Set<Privilege> getPrivileges(@Nonnull NodePath absPath);
+
+    /**
+     * Returns whether the session has all the specified privileges for the node
+     * at <code>absPath</code>.
+     *
+     * @param absPath    an absolute path.
+     * @param privileges privileges to check.
+     * @return <code>true</code> if the session has all the privileges.
+     * @throws RepositoryException if another error occurs.
+     */
+    default boolean hasPrivileges(@Nonnull NodePath absPath, @Nonnull Privilege... privileges) {
+        return getPrivileges(absPath).containsAll(Arrays.asList(privileges));
+    }
 }
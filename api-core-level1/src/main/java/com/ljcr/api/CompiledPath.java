@@ -0,0 +1,96 @@
+package com.ljcr.api;
+
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * {@link NodePath} prepared for repeated evaluation.
+ * <p>
+ * For every segment the property definition resolved on the last seen type definition is cached,
+ * so walking the path over nodes of the same types costs one identity check per segment instead
+ * of a name lookup. Segments which are not declared by the type (e.g. array indexes or
+ * dynamic fields) fall back to {@link ImmutableNode#getItem(String)}.
+ * <p>
+ * Instances are thread-safe, the cache is updated racily with immutable entries.
+ */
+@Nonnull
+public final class CompiledPath {
+
+    private static final class Resolved {
+        final TypeDefinition type;
+        final PropertyDefinition property;
+
+        Resolved(TypeDefinition type, PropertyDefinition property) {
+            this.type = type;
+            this.property = property;
+        }
+    }
+
+    private final NodePath path;
+    private final Resolved[] resolved;
+
+    CompiledPath(NodePath path) {
+        this.path = path;
+        this.resolved = new Resolved[path.getNameCount()];
+    }
+
+    public static CompiledPath of(String absPath) {
+        return NodePath.of(absPath).compile();
+    }
+
+    public NodePath getPath() {
+        return path;
+    }
+
+    /**
+     * Walks this path starting from <code>root</code>.
+     *
+     * @return the item at this path or null if an intermediate item is missing
+     * @throws PathNotFoundException if the underlying node does not know the field
+     */
+    @Nullable
+    public ImmutableNode resolve(@Nonnull ImmutableNode root) throws PathNotFoundException {
+        ImmutableNode obj = root;
+        for (int idx = 0; idx < resolved.length && obj != null; idx++) {
+            PropertyDefinition p = obj.isObject() ? propertyOf(idx, obj.getTypeDefinition()) : null;
+            obj = p != null ? obj.getItem(p) : obj.getItem(path.getName(idx));
+        }
+        return obj;
+    }
+
+    @Nullable
+    private PropertyDefinition propertyOf(int idx, TypeDefinition type) {
+        Resolved cached = resolved[idx];
+        if (cached != null && cached.type == type) {
+            return cached.property;
+        }
+
+        PropertyDefinition p = type.getFieldDefByName(path.getName(idx));
+        resolved[idx] = new Resolved(type, p);
+        return p;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof CompiledPath) {
+            return path.equals(((CompiledPath) obj).path);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
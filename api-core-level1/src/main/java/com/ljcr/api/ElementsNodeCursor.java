@@ -0,0 +1,101 @@
+package com.ljcr.api;
+
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Default {@link NodeCursor} walking a tree of nodes through {@link ImmutableNode#getElements()}.
+ * <p>
+ * Nodes are created as usual by the underlying implementation, so this cursor only saves
+ * the allocations of the caller. Adapters should provide a native cursor instead.
+ */
+final class ElementsNodeCursor extends AbstractNodeCursor<ElementsNodeCursor.NodeFrame> {
+
+    static final class NodeFrame extends AbstractNodeCursor.Frame {
+        private ImmutableNode node;
+        private boolean named;
+        private Stream<ImmutableNode> stream;
+        private Iterator<ImmutableNode> elements;
+    }
+
+    private final ImmutableNode root;
+
+    ElementsNodeCursor(ImmutableNode root) {
+        this.root = root;
+    }
+
+    @Override
+    protected NodeFrame newFrame() {
+        return new NodeFrame();
+    }
+
+    @Override
+    protected void setRoot(NodeFrame frame) {
+        describe(frame, root, true);
+    }
+
+    @Override
+    protected void open(NodeFrame frame) {
+        frame.stream = frame.node.getElements();
+        frame.elements = frame.stream.iterator();
+    }
+
+    @Override
+    protected boolean nextChild(NodeFrame parent, NodeFrame child) {
+        while (parent.elements.hasNext()) {
+            ImmutableNode node = parent.elements.next();
+            if (node != null) {
+                describe(child, node, !parent.node.isCollection());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closes the elements of the container, which may hold resources of the underlying implementation
+     */
+    @Override
+    protected void close(NodeFrame frame) {
+        Stream<ImmutableNode> stream = frame.stream;
+        frame.stream = null;
+        frame.elements = null;
+        stream.close();
+    }
+
+    private static void describe(NodeFrame frame, ImmutableNode node, boolean named) {
+        frame.node = node;
+        frame.named = named;
+        frame.reset(null, node.isObject(), node.isCollection());
+    }
+
+    @Nullable
+    @Override
+    public String getName() {
+        NodeFrame frame = current();
+        if (!frame.named) {
+            return null;
+        }
+        try {
+            return frame.node.getName();
+        } catch (RepositoryException e) {
+            return null;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return current().node.getTypeDefinition();
+    }
+
+    @Override
+    public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        currentValue().node.acceptValue(visitor);
+    }
+}
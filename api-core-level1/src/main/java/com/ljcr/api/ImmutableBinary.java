@@ -0,0 +1,127 @@
+package com.ljcr.api;
+
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.api.exceptions.ValueFormatException;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Value of a <code>BINARY</code> property, read as a stream or by ranges, without loading it at once.
+ * <p>
+ * Default methods read through {@link #openStream()}. Implementations backed by files or buffers
+ * override them with positional reads, <code>FileChannel.transferTo</code> and mapped buffers.
+ */
+@Nonnull
+public interface ImmutableBinary extends ImmutableNodeScalar {
+
+    /**
+     * @return size of the value in bytes
+     */
+    long length();
+
+    /**
+     * @return a new stream over the whole value, to be closed by the caller
+     */
+    InputStream openStream() throws IOException;
+
+    /**
+     * Reads bytes starting at <code>offset</code> into the remaining space of <code>dst</code>.
+     *
+     * @return number of bytes read, -1 if <code>offset</code> is at or past the end of the value
+     * @throws IllegalArgumentException if <code>offset</code> is negative
+     */
+    default int read(long offset, @Nonnull ByteBuffer dst) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset: " + offset);
+        } else if (offset >= length()) {
+            return -1;
+        }
+        try (InputStream in = openStream()) {
+            long skipped = 0;
+            while (skipped < offset) {
+                long n = in.skip(offset - skipped);
+                if (n <= 0) {
+                    return -1;
+                }
+                skipped += n;
+            }
+            ReadableByteChannel channel = Channels.newChannel(in);
+            int total = 0;
+            while (dst.hasRemaining()) {
+                int n = channel.read(dst);
+                if (n < 0) {
+                    break;
+                }
+                total += n;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Writes the whole value to the channel
+     *
+     * @return number of bytes written
+     * @throws IOException if the channel accepts no bytes, as a full non-blocking channel
+     */
+    default long transferTo(@Nonnull WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long total = 0;
+        try (ReadableByteChannel in = Channels.newChannel(openStream())) {
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    int n = target.write(buffer);
+                    if (n <= 0) {
+                        throw new IOException("Target channel accepts no more bytes after " + total + " bytes");
+                    }
+                    total += n;
+                }
+                buffer.clear();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return read-only buffer over <code>length</code> bytes starting at <code>offset</code>,
+     * possibly mapped on the underlying file rather than copied
+     */
+    default ByteBuffer slice(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, Math.min(length, length() - offset)));
+        read(offset, buffer);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    @Nonnull
+    @Override
+    default TypeDefinition getTypeDefinition() {
+        return StandardTypes.BINARY;
+    }
+
+    /**
+     * @return the whole value decoded as UTF-8
+     */
+    @Override
+    default String asString() {
+        long length = length();
+        if (length > Integer.MAX_VALUE) {
+            throw new ValueFormatException("Binary value too large for a string: " + length + " bytes");
+        }
+        try {
+            return StandardCharsets.UTF_8.decode(slice(0, (int) length)).toString();
+        } catch (IOException e) {
+            throw new RepositoryException("Binary value can not be read", e);
+        }
+    }
+}
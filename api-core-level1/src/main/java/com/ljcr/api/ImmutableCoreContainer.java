@@ -14,4 +14,17 @@ public interface ImmutableCoreContainer<T extends ImmutableCoreNode<T>> extends
      */
     @Nonnull
     Stream<T> getElements();
+
+    /**
+     * Implementations backed by random access storage split the stream by index ranges,
+     * so that a parallel stream is evenly distributed across the fork-join pool.
+     *
+     * @param parallel whether the returned stream is parallel
+     * @return a steam of items contained in the container
+     */
+    @Nonnull
+    default Stream<T> getElements(boolean parallel) {
+        Stream<T> elements = getElements();
+        return parallel ? elements.parallel() : elements;
+    }
 }
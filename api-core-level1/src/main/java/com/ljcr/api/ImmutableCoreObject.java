@@ -51,4 +51,25 @@ public interface ImmutableCoreObject<T extends ImmutableCoreNode<T>> {
         }
         return getItem(p);
     }
+
+    /**
+     * Returns the property with the given ordinal of this node.
+     * Ordinals are stable for a given type definition, so callers reading the same
+     * field of many nodes should resolve the ordinal once and use this method
+     * instead of getItem(String)
+     * <p>
+     *
+     * @param ordinal ordinal of the field, see {@link PropertyDefinition#getOrdinal()}
+     * @return The node of the field.
+     * @throws PathNotFoundException if the type has no property with this ordinal
+     */
+    @Nullable
+    default T getItem(int ordinal) throws PathNotFoundException {
+        final TypeDefinition type = getTypeDefinition();
+        final PropertyDefinition p = type.getFieldDefByOrdinal(ordinal);
+        if (p == null) {
+            throw new PathNotFoundException("Property #" + ordinal + " not found on " + type);
+        }
+        return getItem(p);
+    }
 }
\ No newline at end of file
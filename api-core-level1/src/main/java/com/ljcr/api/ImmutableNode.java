@@ -54,6 +54,41 @@ public interface ImmutableNode extends ImmutableCoreNode<ImmutableNode> {
     @Override
     Stream<ImmutableNode> getElements();
 
+    /**
+     * Passes the value of this node to the matching callback of <code>visitor</code>.
+     * Nodes storing primitive values override this method to avoid boxing.
+     *
+     * @param visitor value callback
+     * @throws RepositoryException if an error occurs.
+     */
+    default void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        PrimitiveValueVisitor.visitValue(getValue(), visitor);
+    }
+
+    /**
+     * Opens a depth-first cursor over this node and its descendants. The default implementation
+     * walks {@link #getElements()}; adapters override it to walk their native structures without
+     * creating a node per item.
+     *
+     * @return a new cursor positioned before this node
+     */
+    @Nonnull
+    default NodeCursor cursor() {
+        return new ElementsNodeCursor(this);
+    }
+
+    /**
+     * Returns the object holding the content of this node. Adapters create a new node on each access,
+     * they return the native object they wrap, such as a JSON node or a record, so that the nodes of the same
+     * content can be recognized. Decorators changing the content must not return the object of their delegate.
+     *
+     * @return the native object of the node, the node itself by default
+     */
+    @Nonnull
+    default Object getBackingObject() {
+        return this;
+    }
+
     /**
      * Returns a <code>String</code> representation of this value.
      *
@@ -69,7 +69,8 @@ public interface ImmutableNodeObject extends ImmutableNode {
     @Nullable
     @Override
     default ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
-        return null;
+        final PropertyDefinition p = getTypeDefinition().getFieldDefByName(fieldName);
+        return p != null ? getItem(p) : null;
     }
 
     @Nullable
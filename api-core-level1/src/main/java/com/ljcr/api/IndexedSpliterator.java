@@ -0,0 +1,81 @@
+package com.ljcr.api;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator over a random access source, e.g. a json array node, an avro array or a directory listing.
+ * <p>
+ * It is SIZED and SUBSIZED and splits by halving the remaining index range, so parallel streams
+ * distribute elements evenly across the fork-join pool. Elements are produced lazily by the given
+ * function, the source must not change during the traversal.
+ *
+ * @param <T> - element type
+ */
+public final class IndexedSpliterator<T> implements Spliterator<T> {
+    private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+
+    private final IntFunction<? extends T> element;
+    private int index;
+    private final int fence;
+
+    private IndexedSpliterator(IntFunction<? extends T> element, int origin, int fence) {
+        this.element = element;
+        this.index = origin;
+        this.fence = fence;
+    }
+
+    public static <T> IndexedSpliterator<T> of(int size, IntFunction<? extends T> element) {
+        return new IndexedSpliterator<>(Objects.requireNonNull(element), 0, size);
+    }
+
+    /**
+     * @return a stream of <code>element(0) ... element(size - 1)</code>
+     */
+    public static <T> Stream<T> stream(int size, IntFunction<? extends T> element, boolean parallel) {
+        return StreamSupport.stream(of(size, element), parallel);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (index < fence) {
+            action.accept(element.apply(index++));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        int hi = fence;
+        for (int idx = index; idx < hi; idx++) {
+            action.accept(element.apply(idx));
+        }
+        index = hi;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int lo = index;
+        int mid = (lo + fence) >>> 1;
+        if (lo >= mid) {
+            return null;
+        }
+        index = mid;
+        return new IndexedSpliterator<>(element, lo, mid);
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+}
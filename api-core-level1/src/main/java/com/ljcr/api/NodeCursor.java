@@ -0,0 +1,102 @@
+package com.ljcr.api;
+
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Depth-first pull cursor over a subtree of a repository.
+ * <p>
+ * Unlike {@link ImmutableNode#getElements()} the cursor does not create a node per visited item:
+ * one mutable cursor is positioned on each item in turn and exposes its name, type and value.
+ * Each container (object or collection) produces an {@link Event#ENTER} event, then the events of
+ * its elements, then an {@link Event#EXIT} event. Each scalar produces a single {@link Event#NEXT} event.
+ * <pre>
+ * try (NodeCursor cursor = root.cursor()) {
+ *     for (NodeCursor.Event e = cursor.next(); e != null; e = cursor.next()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * Cursors are not thread-safe.
+ */
+@Nonnull
+public interface NodeCursor extends AutoCloseable {
+
+    enum Event {
+        /**
+         * cursor is positioned on a container, its elements follow
+         */
+        ENTER,
+        /**
+         * cursor is positioned on a scalar value
+         */
+        NEXT,
+        /**
+         * all elements of the container were visited, cursor is positioned on the container again
+         */
+        EXIT
+    }
+
+    /**
+     * Moves the cursor to the next item.
+     *
+     * @return the event of the new position, or null if the whole subtree was visited
+     */
+    @Nullable
+    Event next();
+
+    /**
+     * @return the event of the current position, or null before the first and after the last event
+     */
+    @Nullable
+    Event getEvent();
+
+    /**
+     * @return depth of the current item, the root of the cursor being at depth 0
+     */
+    int getDepth();
+
+    /**
+     * @return position of the current item in its container, starting at 0
+     */
+    int getIndex();
+
+    /**
+     * @return field name of the current item, or null for elements of collections and unnamed items
+     */
+    @Nullable
+    String getName();
+
+    @Nonnull
+    TypeDefinition getTypeDefinition();
+
+    boolean isObject();
+
+    boolean isCollection();
+
+    default boolean isScalarValue() {
+        return !isObject() && !isCollection();
+    }
+
+    /**
+     * Passes the value of the current scalar to the matching callback of <code>visitor</code>
+     *
+     * @throws IllegalStateException if the cursor is not positioned on a scalar
+     */
+    void acceptValue(@Nonnull PrimitiveValueVisitor visitor);
+
+    /**
+     * Skips the elements of the current container, the next event is its {@link Event#EXIT}
+     *
+     * @throws IllegalStateException if the cursor is not positioned at {@link Event#ENTER}
+     */
+    void skipChildren();
+
+    /**
+     * Releases the resources held by the cursor, may be called before the end of the traversal
+     */
+    @Override
+    void close();
+}
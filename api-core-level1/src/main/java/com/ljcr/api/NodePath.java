@@ -0,0 +1,186 @@
+package com.ljcr.api;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Normalized absolute path of an item in a repository, e.g. <code>/emailAddresses/1/address</code>.
+ * <p>
+ * Lightweight replacement of <code>java.nio.file.Path</code> for repository navigation:
+ * segments are parsed once and interned, so equal paths share their segment strings.
+ * Use {@link #compile()} to obtain a {@link CompiledPath} caching field resolution.
+ */
+@Nonnull
+public final class NodePath {
+    private static final String[] NO_SEGMENTS = new String[0];
+
+    public static final NodePath ROOT = new NodePath(NO_SEGMENTS);
+
+    private final String[] segments;
+    private int hash;
+    private volatile CompiledPath compiled;
+
+    private NodePath(String[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Parses an absolute path. <code>.</code> and <code>..</code> segments are resolved,
+     * empty segments are ignored.
+     */
+    public static NodePath of(String absPath) {
+        List<String> names = new ArrayList<>();
+        int start = 0;
+        int length = absPath.length();
+        while (start <= length) {
+            int end = absPath.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            addSegment(names, absPath.substring(start, end));
+            start = end + 1;
+        }
+        return of(names);
+    }
+
+    public static NodePath of(Path absPath) {
+        Path path = absPath.normalize();
+        List<String> names = new ArrayList<>(path.getNameCount());
+        for (int idx = 0; idx < path.getNameCount(); idx++) {
+            addSegment(names, path.getName(idx).toString());
+        }
+        return of(names);
+    }
+
+    public static NodePath of(String... segments) {
+        List<String> names = new ArrayList<>(segments.length);
+        for (String segment : segments) {
+            addSegment(names, segment);
+        }
+        return of(names);
+    }
+
+    private static NodePath of(List<String> names) {
+        if (names.isEmpty()) {
+            return ROOT;
+        }
+        String[] segments = new String[names.size()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = names.get(i).intern();
+        }
+        return new NodePath(segments);
+    }
+
+    private static void addSegment(List<String> names, String segment) {
+        if (segment.isEmpty() || ".".equals(segment)) {
+            return;
+        }
+        if ("..".equals(segment)) {
+            if (!names.isEmpty()) {
+                names.remove(names.size() - 1);
+            }
+            return;
+        }
+        names.add(segment);
+    }
+
+    public int getNameCount() {
+        return segments.length;
+    }
+
+    /**
+     * @return interned name of the segment at the given index
+     */
+    public String getName(int idx) {
+        return segments[idx];
+    }
+
+    public boolean isRoot() {
+        return segments.length == 0;
+    }
+
+    @Nullable
+    public NodePath getParent() {
+        if (segments.length == 0) {
+            return null;
+        }
+        return segments.length == 1 ? ROOT : new NodePath(Arrays.copyOf(segments, segments.length - 1));
+    }
+
+    /**
+     * @return path of the child item <code>name</code> of this path
+     */
+    public NodePath resolve(String name) {
+        if (name.isEmpty() || ".".equals(name)) {
+            return this;
+        } else if ("..".equals(name)) {
+            NodePath parent = getParent();
+            return parent == null ? ROOT : parent;
+        } else if (name.indexOf('/') >= 0) {
+            return of(toString() + "/" + name);
+        }
+        String[] child = Arrays.copyOf(segments, segments.length + 1);
+        child[segments.length] = name.intern();
+        return new NodePath(child);
+    }
+
+    public boolean startsWith(NodePath prefix) {
+        if (prefix.segments.length > segments.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.segments.length; i++) {
+            if (!segments[i].equals(prefix.segments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return compiled form of this path. It is created once and shared by all callers
+     */
+    public CompiledPath compile() {
+        CompiledPath result = compiled;
+        if (result == null) {
+            result = new CompiledPath(this);
+            compiled = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof NodePath) {
+            return Arrays.equals(segments, ((NodePath) obj).segments);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && segments.length > 0) {
+            h = Arrays.hashCode(segments);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        if (segments.length == 0) {
+            return "/";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String segment : segments) {
+            sb.append('/').append(segment);
+        }
+        return sb.toString();
+    }
+}
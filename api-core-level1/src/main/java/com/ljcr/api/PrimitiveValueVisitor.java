@@ -0,0 +1,62 @@
+package com.ljcr.api;
+
+import com.ljcr.api.definitions.StandardValueNodes;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+
+/**
+ * Callback receiving the value of a scalar node without boxing it.
+ * <p>
+ * Passed to {@link ImmutableNode#acceptValue(PrimitiveValueVisitor)}. Nodes storing primitives
+ * (see <code>StandardValueNodes.LongScalarNode</code> and friends) call the primitive callbacks
+ * directly; other nodes inspect their boxed value once.
+ */
+public interface PrimitiveValueVisitor {
+
+    void onNull();
+
+    void onBoolean(boolean value);
+
+    void onLong(long value);
+
+    void onDouble(double value);
+
+    void onString(String value);
+
+    default void onDecimal(BigDecimal value) {
+        onString(value.toPlainString());
+    }
+
+    /**
+     * Called for values of other types, e.g. dates, binaries or collections
+     */
+    default void onObject(Object value) {
+        onString(value.toString());
+    }
+
+    /**
+     * Passes a boxed <code>value</code> to the matching callback of <code>visitor</code>
+     */
+    static void visitValue(@Nullable Object value, PrimitiveValueVisitor visitor) {
+        if (value == null) {
+            visitor.onNull();
+        } else if (value instanceof String) {
+            visitor.onString((String) value);
+        } else if (value instanceof Boolean) {
+            visitor.onBoolean((Boolean) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            visitor.onLong(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            visitor.onDouble((Double) value);
+        } else if (value instanceof Float) {
+            visitor.onDouble(StandardValueNodes.widen((Float) value));
+        } else if (value instanceof BigDecimal) {
+            visitor.onDecimal((BigDecimal) value);
+        } else if (value instanceof CharSequence) {
+            visitor.onString(value.toString());
+        } else {
+            visitor.onObject(value);
+        }
+    }
+}
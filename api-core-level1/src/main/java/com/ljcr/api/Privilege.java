@@ -0,0 +1,16 @@
+package com.ljcr.api;
+
+/**
+ * Privileges which can be granted to a session, see {@link AccessControlManager}.
+ */
+public enum Privilege {
+    /**
+     * Read a node, its properties and its elements
+     */
+    READ,
+
+    /**
+     * Run queries over the workspace
+     */
+    QUERY
+}
@@ -8,12 +8,18 @@ import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.api.exceptions.ItemNotFoundException;
 import com.ljcr.api.exceptions.PathNotFoundException;
 import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+import com.ljcr.api.observation.ObservationManager;
+import com.ljcr.api.query.InMemoryQueryExecutor;
+import com.ljcr.api.query.Query;
+import com.ljcr.api.query.QueryExecutor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.stream.Stream;
 
 /**
  * A <code>Repository</code> object represents a view onto a persitent workspace
@@ -97,14 +103,36 @@ public interface Repository {
      */
     @Nullable
     default ImmutableNode getItem(Path absPath) throws PathNotFoundException {
-        int idx = 0;
-        Path path = absPath.normalize();
-        ImmutableNode obj = getRootNode();
-        while (idx < path.getNameCount()) {
-            String fieldName = path.getName(idx++).toString();
-            obj = obj.getItem(fieldName);
-        }
-        return obj;
+        return getItem(NodePath.of(absPath));
+    }
+
+    /**
+     * Returns the node at the specified absolute path in the workspace.
+     *
+     * @param absPath An absolute path.
+     * @return the specified <code>ImmutableNode</code>.
+     * @throws PathNotFoundException if no accessible item is found at the
+     *                               specified path.
+     * @see #getItem(Path)
+     */
+    @Nullable
+    default ImmutableNode getItem(NodePath absPath) throws PathNotFoundException {
+        return getItem(absPath.compile());
+    }
+
+    /**
+     * Returns the node at the specified absolute path in the workspace.
+     * This is the most efficient way to repeatedly query the same path.
+     *
+     * @param absPath An absolute compiled path.
+     * @return the specified <code>ImmutableNode</code>.
+     * @throws PathNotFoundException if no accessible item is found at the
+     *                               specified path.
+     * @see #getItem(Path)
+     */
+    @Nullable
+    default ImmutableNode getItem(CompiledPath absPath) throws PathNotFoundException {
+        return absPath.resolve(getRootNode());
     }
 
     default Collection<TypeDefinition> getKnownTypes() {
@@ -121,4 +149,35 @@ public interface Repository {
                 .findFirst()
                 .orElse(null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the executor of the queries on this workspace. Repositories backed by a storage
+     * with its own query language override it to push conditions down to the storage.
+     *
+     * @return query executor, by default evaluating queries in memory
+     */
+    default QueryExecutor getQueryExecutor() {
+        return InMemoryQueryExecutor.getInstance();
+    }
+
+    /**
+     * Executes a query over the objects of a container type.
+     *
+     * @param query the query
+     * @return lazy stream of the matching objects
+     * @throws UnsupportedRepositoryOperationException if the queried type is not a container type
+     */
+    default Stream<ImmutableNodeObject> query(Query query) throws UnsupportedRepositoryOperationException {
+        return getQueryExecutor().execute(query);
+    }
+
+    /**
+     * Returns the observation manager, registering listeners of the changes of this workspace.
+     *
+     * @return the observation manager of this workspace
+     * @throws UnsupportedRepositoryOperationException if the workspace has no source of change events
+     */
+    default ObservationManager getObservationManager() throws UnsupportedRepositoryOperationException {
+        throw new UnsupportedRepositoryOperationException();
+    }
+}
@@ -28,7 +28,7 @@ import java.util.Collections;
  * authorization settings of its associated <code>Session</code>.
  */
 @Nonnull
-interface Session {
+public interface Session {
 
     /**
      * Returns the <code>Repository</code> attached to this
@@ -137,6 +137,32 @@ interface Session {
         return getWorkspace().getItem(absPath);
     }
 
+    /**
+     * Returns the node at the specified absolute path in the workspace.
+     *
+     * @param absPath An absolute path.
+     * @return the specified <code>ImmutableNode</code>.
+     * @throws PathNotFoundException if no accessible item is found at the
+     *                               specified path.
+     * @see #getItem(Path)
+     */
+    default ImmutableNode getItem(@Nonnull NodePath absPath) throws PathNotFoundException {
+        return getWorkspace().getItem(absPath);
+    }
+
+    /**
+     * Returns the node at the specified absolute compiled path in the workspace.
+     *
+     * @param absPath An absolute compiled path.
+     * @return the specified <code>ImmutableNode</code>.
+     * @throws PathNotFoundException if no accessible item is found at the
+     *                               specified path.
+     * @see #getItem(Path)
+     */
+    default ImmutableNode getItem(@Nonnull CompiledPath absPath) throws PathNotFoundException {
+        return getWorkspace().getItem(absPath);
+    }
+
     /**
      * Returns <code>true</code> if an item exists at <code>absPath</code> and
      * this <code>Session</code> has read access to it; otherwise returns
@@ -151,6 +177,13 @@ interface Session {
         return getItem(absPath) != null;
     }
 
+    /**
+     * @see #itemExists(Path)
+     */
+    default boolean itemExists(@Nonnull NodePath absPath) {
+        return getItem(absPath) != null;
+    }
+
     /**
      * Returns <code>true</code> if a node exists at <code>absPath</code> and
      * this <code>Session</code> has read access to it; otherwise returns
@@ -167,6 +200,37 @@ interface Session {
         return item != null && item.isObject();
     }
 
+    /**
+     * @see #nodeExists(Path)
+     */
+    default boolean nodeExists(@Nonnull NodePath absPath) {
+        ImmutableNode item = getItem(absPath);
+        return item != null && item.isObject();
+    }
+
+    /**
+     * Returns the node of the given container type with the given reference.
+     *
+     * @param typeName identifier of a container type
+     * @param id       reference of the node
+     * @return the node, <code>null</code> if there is none
+     * @see Repository#getNodeByReference(String, Object)
+     */
+    @Nullable
+    default ImmutableNodeObject getNodeByReference(@Nonnull String typeName, @Nonnull Object id) {
+        return getWorkspace().getNodeByReference(typeName, id);
+    }
+
+    /**
+     * Discards the state cached by this <code>Session</code>, so that subsequent
+     * reads reflect the current content of the workspace. Level 1 sessions have
+     * no pending changes, <code>keepChanges</code> is ignored.
+     *
+     * @param keepChanges a boolean
+     */
+    default void refresh(boolean keepChanges) {
+    }
+
     /**
      * Returns all prefixes currently mapped to URIs in this
      * <code>Session</code>.
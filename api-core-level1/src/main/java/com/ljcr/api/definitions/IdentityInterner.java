@@ -0,0 +1,119 @@
+package com.ljcr.api.definitions;
+
+import javax.annotation.Nullable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares values derived from one or two objects, compared by identity.
+ * <p>
+ * Keys and values are weakly referenced, so that interning does not retain them: a value is shared
+ * while it is in use, and its entry is dropped once one of its keys is collected. Values may hold
+ * their keys. It is safe to share between threads.
+ */
+public final class IdentityInterner<V> {
+    private final ConcurrentMap<Key, WeakReference<V>> values = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    public V intern(Object key, Supplier<? extends V> factory) {
+        return intern(key, null, factory);
+    }
+
+    /**
+     * @param second optional part of the key, null being a distinct key
+     * @return value shared for the pair of objects, created by the factory when none is in use
+     */
+    public V intern(Object first, @Nullable Object second, Supplier<? extends V> factory) {
+        purge();
+        WeakReference<V> ref = values.get(new Key(first, second, null));
+        V value = ref != null ? ref.get() : null;
+        if (value != null) {
+            return value;
+        }
+
+        V created = factory.get();
+        WeakReference<V> createdRef = new WeakReference<>(created);
+        Key key = new Key(first, second, collected);
+        while (true) {
+            WeakReference<V> previous = values.putIfAbsent(key, createdRef);
+            if (previous == null) {
+                return created;
+            }
+            V existing = previous.get();
+            if (existing != null) {
+                return existing;
+            }
+            if (values.replace(key, previous, createdRef)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * @return number of entries, including those whose value was collected but not yet dropped
+     */
+    public int size() {
+        purge();
+        return values.size();
+    }
+
+    private void purge() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            values.remove(ref instanceof SecondPart ? ((SecondPart) ref).key : ref);
+        }
+    }
+
+    /**
+     * Weak reference to the first object, equal to the keys of the same objects while they are not collected
+     */
+    private static final class Key extends WeakReference<Object> {
+        @Nullable
+        private final SecondPart second;
+        private final int hash;
+
+        Key(Object first, @Nullable Object second, @Nullable ReferenceQueue<Object> queue) {
+            super(first, queue);
+            this.second = second == null ? null : new SecondPart(second, this, queue);
+            this.hash = 31 * System.identityHashCode(first) + System.identityHashCode(second);
+        }
+
+        @Nullable
+        Object getSecond() {
+            return second == null ? null : second.get();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            Object first = get();
+            return first != null && first == other.get()
+                    && (second == null) == (other.second == null)
+                    && getSecond() == other.getSecond();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class SecondPart extends WeakReference<Object> {
+        private final Key key;
+
+        SecondPart(Object referent, Key key, @Nullable ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
+    }
+}
@@ -15,6 +15,19 @@ public interface PropertyDefinition {
 
     TypeDefinition getType();
 
+    /**
+     * Returns the position of this property within the type declaring it.
+     * Ordinals are assigned once when the type is built and are stable for the
+     * lifetime of the type, so they can be used with
+     * {@link TypeDefinition#getFieldDefByOrdinal(int)} and
+     * <code>ImmutableCoreObject.getItem(int)</code> instead of name lookups.
+     *
+     * @return ordinal of the property, or <code>-1</code> if it was not assigned
+     */
+    default int getOrdinal() {
+        return -1;
+    }
+
     /**
      * Reports whether the item is mandatory. A mandatory item is one that, if
      * its parent node exists, must also exist.
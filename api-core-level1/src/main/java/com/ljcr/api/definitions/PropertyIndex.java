@@ -0,0 +1,87 @@
+package com.ljcr.api.definitions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the property definitions of a type, by name and by ordinal.
+ * <p>
+ * Built once when the type is built, so that {@link TypeDefinition#getFieldDefByName(String)}
+ * is a hash lookup and {@link TypeDefinition#getFieldDefByOrdinal(int)} is an array access.
+ * Properties must be given in ordinal order, i.e. the ordinal of each property
+ * must be equal to its position.
+ */
+@Nonnull
+public final class PropertyIndex {
+
+    private static final PropertyIndex EMPTY = new PropertyIndex(new PropertyDefinition[0]);
+
+    private final PropertyDefinition[] byOrdinal;
+    private final Map<String, PropertyDefinition> byName;
+    private final List<PropertyDefinition> values;
+
+    private PropertyIndex(PropertyDefinition[] byOrdinal) {
+        this.byOrdinal = byOrdinal;
+        this.byName = new HashMap<>(byOrdinal.length * 4 / 3 + 1);
+        for (PropertyDefinition p : byOrdinal) {
+            if (byName.put(p.getIdentifier(), p) != null) {
+                throw new IllegalArgumentException("duplicate property: " + p.getIdentifier());
+            }
+        }
+        this.values = Collections.unmodifiableList(Arrays.asList(byOrdinal));
+    }
+
+    public static PropertyIndex empty() {
+        return EMPTY;
+    }
+
+    public static PropertyIndex of(Collection<? extends PropertyDefinition> properties) {
+        if (properties.isEmpty()) {
+            return EMPTY;
+        }
+
+        PropertyDefinition[] byOrdinal = properties.toArray(new PropertyDefinition[0]);
+        for (int i = 0; i < byOrdinal.length; i++) {
+            if (byOrdinal[i].getOrdinal() != i) {
+                throw new IllegalArgumentException(String.format("property %s has ordinal %d, expected %d",
+                        byOrdinal[i].getIdentifier(), byOrdinal[i].getOrdinal(), i));
+            }
+        }
+        return new PropertyIndex(byOrdinal);
+    }
+
+    @Nullable
+    public PropertyDefinition byName(String name) {
+        return byName.get(name);
+    }
+
+    @Nullable
+    public PropertyDefinition byOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= byOrdinal.length) {
+            return null;
+        }
+        return byOrdinal[ordinal];
+    }
+
+    /**
+     * @return unmodifiable list of properties in ordinal order
+     */
+    public List<PropertyDefinition> values() {
+        return values;
+    }
+
+    public int size() {
+        return byOrdinal.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PropertyIndex%s", values);
+    }
+}
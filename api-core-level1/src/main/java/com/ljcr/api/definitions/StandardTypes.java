@@ -7,6 +7,7 @@ import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * The property types supported by the JCR standard.
@@ -19,6 +20,19 @@ import java.util.Objects;
  */
 public final class StandardTypes {
 
+    // interned parameterized types, keyed by identity of their value type and not retaining it,
+    // as value types may be those of a repository
+    private static final IdentityInterner<ReferenceType> REFERENCE_TYPES = new IdentityInterner<>();
+    private static final IdentityInterner<WeakReferenceType> WEAK_REFERENCE_TYPES = new IdentityInterner<>();
+    private static final IdentityInterner<ArrayType> ARRAY_TYPES = new IdentityInterner<>();
+    private static final IdentityInterner<MapType> MAP_TYPES = new IdentityInterner<>();
+
+    private static <T extends ValueType> T intern(IdentityInterner<T> types, TypeDefinition valueType,
+                                                  Function<TypeDefinition, T> factory) {
+        Objects.requireNonNull(valueType);
+        return types.intern(valueType, () -> factory.apply(valueType));
+    }
+
     /*
      * The supported property types.
      */
@@ -208,8 +222,11 @@ public final class StandardTypes {
         }
     }
 
+    /**
+     * @return interned reference type, repeated calls with the same value type return the same instance
+     */
     public static ReferenceType referenceOf(TypeDefinition valueType) {
-        return new ReferenceType(valueType);
+        return intern(REFERENCE_TYPES, valueType, ReferenceType::new);
     }
 
     /**
@@ -233,8 +250,11 @@ public final class StandardTypes {
         }
     }
 
+    /**
+     * @return interned weak reference type, repeated calls with the same value type return the same instance
+     */
     public static WeakReferenceType weakReferenceOf(TypeDefinition valueType) {
-        return new WeakReferenceType(valueType);
+        return intern(WEAK_REFERENCE_TYPES, valueType, WeakReferenceType::new);
     }
 
     /**
@@ -329,9 +349,14 @@ public final class StandardTypes {
         }
     }
 
+    /**
+     * @return interned array type, repeated calls with the same value type return the same instance
+     */
     public static ArrayType arrayOf(TypeDefinition valueType) {
-        String name = ANYTYPE.equals(valueType) ? "Array" : "Array<" + valueType.getIdentifier() + ">";
-        return new ArrayType(name, valueType);
+        return intern(ARRAY_TYPES, valueType, vt -> {
+            String name = ANYTYPE.equals(vt) ? "Array" : "Array<" + vt.getIdentifier() + ">";
+            return new ArrayType(name, vt);
+        });
     }
 
     public static final ArrayType ARRAY = arrayOf(ANYTYPE);
@@ -347,9 +372,14 @@ public final class StandardTypes {
         }
     }
 
+    /**
+     * @return interned map type, repeated calls with the same value type return the same instance
+     */
     public static MapType mapOf(TypeDefinition valueType) {
-        String name = ANYTYPE.equals(valueType) ? "Map" : "Map<" + valueType.getIdentifier() + ">";
-        return new MapType(name, valueType);
+        return intern(MAP_TYPES, valueType, vt -> {
+            String name = ANYTYPE.equals(vt) ? "Map" : "Map<" + vt.getIdentifier() + ">";
+            return new MapType(name, vt);
+        });
     }
 
     public static final MapType MAP = mapOf(ANYTYPE);
@@ -398,6 +428,8 @@ public final class StandardTypes {
             NULL
     );
 
+    private static final TypeRegistry PRIMITIVE_REGISTRY = TypeRegistry.of(STANDARD_TYPES);
+
     public static List<StandardType> getSpecialTypes() {
         return SPECIAL_TYPES;
     }
@@ -416,11 +448,11 @@ public final class StandardTypes {
      *                                  property type.
      */
     public static String nameFromValue(int type) {
-        return STANDARD_TYPES.stream()
-                .filter(t -> ((StandardType) t).getNumericCode() == type)
-                .findFirst()
-                .map(t -> t.getIdentifier())
-                .orElseThrow(() -> new IllegalArgumentException("unknown type: " + type));
+        StandardType t = PRIMITIVE_REGISTRY.byCode(type);
+        if (t == null) {
+            throw new IllegalArgumentException("unknown type: " + type);
+        }
+        return t.getIdentifier();
     }
 
     /**
@@ -433,11 +465,11 @@ public final class StandardTypes {
      */
     public static int valueFromName(String name) {
         Objects.requireNonNull(name);
-        return STANDARD_TYPES.stream()
-                .filter(t -> t.getIdentifier().equals(name))
-                .findFirst()
-                .map(t -> ((StandardType) t).getNumericCode())
-                .orElseThrow(() -> new IllegalArgumentException("unknown type: " + name));
+        StandardType t = PRIMITIVE_REGISTRY.byName(name);
+        if (t == null) {
+            throw new IllegalArgumentException("unknown type: " + name);
+        }
+        return t.getNumericCode();
     }
 
     /**
@@ -468,6 +500,13 @@ public final class StandardTypes {
      * Default non-mandatory property of given type
      */
     public static PropertyDefinition propertyOf(String fieldName, TypeDefinition type) {
+        return propertyOf(fieldName, type, -1);
+    }
+
+    /**
+     * Default non-mandatory property of given type at given position of its declaring type
+     */
+    public static PropertyDefinition propertyOf(String fieldName, TypeDefinition type, int ordinal) {
         return new PropertyDefinition() {
             @Override
             public String getIdentifier() {
@@ -479,6 +518,11 @@ public final class StandardTypes {
                 return type;
             }
 
+            @Override
+            public int getOrdinal() {
+                return ordinal;
+            }
+
             @Override
             public String toString() {
                 return String.format("%s[t=%s?]", fieldName, type);
@@ -490,6 +534,13 @@ public final class StandardTypes {
      * Default mandatory property of given type
      */
     public static PropertyDefinition mandatoryPropertyOf(String fieldName, TypeDefinition type) {
+        return mandatoryPropertyOf(fieldName, type, -1);
+    }
+
+    /**
+     * Default mandatory property of given type at given position of its declaring type
+     */
+    public static PropertyDefinition mandatoryPropertyOf(String fieldName, TypeDefinition type, int ordinal) {
         return new PropertyDefinition() {
             @Override
             public String getIdentifier() {
@@ -506,10 +557,15 @@ public final class StandardTypes {
                 return true;
             }
 
+            @Override
+            public int getOrdinal() {
+                return ordinal;
+            }
+
             @Override
             public String toString() {
                 return String.format("%s[t=%s!]", fieldName, type);
             }
         };
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,19 @@
 package com.ljcr.api.definitions;
 
+import com.ljcr.api.ImmutableBinary;
 import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.exceptions.ValueFormatException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 public final class StandardValueNodes {
@@ -49,6 +59,419 @@ public final class StandardValueNodes {
         }
     }
 
+    /**
+     * Scalar node storing a primitive <code>long</code>. Accessors convert without parsing.
+     * The name is optional, unnamed nodes behave as generic scalars.
+     */
+    public static final class LongScalarNode implements ImmutableNodeScalar {
+        private final String name;
+        private final long value;
+
+        public LongScalarNode(long value) {
+            this(null, value);
+        }
+
+        public LongScalarNode(@Nullable String name, long value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name != null ? name : ImmutableNodeScalar.super.getName();
+        }
+
+        @Nonnull
+        @Override
+        public TypeDefinition getTypeDefinition() {
+            return StandardTypes.LONG;
+        }
+
+        @Nullable
+        @Override
+        public Long getValue() {
+            return value;
+        }
+
+        @Override
+        public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+            visitor.onLong(value);
+        }
+
+        @Nullable
+        @Override
+        public String asString() {
+            return Long.toString(value);
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value != 0;
+        }
+
+        @Override
+        public long asLong() {
+            return value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Nullable
+        @Override
+        public BigDecimal asDecimal() {
+            return BigDecimal.valueOf(value);
+        }
+
+        @Nullable
+        @Override
+        public LocalDate asDate() {
+            throw new ValueFormatException("Long value can not be converted to date: " + value);
+        }
+
+        @Nullable
+        @Override
+        public LocalDateTime asDateTime() {
+            throw new ValueFormatException("Long value can not be converted to date time: " + value);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Long[%d]", value);
+        }
+    }
+
+    /**
+     * Scalar node storing a primitive <code>double</code>. Accessors convert without parsing.
+     */
+    public static final class DoubleScalarNode implements ImmutableNodeScalar {
+        private final String name;
+        private final double value;
+
+        public DoubleScalarNode(double value) {
+            this(null, value);
+        }
+
+        public DoubleScalarNode(@Nullable String name, double value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name != null ? name : ImmutableNodeScalar.super.getName();
+        }
+
+        @Nonnull
+        @Override
+        public TypeDefinition getTypeDefinition() {
+            return StandardTypes.DOUBLE;
+        }
+
+        @Nullable
+        @Override
+        public Double getValue() {
+            return value;
+        }
+
+        @Override
+        public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+            visitor.onDouble(value);
+        }
+
+        @Nullable
+        @Override
+        public String asString() {
+            return Double.toString(value);
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value != 0.0;
+        }
+
+        @Override
+        public long asLong() {
+            return (long) value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Nullable
+        @Override
+        public BigDecimal asDecimal() {
+            return BigDecimal.valueOf(value);
+        }
+
+        @Nullable
+        @Override
+        public LocalDate asDate() {
+            throw new ValueFormatException("Double value can not be converted to date: " + value);
+        }
+
+        @Nullable
+        @Override
+        public LocalDateTime asDateTime() {
+            throw new ValueFormatException("Double value can not be converted to date time: " + value);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Double[%s]", value);
+        }
+    }
+
+    /**
+     * Scalar node storing a primitive <code>boolean</code>. Use {@link #ofBoolean(boolean)} to get a shared unnamed instance.
+     */
+    public static final class BooleanScalarNode implements ImmutableNodeScalar {
+        private static final BooleanScalarNode TRUE = new BooleanScalarNode(null, true);
+        private static final BooleanScalarNode FALSE = new BooleanScalarNode(null, false);
+
+        private final String name;
+        private final boolean value;
+
+        public BooleanScalarNode(@Nullable String name, boolean value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name != null ? name : ImmutableNodeScalar.super.getName();
+        }
+
+        @Nonnull
+        @Override
+        public TypeDefinition getTypeDefinition() {
+            return StandardTypes.BOOLEAN;
+        }
+
+        @Nullable
+        @Override
+        public Boolean getValue() {
+            return value;
+        }
+
+        @Override
+        public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+            visitor.onBoolean(value);
+        }
+
+        @Nullable
+        @Override
+        public String asString() {
+            return Boolean.toString(value);
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value;
+        }
+
+        @Override
+        public long asLong() {
+            return value ? 1L : 0L;
+        }
+
+        @Override
+        public double asDouble() {
+            return value ? 1.0 : 0.0;
+        }
+
+        @Nullable
+        @Override
+        public BigDecimal asDecimal() {
+            return value ? BigDecimal.ONE : BigDecimal.ZERO;
+        }
+
+        @Nullable
+        @Override
+        public LocalDate asDate() {
+            throw new ValueFormatException("Boolean value can not be converted to date");
+        }
+
+        @Nullable
+        @Override
+        public LocalDateTime asDateTime() {
+            throw new ValueFormatException("Boolean value can not be converted to date time");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Boolean[%s]", value);
+        }
+    }
+
+    /**
+     * Binary value held in a buffer, e.g. an avro <code>bytes</code> field. Reads share the buffer, never copy it.
+     */
+    public static final class BufferBinaryNode implements ImmutableBinary {
+        private final String name;
+        private final ByteBuffer buffer;
+
+        public BufferBinaryNode(@Nullable String name, ByteBuffer buffer) {
+            this.name = name;
+            this.buffer = buffer.asReadOnlyBuffer().slice();
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name != null ? name : ImmutableBinary.super.getName();
+        }
+
+        @Override
+        public long length() {
+            return buffer.remaining();
+        }
+
+        /**
+         * @return read-only view of the value
+         */
+        @Nonnull
+        @Override
+        public ByteBuffer getValue() {
+            return buffer.duplicate();
+        }
+
+        @Override
+        public InputStream openStream() {
+            ByteBuffer source = buffer.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return source.hasRemaining() ? source.get() & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (!source.hasRemaining()) {
+                        return len == 0 ? 0 : -1;
+                    }
+                    int n = Math.min(len, source.remaining());
+                    source.get(b, off, n);
+                    return n;
+                }
+
+                @Override
+                public long skip(long n) {
+                    int skipped = (int) Math.max(0, Math.min(n, source.remaining()));
+                    source.position(source.position() + skipped);
+                    return skipped;
+                }
+
+                @Override
+                public int available() {
+                    return source.remaining();
+                }
+            };
+        }
+
+        @Override
+        public int read(long offset, @Nonnull ByteBuffer dst) {
+            if (offset < 0) {
+                throw new IllegalArgumentException("Negative offset: " + offset);
+            } else if (offset >= buffer.remaining()) {
+                return -1;
+            }
+            ByteBuffer source = buffer.duplicate();
+            source.position((int) offset);
+            source.limit((int) Math.min(buffer.remaining(), offset + dst.remaining()));
+            int n = source.remaining();
+            dst.put(source);
+            return n;
+        }
+
+        @Override
+        public long transferTo(@Nonnull WritableByteChannel target) throws IOException {
+            ByteBuffer source = buffer.duplicate();
+            long total = 0;
+            while (source.hasRemaining()) {
+                int n = target.write(source);
+                if (n <= 0) {
+                    throw new IOException("Target channel accepts no more bytes after " + total + " bytes");
+                }
+                total += n;
+            }
+            return total;
+        }
+
+        @Override
+        public ByteBuffer slice(long offset, int length) {
+            ByteBuffer source = buffer.duplicate();
+            source.position((int) Math.min(offset, buffer.remaining()));
+            source.limit((int) Math.min(buffer.remaining(), source.position() + (long) length));
+            return source.slice();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Binary[%d bytes]", buffer.remaining());
+        }
+    }
+
+    private static final LongScalarNode[] SMALL_LONGS = new LongScalarNode[256];
+
+    static {
+        for (int i = 0; i < SMALL_LONGS.length; i++) {
+            SMALL_LONGS[i] = new LongScalarNode(i - 128);
+        }
+    }
+
+    /**
+     * @return node of a primitive long, values from -128 to 127 are shared
+     */
+    public static LongScalarNode ofLong(long value) {
+        if (value >= -128 && value <= 127) {
+            return SMALL_LONGS[(int) value + 128];
+        }
+        return new LongScalarNode(value);
+    }
+
+    public static LongScalarNode ofLong(@Nullable String name, long value) {
+        return name == null ? ofLong(value) : new LongScalarNode(name, value);
+    }
+
+    public static DoubleScalarNode ofDouble(double value) {
+        return new DoubleScalarNode(value);
+    }
+
+    public static DoubleScalarNode ofDouble(@Nullable String name, double value) {
+        return new DoubleScalarNode(name, value);
+    }
+
+    /**
+     * @return node of the float widened to a double, see {@link #widen(float)}
+     */
+    public static DoubleScalarNode ofFloat(@Nullable String name, float value) {
+        return new DoubleScalarNode(name, widen(value));
+    }
+
+    /**
+     * @return double of the same decimal representation as the float, e.g. 1.1 for 1.1f
+     * where a plain cast gives 1.100000023841858
+     */
+    public static double widen(float value) {
+        return Double.parseDouble(Float.toString(value));
+    }
+
+    public static BooleanScalarNode ofBoolean(boolean value) {
+        return value ? BooleanScalarNode.TRUE : BooleanScalarNode.FALSE;
+    }
+
+    public static BooleanScalarNode ofBoolean(@Nullable String name, boolean value) {
+        return name == null ? ofBoolean(value) : new BooleanScalarNode(name, value);
+    }
+
     public static StringNodeScalarNode of(String value) {
         return new StringNodeScalarNode(value);
     }
@@ -60,4 +483,11 @@ public final class StandardValueNodes {
     public static BooleanNodeScalarNode of(Boolean value) {
         return new BooleanNodeScalarNode(value);
     }
+
+    /**
+     * @return binary node over the remaining bytes of the buffer, the buffer is shared
+     */
+    public static BufferBinaryNode ofBinary(@Nullable String name, ByteBuffer value) {
+        return new BufferBinaryNode(name, value);
+    }
 }
@@ -57,10 +57,30 @@ public interface TypeDefinition {
     }
 
     default PropertyDefinition getFieldDefByName(String name) {
-        return getPropertyDefinitions().stream()
-                .filter(f -> name.equals(f.getIdentifier()))
-                .findFirst()
-                .orElse(null);
+        for (PropertyDefinition f : getPropertyDefinitions()) {
+            if (name.equals(f.getIdentifier())) {
+                return f;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the property definition with the given ordinal.
+     * Implementations backed by a {@link PropertyIndex} answer this with a
+     * plain array access.
+     *
+     * @param ordinal ordinal of the property, see {@link PropertyDefinition#getOrdinal()}
+     * @return property definition or <code>null</code> if there is no such property
+     */
+    @Nullable
+    default PropertyDefinition getFieldDefByOrdinal(int ordinal) {
+        for (PropertyDefinition f : getPropertyDefinitions()) {
+            if (f.getOrdinal() == ordinal) {
+                return f;
+            }
+        }
+        return null;
     }
 
     /**
@@ -80,10 +100,12 @@ public interface TypeDefinition {
     }
 
     default PropertyDefinition getDeclaredFieldDefByName(String name) {
-        return getPropertyDefinitions().stream()
-                .filter(f -> name.equals(f.getIdentifier()))
-                .findFirst()
-                .orElse(null);
+        for (PropertyDefinition f : getPropertyDefinitions()) {
+            if (name.equals(f.getIdentifier())) {
+                return f;
+            }
+        }
+        return null;
     }
 
     /**
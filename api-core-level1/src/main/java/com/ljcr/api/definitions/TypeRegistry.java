@@ -0,0 +1,94 @@
+package com.ljcr.api.definitions;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable registry of {@link StandardType}s indexed by numeric code and by name.
+ * <p>
+ * Lookup by code is an array access. If several types share a numeric code
+ * (e.g. <code>TypeDef</code> and <code>FieldDef</code>) the first registered one is returned by code.
+ */
+public final class TypeRegistry {
+
+    private static final class StandardRegistryHolder {
+        private static final TypeRegistry STANDARD = initStandard();
+
+        private static TypeRegistry initStandard() {
+            List<StandardType> types = new ArrayList<>(StandardTypes.getPrimitiveTypes());
+            types.add(StandardTypes.DOUBLE);
+            types.addAll(StandardTypes.getSpecialTypes());
+            types.add(StandardTypes.REPOSITORY);
+            return of(types);
+        }
+    }
+
+    private final StandardType[] byCode;
+    private final Map<String, StandardType> byName;
+    private final List<StandardType> types;
+
+    private TypeRegistry(StandardType[] byCode, Map<String, StandardType> byName, List<StandardType> types) {
+        this.byCode = byCode;
+        this.byName = byName;
+        this.types = types;
+    }
+
+    /**
+     * @return registry of all standard and special types of {@link StandardTypes}
+     */
+    public static TypeRegistry standard() {
+        return StandardRegistryHolder.STANDARD;
+    }
+
+    public static TypeRegistry of(Collection<? extends StandardType> types) {
+        int maxCode = -1;
+        for (StandardType t : types) {
+            if (t.getNumericCode() < 0) {
+                throw new IllegalArgumentException("negative type code: " + t);
+            }
+            maxCode = Math.max(maxCode, t.getNumericCode());
+        }
+
+        StandardType[] byCode = new StandardType[maxCode + 1];
+        Map<String, StandardType> byName = new HashMap<>(types.size() * 4 / 3 + 1);
+        for (StandardType t : types) {
+            if (byCode[t.getNumericCode()] == null) {
+                byCode[t.getNumericCode()] = t;
+            }
+            byName.putIfAbsent(t.getIdentifier(), t);
+        }
+        return new TypeRegistry(byCode, byName, Collections.unmodifiableList(new ArrayList<>(types)));
+    }
+
+    @Nullable
+    public StandardType byCode(int code) {
+        return code >= 0 && code < byCode.length ? byCode[code] : null;
+    }
+
+    @Nullable
+    public StandardType byName(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * @return the greatest numeric code of registered types
+     */
+    public int getMaxCode() {
+        return byCode.length - 1;
+    }
+
+    public List<StandardType> getTypes() {
+        return types;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TypeRegistry%s", Arrays.asList(byCode));
+    }
+}
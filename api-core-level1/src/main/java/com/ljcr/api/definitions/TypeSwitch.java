@@ -0,0 +1,125 @@
+package com.ljcr.api.definitions;
+
+import java.util.Objects;
+
+/**
+ * {@link StandardTypeVisitor} compiled into a table of handlers indexed by numeric type code.
+ * <p>
+ * <code>TypeSwitch.of(visitor).apply(type, context)</code> gives the same result as
+ * <code>type.accept(visitor, context)</code>, but for standard types it costs one array load
+ * and one call instead of the double dispatch. Compile the visitor once and reuse the switch.
+ * Types which are not standard (or custom types reusing a standard code) are dispatched
+ * through {@link TypeDefinition#accept(StandardTypeVisitor, Object)}.
+ *
+ * @param <T> - visit result type
+ */
+public final class TypeSwitch<T> {
+
+    @FunctionalInterface
+    public interface Case<T> {
+        T apply(TypeDefinition type, Object context);
+    }
+
+    // expected class of each standard code, subclasses of TypeDefinitionType included
+    private static final Class<?>[] CLASSES = {
+            StandardTypes.AnyType.class,
+            StandardTypes.StringType.class,
+            StandardTypes.BinaryType.class,
+            StandardTypes.LongType.class,
+            StandardTypes.DoubleType.class,
+            StandardTypes.DateTimeType.class,
+            StandardTypes.BooleanType.class,
+            StandardTypes.IdentifierType.class,
+            StandardTypes.PathType.class,
+            StandardTypes.ReferenceType.class,
+            StandardTypes.WeakReferenceType.class,
+            StandardTypes.UriType.class,
+            StandardTypes.DecimalType.class,
+            null,
+            null,
+            null,
+            StandardTypes.TypeDefinitionType.class,
+            StandardTypes.DateType.class,
+            StandardTypes.ArrayType.class,
+            StandardTypes.MapType.class,
+            StandardTypes.NullType.class
+    };
+
+    private final StandardTypeVisitor<T> visitor;
+    private final Case<T>[] cases;
+
+    private TypeSwitch(StandardTypeVisitor<T> visitor, Case<T>[] cases) {
+        this.visitor = visitor;
+        this.cases = cases;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> TypeSwitch<T> of(StandardTypeVisitor<T> visitor) {
+        Objects.requireNonNull(visitor);
+        Case<T>[] cases = (Case<T>[]) new Case[CLASSES.length];
+        for (int code = 0; code < cases.length; code++) {
+            cases[code] = caseOf(code, visitor);
+        }
+        return new TypeSwitch<>(visitor, cases);
+    }
+
+    private static <T> Case<T> caseOf(int code, StandardTypeVisitor<T> v) {
+        switch (code) {
+            case 0:
+            case 20:
+                // any and null types are never visited
+                return (t, c) -> null;
+            case 1:
+                return (t, c) -> v.visit((StandardTypes.StringType) t, c);
+            case 2:
+                return (t, c) -> v.visit((StandardTypes.BinaryType) t, c);
+            case 3:
+                return (t, c) -> v.visit((StandardTypes.LongType) t, c);
+            case 4:
+                return (t, c) -> v.visit((StandardTypes.DoubleType) t, c);
+            case 5:
+                return (t, c) -> v.visit((StandardTypes.DateTimeType) t, c);
+            case 6:
+                return (t, c) -> v.visit((StandardTypes.BooleanType) t, c);
+            case 7:
+                return (t, c) -> v.visit((StandardTypes.IdentifierType) t, c);
+            case 8:
+                return (t, c) -> v.visit((StandardTypes.PathType) t, c);
+            case 9:
+                return (t, c) -> v.visit((StandardTypes.ReferenceType) t, c);
+            case 10:
+                return (t, c) -> v.visit((StandardTypes.WeakReferenceType) t, c);
+            case 11:
+                return (t, c) -> v.visit((StandardTypes.UriType) t, c);
+            case 12:
+                return (t, c) -> v.visit((StandardTypes.DecimalType) t, c);
+            case 16:
+                return (t, c) -> v.visit((StandardTypes.TypeDefinitionType) t, c);
+            case 17:
+                return (t, c) -> v.visit((StandardTypes.DateType) t, c);
+            case 18:
+                return (t, c) -> v.visit((StandardTypes.ArrayType) t, c);
+            case 19:
+                return (t, c) -> v.visit((StandardTypes.MapType) t, c);
+            default:
+                return null;
+        }
+    }
+
+    public StandardTypeVisitor<T> getVisitor() {
+        return visitor;
+    }
+
+    public T apply(TypeDefinition type, Object context) {
+        if (type instanceof StandardType) {
+            int code = ((StandardType) type).getNumericCode();
+            if (code >= 0 && code < cases.length) {
+                Class<?> expected = CLASSES[code];
+                if (expected != null && expected.isInstance(type)) {
+                    return cases[code].apply(type, context);
+                }
+            }
+        }
+        return type.accept(visitor, context);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ljcr.api.observation;
+
+import com.ljcr.api.NodePath;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Change of a node of the workspace, delivered to the {@link EventListener}s in batches.
+ * <p>
+ * The type name is the identifier of the type definition of the node, when the event source knows it.
+ */
+@Nonnull
+public final class Event {
+
+    public enum Type {
+        NODE_ADDED,
+        NODE_CHANGED,
+        NODE_REMOVED,
+        /**
+         * Events were dropped because the queue was full, anything under the path may have changed
+         */
+        EVENTS_LOST
+    }
+
+    private final Type type;
+    private final NodePath path;
+    @Nullable
+    private final String typeName;
+
+    private Event(Type type, NodePath path, @Nullable String typeName) {
+        this.type = Objects.requireNonNull(type);
+        this.path = Objects.requireNonNull(path);
+        this.typeName = typeName;
+    }
+
+    public static Event added(NodePath path, @Nullable String typeName) {
+        return new Event(Type.NODE_ADDED, path, typeName);
+    }
+
+    public static Event changed(NodePath path, @Nullable String typeName) {
+        return new Event(Type.NODE_CHANGED, path, typeName);
+    }
+
+    public static Event removed(NodePath path, @Nullable String typeName) {
+        return new Event(Type.NODE_REMOVED, path, typeName);
+    }
+
+    public static Event lost(NodePath path) {
+        return new Event(Type.EVENTS_LOST, path, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public NodePath getPath() {
+        return path;
+    }
+
+    @Nullable
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * Merges a later event on the same path into this one: an added node which is changed is still added,
+     * an added node which is removed again is dropped, a removed node which is added again is changed.
+     *
+     * @return the merged event, <code>null</code> if both events cancel each other
+     */
+    @Nullable
+    Event coalesce(Event next) {
+        switch (type) {
+            case NODE_ADDED:
+                if (next.type == Type.NODE_REMOVED) {
+                    return null;
+                }
+                return next.type == Type.NODE_CHANGED ? this : next;
+            case NODE_REMOVED:
+                return next.type == Type.NODE_REMOVED ? this : changed(path, next.typeName);
+            default:
+                return next.type == Type.NODE_CHANGED ? this : next;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Event)) {
+            return false;
+        }
+        Event other = (Event) o;
+        return type == other.type && path.equals(other.path) && Objects.equals(typeName, other.typeName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, path, typeName);
+    }
+
+    @Override
+    public String toString() {
+        return typeName == null ? type + " " + path : type + " " + path + " (" + typeName + ")";
+    }
+}
@@ -0,0 +1,190 @@
+package com.ljcr.api.observation;
+
+import com.ljcr.api.NodePath;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Observation manager of a workspace, delivering the events of an {@link EventSource} to the listeners.
+ * <p>
+ * Sources post events to a bounded lock-free queue and never block. A daemon thread wakes up once per batch window,
+ * drains the queue, coalesces the events per path and hands each listener the events accepted by its filter.
+ * When the queue is full, events are dropped and an {@link Event.Type#EVENTS_LOST} event on the root is delivered
+ * with the next batch.
+ * <p>
+ * The source is started with the first listener and stopped with the last one.
+ */
+public class EventDispatcher implements ObservationManager, Closeable {
+    public static final int DEFAULT_CAPACITY = 16384;
+    public static final long DEFAULT_BATCH_MILLIS = 50;
+
+    private static final AtomicInteger threads = new AtomicInteger();
+
+    private final EventSource source;
+    private final EventQueue queue;
+    private final long batchNanos;
+    private final List<Registration> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean overflow = new AtomicBoolean();
+    private final Object deliveryLock = new Object();
+
+    private Closeable sourceHandle;
+    private volatile Thread delivery;
+
+    public EventDispatcher(EventSource source) {
+        this(source, DEFAULT_CAPACITY, DEFAULT_BATCH_MILLIS);
+    }
+
+    public EventDispatcher(EventSource source, int capacity, long batchMillis) {
+        this.source = source;
+        this.queue = new EventQueue(capacity);
+        this.batchNanos = TimeUnit.MILLISECONDS.toNanos(batchMillis);
+    }
+
+    /**
+     * Posts an event, called by the sources from any thread
+     *
+     * @return false if the queue is full and the event was dropped
+     */
+    public boolean post(Event event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        overflow.set(true);
+        return false;
+    }
+
+    @Override
+    public synchronized void addEventListener(@Nonnull EventListener listener, @Nonnull EventFilter filter) {
+        listeners.removeIf(r -> r.listener == listener);
+        listeners.add(new Registration(listener, filter));
+        if (delivery == null) {
+            start();
+        }
+    }
+
+    @Override
+    public synchronized void removeEventListener(@Nonnull EventListener listener) {
+        listeners.removeIf(r -> r.listener == listener);
+        if (listeners.isEmpty()) {
+            stop();
+        }
+    }
+
+    /**
+     * Delivers the pending events at once, without waiting for the batch window
+     *
+     * @return number of events delivered after coalescing
+     */
+    public int dispatch() {
+        synchronized (deliveryLock) {
+            Map<NodePath, Event> pending = new LinkedHashMap<>();
+            int drained = 0;
+            Event event;
+            while (drained < queue.capacity() && (event = queue.poll()) != null) {
+                drained++;
+                Event previous = pending.remove(event.getPath());
+                Event merged = previous == null ? event : previous.coalesce(event);
+                if (merged != null) {
+                    pending.put(event.getPath(), merged);
+                }
+            }
+            List<Event> batch = new ArrayList<>(pending.size() + 1);
+            if (overflow.getAndSet(false)) {
+                batch.add(Event.lost(NodePath.ROOT));
+            }
+            batch.addAll(pending.values());
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+            return batch.size();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        listeners.clear();
+        stop();
+    }
+
+    private void deliver(List<Event> batch) {
+        for (Registration registration : listeners) {
+            List<Event> accepted = new ArrayList<>(batch.size());
+            for (Event event : batch) {
+                if (registration.filter.accepts(event)) {
+                    accepted.add(event);
+                }
+            }
+            if (accepted.isEmpty()) {
+                continue;
+            }
+            try {
+                registration.listener.onEvents(Collections.unmodifiableList(accepted));
+            } catch (RuntimeException e) {
+                // a failing listener must not starve the others
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    private void start() {
+        Thread thread = new Thread(this::run, "ljcr-events-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        delivery = thread;
+        thread.start();
+        try {
+            sourceHandle = source.start(this::post);
+        } catch (IOException e) {
+            stop();
+            throw new RepositoryException("Event source can not be started", e);
+        }
+    }
+
+    private void stop() {
+        Thread thread = delivery;
+        delivery = null;
+        if (sourceHandle != null) {
+            try {
+                sourceHandle.close();
+            } catch (IOException e) {
+                // the source is abandoned anyway
+            }
+            sourceHandle = null;
+        }
+        if (thread != null) {
+            // the thread exits on wake up, a listener may be stopping its own dispatcher
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        Thread self = Thread.currentThread();
+        while (delivery == self) {
+            LockSupport.parkNanos(this, batchNanos);
+            dispatch();
+        }
+    }
+
+    private static final class Registration {
+        private final EventListener listener;
+        private final EventFilter filter;
+
+        private Registration(EventListener listener, EventFilter filter) {
+            this.listener = listener;
+            this.filter = filter;
+        }
+    }
+}
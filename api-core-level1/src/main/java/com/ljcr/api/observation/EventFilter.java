@@ -0,0 +1,80 @@
+package com.ljcr.api.observation;
+
+import com.ljcr.api.NodePath;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable filter of the events delivered to a listener: by path, by event type and by type name of the nodes.
+ * <p>
+ * {@link Event.Type#EVENTS_LOST} events are accepted whenever their path overlaps the observed sub-tree.
+ */
+@Nonnull
+public final class EventFilter {
+    private static final EventFilter ALL = new EventFilter(NodePath.ROOT, true, EnumSet.allOf(Event.Type.class), Collections.emptySet());
+
+    private final NodePath path;
+    private final boolean deep;
+    private final Set<Event.Type> eventTypes;
+    private final Set<String> typeNames;
+
+    private EventFilter(NodePath path, boolean deep, Set<Event.Type> eventTypes, Set<String> typeNames) {
+        this.path = path;
+        this.deep = deep;
+        this.eventTypes = eventTypes;
+        this.typeNames = typeNames;
+    }
+
+    /**
+     * @return filter accepting all the events of the workspace
+     */
+    public static EventFilter all() {
+        return ALL;
+    }
+
+    /**
+     * @param deep whether events of the whole sub-tree are accepted, or only of the node and its children
+     */
+    public EventFilter at(NodePath path, boolean deep) {
+        return new EventFilter(path, deep, eventTypes, typeNames);
+    }
+
+    public EventFilter ofEventTypes(Event.Type... types) {
+        EnumSet<Event.Type> accepted = EnumSet.noneOf(Event.Type.class);
+        accepted.addAll(Arrays.asList(types));
+        return new EventFilter(path, deep, accepted, typeNames);
+    }
+
+    /**
+     * Events without type name are accepted by all the filters
+     */
+    public EventFilter ofNodeTypes(String... typeNames) {
+        return new EventFilter(path, deep, eventTypes, new HashSet<>(Arrays.asList(typeNames)));
+    }
+
+    public boolean accepts(Event event) {
+        NodePath eventPath = event.getPath();
+        if (event.getType() == Event.Type.EVENTS_LOST) {
+            return path.startsWith(eventPath) || eventPath.startsWith(path);
+        }
+        if (!eventTypes.contains(event.getType())) {
+            return false;
+        }
+        if (!eventPath.startsWith(path)) {
+            return false;
+        } else if (!deep && eventPath.getNameCount() > path.getNameCount() + 1) {
+            return false;
+        }
+        return typeNames.isEmpty() || event.getTypeName() == null || typeNames.contains(event.getTypeName());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EventFilter(%s%s, %s, %s)", path, deep ? "/**" : "/*", eventTypes, typeNames);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ljcr.api.observation;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Receives the changes of the workspace, registered with {@link ObservationManager#addEventListener}.
+ */
+@FunctionalInterface
+public interface EventListener {
+
+    /**
+     * Called from the delivery thread of the workspace with the changes matching the filter of the listener,
+     * at most one event per path.
+     *
+     * @param events non-empty batch of events, in the order of their first occurrence
+     */
+    void onEvents(@Nonnull List<Event> events);
+}
@@ -0,0 +1,69 @@
+package com.ljcr.api.observation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring of events, many producers and a single consumer.
+ * <p>
+ * Each slot carries a sequence number: a producer claims the slot whose sequence equals the tail,
+ * the consumer reads the slot once the producer published the next sequence. The consumer side is not thread-safe,
+ * {@link EventDispatcher} polls under its delivery lock.
+ */
+final class EventQueue {
+    private final AtomicReferenceArray<Event> events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    EventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    boolean offer(Event event) {
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) pos & mask;
+            long dif = sequences.get(idx) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    events.lazySet(idx, event);
+                    sequences.lazySet(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (dif < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    Event poll() {
+        int idx = (int) head & mask;
+        if (sequences.get(idx) != head + 1) {
+            return null;
+        }
+        Event event = events.get(idx);
+        events.lazySet(idx, null);
+        sequences.lazySet(idx, head + mask + 1);
+        head++;
+        return event;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
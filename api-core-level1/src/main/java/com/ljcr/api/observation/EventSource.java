@@ -0,0 +1,19 @@
+package com.ljcr.api.observation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Native source of the changes of a workspace: a file system watch, a poll of file modification times or
+ * of version columns. Started by the {@link EventDispatcher} when the first listener is registered.
+ */
+@FunctionalInterface
+public interface EventSource {
+
+    /**
+     * @param sink receives the events, from any thread
+     * @return handle stopping the source
+     */
+    Closeable start(Consumer<Event> sink) throws IOException;
+}
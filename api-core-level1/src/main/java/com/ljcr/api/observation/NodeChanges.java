@@ -0,0 +1,92 @@
+package com.ljcr.api.observation;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Events between two versions of a tree, for the sources which only know that the whole content was replaced.
+ * <p>
+ * Children of objects are matched by field name, elements of collections by name. A collection with several elements
+ * of the same name is reported as changed as a whole.
+ */
+final class NodeChanges {
+
+    private NodeChanges() {
+    }
+
+    static void diff(NodePath path, @Nullable ImmutableNode before, @Nullable ImmutableNode after, Consumer<Event> sink) {
+        if (before == null && after == null) {
+            return;
+        } else if (before == null) {
+            sink.accept(Event.added(path, typeNameOf(after)));
+            return;
+        } else if (after == null) {
+            sink.accept(Event.removed(path, typeNameOf(before)));
+            return;
+        }
+
+        if (before.isScalarValue() || after.isScalarValue()) {
+            if (before.isScalarValue() != after.isScalarValue() || !Objects.equals(before.getValue(), after.getValue())) {
+                sink.accept(Event.changed(path, typeNameOf(after)));
+            }
+            return;
+        }
+        if (before.isObject() != after.isObject() || !Objects.equals(typeNameOf(before), typeNameOf(after))) {
+            sink.accept(Event.changed(path, typeNameOf(after)));
+            return;
+        }
+
+        Map<String, ImmutableNode> oldChildren = childrenOf(before);
+        Map<String, ImmutableNode> newChildren = childrenOf(after);
+        if (oldChildren == null || newChildren == null) {
+            sink.accept(Event.changed(path, typeNameOf(after)));
+            return;
+        }
+        for (Map.Entry<String, ImmutableNode> e : oldChildren.entrySet()) {
+            diff(path.resolve(e.getKey()), e.getValue(), newChildren.get(e.getKey()), sink);
+        }
+        for (Map.Entry<String, ImmutableNode> e : newChildren.entrySet()) {
+            if (!oldChildren.containsKey(e.getKey())) {
+                sink.accept(Event.added(path.resolve(e.getKey()), typeNameOf(e.getValue())));
+            }
+        }
+    }
+
+    /**
+     * @return children by name, <code>null</code> if the names are not unique
+     */
+    @Nullable
+    private static Map<String, ImmutableNode> childrenOf(ImmutableNode node) {
+        if (node.isObject()) {
+            Map<String, ImmutableNode> children = new LinkedHashMap<>();
+            node.asObjectNode().getFieldNames().forEach(name -> children.put(name, node.getItem(name)));
+            return children;
+        }
+        Map<String, ImmutableNode> children = new LinkedHashMap<>();
+        for (ImmutableNode element : node.getElements().collect(Collectors.toList())) {
+            if (children.put(element.getName(), element) != null) {
+                return null;
+            }
+        }
+        return children;
+    }
+
+    @Nullable
+    private static String typeNameOf(ImmutableNode node) {
+        try {
+            TypeDefinition type = node.getTypeDefinition();
+            return type != null ? type.getIdentifier() : null;
+        } catch (RepositoryException e) {
+            return null;
+        }
+    }
+}
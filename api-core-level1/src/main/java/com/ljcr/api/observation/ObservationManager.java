@@ -0,0 +1,20 @@
+package com.ljcr.api.observation;
+
+import com.ljcr.api.Repository;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Registers the listeners of the changes of a workspace, acquired by {@link Repository#getObservationManager()}.
+ *
+ * @since JCR 2.0
+ */
+public interface ObservationManager {
+
+    /**
+     * Adds a listener, receiving the events accepted by the filter. Adding the same listener again replaces its filter.
+     */
+    void addEventListener(@Nonnull EventListener listener, @Nonnull EventFilter filter);
+
+    void removeEventListener(@Nonnull EventListener listener);
+}
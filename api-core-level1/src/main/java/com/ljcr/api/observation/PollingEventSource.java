@@ -0,0 +1,43 @@
+package com.ljcr.api.observation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Source of storages without change notifications, polling them at a fixed interval from a daemon thread.
+ * A failed poll is reported to the uncaught exception handler and retried at the next interval.
+ */
+public abstract class PollingEventSource implements EventSource {
+    private final long intervalMillis;
+
+    protected PollingEventSource(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Compares the storage with its state at the previous poll and posts the differences
+     */
+    protected abstract void poll(Consumer<Event> sink) throws IOException;
+
+    @Override
+    public Closeable start(Consumer<Event> sink) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ljcr-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                poll(sink);
+            } catch (IOException | RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return executor::shutdownNow;
+    }
+}
@@ -0,0 +1,191 @@
+package com.ljcr.api.observation;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.ItemNotFoundException;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.query.Query;
+import com.ljcr.api.query.QueryExecutor;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Workspace read from a file, read again when the modification time or the size of the file change.
+ * <p>
+ * The file is polled while listeners are registered, or checked on {@link #refresh()}. The listeners receive
+ * the differences between the previous and the new content.
+ */
+public class PollingFileRepository implements Repository {
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Reads a workspace from a file, e.g. <code>AvroAdapter::createWs</code>
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Repository load(Path file) throws IOException;
+    }
+
+    private final Path file;
+    private final Loader loader;
+    private final EventDispatcher dispatcher;
+    private volatile Snapshot current;
+    @Nullable
+    private volatile Consumer<Event> sink;
+
+    public PollingFileRepository(Path file, Loader loader) throws IOException {
+        this(file, loader, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    public PollingFileRepository(Path file, Loader loader, long intervalMillis) throws IOException {
+        this.file = file;
+        this.loader = loader;
+        this.current = load(file, loader);
+        this.dispatcher = new EventDispatcher(new PollingEventSource(intervalMillis) {
+            @Override
+            public Closeable start(Consumer<Event> sink) {
+                PollingFileRepository.this.sink = sink;
+                Closeable polling = super.start(sink);
+                return () -> {
+                    PollingFileRepository.this.sink = null;
+                    polling.close();
+                };
+            }
+
+            @Override
+            protected void poll(Consumer<Event> sink) throws IOException {
+                reload(sink);
+            }
+        });
+    }
+
+    /**
+     * Reads the file again if it was modified, notifying the registered listeners
+     *
+     * @return true if the content was replaced
+     */
+    public boolean refresh() throws IOException {
+        Consumer<Event> target = sink;
+        return reload(target != null ? target : e -> {
+        });
+    }
+
+    private synchronized boolean reload(Consumer<Event> target) throws IOException {
+        Snapshot previous = current;
+        if (previous.isCurrent(file)) {
+            return false;
+        }
+        Snapshot next = load(file, loader);
+        current = next;
+        NodeChanges.diff(NodePath.ROOT, previous.repository.getRootNode(), next.repository.getRootNode(), target);
+        return true;
+    }
+
+    private static Snapshot load(Path file, Loader loader) throws IOException {
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        long size = Files.size(file);
+        return new Snapshot(loader.load(file), modified, size);
+    }
+
+    @Override
+    public ObservationManager getObservationManager() {
+        return dispatcher;
+    }
+
+    public EventDispatcher getEventDispatcher() {
+        return dispatcher;
+    }
+
+    public Repository getDelegate() {
+        return current.repository;
+    }
+
+    @Override
+    public String getName() {
+        return current.repository.getName();
+    }
+
+    @Override
+    public ImmutableNode getRootNode() {
+        return current.repository.getRootNode();
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(TypeDefinition type, String id) throws ItemNotFoundException {
+        return current.repository.getNodeByReference(type, id);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(String typeName, Object id) {
+        return current.repository.getNodeByReference(typeName, id);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(Path absPath) throws PathNotFoundException {
+        return current.repository.getItem(absPath);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(NodePath absPath) throws PathNotFoundException {
+        return current.repository.getItem(absPath);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(CompiledPath absPath) throws PathNotFoundException {
+        return current.repository.getItem(absPath);
+    }
+
+    @Override
+    public Collection<TypeDefinition> getKnownTypes() {
+        return current.repository.getKnownTypes();
+    }
+
+    @Nullable
+    @Override
+    public ContainerTypeDefinition findContainerType(String typeName) {
+        return current.repository.findContainerType(typeName);
+    }
+
+    @Override
+    public QueryExecutor getQueryExecutor() {
+        return current.repository.getQueryExecutor();
+    }
+
+    @Override
+    public Stream<ImmutableNodeObject> query(Query query) {
+        return current.repository.query(query);
+    }
+
+    private static final class Snapshot {
+        private final Repository repository;
+        private final long modified;
+        private final long size;
+
+        private Snapshot(Repository repository, long modified, long size) {
+            this.repository = repository;
+            this.modified = modified;
+            this.size = size;
+        }
+
+        private boolean isCurrent(Path file) throws IOException {
+            return Files.getLastModifiedTime(file).toMillis() == modified && Files.size(file) == size;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ljcr.api.query;
+
+import com.ljcr.api.ImmutableNodeObject;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Typed predicate over the properties of an object, see {@link Conditions} for the available conditions.
+ * <p>
+ * A condition can be evaluated in memory with {@link #test(ImmutableNodeObject)}, or translated by a
+ * {@link QueryExecutor} into the native query language of a repository with a {@link ConditionVisitor}.
+ */
+@Nonnull
+public interface Condition {
+
+    /**
+     * @return true if <code>node</code> satisfies this condition
+     */
+    boolean test(@Nonnull ImmutableNodeObject node);
+
+    <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context);
+
+    default Condition and(Condition other) {
+        return Conditions.and(this, other);
+    }
+
+    default Condition or(Condition other) {
+        return Conditions.or(this, other);
+    }
+
+    default Condition negate() {
+        return Conditions.not(this);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ljcr.api.query;
+
+/**
+ * Contextual Visitor interface, which can be used to translate conditions into a native query
+ *
+ * @param <T> - visit result type
+ */
+public interface ConditionVisitor<T> {
+    T visit(Conditions.All condition, Object context);
+
+    T visit(Conditions.Equals condition, Object context);
+
+    T visit(Conditions.Range condition, Object context);
+
+    T visit(Conditions.In condition, Object context);
+
+    T visit(Conditions.Prefix condition, Object context);
+
+    T visit(Conditions.And condition, Object context);
+
+    T visit(Conditions.Or condition, Object context);
+
+    T visit(Conditions.Not condition, Object context);
+}
@@ -0,0 +1,496 @@
+package com.ljcr.api.query;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Standard conditions and their factories.
+ * <p>
+ * Values are compared by {@link #compare(Object, Object)}: numbers by their numeric value whatever
+ * their class, character sequences by their string value. A missing property has a null value,
+ * which only matches <code>eq(p, null)</code>.
+ */
+public final class Conditions {
+
+    private Conditions() {
+        // factory class
+    }
+
+    public static final All ALL = new All();
+
+    /**
+     * Condition on the value of a single property
+     */
+    public abstract static class PropertyCondition implements Condition {
+        private final PropertyDefinition property;
+
+        PropertyCondition(PropertyDefinition property) {
+            this.property = Objects.requireNonNull(property);
+        }
+
+        public PropertyDefinition getProperty() {
+            return property;
+        }
+
+        @Override
+        public boolean test(@Nonnull ImmutableNodeObject node) {
+            return testValue(valueOf(node, property));
+        }
+
+        /**
+         * @return true if the value of the property satisfies this condition
+         */
+        public abstract boolean testValue(@Nullable Object value);
+    }
+
+    public static final class All implements Condition {
+        All() {
+        }
+
+        @Override
+        public boolean test(@Nonnull ImmutableNodeObject node) {
+            return true;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context) {
+            return visitor.visit(this, context);
+        }
+
+        @Override
+        public String toString() {
+            return "true";
+        }
+    }
+
+    public static final class Equals extends PropertyCondition {
+        private final Object value;
+
+        Equals(PropertyDefinition property, Object value) {
+            super(property);
+            this.value = value;
+        }
+
+        @Nullable
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean testValue(@Nullable Object actual) {
+            return valueEquals(actual, value);
+        }
+
+        @Override
+        public <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context) {
+            return visitor.visit(this, context);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s = %s", getProperty().getIdentifier(), value);
+        }
+    }
+
+    /**
+     * Values between optional lower and upper bounds
+     */
+    public static final class Range extends PropertyCondition {
+        private final Object lower;
+        private final boolean lowerInclusive;
+        private final Object upper;
+        private final boolean upperInclusive;
+
+        Range(PropertyDefinition property, Object lower, boolean lowerInclusive, Object upper, boolean upperInclusive) {
+            super(property);
+            if (lower == null && upper == null) {
+                throw new IllegalArgumentException("Range without bounds on " + property);
+            }
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+
+        @Nullable
+        public Object getLower() {
+            return lower;
+        }
+
+        public boolean isLowerInclusive() {
+            return lowerInclusive;
+        }
+
+        @Nullable
+        public Object getUpper() {
+            return upper;
+        }
+
+        public boolean isUpperInclusive() {
+            return upperInclusive;
+        }
+
+        @Override
+        public boolean testValue(@Nullable Object actual) {
+            if (actual == null) {
+                return false;
+            }
+            try {
+                if (lower != null) {
+                    int cmp = compare(actual, lower);
+                    if (cmp < 0 || (cmp == 0 && !lowerInclusive)) {
+                        return false;
+                    }
+                }
+                if (upper != null) {
+                    int cmp = compare(actual, upper);
+                    return cmp < 0 || (cmp == 0 && upperInclusive);
+                }
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context) {
+            return visitor.visit(this, context);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s in %s%s, %s%s", getProperty().getIdentifier(),
+                    lowerInclusive ? "[" : "(", lower == null ? "" : lower,
+                    upper == null ? "" : upper, upperInclusive ? "]" : ")");
+        }
+    }
+
+    public static final class In extends PropertyCondition {
+        private final List<Object> values;
+
+        In(PropertyDefinition property, Collection<?> values) {
+            super(property);
+            this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        }
+
+        public List<Object> getValues() {
+            return values;
+        }
+
+        @Override
+        public boolean testValue(@Nullable Object actual) {
+            for (Object v : values) {
+                if (valueEquals(actual, v)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context) {
+            return visitor.visit(this, context);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s in %s", getProperty().getIdentifier(), values);
+        }
+    }
+
+    public static final class Prefix extends PropertyCondition {
+        private final String prefix;
+
+        Prefix(PropertyDefinition property, String prefix) {
+            super(property);
+            this.prefix = Objects.requireNonNull(prefix);
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        @Override
+        public boolean testValue(@Nullable Object actual) {
+            return actual instanceof CharSequence && actual.toString().startsWith(prefix);
+        }
+
+        @Override
+        public <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context) {
+            return visitor.visit(this, context);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s like %s*", getProperty().getIdentifier(), prefix);
+        }
+    }
+
+    public static final class And implements Condition {
+        private final List<Condition> operands;
+
+        And(List<Condition> operands) {
+            this.operands = operands;
+        }
+
+        public List<Condition> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public boolean test(@Nonnull ImmutableNodeObject node) {
+            for (Condition c : operands) {
+                if (!c.test(node)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context) {
+            return visitor.visit(this, context);
+        }
+
+        @Override
+        public String toString() {
+            return "and" + operands;
+        }
+    }
+
+    public static final class Or implements Condition {
+        private final List<Condition> operands;
+
+        Or(List<Condition> operands) {
+            this.operands = operands;
+        }
+
+        public List<Condition> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public boolean test(@Nonnull ImmutableNodeObject node) {
+            for (Condition c : operands) {
+                if (c.test(node)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context) {
+            return visitor.visit(this, context);
+        }
+
+        @Override
+        public String toString() {
+            return "or" + operands;
+        }
+    }
+
+    public static final class Not implements Condition {
+        private final Condition operand;
+
+        Not(Condition operand) {
+            this.operand = Objects.requireNonNull(operand);
+        }
+
+        public Condition getOperand() {
+            return operand;
+        }
+
+        @Override
+        public boolean test(@Nonnull ImmutableNodeObject node) {
+            return !operand.test(node);
+        }
+
+        @Override
+        public <T> T accept(@Nonnull ConditionVisitor<T> visitor, Object context) {
+            return visitor.visit(this, context);
+        }
+
+        @Override
+        public String toString() {
+            return "not(" + operand + ")";
+        }
+    }
+
+    public static Condition all() {
+        return ALL;
+    }
+
+    public static Equals eq(PropertyDefinition property, @Nullable Object value) {
+        return new Equals(property, value);
+    }
+
+    public static Range range(PropertyDefinition property,
+                              @Nullable Object lower, boolean lowerInclusive,
+                              @Nullable Object upper, boolean upperInclusive) {
+        return new Range(property, lower, lowerInclusive, upper, upperInclusive);
+    }
+
+    /**
+     * @return inclusive range <code>[lower, upper]</code>
+     */
+    public static Range between(PropertyDefinition property, Object lower, Object upper) {
+        return new Range(property, lower, true, upper, true);
+    }
+
+    public static Range lt(PropertyDefinition property, Object value) {
+        return new Range(property, null, false, value, false);
+    }
+
+    public static Range le(PropertyDefinition property, Object value) {
+        return new Range(property, null, false, value, true);
+    }
+
+    public static Range gt(PropertyDefinition property, Object value) {
+        return new Range(property, value, false, null, false);
+    }
+
+    public static Range ge(PropertyDefinition property, Object value) {
+        return new Range(property, value, true, null, false);
+    }
+
+    public static In in(PropertyDefinition property, Collection<?> values) {
+        return new In(property, values);
+    }
+
+    public static In in(PropertyDefinition property, Object... values) {
+        return new In(property, Arrays.asList(values));
+    }
+
+    public static Prefix prefix(PropertyDefinition property, String prefix) {
+        return new Prefix(property, prefix);
+    }
+
+    public static Condition and(Condition... operands) {
+        return and(Arrays.asList(operands));
+    }
+
+    /**
+     * @return conjunction of the operands, nested conjunctions are flattened and {@link #ALL} is dropped
+     */
+    public static Condition and(Collection<? extends Condition> operands) {
+        List<Condition> flat = new ArrayList<>(operands.size());
+        for (Condition c : operands) {
+            if (c instanceof And) {
+                flat.addAll(((And) c).getOperands());
+            } else if (c != ALL) {
+                flat.add(Objects.requireNonNull(c));
+            }
+        }
+        if (flat.isEmpty()) {
+            return ALL;
+        }
+        return flat.size() == 1 ? flat.get(0) : new And(Collections.unmodifiableList(flat));
+    }
+
+    public static Condition or(Condition... operands) {
+        return or(Arrays.asList(operands));
+    }
+
+    /**
+     * @return disjunction of the operands, nested disjunctions are flattened
+     */
+    public static Condition or(Collection<? extends Condition> operands) {
+        List<Condition> flat = new ArrayList<>(operands.size());
+        for (Condition c : operands) {
+            if (c == ALL) {
+                return ALL;
+            } else if (c instanceof Or) {
+                flat.addAll(((Or) c).getOperands());
+            } else {
+                flat.add(Objects.requireNonNull(c));
+            }
+        }
+        if (flat.isEmpty()) {
+            throw new IllegalArgumentException("Empty disjunction");
+        }
+        return flat.size() == 1 ? flat.get(0) : new Or(Collections.unmodifiableList(flat));
+    }
+
+    public static Condition not(Condition operand) {
+        return operand instanceof Not ? ((Not) operand).getOperand() : new Not(operand);
+    }
+
+    /**
+     * @return the value of property <code>p</code> of the node, or null if it is missing or not a scalar
+     */
+    @Nullable
+    public static Object valueOf(ImmutableNodeObject node, PropertyDefinition p) {
+        try {
+            ImmutableNode item = node.getItem(p);
+            return item != null && item.isScalarValue() ? item.getValue() : null;
+        } catch (RepositoryException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Compares two non null values
+     *
+     * @throws IllegalArgumentException if the values are not comparable
+     */
+    @SuppressWarnings("unchecked")
+    public static int compare(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return compareNumbers((Number) a, (Number) b);
+        } else if (a instanceof CharSequence && b instanceof CharSequence) {
+            return a.toString().compareTo(b.toString());
+        } else if (a instanceof Comparable && a.getClass().isInstance(b)) {
+            return ((Comparable<Object>) a).compareTo(b);
+        }
+        throw new IllegalArgumentException("Incomparable values: " + a + " and " + b);
+    }
+
+    public static boolean valueEquals(@Nullable Object a, @Nullable Object b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        try {
+            return compare(a, b) == 0;
+        } catch (IllegalArgumentException e) {
+            return a.equals(b);
+        }
+    }
+
+    private static int compareNumbers(Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) {
+            return Long.compare(a.longValue(), b.longValue());
+        } else if (a instanceof BigDecimal || b instanceof BigDecimal || a instanceof BigInteger || b instanceof BigInteger) {
+            return toDecimal(a).compareTo(toDecimal(b));
+        }
+        return Double.compare(a.doubleValue(), b.doubleValue());
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+    }
+
+    private static BigDecimal toDecimal(Number n) {
+        if (n instanceof BigDecimal) {
+            return (BigDecimal) n;
+        } else if (n instanceof BigInteger) {
+            return new BigDecimal((BigInteger) n);
+        } else if (isIntegral(n)) {
+            return BigDecimal.valueOf(n.longValue());
+        }
+        return BigDecimal.valueOf(n.doubleValue());
+    }
+}
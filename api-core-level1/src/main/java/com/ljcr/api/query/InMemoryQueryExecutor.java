@@ -0,0 +1,53 @@
+package com.ljcr.api.query;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+
+import javax.annotation.Nonnull;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates queries over {@link ContainerTypeDefinition#getItems()}. Default executor of a repository.
+ */
+public final class InMemoryQueryExecutor implements QueryExecutor {
+    private static final InMemoryQueryExecutor INSTANCE = new InMemoryQueryExecutor();
+
+    private InMemoryQueryExecutor() {
+    }
+
+    public static InMemoryQueryExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNodeObject> execute(@Nonnull Query query) {
+        if (!(query.getType() instanceof ContainerTypeDefinition)) {
+            throw new UnsupportedRepositoryOperationException("Not a container type: " + query.getType().getIdentifier());
+        }
+        ContainerTypeDefinition type = (ContainerTypeDefinition) query.getType();
+        return apply(query, type.getItems());
+    }
+
+    /**
+     * Applies condition, ordering, offset and limit of the query to the given items
+     */
+    public static <T extends ImmutableNodeObject> Stream<T> apply(Query query, Stream<T> items) {
+        Stream<T> result = items;
+        Condition condition = query.getCondition();
+        if (condition != Conditions.ALL) {
+            result = result.filter(condition::test);
+        }
+        if (!query.getOrderings().isEmpty()) {
+            result = result.sorted(Ordering.comparator(query.getOrderings()));
+        }
+        if (query.getOffset() > 0) {
+            result = result.skip(query.getOffset());
+        }
+        if (query.getLimit() >= 0) {
+            result = result.limit(query.getLimit());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ljcr.api.query;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+
+import javax.annotation.Nonnull;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sort key of a query: a property and a direction. Missing values are sorted last in both directions.
+ */
+@Nonnull
+public final class Ordering {
+    private final PropertyDefinition property;
+    private final boolean ascending;
+
+    private Ordering(PropertyDefinition property, boolean ascending) {
+        this.property = Objects.requireNonNull(property);
+        this.ascending = ascending;
+    }
+
+    public static Ordering asc(PropertyDefinition property) {
+        return new Ordering(property, true);
+    }
+
+    public static Ordering desc(PropertyDefinition property) {
+        return new Ordering(property, false);
+    }
+
+    public PropertyDefinition getProperty() {
+        return property;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Compares two property values according to this ordering, nulls last
+     */
+    public int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        int cmp = Conditions.compare(a, b);
+        return ascending ? cmp : -cmp;
+    }
+
+    public Comparator<ImmutableNodeObject> comparator() {
+        return (a, b) -> compareValues(Conditions.valueOf(a, property), Conditions.valueOf(b, property));
+    }
+
+    /**
+     * @return lexicographic comparator over the orderings
+     */
+    public static Comparator<ImmutableNodeObject> comparator(List<Ordering> orderings) {
+        Comparator<ImmutableNodeObject> result = orderings.get(0).comparator();
+        for (int i = 1; i < orderings.size(); i++) {
+            result = result.thenComparing(orderings.get(i).comparator());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return property.getIdentifier() + (ascending ? " asc" : " desc");
+    }
+}
@@ -0,0 +1,102 @@
+package com.ljcr.api.query;
+
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable query over the objects of a container type:
+ * <pre>
+ * Query.from(userType)
+ *     .where(Conditions.ge(age, 18).and(Conditions.prefix(name, "A")))
+ *     .orderBy(Ordering.asc(name))
+ *     .offset(20).limit(10)
+ * </pre>
+ * Executed by {@link com.ljcr.api.Repository#query(Query)}.
+ */
+@Nonnull
+public final class Query {
+    public static final long UNLIMITED = -1L;
+
+    private final TypeDefinition type;
+    private final Condition condition;
+    private final List<Ordering> orderings;
+    private final long offset;
+    private final long limit;
+
+    private Query(TypeDefinition type, Condition condition, List<Ordering> orderings, long offset, long limit) {
+        this.type = type;
+        this.condition = condition;
+        this.orderings = orderings;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    public static Query from(TypeDefinition type) {
+        return new Query(Objects.requireNonNull(type), Conditions.ALL, Collections.emptyList(), 0L, UNLIMITED);
+    }
+
+    /**
+     * @return query with the given condition, combined with the existing one by a conjunction
+     */
+    public Query where(Condition condition) {
+        return new Query(type, Conditions.and(this.condition, condition), orderings, offset, limit);
+    }
+
+    /**
+     * @return query with the given orderings appended to the existing ones
+     */
+    public Query orderBy(Ordering... orderings) {
+        List<Ordering> result = new ArrayList<>(this.orderings);
+        result.addAll(Arrays.asList(orderings));
+        return new Query(type, condition, Collections.unmodifiableList(result), offset, limit);
+    }
+
+    public Query offset(long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset: " + offset);
+        }
+        return new Query(type, condition, orderings, offset, limit);
+    }
+
+    /**
+     * @param limit - maximal number of results, {@link #UNLIMITED} for no limit
+     */
+    public Query limit(long limit) {
+        if (limit < UNLIMITED) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+        return new Query(type, condition, orderings, offset, limit);
+    }
+
+    public TypeDefinition getType() {
+        return type;
+    }
+
+    public Condition getCondition() {
+        return condition;
+    }
+
+    public List<Ordering> getOrderings() {
+        return orderings;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("from %s where %s order by %s offset %d limit %d",
+                type.getIdentifier(), condition, orderings, offset, limit);
+    }
+}
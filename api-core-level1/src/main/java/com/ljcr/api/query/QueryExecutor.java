@@ -0,0 +1,22 @@
+package com.ljcr.api.query;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+
+import javax.annotation.Nonnull;
+import java.util.stream.Stream;
+
+/**
+ * Executes queries against a repository. Implementations translate as much of the query as possible
+ * into the native query language of the underlying storage and evaluate the rest in memory,
+ * see {@link InMemoryQueryExecutor#apply(Query, Stream)}.
+ */
+@Nonnull
+public interface QueryExecutor {
+
+    /**
+     * @return lazy stream of the matching objects, nothing is read before a terminal operation
+     * @throws UnsupportedRepositoryOperationException if the queried type is not a container type
+     */
+    Stream<ImmutableNodeObject> execute(@Nonnull Query query) throws UnsupportedRepositoryOperationException;
+}
@@ -0,0 +1,110 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Privilege;
+import com.ljcr.api.Repository;
+import com.ljcr.utils.acl.AccessControlList;
+import com.ljcr.utils.acl.AccessControlledRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads of the avro users through an {@link AccessControlledRepository} denying half of the users,
+ * and the password hash of the other half: one rule per user, with path rules only (<code>paths</code>)
+ * or with a type rule too (<code>paths+types</code>), against the avro repository itself (<code>none</code>).
+ * Lookups by path rotate over {@link AdapterBenchmark#SAMPLES} allowed or denied users.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class AccessControlBenchmark {
+    private int next;
+
+    @State(Scope.Benchmark)
+    public static class Users {
+        @Param({"none", "paths", "paths+types"})
+        public String acl;
+
+        @Param({"100000"})
+        public int nodes;
+
+        Repository ws;
+        CompiledPath[] allowed;
+        CompiledPath[] denied;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Repository plain = AdapterBenchmark.open("avro", nodes);
+            int count = UserDataGenerator.usersOf(nodes);
+            AccessControlList rules = new AccessControlList()
+                    .allow(AccessControlList.EVERYONE, NodePath.ROOT, Privilege.READ);
+            for (int i = 0; i < count; i++) {
+                NodePath user = NodePath.of("users", UserDataGenerator.referenceOf(i));
+                if (i % 2 == 0) {
+                    rules.deny(AccessControlList.EVERYONE, user, Privilege.READ);
+                } else {
+                    rules.deny(AccessControlList.EVERYONE, user.resolve("passwordHash"), Privilege.READ);
+                }
+            }
+            if ("paths+types".equals(acl)) {
+                rules.denyType(AccessControlList.EVERYONE, NodePath.ROOT, "Unused", Privilege.READ);
+            }
+            ws = "none".equals(acl) ? plain
+                    : new AccessControlledRepository(plain, rules.compile(Collections.singleton("bench")));
+
+            int samples = Math.min(AdapterBenchmark.SAMPLES, count / 2);
+            allowed = new CompiledPath[samples];
+            denied = new CompiledPath[samples];
+            for (int i = 0; i < samples; i++) {
+                int user = (int) ((long) i * (count / 2) / samples) * 2;
+                allowed[i] = NodePath.of("users", UserDataGenerator.referenceOf(user + 1), "username").compile();
+                denied[i] = NodePath.of("users", UserDataGenerator.referenceOf(user), "username").compile();
+            }
+        }
+    }
+
+    private int nextSample(Users state) {
+        int i = next;
+        next = i + 1 == state.allowed.length ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Object allowedLookup(Users state) {
+        return state.ws.getItem(state.allowed[nextSample(state)]);
+    }
+
+    @Benchmark
+    public Object deniedLookup(Users state) {
+        return state.ws.getItem(state.denied[nextSample(state)]);
+    }
+
+    /**
+     * @return number of readable users whose password hash is not readable
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long traversal(Users state) {
+        return state.ws.getRootNode().getItem("users").getElements()
+                .filter(user -> user.getItem("passwordHash") == null)
+                .count();
+    }
+}
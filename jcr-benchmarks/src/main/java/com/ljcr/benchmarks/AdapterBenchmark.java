@@ -0,0 +1,153 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.NodeCursor;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.dynamics.AvroAdapter;
+import com.ljcr.filesystems.FilesystemAdapter;
+import com.ljcr.jackson1x.JacksonAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read operations on the JSON, avro and filesystem forms of the users generated by {@link UserDataGenerator}.
+ * Lookups rotate over {@link #SAMPLES} users spread over the whole repository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Thread)
+public class AdapterBenchmark {
+    static final int SAMPLES = 1024;
+
+    private int next;
+
+    @State(Scope.Benchmark)
+    public static class Users {
+        @Param({"json", "avro", "filesystem"})
+        public String format;
+
+        @Param({"1000", "100000", "10000000"})
+        public int nodes;
+
+        Repository ws;
+        CompiledPath[] deepPaths;
+        ImmutableNode[] users;
+        PropertyDefinition username;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            ws = open(format, nodes);
+            int count = UserDataGenerator.usersOf(nodes);
+            int samples = Math.min(SAMPLES, count);
+            deepPaths = new CompiledPath[samples];
+            users = new ImmutableNode[samples];
+            ImmutableNode byReference = ws.getRootNode().getItem("users");
+            for (int i = 0; i < samples; i++) {
+                String reference = UserDataGenerator.referenceOf((int) ((long) i * count / samples));
+                deepPaths[i] = NodePath.of("users", reference, "emailAddresses", "1", "address").compile();
+                users[i] = byReference.getItem(reference);
+            }
+            username = users[0].getTypeDefinition().getFieldDefByName("username");
+            if (username == null) {
+                username = StandardTypes.propertyOf("username", StandardTypes.STRING);
+            }
+        }
+    }
+
+    static Repository open(String format, int nodes) throws IOException {
+        switch (format) {
+            case "json":
+                return JacksonAdapter.createWs(UserDataGenerator.json(nodes).toFile());
+            case "avro":
+                return AvroAdapter.createWs(UserDataGenerator.avro(nodes).toFile());
+            case "filesystem":
+                return FilesystemAdapter.Companion.createWs(UserDataGenerator.filesystem(nodes));
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    private int nextSample(Users state) {
+        int i = next;
+        next = i + 1 == state.users.length ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public ImmutableNode rootAccess(Users state) {
+        return state.ws.getRootNode();
+    }
+
+    @Benchmark
+    public ImmutableNode deepPathLookup(Users state) {
+        return state.ws.getItem(state.deepPaths[nextSample(state)]);
+    }
+
+    @Benchmark
+    public ImmutableNode fieldByName(Users state) {
+        return state.users[nextSample(state)].getItem("username");
+    }
+
+    @Benchmark
+    public ImmutableNode fieldByDefinition(Users state) {
+        return state.users[nextSample(state)].getItem(state.username);
+    }
+
+    /**
+     * Visits every node through {@link ImmutableNode#getElements()}
+     */
+    @Benchmark
+    public long fullTraversal(Users state, Blackhole bh) {
+        return traverse(state.ws.getRootNode(), bh);
+    }
+
+    /**
+     * Visits every item with a {@link NodeCursor}
+     */
+    @Benchmark
+    public long cursorTraversal(Users state, Blackhole bh) {
+        long count = 0;
+        try (NodeCursor cursor = state.ws.getRootNode().cursor()) {
+            for (NodeCursor.Event e = cursor.next(); e != null; e = cursor.next()) {
+                if (e != NodeCursor.Event.EXIT) {
+                    bh.consume(cursor.getName());
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long traverse(ImmutableNode node, Blackhole bh) {
+        bh.consume(node);
+        long count = 1;
+        if (node.isObject() || node.isCollection()) {
+            for (Iterator<ImmutableNode> it = node.getElements().iterator(); it.hasNext(); ) {
+                count += traverse(it.next(), bh);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ljcr.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs the benchmarks and writes the results as JSON to <code>target/jmh-results/&lt;label&gt;.json</code>,
+ * to compare them across commits, e.g. with the JMH visualizer. The label is the value of the system property
+ * <code>ljcr.benchmarks.label</code>, by default the current time.
+ * <p>
+ * Accepts the options of the JMH command line, e.g. to run the lookups of the smallest repositories only:
+ * <pre>
+ * mvn -pl jcr-benchmarks -am install -DskipTests
+ * mvn -pl jcr-benchmarks exec:exec -Dexec.args="-classpath %classpath -Dljcr.benchmarks.label=$(git rev-parse --short HEAD) \
+ *     com.ljcr.benchmarks.BenchmarkMain -p nodes=1000 Lookup"
+ * </pre>
+ * Data sets are generated on the first run, see {@link UserDataGenerator}; the 10M nodes sets take several GB of disk,
+ * the filesystem one about 9M files.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        String label = System.getProperty("ljcr.benchmarks.label", String.valueOf(System.currentTimeMillis()));
+        Path result = Files.createDirectories(Paths.get("target", "jmh-results")).resolve(label + ".json");
+
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build())
+                .run();
+        System.out.println("Results written to " + result.toAbsolutePath());
+    }
+}
@@ -0,0 +1,65 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.jackson1x.JacksonAdapter;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ArrayNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traversal of a JSON array of numbers with a bit of work per element, through
+ * {@link ImmutableNode#getElements(boolean)}, sequential and parallel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class CollectionBenchmark {
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Param({"1000000"})
+    public int elements;
+
+    private ImmutableNode array;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArrayNode json = new ObjectMapper().createArrayNode();
+        for (int i = 0; i < elements; i++) {
+            json.add((long) i);
+        }
+        array = JacksonAdapter.of("elements", json);
+    }
+
+    @Benchmark
+    public long elementTraversal() {
+        return array.getElements(parallel)
+                .mapToLong(n -> work(n.asLong()))
+                .sum();
+    }
+
+    private static long work(long value) {
+        long h = value;
+        for (int i = 0; i < 64; i++) {
+            h = h * 0x9E3779B97F4A7C15L + i;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,221 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.utils.ImmutableNodeWrapper;
+import com.ljcr.utils.intercept.InterceptedNode;
+import com.ljcr.utils.intercept.NodeInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Field access on the JSON users decorated by stacked decorators: <code>nested</code> wrappers, each one
+ * a subclass of {@link ImmutableNodeWrapper} wrapping the children it returns as the dynamic repository does,
+ * or <code>intercepted</code> nodes holding the decorators as {@link NodeInterceptor}s of a single wrapper.
+ * Decorators do not change the values, each one is a distinct class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class DecoratorBenchmark {
+    private static final int NODES = 1000;
+
+    private int next;
+
+    @State(Scope.Benchmark)
+    public static class Users {
+        @Param({"nested", "intercepted"})
+        public String composition;
+
+        @Param({"1", "3", "6"})
+        public int decorators;
+
+        ImmutableNode[] users;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            ImmutableNode byReference = AdapterBenchmark.open("json", NODES).getRootNode().getItem("users");
+            int count = UserDataGenerator.usersOf(NODES);
+            users = new ImmutableNode[count];
+            for (int i = 0; i < count; i++) {
+                users[i] = decorate(byReference.getItem(UserDataGenerator.referenceOf(i)));
+            }
+        }
+
+        private ImmutableNode decorate(ImmutableNode user) {
+            ImmutableNode node = user;
+            for (int i = 0; i < decorators; i++) {
+                if ("nested".equals(composition)) {
+                    node = LAYERS[i].apply(node);
+                } else {
+                    node = InterceptedNode.wrap(node, INTERCEPTORS[i]);
+                }
+            }
+            return node;
+        }
+    }
+
+    private int nextSample(Users state) {
+        int i = next;
+        next = i + 1 == state.users.length ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public String stringField(Users state) {
+        return state.users[nextSample(state)].getItem("username").asString();
+    }
+
+    @Benchmark
+    public long longField(Users state) {
+        return state.users[nextSample(state)].getItem("id").asLong();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Function<ImmutableNode, ImmutableNode>[] LAYERS = new Function[]{
+            (Function<ImmutableNode, ImmutableNode>) Layer1::new,
+            (Function<ImmutableNode, ImmutableNode>) Layer2::new,
+            (Function<ImmutableNode, ImmutableNode>) Layer3::new,
+            (Function<ImmutableNode, ImmutableNode>) Layer4::new,
+            (Function<ImmutableNode, ImmutableNode>) Layer5::new,
+            (Function<ImmutableNode, ImmutableNode>) Layer6::new
+    };
+
+    private static final NodeInterceptor[] INTERCEPTORS = {
+            new Interceptor1(), new Interceptor2(), new Interceptor3(),
+            new Interceptor4(), new Interceptor5(), new Interceptor6()
+    };
+
+    private abstract static class Layer extends ImmutableNodeWrapper {
+        Layer(ImmutableNode delegate) {
+            super(delegate);
+        }
+
+        abstract ImmutableNode wrap(ImmutableNode node);
+
+        @Nullable
+        @Override
+        public ImmutableNode getItem(@Nonnull String fieldName) {
+            ImmutableNode item = super.getItem(fieldName);
+            return item == null ? null : wrap(item);
+        }
+    }
+
+    private static final class Layer1 extends Layer {
+        Layer1(ImmutableNode delegate) {
+            super(delegate);
+        }
+
+        @Override
+        ImmutableNode wrap(ImmutableNode node) {
+            return new Layer1(node);
+        }
+    }
+
+    private static final class Layer2 extends Layer {
+        Layer2(ImmutableNode delegate) {
+            super(delegate);
+        }
+
+        @Override
+        ImmutableNode wrap(ImmutableNode node) {
+            return new Layer2(node);
+        }
+    }
+
+    private static final class Layer3 extends Layer {
+        Layer3(ImmutableNode delegate) {
+            super(delegate);
+        }
+
+        @Override
+        ImmutableNode wrap(ImmutableNode node) {
+            return new Layer3(node);
+        }
+    }
+
+    private static final class Layer4 extends Layer {
+        Layer4(ImmutableNode delegate) {
+            super(delegate);
+        }
+
+        @Override
+        ImmutableNode wrap(ImmutableNode node) {
+            return new Layer4(node);
+        }
+    }
+
+    private static final class Layer5 extends Layer {
+        Layer5(ImmutableNode delegate) {
+            super(delegate);
+        }
+
+        @Override
+        ImmutableNode wrap(ImmutableNode node) {
+            return new Layer5(node);
+        }
+    }
+
+    private static final class Layer6 extends Layer {
+        Layer6(ImmutableNode delegate) {
+            super(delegate);
+        }
+
+        @Override
+        ImmutableNode wrap(ImmutableNode node) {
+            return new Layer6(node);
+        }
+    }
+
+    /**
+     * Intercepts the values of the node and of its descendants, as the layers do
+     */
+    private abstract static class Interceptor implements NodeInterceptor {
+        @Nullable
+        @Override
+        public Object interceptValue(@Nonnull ImmutableNode node, @Nullable Object value) {
+            return value;
+        }
+
+        @Override
+        public boolean isInherited() {
+            return true;
+        }
+    }
+
+    private static final class Interceptor1 extends Interceptor {
+    }
+
+    private static final class Interceptor2 extends Interceptor {
+    }
+
+    private static final class Interceptor3 extends Interceptor {
+    }
+
+    private static final class Interceptor4 extends Interceptor {
+    }
+
+    private static final class Interceptor5 extends Interceptor {
+    }
+
+    private static final class Interceptor6 extends Interceptor {
+    }
+}
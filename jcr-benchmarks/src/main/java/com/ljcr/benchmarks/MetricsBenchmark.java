@@ -0,0 +1,85 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.utils.metrics.MetricsRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups by path and traversals of the avro users, directly (<code>none</code>) and through
+ * a {@link MetricsRepository} with metrics disabled (<code>off</code>), enabled (<code>on</code>),
+ * and enabled with allocation tracking (<code>allocations</code>).
+ * Lookups rotate over {@link AdapterBenchmark#SAMPLES} users spread over the whole repository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class MetricsBenchmark {
+    private int next;
+
+    @State(Scope.Benchmark)
+    public static class Users {
+        @Param({"none", "off", "on", "allocations"})
+        public String metrics;
+
+        @Param({"100000"})
+        public int nodes;
+
+        Repository ws;
+        CompiledPath[] paths;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Repository plain = AdapterBenchmark.open("avro", nodes);
+            if ("none".equals(metrics)) {
+                ws = plain;
+            } else {
+                MetricsRepository measured = new MetricsRepository(plain);
+                measured.getMetrics().setEnabled(!"off".equals(metrics));
+                measured.getMetrics().setAllocationTracking("allocations".equals(metrics));
+                ws = measured;
+            }
+
+            int count = UserDataGenerator.usersOf(nodes);
+            int samples = Math.min(AdapterBenchmark.SAMPLES, count);
+            paths = new CompiledPath[samples];
+            for (int i = 0; i < samples; i++) {
+                String reference = UserDataGenerator.referenceOf((int) ((long) i * count / samples));
+                paths[i] = NodePath.of("users", reference, "username").compile();
+            }
+        }
+    }
+
+    @Benchmark
+    public Object lookup(Users state) {
+        int i = next;
+        next = i + 1 == state.paths.length ? 0 : i + 1;
+        return state.ws.getItem(state.paths[i]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long traversal(Users state) {
+        return state.ws.getRootNode().getItem("users").getElements()
+                .filter(user -> user.getItem("username") != null)
+                .count();
+    }
+}
@@ -0,0 +1,118 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.dynamics.AvroAdapter;
+import com.ljcr.utils.IndexedRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution of user references and field access on the resolved users, on the forms with referencable types:
+ * avro, where the users map is a container type, directly and through an {@link IndexedRepository},
+ * and the relational adapter over H2, see {@link SrdbUsers}.
+ * <p>
+ * Like the tests of the relational adapter, the <code>srdb</code> form needs a Java 8 runtime.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Thread)
+public class ReferenceBenchmark {
+    private int next;
+
+    @State(Scope.Benchmark)
+    public static class References {
+        @Param({"avro", "avro-indexed", "srdb"})
+        public String format;
+
+        @Param({"1000", "100000", "10000000"})
+        public int nodes;
+
+        Repository ws;
+        SrdbUsers srdb;
+        String[] references;
+        ImmutableNodeObject[] users;
+        PropertyDefinition username;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            if ("srdb".equals(format)) {
+                srdb = SrdbUsers.open(nodes);
+            } else {
+                ws = AvroAdapter.createWs(UserDataGenerator.avro(nodes).toFile());
+                if ("avro-indexed".equals(format)) {
+                    ws = new IndexedRepository(ws);
+                }
+            }
+            int count = UserDataGenerator.usersOf(nodes);
+            int samples = Math.min(AdapterBenchmark.SAMPLES, count);
+            references = new String[samples];
+            users = new ImmutableNodeObject[samples];
+            for (int i = 0; i < samples; i++) {
+                references[i] = UserDataGenerator.referenceOf((int) ((long) i * count / samples));
+                users[i] = resolve(references[i]);
+            }
+            username = users[0].getTypeDefinition().getFieldDefByName("username");
+        }
+
+        ImmutableNodeObject resolve(String reference) {
+            return srdb != null ? srdb.findUser(reference) : ws.getNodeByReference("User", reference);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (srdb != null) {
+                srdb.close();
+            }
+        }
+    }
+
+    private int nextSample(References state) {
+        int i = next;
+        next = i + 1 == state.references.length ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public ImmutableNodeObject referenceResolution(References state) {
+        return state.resolve(state.references[nextSample(state)]);
+    }
+
+    @Benchmark
+    public Object fieldByName(References state) {
+        return state.users[nextSample(state)].getItem("username").getValue();
+    }
+
+    @Benchmark
+    public Object fieldByDefinition(References state) {
+        return state.users[nextSample(state)].getItem(state.username).getValue();
+    }
+
+    /**
+     * Resolves a reference and reads a field, as done for each <code>*Ref</code> field by the dynamic repository
+     */
+    @Benchmark
+    public Object resolveAndRead(References state) {
+        ImmutableNode user = state.resolve(state.references[nextSample(state)]);
+        return user.getItem(state.username).getValue();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.Repository;
+import com.ljcr.api.Session;
+import com.ljcr.utils.session.RepositorySession;
+import com.ljcr.utils.session.SessionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests of {@link #CALLS_PER_REQUEST} <code>getItem(Path)</code> and <code>itemExists(Path)</code> calls
+ * on the avro users, each one in a session of a {@link SessionPool} with a small or a large cache,
+ * or directly on the repository (<code>none</code>).
+ * 80% of the calls go to 20% of the paths, one path in eleven is missing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class SessionBenchmark {
+    private static final int CALLS_PER_REQUEST = 1000;
+    private static final int CALLS = 64 * 1024;
+
+    private int next;
+
+    @State(Scope.Benchmark)
+    public static class Sessions {
+        @Param({"none", "1000", "20000"})
+        public String cache;
+
+        @Param({"100000"})
+        public int nodes;
+
+        Repository ws;
+        SessionPool pool;
+        Path[] calls;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            ws = AdapterBenchmark.open("avro", nodes);
+            pool = "none".equals(cache) ? null : new SessionPool(ws, 4, Integer.parseInt(cache));
+            calls = calls(UserDataGenerator.usersOf(nodes));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public int request(Sessions state) {
+        Session session = state.pool == null ? new RepositoryOnlySession(state.ws) : state.pool.login("bench");
+        int found = 0;
+        for (int i = 0; i < CALLS_PER_REQUEST; i++) {
+            int call = next;
+            next = call + 1 == CALLS ? 0 : call + 1;
+            Path path = state.calls[call];
+            if (i % 2 == 0 ? session.itemExists(path) : session.getItem(path) != null) {
+                found++;
+            }
+        }
+        if (state.pool != null) {
+            state.pool.release((RepositorySession) session);
+        }
+        return found;
+    }
+
+    /**
+     * @return skewed sequence of paths of the users, one in eleven being missing
+     */
+    private static Path[] calls(int users) {
+        Path[] paths = new Path[users + users / 10];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = Paths.get("/users", UserDataGenerator.referenceOf(i < users ? i : users + i), "username");
+        }
+        Random random = new Random(42);
+        int hot = paths.length / 5;
+        Path[] calls = new Path[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            calls[i] = paths[random.nextInt(10) < 8 ? random.nextInt(hot) : hot + random.nextInt(paths.length - hot)];
+        }
+        return calls;
+    }
+
+    private static final class RepositoryOnlySession implements Session {
+        private final Repository ws;
+
+        RepositoryOnlySession(Repository ws) {
+            this.ws = ws;
+        }
+
+        @Override
+        public Repository getWorkspace() {
+            return ws;
+        }
+
+        @Override
+        public String getUserID() {
+            return null;
+        }
+
+        @Override
+        public void logout() {
+        }
+    }
+}
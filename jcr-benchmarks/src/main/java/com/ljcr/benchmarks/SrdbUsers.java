@@ -0,0 +1,156 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.srdb.RelationRepository;
+import com.ljcr.srdb.RelationalResourceBuilder;
+import com.ljcr.srdb.RelationalTypeDefinition;
+import com.ljcr.srdb.RepositoryReader;
+import com.ljcr.srdb.Resource;
+import com.ljcr.srdb.ResourceRepository;
+import com.ljcr.srdb.mods.TypeDefinitionBuilder;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.ljcr.benchmarks.UserDataGenerator.*;
+
+/**
+ * Users stored in an H2 file database by the relational adapter, read back with a {@link RepositoryReader}.
+ * <p>
+ * The relational adapter has no root node, so only the users are stored, without their email addresses:
+ * a referencable <code>User</code> type with the scalar fields of the other forms. The database is created
+ * on the first run through the JPA repositories of the adapter and reused afterwards.
+ */
+public final class SrdbUsers implements Closeable {
+    private static final int USERS_PER_TRANSACTION = 1000;
+
+    /**
+     * Type of the stored users, as known by the reader
+     */
+    public static final TypeDefinition USER_TYPE = new TypeDefinition() {
+        private final List<PropertyDefinition> fields = Arrays.asList(
+                StandardTypes.propertyOf("id", StandardTypes.LONG, 0),
+                StandardTypes.propertyOf("username", StandardTypes.STRING, 1),
+                StandardTypes.propertyOf("passwordHash", StandardTypes.STRING, 2),
+                StandardTypes.propertyOf("signupDate", StandardTypes.LONG, 3));
+
+        @Override
+        public String getIdentifier() {
+            return "User";
+        }
+
+        @Override
+        public List<PropertyDefinition> getDeclaredPropertyDefinitions() {
+            return fields;
+        }
+    };
+
+    private final ConfigurableApplicationContext context;
+    private final RepositoryReader reader;
+
+    private SrdbUsers(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.reader = new RepositoryReader(context.getBean(ResourceRepository.class), context.getBean(RelationRepository.class));
+    }
+
+    /**
+     * Opens the database of the users of a repository of the given number of nodes, creating it if needed
+     */
+    public static SrdbUsers open(int nodes) throws IOException {
+        Path db = dataDirectory().resolve("srdb-" + nodes);
+        Path done = dataDirectory().resolve("srdb-" + nodes + ".done");
+        boolean exists = Files.exists(done);
+        if (!exists) {
+            Files.deleteIfExists(db.resolveSibling(db.getFileName() + ".mv.db"));
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Configuration.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:file:" + db + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.initialization-mode=" + (exists ? "never" : "always"),
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        SrdbUsers users = new SrdbUsers(context);
+        if (!exists) {
+            users.insert(usersOf(nodes));
+            Files.createFile(done);
+        }
+        return users;
+    }
+
+    public RepositoryReader getReader() {
+        return reader;
+    }
+
+    /**
+     * @return user of the given reference, its fields are queried when accessed
+     */
+    public ImmutableNodeObject findUser(String reference) {
+        return (ImmutableNodeObject) reader.findResourceLazy(reference, USER_TYPE);
+    }
+
+    private void insert(int users) {
+        ResourceRepository res = context.getBean(ResourceRepository.class);
+        RelationRepository rels = context.getBean(RelationRepository.class);
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        RelationalTypeDefinition type = tx.execute(status -> new TypeDefinitionBuilder("User")
+                .isReferencable()
+                .field("id", StandardTypes.LONG)
+                .field("username", StandardTypes.STRING)
+                .field("passwordHash", StandardTypes.STRING)
+                .field("signupDate", StandardTypes.LONG)
+                .build(res, rels));
+        PropertyDefinition reference = type.getFieldDefByName("reference");
+        PropertyDefinition id = type.getFieldDefByName("id");
+        PropertyDefinition username = type.getFieldDefByName("username");
+        PropertyDefinition passwordHash = type.getFieldDefByName("passwordHash");
+        PropertyDefinition signupDate = type.getFieldDefByName("signupDate");
+
+        for (int from = 0; from < users; from += USERS_PER_TRANSACTION) {
+            int first = from;
+            int last = Math.min(users, from + USERS_PER_TRANSACTION);
+            tx.execute(status -> {
+                for (int user = first; user < last; user++) {
+                    new RelationalResourceBuilder(res, rels, type)
+                            .set(reference, referenceOf(user))
+                            .set(id, (long) user)
+                            .set(username, usernameOf(user))
+                            .set(passwordHash, passwordHashOf(user))
+                            .set(signupDate, signupDateOf(user))
+                            .build();
+                }
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackageClasses = ResourceRepository.class)
+    @EntityScan(basePackageClasses = Resource.class)
+    static class Configuration {
+    }
+}
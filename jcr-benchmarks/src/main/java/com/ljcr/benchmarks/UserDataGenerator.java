@@ -0,0 +1,229 @@
+package com.ljcr.benchmarks;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic data of the shape of the sample UserRepository, keyed by user reference:
+ * <pre>
+ * /users/u123/id=123(long)
+ * /users/u123/username=user123(string)
+ * /users/u123/passwordHash=...(string)
+ * /users/u123/signupDate=...(long)
+ * /users/u123/emailAddresses/0/address=user123@0.example.com(string)
+ * /users/u123/emailAddresses/0/dateAdded=...(long)
+ * /users/u123/emailAddresses/0/verified=true(boolean)
+ * /users/u123/emailAddresses/0/dateBounced=null(long)
+ * </pre>
+ * A user is {@link #NODES_PER_USER} nodes, the values only depend on the index of the user.
+ * <p>
+ * Generated files are kept in the directory of the system property <code>ljcr.benchmarks.data</code>
+ * (<code>target/benchmark-data</code> by default) and reused by the following runs.
+ */
+public final class UserDataGenerator {
+    public static final int EMAILS_PER_USER = 2;
+    public static final int NODES_PER_USER = 1 + 4 + 1 + EMAILS_PER_USER * (1 + 4);
+
+    private static final long EPOCH = 1_500_000_000_000L;
+
+    static final Schema EMAIL_SCHEMA = SchemaBuilder.record("EmailAddress").namespace("com.ljcr.benchmarks").fields()
+            .requiredString("address")
+            .requiredLong("dateAdded")
+            .requiredBoolean("verified")
+            .optionalLong("dateBounced")
+            .endRecord();
+
+    static final Schema USER_SCHEMA = SchemaBuilder.record("User").namespace("com.ljcr.benchmarks").fields()
+            .requiredLong("id")
+            .requiredString("username")
+            .requiredString("passwordHash")
+            .requiredLong("signupDate")
+            .name("emailAddresses").type().array().items(EMAIL_SCHEMA).noDefault()
+            .endRecord();
+
+    static final Schema USERS_SCHEMA = SchemaBuilder.record("Users").namespace("com.ljcr.benchmarks").fields()
+            .name("users").type().map().values(USER_SCHEMA).noDefault()
+            .endRecord();
+
+    private UserDataGenerator() {
+    }
+
+    /**
+     * @return number of users of a repository of about the given number of nodes
+     */
+    public static int usersOf(int nodes) {
+        return Math.max(1, nodes / NODES_PER_USER);
+    }
+
+    public static String referenceOf(int user) {
+        return "u" + user;
+    }
+
+    static String usernameOf(int user) {
+        return "user" + user;
+    }
+
+    static String passwordHashOf(int user) {
+        return Long.toHexString(user * 0x9E3779B97F4A7C15L);
+    }
+
+    static long signupDateOf(int user) {
+        return EPOCH + user * 1000L;
+    }
+
+    static String addressOf(int user, int email) {
+        return usernameOf(user) + "@" + email + ".example.com";
+    }
+
+    static long dateAddedOf(int user, int email) {
+        return signupDateOf(user) + email * 60_000L;
+    }
+
+    static boolean isVerified(int user, int email) {
+        return (user + email) % 3 != 0;
+    }
+
+    static Long dateBouncedOf(int user, int email) {
+        return isVerified(user, email) ? null : dateAddedOf(user, email) + 3_600_000L;
+    }
+
+    public static Path dataDirectory() {
+        Path dir = Paths.get(System.getProperty("ljcr.benchmarks.data", "target/benchmark-data")).toAbsolutePath();
+        try {
+            return Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return JSON file of the users of a repository of the given number of nodes
+     */
+    public static Path json(int nodes) throws IOException {
+        Path file = dataDirectory().resolve("users-" + nodes + ".json");
+        if (Files.exists(file)) {
+            return file;
+        }
+        Path tmp = Files.createTempFile(file.getParent(), "users", ".tmp");
+        try (JsonGenerator json = new JsonFactory().createJsonGenerator(tmp.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeObjectFieldStart("users");
+            for (int user = 0, users = usersOf(nodes); user < users; user++) {
+                json.writeObjectFieldStart(referenceOf(user));
+                json.writeNumberField("id", user);
+                json.writeStringField("username", usernameOf(user));
+                json.writeStringField("passwordHash", passwordHashOf(user));
+                json.writeNumberField("signupDate", signupDateOf(user));
+                json.writeArrayFieldStart("emailAddresses");
+                for (int email = 0; email < EMAILS_PER_USER; email++) {
+                    json.writeStartObject();
+                    json.writeStringField("address", addressOf(user, email));
+                    json.writeNumberField("dateAdded", dateAddedOf(user, email));
+                    json.writeBooleanField("verified", isVerified(user, email));
+                    Long bounced = dateBouncedOf(user, email);
+                    if (bounced == null) {
+                        json.writeNullField("dateBounced");
+                    } else {
+                        json.writeNumberField("dateBounced", bounced);
+                    }
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+        return Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return avro file of a single <code>Users</code> record, with the users of a repository of the given number of nodes
+     */
+    public static Path avro(int nodes) throws IOException {
+        Path file = dataDirectory().resolve("users-" + nodes + ".avro");
+        if (Files.exists(file)) {
+            return file;
+        }
+        int users = usersOf(nodes);
+        Map<String, GenericRecord> byReference = new LinkedHashMap<>(users * 4 / 3 + 1);
+        for (int user = 0; user < users; user++) {
+            List<GenericRecord> emails = new ArrayList<>(EMAILS_PER_USER);
+            for (int email = 0; email < EMAILS_PER_USER; email++) {
+                GenericRecord record = new GenericData.Record(EMAIL_SCHEMA);
+                record.put("address", addressOf(user, email));
+                record.put("dateAdded", dateAddedOf(user, email));
+                record.put("verified", isVerified(user, email));
+                record.put("dateBounced", dateBouncedOf(user, email));
+                emails.add(record);
+            }
+            GenericRecord record = new GenericData.Record(USER_SCHEMA);
+            record.put("id", (long) user);
+            record.put("username", usernameOf(user));
+            record.put("passwordHash", passwordHashOf(user));
+            record.put("signupDate", signupDateOf(user));
+            record.put("emailAddresses", new GenericData.Array<>(USER_SCHEMA.getField("emailAddresses").schema(), emails));
+            byReference.put(referenceOf(user), record);
+        }
+        GenericRecord root = new GenericData.Record(USERS_SCHEMA);
+        root.put("users", byReference);
+
+        Path tmp = Files.createTempFile(file.getParent(), "users", ".tmp");
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(USERS_SCHEMA))) {
+            writer.create(USERS_SCHEMA, tmp.toFile());
+            writer.append(root);
+        }
+        return Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return directory of a directory per user and email address and a file per value, empty files for nulls
+     */
+    public static Path filesystem(int nodes) throws IOException {
+        Path dir = dataDirectory().resolve("users-" + nodes);
+        Path done = dataDirectory().resolve("users-" + nodes + ".done");
+        if (Files.exists(done)) {
+            return dir;
+        }
+        Path usersDir = Files.createDirectories(dir.resolve("users"));
+        for (int user = 0, users = usersOf(nodes); user < users; user++) {
+            Path userDir = Files.createDirectories(usersDir.resolve(referenceOf(user)));
+            write(userDir.resolve("id"), user);
+            write(userDir.resolve("username"), usernameOf(user));
+            write(userDir.resolve("passwordHash"), passwordHashOf(user));
+            write(userDir.resolve("signupDate"), signupDateOf(user));
+            for (int email = 0; email < EMAILS_PER_USER; email++) {
+                Path emailDir = Files.createDirectories(userDir.resolve("emailAddresses").resolve(String.valueOf(email)));
+                write(emailDir.resolve("address"), addressOf(user, email));
+                write(emailDir.resolve("dateAdded"), dateAddedOf(user, email));
+                write(emailDir.resolve("verified"), isVerified(user, email));
+                write(emailDir.resolve("dateBounced"), dateBouncedOf(user, email));
+            }
+        }
+        Files.createFile(done);
+        return dir;
+    }
+
+    private static void write(Path file, Object value) throws IOException {
+        Files.write(file, value == null ? new byte[0] : value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
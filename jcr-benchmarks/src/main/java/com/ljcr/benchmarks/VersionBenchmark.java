@@ -0,0 +1,185 @@
+package com.ljcr.benchmarks;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.version.Version;
+import com.ljcr.jackson1x.JacksonAdapter;
+import com.ljcr.utils.version.VersionStore;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ObjectNode;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versions of a tree of 100k nodes (1000 objects of 99 fields) kept by a {@link VersionStore},
+ * each version changing a single field: <code>update</code> checks in a batch of versions in a fresh store,
+ * <code>read</code> looks up fields of the first or of the last of 10k versions,
+ * <code>footprint</code> reports as <code>retainedBytes</code> the heap retained by a store of 10k versions,
+ * measured after a settled GC before and after building it, the tree itself being shared by all runs.
+ * Run with <code>-prof gc</code> to compare the allocations per version.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class VersionBenchmark {
+    private static final int OBJECTS = 1000;
+    private static final int FIELDS = 99;
+    private static final int VERSIONS = 10_000;
+    private static final int SAMPLES = 1024;
+
+    private static final ImmutableNodeObject TREE = tree();
+
+    private int next;
+
+    @State(Scope.Thread)
+    public static class Updates {
+        VersionStore store;
+        Version last;
+        NodePath[] paths;
+        int version;
+
+        @Setup(Level.Trial)
+        public void setUpPaths() {
+            paths = paths(new Random(42), VERSIONS);
+        }
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            store = new VersionStore();
+            last = store.checkin("tree", TREE);
+            version = 0;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class History {
+        @Param({"first", "last"})
+        public String version;
+
+        Version read;
+        NodePath[] paths;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            VersionStore store = new VersionStore();
+            Version first = store.checkin("tree", TREE);
+            Version last = first;
+            Random random = new Random(42);
+            for (int i = 1; i < VERSIONS; i++) {
+                NodePath path = paths(random, 1)[0];
+                last = store.update(last, path, StandardValueNodes.ofLong(path.getName(1), i));
+            }
+            read = "first".equals(version) ? first : last;
+            paths = paths(new Random(7), SAMPLES);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, batchSize = VERSIONS)
+    @Measurement(iterations = 5, batchSize = VERSIONS)
+    public Version update(Updates state) {
+        int i = state.version;
+        state.version = i + 1 == VERSIONS ? 0 : i + 1;
+        NodePath path = state.paths[i];
+        state.last = state.store.update(state.last, path, StandardValueNodes.ofLong(path.getName(1), i));
+        return state.last;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long retainedBytes;
+        public long bytesPerVersion;
+        NodePath[] paths;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            paths = paths(new Random(42), VERSIONS);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public Version footprint(Footprint state) {
+        long before = settledHeap();
+        VersionStore store = new VersionStore();
+        Version last = store.checkin("tree", TREE);
+        for (int i = 1; i < VERSIONS; i++) {
+            NodePath path = state.paths[i];
+            last = store.update(last, path, StandardValueNodes.ofLong(path.getName(1), i));
+        }
+        long after = settledHeap();
+        // the store is reachable from the last version until the heap is measured
+        state.retainedBytes = after - before;
+        state.bytesPerVersion = state.retainedBytes / VERSIONS;
+        return last;
+    }
+
+    @Benchmark
+    public long read(History state) {
+        int i = next;
+        next = i + 1 == SAMPLES ? 0 : i + 1;
+        NodePath path = state.paths[i];
+        return state.read.getItem(path.getName(0)).asObjectNode().getItem(path.getName(1)).asLong();
+    }
+
+    /**
+     * @return used heap once a full GC no longer frees memory
+     */
+    private static long settledHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    private static NodePath[] paths(Random random, int count) {
+        NodePath[] paths = new NodePath[count];
+        for (int i = 0; i < count; i++) {
+            paths[i] = NodePath.of("o" + random.nextInt(OBJECTS), "f" + random.nextInt(FIELDS));
+        }
+        return paths;
+    }
+
+    private static ImmutableNodeObject tree() {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode json = mapper.createObjectNode();
+        for (int i = 0; i < OBJECTS; i++) {
+            ObjectNode object = json.putObject("o" + i);
+            for (int f = 0; f < FIELDS; f++) {
+                object.put("f" + f, (long) f);
+            }
+        }
+        return JacksonAdapter.of("tree", json).asObjectNode();
+    }
+}
@@ -0,0 +1,150 @@
+package com.ljcr.tests;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * In-memory nodes and repositories to build test fixtures
+ * <p>
+ * Fields are given as pairs of name and node, and kept in this order:
+ * <pre>
+ * repository(doc("", "a", doc("a", "id", StandardValueNodes.ofLong("id", 1))))
+ * </pre>
+ */
+public final class TestNodes {
+
+    private TestNodes() {
+    }
+
+    /**
+     * @return repository named test, having the given root node
+     */
+    public static Repository repository(ImmutableNode root) {
+        return new Repository() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public ImmutableNode getRootNode() {
+                return root;
+            }
+        };
+    }
+
+    /**
+     * @param fields pairs of field name and node
+     * @return map of the given fields
+     */
+    public static ImmutableNodeObject doc(@Nullable String name, Object... fields) {
+        return object(name, StandardTypes.MAP, fields);
+    }
+
+    /**
+     * @return map backed by the given fields, seeing their later changes
+     */
+    public static ImmutableNodeObject doc(@Nullable String name, Map<String, ImmutableNode> values) {
+        return object(name, StandardTypes.MAP, values);
+    }
+
+    /**
+     * @param fields pairs of field name and node
+     * @return object of the given type and fields
+     */
+    public static ImmutableNodeObject object(@Nullable String name, TypeDefinition type, Object... fields) {
+        Map<String, ImmutableNode> values = new LinkedHashMap<>();
+        for (int i = 0; i < fields.length; i += 2) {
+            values.put((String) fields[i], (ImmutableNode) fields[i + 1]);
+        }
+        return object(name, type, values);
+    }
+
+    /**
+     * @return object of the given type, backed by the given fields
+     */
+    public static ImmutableNodeObject object(@Nullable String name, TypeDefinition type, Map<String, ImmutableNode> values) {
+        return new ImmutableNodeObject() {
+            @Nonnull
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return type;
+            }
+
+            @Override
+            public Stream<String> getFieldNames() {
+                return values.keySet().stream();
+            }
+
+            @Override
+            public ImmutableNode getItem(@Nonnull String fieldName) {
+                return values.get(fieldName);
+            }
+
+            @Override
+            public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+                return values.get(field.getIdentifier());
+            }
+        };
+    }
+
+    /**
+     * @return unnamed array of the given elements
+     */
+    public static ImmutableNodeCollection array(ImmutableNode... elements) {
+        return new ImmutableNodeCollection() {
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return StandardTypes.ARRAY;
+            }
+
+            @Override
+            public Stream<ImmutableNode> getElements() {
+                return Arrays.stream(elements);
+            }
+        };
+    }
+
+    /**
+     * @return array of the given elements
+     */
+    public static ImmutableNodeCollection array(@Nullable String name, ImmutableNode... elements) {
+        return new ImmutableNodeCollection() {
+            @Nonnull
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return StandardTypes.ARRAY;
+            }
+
+            @Override
+            public Stream<ImmutableNode> getElements() {
+                return Arrays.stream(elements);
+            }
+        };
+    }
+}
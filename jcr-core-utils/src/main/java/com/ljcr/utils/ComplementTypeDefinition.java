@@ -0,0 +1,200 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.definitions.IdentityInterner;
+import com.ljcr.api.definitions.OnParentVersionAction;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.PropertyIndex;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Type of an {@link ImmutableResourceWithComplement}: the properties of the fallback type, in their order,
+ * followed by those only the principal type has. Each property knows the node answering it, the principal
+ * for the properties it declares.
+ * <p>
+ * Merged types are shared by all the nodes of the same pair of types, as long as one of them is in use.
+ */
+final class ComplementTypeDefinition implements TypeDefinition {
+    // keyed by identity of the types, as equal identifiers of distinct types may have distinct properties
+    private static final IdentityInterner<ComplementTypeDefinition> MERGED = new IdentityInterner<>();
+
+    @Nullable
+    private final TypeDefinition principal;
+    private final TypeDefinition fallback;
+    private final PropertyIndex properties;
+    private final boolean extended;
+
+    private ComplementTypeDefinition(@Nullable TypeDefinition principal, TypeDefinition fallback) {
+        this.principal = principal;
+        this.fallback = fallback;
+        List<Property> merged = new ArrayList<>();
+        for (PropertyDefinition field : fallback.getPropertyDefinitions()) {
+            PropertyDefinition principalField = principal == null ? null : principal.getFieldDefByName(field.getIdentifier());
+            merged.add(principalField != null
+                    ? new Property(principalField, true, merged.size())
+                    : new Property(field, false, merged.size()));
+        }
+        if (principal != null) {
+            for (PropertyDefinition field : principal.getPropertyDefinitions()) {
+                if (fallback.getFieldDefByName(field.getIdentifier()) == null) {
+                    merged.add(new Property(field, true, merged.size()));
+                }
+            }
+        }
+        this.properties = PropertyIndex.of(merged);
+        this.extended = properties.size() > fallback.getPropertyDefinitions().size();
+    }
+
+    static ComplementTypeDefinition of(@Nullable TypeDefinition principal, TypeDefinition fallback) {
+        return MERGED.intern(fallback, principal, () -> new ComplementTypeDefinition(principal, fallback));
+    }
+
+    /**
+     * @return type of the complemented nodes: the fallback type itself, unless the principal adds properties to it
+     */
+    TypeDefinition getNodeType() {
+        return extended ? this : fallback;
+    }
+
+    /**
+     * @return merged property of the same name as the field, or null if neither type has it
+     */
+    @Nullable
+    Property route(PropertyDefinition field) {
+        if (field instanceof Property && ((Property) field).owner() == this) {
+            return (Property) field;
+        }
+        return (Property) properties.byName(field.getIdentifier());
+    }
+
+    @Nullable
+    Property route(String fieldName) {
+        return (Property) properties.byName(fieldName);
+    }
+
+    @Override
+    public String getIdentifier() {
+        return fallback.getIdentifier();
+    }
+
+    @Override
+    public Collection<PropertyDefinition> getPropertyDefinitions() {
+        return properties.values();
+    }
+
+    @Override
+    public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
+        return properties.values();
+    }
+
+    @Override
+    public PropertyDefinition getFieldDefByName(String name) {
+        return properties.byName(name);
+    }
+
+    @Override
+    public PropertyDefinition getDeclaredFieldDefByName(String name) {
+        return properties.byName(name);
+    }
+
+    @Nullable
+    @Override
+    public PropertyDefinition getFieldDefByOrdinal(int ordinal) {
+        return properties.byOrdinal(ordinal);
+    }
+
+    @Override
+    public Collection<String> getDeclaredSupertypeNames() {
+        return fallback.getDeclaredSupertypeNames();
+    }
+
+    @Nullable
+    @Override
+    public TypeDefinition getValueType() {
+        return fallback.getValueType();
+    }
+
+    @Override
+    public boolean isReferencable() {
+        return fallback.isReferencable() || principal != null && principal.isReferencable();
+    }
+
+    @Override
+    public String toString() {
+        return fallback + "+" + principal;
+    }
+
+    /**
+     * Property of the principal or of the fallback type, at its position in the merged type
+     */
+    final class Property implements PropertyDefinition {
+        private final PropertyDefinition source;
+        private final boolean fromPrincipal;
+        private final int ordinal;
+
+        Property(PropertyDefinition source, boolean fromPrincipal, int ordinal) {
+            this.source = source;
+            this.fromPrincipal = fromPrincipal;
+            this.ordinal = ordinal;
+        }
+
+        ComplementTypeDefinition owner() {
+            return ComplementTypeDefinition.this;
+        }
+
+        /**
+         * @return property as defined by the type of the node answering it
+         */
+        PropertyDefinition getSource() {
+            return source;
+        }
+
+        boolean isFromPrincipal() {
+            return fromPrincipal;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return source.getIdentifier();
+        }
+
+        @Override
+        public TypeDefinition getType() {
+            return source.getType();
+        }
+
+        @Override
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        @Override
+        public boolean isMandatory() {
+            return source.isMandatory();
+        }
+
+        @Override
+        public boolean isFullTextSearchable() {
+            return source.isFullTextSearchable();
+        }
+
+        @Override
+        public boolean isIdentifier() {
+            return source.isIdentifier();
+        }
+
+        @Override
+        public OnParentVersionAction getOnParentVersion() {
+            return source.getOnParentVersion();
+        }
+
+        @Override
+        public String toString() {
+            return source.toString();
+        }
+    }
+}
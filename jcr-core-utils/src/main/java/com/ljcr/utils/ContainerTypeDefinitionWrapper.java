@@ -0,0 +1,109 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypeVisitor;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+public class ContainerTypeDefinitionWrapper implements ContainerTypeDefinition {
+    private final ContainerTypeDefinition delegate;
+
+    public ContainerTypeDefinitionWrapper(ContainerTypeDefinition delegate) {
+        this.delegate = delegate;
+    }
+
+    public ContainerTypeDefinition getDelegate() {
+        return delegate;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject findByReference(String id) {
+        return delegate.findByReference(id);
+    }
+
+    @Override
+    public Stream<ImmutableNodeObject> getItems() {
+        return delegate.getItems();
+    }
+
+    @Override
+    public String getIdentifier() {
+        return delegate.getIdentifier();
+    }
+
+    @Override
+    public <T> T accept(StandardTypeVisitor<T> visitor, Object context) {
+        return delegate.accept(visitor, context);
+    }
+
+    @Override
+    public Collection<PropertyDefinition> getPropertyDefinitions() {
+        return delegate.getPropertyDefinitions();
+    }
+
+    @Override
+    public PropertyDefinition getFieldDefByName(String name) {
+        return delegate.getFieldDefByName(name);
+    }
+
+    @Override
+    public PropertyDefinition getFieldDefByOrdinal(int ordinal) {
+        return delegate.getFieldDefByOrdinal(ordinal);
+    }
+
+    @Override
+    public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
+        return delegate.getDeclaredPropertyDefinitions();
+    }
+
+    @Override
+    public PropertyDefinition getDeclaredFieldDefByName(String name) {
+        return delegate.getDeclaredFieldDefByName(name);
+    }
+
+    @Override
+    public Collection<String> getDeclaredSupertypeNames() {
+        return delegate.getDeclaredSupertypeNames();
+    }
+
+    @Override
+    public boolean isAbstract() {
+        return delegate.isAbstract();
+    }
+
+    @Override
+    public boolean isMixin() {
+        return delegate.isMixin();
+    }
+
+    @Override
+    public boolean hasOrderableChildNodes() {
+        return delegate.hasOrderableChildNodes();
+    }
+
+    @Override
+    public boolean isQueryable() {
+        return delegate.isQueryable();
+    }
+
+    @Override
+    public TypeDefinition getValueType() {
+        return delegate.getValueType();
+    }
+
+    @Override
+    public boolean isReferencable() {
+        return delegate.isReferencable();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
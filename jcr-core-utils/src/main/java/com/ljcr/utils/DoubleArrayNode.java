@@ -0,0 +1,72 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * Collection of doubles backed by a <code>double[]</code>, read in bulk without creating element nodes
+ */
+public final class DoubleArrayNode extends ScalarArrayNode {
+    private final double[] values;
+
+    private DoubleArrayNode(@Nullable String name, double[] values) {
+        super(name, StandardTypes.arrayOf(StandardTypes.DOUBLE));
+        this.values = values;
+    }
+
+    /**
+     * @param values elements, the array is not copied
+     */
+    public static DoubleArrayNode of(@Nullable String name, double[] values) {
+        return new DoubleArrayNode(name, values);
+    }
+
+    @Override
+    public DoubleArrayNode withName(@Nullable String name) {
+        return new DoubleArrayNode(name, values);
+    }
+
+    @Nonnull
+    @Override
+    public Object getBackingObject() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    public double[] toDoubleArray() {
+        return values.clone();
+    }
+
+    public void forEachDouble(DoubleConsumer action) {
+        for (double value : values) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * @return sized stream, split by index ranges when parallel
+     */
+    public DoubleStream doubles() {
+        return Arrays.stream(values);
+    }
+
+    @Override
+    ImmutableNode element(int index) {
+        return StandardValueNodes.ofDouble(String.valueOf(index + 1), values[index]);
+    }
+}
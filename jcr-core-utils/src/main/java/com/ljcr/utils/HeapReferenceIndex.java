@@ -0,0 +1,27 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNodeObject;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class HeapReferenceIndex implements ReferenceIndex {
+    private final Map<String, ImmutableNodeObject> nodes = new HashMap<>();
+
+    HeapReferenceIndex(Stream<ImmutableNodeObject> items) {
+        items.forEachOrdered(node -> nodes.putIfAbsent(node.getName(), node));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject find(String reference) {
+        return nodes.get(reference);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+}
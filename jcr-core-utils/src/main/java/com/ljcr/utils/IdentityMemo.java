@@ -0,0 +1,81 @@
+package com.ljcr.utils;
+
+import javax.annotation.Nullable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Values derived from source objects, by identity of the source, such as the primitive arrays
+ * of the adapters' arrays: nodes created on each access share the value of their source,
+ * which is not expected to change once read.
+ * <p>
+ * Sources are weakly referenced and their values are held until the source is collected,
+ * so a value must not hold its source. Values are computed outside of any lock: a source read concurrently
+ * by two callers may be computed twice, one value is recorded. It is safe to share between threads.
+ */
+public final class IdentityMemo<S, V> {
+    private final ConcurrentMap<SourceKey, V> values = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    /**
+     * @return value of the source, computed by the factory the first time
+     */
+    public V get(S source, Function<? super S, ? extends V> factory) {
+        purge();
+        V value = values.get(new SourceKey(source, null));
+        if (value != null) {
+            return value;
+        }
+        V created = factory.apply(source);
+        V previous = values.putIfAbsent(new SourceKey(source, collected), created);
+        return previous != null ? previous : created;
+    }
+
+    /**
+     * @return number of entries, including those whose source was collected but not yet dropped
+     */
+    public int size() {
+        purge();
+        return values.size();
+    }
+
+    private void purge() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            values.remove(ref);
+        }
+    }
+
+    /**
+     * Weak reference to a source, equal to the keys of the same source while it is not collected
+     */
+    private static final class SourceKey extends WeakReference<Object> {
+        private final int hash;
+
+        SourceKey(Object source, @Nullable ReferenceQueue<Object> queue) {
+            super(source, queue);
+            this.hash = System.identityHashCode(source);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof SourceKey)) {
+                return false;
+            }
+            Object source = get();
+            return source != null && source == ((SourceKey) obj).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
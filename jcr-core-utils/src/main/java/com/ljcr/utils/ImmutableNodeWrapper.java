@@ -53,6 +53,12 @@ public class ImmutableNodeWrapper implements ImmutableNode {
         return delegate.getItem(fieldName);
     }
 
+    @Override
+    @Nullable
+    public ImmutableNode getItem(int ordinal) throws PathNotFoundException {
+        return delegate.getItem(ordinal);
+    }
+
     @Nonnull
     @Override
     public Stream<ImmutableNode> getElements() {
@@ -80,6 +86,10 @@ public class ImmutableNodeWrapper implements ImmutableNode {
         return delegate.getTypeDefinition();
     }
 
+    @Override
+    public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        delegate.acceptValue(visitor);
+    }
 
     @Override
     @Nullable
@@ -2,19 +2,28 @@ package com.ljcr.utils;
 
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
- * Resource of no relations. Only reference is set
+ * Resource of no relations. Only reference is set.
+ * <p>
+ * Properties declared by the type of the principal are read from it, the others from the fallback.
+ * The routing is computed once per pair of types, see {@link ComplementTypeDefinition}.
  */
 public class ImmutableResourceWithComplement extends ImmutableNodeWrapper implements ImmutableNode {
     private final ImmutableNode principal;
+    private final ComplementTypeDefinition type;
 
     public ImmutableResourceWithComplement(ImmutableNode principal, ImmutableNode fallback) {
         super(fallback);
         this.principal = principal;
+        this.type = ComplementTypeDefinition.of(principal.getTypeDefinition(), fallback.getTypeDefinition());
     }
 
     @Nonnull
@@ -23,14 +32,47 @@ public class ImmutableResourceWithComplement extends ImmutableNodeWrapper implem
         return super.getName();
     }
 
+    /**
+     * @return type of the fallback, or the merged type if the principal has properties the fallback has not
+     */
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return type.getNodeType();
+    }
+
     @Nullable
     @Override
     public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
-        PropertyDefinition pField = principal.getTypeDefinition().getFieldDefByName(field.getIdentifier());
-        if (pField != null) {
-            return principal.getItem(pField);
+        ComplementTypeDefinition.Property property = type.route(field);
+        if (property == null) {
+            return super.getItem(field);
+        } else if (property.isFromPrincipal()) {
+            return principal.getItem(property.getSource());
+        }
+        return super.getItem(property.getSource());
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
+        ComplementTypeDefinition.Property property = type.route(fieldName);
+        return property != null ? getItem(property) : super.getItem(fieldName);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(int ordinal) throws PathNotFoundException {
+        PropertyDefinition field = getTypeDefinition().getFieldDefByOrdinal(ordinal);
+        if (field == null) {
+            throw new PathNotFoundException("Property #" + ordinal + " not found on " + getTypeDefinition());
         }
+        return getItem(field);
+    }
 
-        return super.getItem(field);
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return type.getPropertyDefinitions().stream().map(this::getItem).filter(Objects::nonNull);
     }
 }
@@ -0,0 +1,40 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+
+import javax.annotation.Nullable;
+import java.util.function.Function;
+
+/**
+ * Container type resolving references with a {@link ReferenceIndex}, built on the first lookup
+ */
+class IndexedContainerTypeDefinition extends ContainerTypeDefinitionWrapper {
+    private final Function<ContainerTypeDefinition, ReferenceIndex> indexFactory;
+    private volatile ReferenceIndex index;
+
+    IndexedContainerTypeDefinition(ContainerTypeDefinition delegate, Function<ContainerTypeDefinition, ReferenceIndex> indexFactory) {
+        super(delegate);
+        this.indexFactory = indexFactory;
+    }
+
+    ReferenceIndex getIndex() {
+        ReferenceIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = indexFactory.apply(getDelegate());
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject findByReference(String id) {
+        return getIndex().find(id);
+    }
+}
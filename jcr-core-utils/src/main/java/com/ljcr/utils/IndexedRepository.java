@@ -0,0 +1,84 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.ItemNotFoundException;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repository resolving references with a {@link ReferenceIndex} per container type.
+ * <p>
+ * Known types are read once, when the repository is created, {@link #findContainerType(String)} is a map lookup.
+ * The index of a type is built on its first reference lookup, the wrapped repository must not change afterwards.
+ */
+public class IndexedRepository extends RepositoryWrapper {
+    private final List<TypeDefinition> knownTypes;
+    private final Map<String, IndexedContainerTypeDefinition> containerTypes;
+
+    public IndexedRepository(Repository delegate) {
+        this(delegate, ReferenceIndex::of);
+    }
+
+    /**
+     * @param indexFactory - e.g. {@link ReferenceIndex#offHeap(ContainerTypeDefinition)}
+     */
+    public IndexedRepository(Repository delegate, Function<ContainerTypeDefinition, ReferenceIndex> indexFactory) {
+        super(delegate);
+        Collection<TypeDefinition> types = delegate.getKnownTypes();
+        List<TypeDefinition> known = new ArrayList<>(types.size());
+        Map<String, IndexedContainerTypeDefinition> containers = new HashMap<>();
+        for (TypeDefinition type : types) {
+            if (type instanceof ContainerTypeDefinition) {
+                IndexedContainerTypeDefinition indexed = new IndexedContainerTypeDefinition((ContainerTypeDefinition) type, indexFactory);
+                containers.putIfAbsent(type.getIdentifier(), indexed);
+                known.add(indexed);
+            } else {
+                known.add(type);
+            }
+        }
+        this.knownTypes = Collections.unmodifiableList(known);
+        this.containerTypes = containers;
+    }
+
+    @Override
+    public Collection<TypeDefinition> getKnownTypes() {
+        return knownTypes;
+    }
+
+    @Nullable
+    @Override
+    public ContainerTypeDefinition findContainerType(String typeName) {
+        return containerTypes.get(typeName);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(TypeDefinition type, String id) throws ItemNotFoundException {
+        IndexedContainerTypeDefinition indexed = containerTypes.get(type.getIdentifier());
+        // identifiers of the types are unique with-in a repository
+        if (indexed != null && type instanceof ContainerTypeDefinition) {
+            return indexed.findByReference(id);
+        }
+        return super.getNodeByReference(type, id);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(String typeName, Object id) {
+        if (!(id instanceof String)) {
+            return null;
+        }
+        IndexedContainerTypeDefinition indexed = containerTypes.get(typeName);
+        return indexed != null ? indexed.findByReference((String) id) : null;
+    }
+}
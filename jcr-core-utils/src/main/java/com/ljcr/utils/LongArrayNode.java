@@ -0,0 +1,72 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Collection of longs backed by a <code>long[]</code>, read in bulk without creating element nodes
+ */
+public final class LongArrayNode extends ScalarArrayNode {
+    private final long[] values;
+
+    private LongArrayNode(@Nullable String name, long[] values) {
+        super(name, StandardTypes.arrayOf(StandardTypes.LONG));
+        this.values = values;
+    }
+
+    /**
+     * @param values elements, the array is not copied
+     */
+    public static LongArrayNode of(@Nullable String name, long[] values) {
+        return new LongArrayNode(name, values);
+    }
+
+    @Override
+    public LongArrayNode withName(@Nullable String name) {
+        return new LongArrayNode(name, values);
+    }
+
+    @Nonnull
+    @Override
+    public Object getBackingObject() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    public long getLong(int index) {
+        return values[index];
+    }
+
+    public long[] toLongArray() {
+        return values.clone();
+    }
+
+    public void forEachLong(LongConsumer action) {
+        for (long value : values) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * @return sized stream, split by index ranges when parallel
+     */
+    public LongStream longs() {
+        return Arrays.stream(values);
+    }
+
+    @Override
+    ImmutableNode element(int index) {
+        return StandardValueNodes.ofLong(String.valueOf(index + 1), values[index]);
+    }
+}
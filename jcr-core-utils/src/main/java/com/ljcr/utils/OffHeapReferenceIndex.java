@@ -0,0 +1,84 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNodeObject;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Open addressing hash table in a direct buffer. A slot is the hash of a reference and the position
+ * of its object plus one, zero for an empty slot; references are compared on the objects themselves.
+ */
+class OffHeapReferenceIndex implements ReferenceIndex {
+    private static final int SLOT = 8;
+
+    private final ImmutableNodeObject[] nodes;
+    private final ByteBuffer table;
+    private final int mask;
+
+    OffHeapReferenceIndex(Stream<ImmutableNodeObject> items) {
+        List<ImmutableNodeObject> all = items.collect(toList());
+        int capacity = Integer.highestOneBit(Math.max(all.size() * 2, 2) - 1) << 1;
+        this.mask = capacity - 1;
+        this.table = ByteBuffer.allocateDirect(capacity * SLOT);
+
+        List<ImmutableNodeObject> indexed = new ArrayList<>(all.size());
+        for (ImmutableNodeObject node : all) {
+            String reference = node.getName();
+            int slot = slotOf(reference, indexed);
+            if (slot < 0) {
+                slot = -slot - 1;
+                indexed.add(node);
+                table.putInt(slot * SLOT, hash(reference));
+                table.putInt(slot * SLOT + 4, indexed.size());
+            }
+        }
+        this.nodes = indexed.toArray(new ImmutableNodeObject[0]);
+    }
+
+    /**
+     * @return slot of the reference, or <code>-(free slot) - 1</code> if it is not in the table
+     */
+    private int slotOf(String reference, List<ImmutableNodeObject> indexed) {
+        int h = hash(reference);
+        for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+            int pos = table.getInt(slot * SLOT + 4);
+            if (pos == 0) {
+                return -slot - 1;
+            } else if (table.getInt(slot * SLOT) == h && reference.equals(indexed.get(pos - 1).getName())) {
+                return slot;
+            }
+        }
+    }
+
+    private static int hash(String reference) {
+        int h = reference.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject find(String reference) {
+        int h = hash(reference);
+        for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+            int pos = table.getInt(slot * SLOT + 4);
+            if (pos == 0) {
+                return null;
+            }
+            ImmutableNodeObject node = nodes[pos - 1];
+            if (table.getInt(slot * SLOT) == h && reference.equals(node.getName())) {
+                return node;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return nodes.length;
+    }
+}
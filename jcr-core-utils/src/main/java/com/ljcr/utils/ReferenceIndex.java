@@ -0,0 +1,39 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the objects of a container type by reference, built once from
+ * {@link ContainerTypeDefinition#getItems()}. If several objects have the same reference the first one is indexed.
+ */
+public interface ReferenceIndex {
+
+    /**
+     * @return object with the given reference or null
+     */
+    @Nullable
+    ImmutableNodeObject find(String reference);
+
+    /**
+     * @return number of indexed objects
+     */
+    int size();
+
+    /**
+     * @return index backed by a hash map
+     */
+    static ReferenceIndex of(ContainerTypeDefinition type) {
+        return new HeapReferenceIndex(type.getItems());
+    }
+
+    /**
+     * @return index keeping its hash table in a direct buffer, only the objects stay on the heap.
+     * Suited for large repositories with many small objects
+     */
+    static ReferenceIndex offHeap(ContainerTypeDefinition type) {
+        return new OffHeapReferenceIndex(type.getItems());
+    }
+}
@@ -1,16 +1,22 @@
 package com.ljcr.utils;
 
+import com.ljcr.api.CompiledPath;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
 import com.ljcr.api.Repository;
 import com.ljcr.api.definitions.ContainerTypeDefinition;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.api.exceptions.ItemNotFoundException;
 import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.observation.ObservationManager;
+import com.ljcr.api.query.Query;
+import com.ljcr.api.query.QueryExecutor;
 
 import javax.annotation.Nullable;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 public class RepositoryWrapper implements Repository {
     private final Repository delegate;
@@ -51,6 +57,18 @@ public class RepositoryWrapper implements Repository {
         return delegate.getItem(absPath);
     }
 
+    @Override
+    @Nullable
+    public ImmutableNode getItem(NodePath absPath) throws PathNotFoundException {
+        return delegate.getItem(absPath);
+    }
+
+    @Override
+    @Nullable
+    public ImmutableNode getItem(CompiledPath absPath) throws PathNotFoundException {
+        return delegate.getItem(absPath);
+    }
+
     @Override
     public Collection<TypeDefinition> getKnownTypes() {
         return delegate.getKnownTypes();
@@ -61,4 +79,19 @@ public class RepositoryWrapper implements Repository {
     public ContainerTypeDefinition findContainerType(String typeName) {
         return delegate.findContainerType(typeName);
     }
+
+    @Override
+    public QueryExecutor getQueryExecutor() {
+        return delegate.getQueryExecutor();
+    }
+
+    @Override
+    public Stream<ImmutableNodeObject> query(Query query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public ObservationManager getObservationManager() {
+        return delegate.getObservationManager();
+    }
 }
@@ -0,0 +1,105 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableItemVisitor;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.IndexedSpliterator;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.stream.Stream;
+
+/**
+ * Collection of scalars held in a primitive array. Element nodes are created on access,
+ * named by their position starting at 1 as the items of the adapters' collections.
+ */
+public abstract class ScalarArrayNode implements ImmutableNodeCollection {
+    @Nullable
+    private final String name;
+    private final TypeDefinition type;
+
+    ScalarArrayNode(@Nullable String name, TypeDefinition type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * @return number of elements
+     */
+    public abstract int size();
+
+    /**
+     * @return node of the same elements under another name, the elements are shared
+     */
+    public abstract ScalarArrayNode withName(@Nullable String name);
+
+    /**
+     * @return node of the element at the index, starting at 0
+     */
+    abstract ImmutableNode element(int index);
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return name != null ? name : ImmutableNodeCollection.super.getName();
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return type;
+    }
+
+    /**
+     * @param fieldName position of the element, starting at 1
+     */
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
+        int index;
+        try {
+            index = Integer.parseInt(fieldName) - 1;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return index >= 0 && index < size() ? element(index) : null;
+    }
+
+    /**
+     * @param index index of the element, starting at 0
+     * @throws PathNotFoundException if the index is out of range, as elements are never null
+     */
+    @Nonnull
+    @Override
+    public ImmutableNode getItem(int index) throws PathNotFoundException {
+        if (index < 0 || index >= size()) {
+            throw new PathNotFoundException("Element #" + index + " not found on " + type + " of size " + size());
+        }
+        return element(index);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        return IndexedSpliterator.stream(size(), this::element, parallel);
+    }
+
+    @Nullable
+    @Override
+    public <U> U accept(@Nonnull ImmutableItemVisitor<U> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, size=%d]", getClass().getSimpleName(), name, size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.IndexedSpliterator;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Collection of strings packed in a single pool: the elements are held by one string and their offsets,
+ * instead of an object per element. Elements are extracted from the pool when read.
+ */
+public final class StringArrayNode extends ScalarArrayNode {
+    private final String pool;
+    // offsets[i] is the start of the element i in the pool, offsets[size] its length
+    private final int[] offsets;
+
+    private StringArrayNode(@Nullable String name, String pool, int[] offsets) {
+        super(name, StandardTypes.arrayOf(StandardTypes.STRING));
+        this.pool = pool;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @param values non null elements
+     */
+    public static StringArrayNode of(@Nullable String name, Collection<String> values) {
+        StringBuilder pool = new StringBuilder();
+        int[] offsets = new int[values.size() + 1];
+        int i = 0;
+        for (String value : values) {
+            offsets[i++] = pool.length();
+            pool.append(value);
+        }
+        offsets[i] = pool.length();
+        return new StringArrayNode(name, pool.toString(), offsets);
+    }
+
+    @Override
+    public StringArrayNode withName(@Nullable String name) {
+        return new StringArrayNode(name, pool, offsets);
+    }
+
+    @Nonnull
+    @Override
+    public Object getBackingObject() {
+        return offsets;
+    }
+
+    @Override
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public String getString(int index) {
+        return pool.substring(offsets[index], offsets[index + 1]);
+    }
+
+    public String[] toStringArray() {
+        String[] values = new String[size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getString(i);
+        }
+        return values;
+    }
+
+    public void forEachString(Consumer<String> action) {
+        for (int i = 0, n = size(); i < n; i++) {
+            action.accept(getString(i));
+        }
+    }
+
+    /**
+     * @return sequential stream, see {@link #strings(boolean)}
+     */
+    public Stream<String> strings() {
+        return strings(false);
+    }
+
+    /**
+     * @return sized stream, split by index ranges when parallel
+     */
+    public Stream<String> strings(boolean parallel) {
+        return IndexedSpliterator.stream(size(), this::getString, parallel);
+    }
+
+    @Override
+    ImmutableNode element(int index) {
+        return new Element(String.valueOf(index + 1), getString(index));
+    }
+
+    private static final class Element implements ImmutableNodeScalar {
+        private final String name;
+        private final String value;
+
+        Element(String name, String value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public TypeDefinition getTypeDefinition() {
+            return StandardTypes.STRING;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public String asString() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}
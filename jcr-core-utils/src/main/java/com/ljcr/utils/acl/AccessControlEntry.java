@@ -0,0 +1,62 @@
+package com.ljcr.utils.acl;
+
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Privilege;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Rule granting or denying privileges to a principal on a sub-tree, optionally only on the nodes of a given type.
+ * <p>
+ * Rules on a path apply to the node at this path and to its descendants, unless a rule on a descendant
+ * overrides them. On a same path, denied privileges win over granted ones.
+ */
+public final class AccessControlEntry {
+    private final String principal;
+    private final NodePath path;
+    private final String typeName;
+    private final Set<Privilege> privileges;
+    private final boolean allow;
+
+    AccessControlEntry(String principal, NodePath path, @Nullable String typeName, Set<Privilege> privileges, boolean allow) {
+        this.principal = Objects.requireNonNull(principal);
+        this.path = Objects.requireNonNull(path);
+        this.typeName = typeName;
+        this.privileges = Collections.unmodifiableSet(EnumSet.copyOf(privileges));
+        this.allow = allow;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public NodePath getPath() {
+        return path;
+    }
+
+    /**
+     * @return identifier of the type of the nodes this rule applies to, null if it applies to all nodes
+     */
+    @Nullable
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public Set<Privilege> getPrivileges() {
+        return privileges;
+    }
+
+    public boolean isAllow() {
+        return allow;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s on %s%s", allow ? "allow" : "deny", principal, privileges, path,
+                typeName != null ? " for " + typeName : "");
+    }
+}
@@ -0,0 +1,84 @@
+package com.ljcr.utils.acl;
+
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Privilege;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Access control rules of a workspace, for all principals.
+ * <pre>
+ * AccessControlList acl = new AccessControlList()
+ *         .allow(AccessControlList.EVERYONE, NodePath.ROOT, Privilege.READ)
+ *         .deny(AccessControlList.EVERYONE, NodePath.of("/users"), Privilege.READ)
+ *         .allow("admins", NodePath.of("/users"), Privilege.READ)
+ *         .denyType(AccessControlList.EVERYONE, NodePath.ROOT, "Secret", Privilege.READ);
+ * Repository ws = new AccessControlledRepository(delegate, acl.compile(Arrays.asList(user, "admins")));
+ * </pre>
+ * Nothing is granted by default. The list is not thread-safe while rules are added, compiled rules are immutable.
+ */
+public class AccessControlList {
+    /**
+     * Principal of all sessions
+     */
+    public static final String EVERYONE = "everyone";
+
+    private final List<AccessControlEntry> entries = new ArrayList<>();
+
+    public AccessControlList allow(String principal, NodePath path, Privilege... privileges) {
+        return add(principal, path, null, true, privileges);
+    }
+
+    public AccessControlList deny(String principal, NodePath path, Privilege... privileges) {
+        return add(principal, path, null, false, privileges);
+    }
+
+    /**
+     * Grants privileges on the nodes of the given type, at or below the path
+     */
+    public AccessControlList allowType(String principal, NodePath path, String typeName, Privilege... privileges) {
+        return add(principal, path, typeName, true, privileges);
+    }
+
+    /**
+     * Denies privileges on the nodes of the given type, at or below the path
+     */
+    public AccessControlList denyType(String principal, NodePath path, String typeName, Privilege... privileges) {
+        return add(principal, path, typeName, false, privileges);
+    }
+
+    private AccessControlList add(String principal, NodePath path, String typeName, boolean allow, Privilege[] privileges) {
+        if (privileges.length == 0) {
+            throw new IllegalArgumentException("No privileges given for " + path);
+        }
+        entries.add(new AccessControlEntry(principal, path, typeName, EnumSet.copyOf(Arrays.asList(privileges)), allow));
+        return this;
+    }
+
+    public List<AccessControlEntry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Compiles the rules of the principals of a session, rules of {@link #EVERYONE} included
+     */
+    public PrivilegeTrie compile(Collection<String> principals) {
+        Set<String> applicable = new HashSet<>(principals);
+        applicable.add(EVERYONE);
+        return PrivilegeTrie.compile(entries.stream()
+                .filter(e -> applicable.contains(e.getPrincipal()))
+                .collect(Collectors.toList()));
+    }
+}
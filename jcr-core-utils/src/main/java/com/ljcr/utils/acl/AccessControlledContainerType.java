@@ -0,0 +1,39 @@
+package com.ljcr.utils.acl;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.utils.ContainerTypeDefinitionWrapper;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Container type skipping the items which can not be read. Its items have no known path,
+ * the rules of the root apply to them, as to the nodes found by reference.
+ */
+final class AccessControlledContainerType extends ContainerTypeDefinitionWrapper {
+    private final PrivilegeTrie.Node detached;
+
+    AccessControlledContainerType(PrivilegeTrie.Node detached, ContainerTypeDefinition delegate) {
+        super(delegate);
+        this.detached = detached;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject findByReference(String id) {
+        return visible(super.findByReference(id));
+    }
+
+    @Override
+    public Stream<ImmutableNodeObject> getItems() {
+        return super.getItems().map(this::visible).filter(Objects::nonNull);
+    }
+
+    @Nullable
+    private ImmutableNodeObject visible(@Nullable ImmutableNodeObject node) {
+        return node != null && detached.canRead(node.getTypeDefinition())
+                ? (ImmutableNodeObject) AccessControlledRepository.wrap(detached, node) : null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ljcr.utils.acl;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Collection with restricted elements, elements which can not be read are skipped
+ */
+final class AccessControlledNodeCollection implements ImmutableNodeCollection {
+    private final PrivilegeTrie.Node privileges;
+    private final ImmutableNode delegate;
+
+    AccessControlledNodeCollection(PrivilegeTrie.Node privileges, ImmutableNode delegate) {
+        this.privileges = privileges;
+        this.delegate = delegate;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return delegate.getTypeDefinition();
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
+        PrivilegeTrie.Node child = privileges.child(fieldName);
+        return child.isHidden() ? null : AccessControlledRepository.visible(child, delegate.getItem(fieldName));
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        return delegate.getElements(parallel)
+                .map(e -> AccessControlledRepository.visibleChild(privileges, e))
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]", getClass().getSimpleName(), delegate);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ljcr.utils.acl;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Object with restricted descendants. Fields which can not be read are not visible,
+ * fields without restrictions are returned as is.
+ */
+final class AccessControlledNodeObject implements ImmutableNodeObject {
+    private final PrivilegeTrie.Node privileges;
+    private final ImmutableNodeObject delegate;
+
+    AccessControlledNodeObject(PrivilegeTrie.Node privileges, ImmutableNodeObject delegate) {
+        this.privileges = privileges;
+        this.delegate = delegate;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return delegate.getTypeDefinition();
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+        PrivilegeTrie.Node child = privileges.child(field.getIdentifier());
+        return child.isHidden() ? null : AccessControlledRepository.visible(child, delegate.getItem(field));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
+        PrivilegeTrie.Node child = privileges.child(fieldName);
+        return child.isHidden() ? null : AccessControlledRepository.visible(child, delegate.getItem(fieldName));
+    }
+
+    @Override
+    public Stream<String> getFieldNames() {
+        return delegate.getFieldNames().filter(name -> !privileges.child(name).isHidden());
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        return delegate.getElements(parallel)
+                .map(e -> AccessControlledRepository.visibleChild(privileges, e))
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]", getClass().getSimpleName(), delegate);
+    }
+}
@@ -0,0 +1,281 @@
+package com.ljcr.utils.acl;
+
+import com.ljcr.api.AccessControlManager;
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Privilege;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.AccessDeniedException;
+import com.ljcr.api.exceptions.ItemNotFoundException;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.api.observation.Event;
+import com.ljcr.api.observation.EventFilter;
+import com.ljcr.api.observation.EventListener;
+import com.ljcr.api.observation.ObservationManager;
+import com.ljcr.api.query.Query;
+import com.ljcr.api.query.QueryExecutor;
+import com.ljcr.utils.RepositoryWrapper;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Repository showing only the items a session can read, according to its compiled rules.
+ * <p>
+ * Items of sub-trees without restrictions are returned as is, without any further check.
+ * Items with restricted descendants are wrapped and skip the descendants which can not be read,
+ * looking up their names in the {@link PrivilegeTrie}.
+ * <ul>
+ * <li>a node which can not be read hides its sub-tree from traversals, direct lookups by path
+ * still find the descendants granted by other rules;</li>
+ * <li>nodes of a type denied by a rule on types hide their sub-tree from lookups by path as well;</li>
+ * <li>nodes found by reference, by queries or as items of container types have no known path,
+ * the rules of the root apply to them;</li>
+ * <li>types denied by a rule on types at the root are not listed;</li>
+ * <li>listeners receive the events of the nodes which can be read only, whatever their filter.</li>
+ * </ul>
+ */
+public class AccessControlledRepository extends RepositoryWrapper {
+    private final PrivilegeTrie privileges;
+    private final PrivilegeTrie.Node detached;
+    // listeners registered on the delegate, by listener of the session
+    private final Map<EventListener, EventListener> listeners = new ConcurrentHashMap<>();
+
+    public AccessControlledRepository(Repository delegate, PrivilegeTrie privileges) {
+        super(delegate);
+        this.privileges = privileges;
+        this.detached = privileges.getRoot().child(null);
+    }
+
+    public AccessControlledRepository(Repository delegate, AccessControlList acl, Collection<String> principals) {
+        this(delegate, acl.compile(principals));
+    }
+
+    public PrivilegeTrie getPrivileges() {
+        return privileges;
+    }
+
+    public AccessControlManager getAccessControlManager() {
+        return this::privilegesOf;
+    }
+
+    /**
+     * The root is always returned, even if it can not be read, as the entry point to the readable descendants
+     */
+    @Override
+    public ImmutableNode getRootNode() {
+        return wrap(privileges.getRoot(), super.getRootNode());
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(Path absPath) throws PathNotFoundException {
+        return getItem(NodePath.of(absPath));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(NodePath absPath) throws PathNotFoundException {
+        return getItem(absPath.compile());
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(CompiledPath absPath) throws PathNotFoundException {
+        NodePath path = absPath.getPath();
+        if (path.isRoot()) {
+            return getRootNode();
+        }
+        if (!privileges.hasTypeRules()) {
+            PrivilegeTrie.Node node = privileges.nodeOf(path);
+            if ((node.getPrivileges() & PrivilegeTrie.READ) == 0) {
+                return null;
+            }
+            return wrap(node, super.getItem(absPath));
+        }
+
+        PrivilegeTrie.Node node = privileges.getRoot();
+        ImmutableNode item = super.getRootNode();
+        for (int idx = 0; idx < path.getNameCount() && item != null; idx++) {
+            node = node.child(path.getName(idx));
+            item = childOf(item, path.getName(idx));
+            if (item != null && node.deniesType(item.getTypeDefinition())) {
+                return null;
+            }
+        }
+        return item != null && node.canRead(item.getTypeDefinition()) ? wrap(node, item) : null;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(TypeDefinition type, String id) throws ItemNotFoundException {
+        return detached(super.getNodeByReference(type, id));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(String typeName, Object id) {
+        return detached(super.getNodeByReference(typeName, id));
+    }
+
+    @Override
+    public Collection<TypeDefinition> getKnownTypes() {
+        return super.getKnownTypes().stream()
+                .filter(type -> !detached.deniesType(type))
+                .map(type -> type instanceof ContainerTypeDefinition ? container((ContainerTypeDefinition) type) : type)
+                .collect(Collectors.toList());
+    }
+
+    @Nullable
+    @Override
+    public ContainerTypeDefinition findContainerType(String typeName) {
+        ContainerTypeDefinition type = super.findContainerType(typeName);
+        return type != null && !detached.deniesType(type) ? container(type) : null;
+    }
+
+    @Override
+    public ObservationManager getObservationManager() {
+        ObservationManager manager = super.getObservationManager();
+        return new ObservationManager() {
+            @Override
+            public void addEventListener(@Nonnull EventListener listener, @Nonnull EventFilter filter) {
+                manager.addEventListener(listeners.computeIfAbsent(listener, AccessControlledRepository.this::readable), filter);
+            }
+
+            @Override
+            public void removeEventListener(@Nonnull EventListener listener) {
+                EventListener registered = listeners.remove(listener);
+                if (registered != null) {
+                    manager.removeEventListener(registered);
+                }
+            }
+        };
+    }
+
+    @Override
+    public QueryExecutor getQueryExecutor() {
+        return this::query;
+    }
+
+    /**
+     * @throws AccessDeniedException if the session is not granted {@link Privilege#QUERY}
+     */
+    @Override
+    public Stream<ImmutableNodeObject> query(Query query) {
+        if ((privileges.getRoot().getPrivileges() & PrivilegeTrie.QUERY) == 0) {
+            throw new AccessDeniedException("Query not granted on " + getName());
+        }
+        return super.query(query)
+                .filter(n -> detached.canRead(n.getTypeDefinition()))
+                .map(n -> (ImmutableNodeObject) wrap(detached, n));
+    }
+
+    private Set<Privilege> privilegesOf(NodePath path) {
+        return PrivilegeTrie.privilegesOf(privilegesOf(path, null));
+    }
+
+    /**
+     * @param typeName type of the node at the path if it is not found, as for removed nodes
+     */
+    private int privilegesOf(NodePath path, @Nullable String typeName) {
+        if (!privileges.hasTypeRules()) {
+            return privileges.nodeOf(path).getPrivileges();
+        }
+        PrivilegeTrie.Node node = privileges.getRoot();
+        ImmutableNode item = super.getRootNode();
+        for (int idx = 0; idx < path.getNameCount(); idx++) {
+            node = node.child(path.getName(idx));
+            item = item != null ? childOf(item, path.getName(idx)) : null;
+            if (item != null && node.deniesType(item.getTypeDefinition())) {
+                return 0;
+            }
+        }
+        if (item != null) {
+            return node.privilegesOf(item.getTypeDefinition());
+        }
+        return typeName != null ? node.privilegesOf(() -> typeName) : node.getPrivileges();
+    }
+
+    /**
+     * @return listener receiving the events of the nodes which can be read, lost events being always delivered
+     */
+    private EventListener readable(EventListener listener) {
+        return events -> {
+            List<Event> visible = events.stream()
+                    .filter(e -> e.getType() == Event.Type.EVENTS_LOST
+                            || (privilegesOf(e.getPath(), e.getTypeName()) & PrivilegeTrie.READ) != 0)
+                    .collect(Collectors.toList());
+            if (!visible.isEmpty()) {
+                listener.onEvents(visible);
+            }
+        };
+    }
+
+    private ContainerTypeDefinition container(ContainerTypeDefinition type) {
+        return new AccessControlledContainerType(detached, type);
+    }
+
+    @Nullable
+    private ImmutableNodeObject detached(@Nullable ImmutableNodeObject node) {
+        return node != null && detached.canRead(node.getTypeDefinition()) ? (ImmutableNodeObject) wrap(detached, node) : null;
+    }
+
+    @Nullable
+    private static ImmutableNode childOf(ImmutableNode item, String name) {
+        try {
+            return item.getItem(name);
+        } catch (PathNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the child if it can be read, wrapped if it has restricted descendants
+     */
+    @Nullable
+    static ImmutableNode visibleChild(PrivilegeTrie.Node parent, @Nullable ImmutableNode child) {
+        return child != null ? visible(parent.child(nameOf(child)), child) : null;
+    }
+
+    @Nullable
+    static ImmutableNode visible(PrivilegeTrie.Node node, @Nullable ImmutableNode item) {
+        if (item == null || node.isHidden() || !node.canRead(item.getTypeDefinition())) {
+            return null;
+        }
+        return wrap(node, item);
+    }
+
+    @Nullable
+    static ImmutableNode wrap(PrivilegeTrie.Node node, @Nullable ImmutableNode item) {
+        if (item == null || node.isUnrestricted() || item.isScalarValue()) {
+            return item;
+        } else if (item.isObject()) {
+            return new AccessControlledNodeObject(node, item.asObjectNode());
+        } else if (item.isCollection()) {
+            return new AccessControlledNodeCollection(node, item);
+        }
+        return item;
+    }
+
+    @Nullable
+    private static String nameOf(ImmutableNode node) {
+        try {
+            return node.getName();
+        } catch (RepositoryException e) {
+            return null;
+        }
+    }
+}
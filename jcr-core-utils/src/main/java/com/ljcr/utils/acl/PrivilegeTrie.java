@@ -0,0 +1,244 @@
+package com.ljcr.utils.acl;
+
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Privilege;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Access control rules compiled into a prefix tree of path segments.
+ * <p>
+ * Each node of the tree holds the effective privileges at its path as a bitset, inherited rules already applied,
+ * so the privileges of a path are found by walking its segments, without looking at the rules.
+ * Paths below a leaf of the tree have the privileges of the leaf.
+ * <p>
+ * On a same node, rules of the named principals take precedence over the rules of
+ * {@link AccessControlList#EVERYONE}: a group allowed to read where everyone is denied can read.
+ * Between named principals, a deny wins over an allow.
+ */
+public final class PrivilegeTrie {
+    static final int READ = bit(Privilege.READ);
+    static final int QUERY = bit(Privilege.QUERY);
+
+    private final Node root;
+    private final boolean typeRules;
+    private final int size;
+
+    private PrivilegeTrie(Node root, boolean typeRules, int size) {
+        this.root = root;
+        this.typeRules = typeRules;
+        this.size = size;
+    }
+
+    public static PrivilegeTrie compile(Collection<AccessControlEntry> entries) {
+        Draft draft = new Draft();
+        boolean typeRules = false;
+        for (AccessControlEntry entry : entries) {
+            Draft node = draft;
+            NodePath path = entry.getPath();
+            for (int idx = 0; idx < path.getNameCount(); idx++) {
+                node = node.children.computeIfAbsent(path.getName(idx), n -> new Draft());
+            }
+            int bits = bitsOf(entry.getPrivileges());
+            int rule = (AccessControlList.EVERYONE.equals(entry.getPrincipal()) ? 0 : 2) + (entry.isAllow() ? 0 : 1);
+            if (entry.getTypeName() == null) {
+                node.rules[rule] |= bits;
+            } else {
+                typeRules = true;
+                node.types.computeIfAbsent(entry.getTypeName(), t -> new int[4])[rule] |= bits;
+            }
+        }
+        int[] size = new int[1];
+        return new PrivilegeTrie(draft.compile(0, null, size), typeRules, size[0]);
+    }
+
+    /**
+     * @return privileges granted at the path by the rules on paths, rules on types ignored
+     */
+    public Set<Privilege> getPrivileges(NodePath path) {
+        return privilegesOf(nodeOf(path).privileges);
+    }
+
+    /**
+     * @return whether some rules apply to nodes of a type only
+     */
+    public boolean hasTypeRules() {
+        return typeRules;
+    }
+
+    /**
+     * @return number of nodes of the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    Node nodeOf(NodePath path) {
+        Node node = root;
+        for (int idx = 0; idx < path.getNameCount() && !node.isLeaf(); idx++) {
+            node = node.child(path.getName(idx));
+        }
+        return node;
+    }
+
+    static int bit(Privilege privilege) {
+        return 1 << privilege.ordinal();
+    }
+
+    static int bitsOf(Collection<Privilege> privileges) {
+        int bits = 0;
+        for (Privilege privilege : privileges) {
+            bits |= bit(privilege);
+        }
+        return bits;
+    }
+
+    static Set<Privilege> privilegesOf(int bits) {
+        Set<Privilege> privileges = EnumSet.noneOf(Privilege.class);
+        for (Privilege privilege : Privilege.values()) {
+            if ((bits & bit(privilege)) != 0) {
+                privileges.add(privilege);
+            }
+        }
+        return privileges;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%d nodes, type rules: %s]", getClass().getSimpleName(), size, typeRules);
+    }
+
+    /**
+     * Compiled node: effective privileges at a path and the rules on types in effect there
+     */
+    static final class Node {
+        private final Map<String, Node> children;
+        private final int privileges;
+        private final Map<String, int[]> types;
+        private final Node descendant;
+
+        private Node(Map<String, Node> children, int privileges, @Nullable Map<String, int[]> types) {
+            this.children = children;
+            this.privileges = privileges;
+            this.types = types;
+            this.descendant = children.isEmpty() ? this : new Node(Collections.emptyMap(), privileges, types);
+        }
+
+        /**
+         * @return node of the child with the given name, shared by all children without rules
+         */
+        Node child(@Nullable String name) {
+            Node child = name != null ? children.get(name) : null;
+            return child != null ? child : descendant;
+        }
+
+        boolean isLeaf() {
+            return children.isEmpty();
+        }
+
+        int getPrivileges() {
+            return privileges;
+        }
+
+        int privilegesOf(TypeDefinition type) {
+            int[] rule = types != null ? types.get(type.getIdentifier()) : null;
+            return rule == null ? privileges : (privileges | rule[0]) & ~rule[1];
+        }
+
+        boolean canRead(TypeDefinition type) {
+            return (privilegesOf(type) & READ) != 0;
+        }
+
+        /**
+         * @return whether reading of nodes of this type is denied explicitly by a rule on types
+         */
+        boolean deniesType(TypeDefinition type) {
+            int[] rule = types != null ? types.get(type.getIdentifier()) : null;
+            return rule != null && (rule[1] & READ) != 0;
+        }
+
+        /**
+         * @return whether the node and all its descendants can be read, whatever their types
+         */
+        boolean isUnrestricted() {
+            return children.isEmpty() && types == null && (privileges & READ) != 0;
+        }
+
+        /**
+         * @return whether neither the node nor any of its descendants can be read
+         */
+        boolean isHidden() {
+            return children.isEmpty() && (privileges & READ) == 0 && !grantsReadOnTypes();
+        }
+
+        private boolean grantsReadOnTypes() {
+            if (types != null) {
+                for (int[] rule : types.values()) {
+                    if ((rule[0] & ~rule[1] & READ) != 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Draft {
+        private final Map<String, Draft> children = new HashMap<>();
+        /**
+         * allowed and denied privileges of everyone, then of the named principals, by rule on types
+         */
+        private final Map<String, int[]> types = new HashMap<>();
+        private final int[] rules = new int[4];
+
+        Node compile(int inherited, @Nullable Map<String, int[]> inheritedTypes, int[] size) {
+            size[0]++;
+            int[] own = collapse(rules);
+            int privileges = (inherited | own[0]) & ~own[1];
+            Map<String, int[]> effectiveTypes = merge(inheritedTypes);
+            Map<String, Node> compiled = new HashMap<>(children.size() * 4 / 3 + 1);
+            children.forEach((name, child) -> compiled.put(name, child.compile(privileges, effectiveTypes, size)));
+            return new Node(compiled.isEmpty() ? Collections.emptyMap() : compiled, privileges, effectiveTypes);
+        }
+
+        /**
+         * Rules of this node override the inherited ones for a same type
+         */
+        @Nullable
+        private Map<String, int[]> merge(@Nullable Map<String, int[]> inheritedTypes) {
+            if (types.isEmpty()) {
+                return inheritedTypes;
+            }
+            Map<String, int[]> merged = inheritedTypes != null ? new HashMap<>(inheritedTypes) : new HashMap<>();
+            types.forEach((type, rule) -> merged.merge(type, collapse(rule), (parent, own) ->
+                    new int[]{(parent[0] & ~own[1]) | own[0], (parent[1] & ~own[0]) | own[1]}));
+            return merged;
+        }
+
+        /**
+         * @return allowed and denied privileges of the rules of a node, the inherited privileges becoming
+         * <code>(inherited | allowed) &amp; ~denied</code>: the same as applying the rules of everyone first,
+         * then the rules of the named principals
+         */
+        private static int[] collapse(int[] rules) {
+            int everyoneAllow = rules[0];
+            int everyoneDeny = rules[1];
+            int namedAllow = rules[2];
+            int namedDeny = rules[3];
+            return new int[]{
+                    ((everyoneAllow & ~everyoneDeny) | namedAllow) & ~namedDeny,
+                    (everyoneDeny & ~namedAllow) | namedDeny};
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ljcr.utils.cache;
+
+import com.ljcr.api.ImmutableNode;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable bounds of a {@link CachingRepository}: maximal weight of the cached nodes, with a weight of 1
+ * per node by default, optional time to live and number of independently locked stripes.
+ * <pre>
+ * CachePolicy.maximumWeight(1_000_000, n -&gt; n.isCollection() ? 10 : 1).expireAfterWrite(10, TimeUnit.MINUTES)
+ * </pre>
+ */
+@Nonnull
+public final class CachePolicy {
+    private static final ToLongFunction<ImmutableNode> SINGLETON = n -> 1;
+
+    private final long maximumWeight;
+    private final ToLongFunction<ImmutableNode> weigher;
+    private final long timeToLiveNanos;
+    private final int stripes;
+    private final LongSupplier ticker;
+
+    private CachePolicy(long maximumWeight, ToLongFunction<ImmutableNode> weigher, long timeToLiveNanos,
+                        int stripes, LongSupplier ticker) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.stripes = stripes;
+        this.ticker = ticker;
+    }
+
+    public static CachePolicy maximumSize(long nodes) {
+        return maximumWeight(nodes, SINGLETON);
+    }
+
+    /**
+     * @param weigher weight of a node, must be positive
+     */
+    public static CachePolicy maximumWeight(long weight, ToLongFunction<ImmutableNode> weigher) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive: " + weight);
+        }
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors() * 2)));
+        return new CachePolicy(weight, weigher, 0, stripes, System::nanoTime);
+    }
+
+    /**
+     * Nodes are reloaded from the delegate after the duration
+     */
+    public CachePolicy expireAfterWrite(long duration, TimeUnit unit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive: " + duration);
+        }
+        return new CachePolicy(maximumWeight, weigher, unit.toNanos(duration), stripes, ticker);
+    }
+
+    /**
+     * @param stripes number of independently locked parts of the cache, rounded up to a power of two.
+     *                Each part holds at most its share of the maximum weight, so small caches use fewer parts
+     */
+    public CachePolicy concurrencyLevel(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive: " + stripes);
+        }
+        int rounded = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        return new CachePolicy(maximumWeight, weigher, timeToLiveNanos, rounded, ticker);
+    }
+
+    CachePolicy ticker(LongSupplier ticker) {
+        return new CachePolicy(maximumWeight, weigher, timeToLiveNanos, stripes, ticker);
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public long getTimeToLive(TimeUnit unit) {
+        return unit.convert(timeToLiveNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int getConcurrencyLevel() {
+        return stripes;
+    }
+
+    ToLongFunction<ImmutableNode> getWeigher() {
+        return weigher;
+    }
+
+    LongSupplier getTicker() {
+        return ticker;
+    }
+
+    @Override
+    public String toString() {
+        return "CachePolicy[maximumWeight=" + maximumWeight + ", ttl=" + timeToLiveNanos + "ns, stripes=" + stripes + "]";
+    }
+}
@@ -0,0 +1,63 @@
+package com.ljcr.utils.cache;
+
+/**
+ * Counters of a {@link CachingRepository} since its creation. Expired nodes count as misses
+ */
+public final class CacheStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long size;
+    private final long weight;
+
+    CacheStatistics(long hitCount, long missCount, long evictionCount, long size, long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return hits per request, 1 if there was no request
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * @return nodes evicted to respect the maximum weight
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return number of cached nodes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return total weight of the cached nodes
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStatistics[hits=%d, misses=%d, hitRate=%.3f, evictions=%d, size=%d, weight=%d]",
+                hitCount, missCount, getHitRate(), evictionCount, size, weight);
+    }
+}
@@ -0,0 +1,252 @@
+package com.ljcr.utils.cache;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.ItemNotFoundException;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.observation.Event;
+import com.ljcr.api.observation.EventListener;
+import com.ljcr.utils.RepositoryWrapper;
+
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Repository keeping the nodes resolved by its delegate, by path and by reference, within the bounds of
+ * a {@link CachePolicy}. Missing nodes are not cached. It is safe to share between threads.
+ * <p>
+ * Cached nodes are those of the delegate: they must stay valid while the delegate does not change.
+ * Changes are reported by {@link #invalidate(NodePath)}, or by registering the listener of the cache.
+ * The cached paths are indexed as a tree, so that a change visits the cached ancestors and descendants
+ * of its path only. A node cached by reference is located at the path of the cached object node
+ * of the same {@link ImmutableNode#getBackingObject() backing object}, if any, and removed by the changes
+ * of this path only; nodes cached by reference at unknown paths are removed by all the changes:
+ * <pre>
+ * CachingRepository cached = new CachingRepository(ws, CachePolicy.maximumSize(100_000));
+ * ws.getObservationManager().addEventListener(cached.getInvalidationListener(), EventFilter.all());
+ * </pre>
+ */
+public class CachingRepository extends RepositoryWrapper {
+    private final CachePolicy policy;
+    private final NodeCache<Object> cache;
+    private final PathIndex paths = new PathIndex();
+    // paths of the cached objects, by backing object
+    private final Map<Identity, NodePath> objectPaths = new ConcurrentHashMap<>();
+    // cached references by their path, guarded by referencesAt, and those of unknown path
+    private final PathIndex referencedPaths = new PathIndex();
+    private final Map<NodePath, Set<Reference>> referencesAt = new HashMap<>();
+    private final Map<Reference, NodePath> referencePaths = new HashMap<>();
+    private final Set<Reference> unlocated = ConcurrentHashMap.newKeySet();
+    // keys being loaded, with the count of their loads, invalidated by the changes of their paths
+    private final Map<Object, Integer> loading = new ConcurrentHashMap<>();
+    private final EventListener invalidationListener = this::invalidateEvents;
+
+    public CachingRepository(Repository delegate, CachePolicy policy) {
+        super(delegate);
+        this.policy = policy;
+        this.cache = new NodeCache<>(policy, new NodeCache.KeyListener<Object>() {
+            @Override
+            public void added(Object key, ImmutableNode node) {
+                if (key instanceof NodePath) {
+                    paths.add((NodePath) key);
+                    if (node.isObject()) {
+                        objectPaths.put(new Identity(node.getBackingObject()), (NodePath) key);
+                    }
+                } else {
+                    NodePath path = objectPaths.get(new Identity(node.getBackingObject()));
+                    if (path != null) {
+                        locate((Reference) key, path);
+                    } else {
+                        unlocated.add((Reference) key);
+                    }
+                }
+            }
+
+            @Override
+            public void removed(Object key, ImmutableNode node) {
+                if (key instanceof NodePath) {
+                    paths.remove((NodePath) key);
+                    if (node.isObject()) {
+                        objectPaths.remove(new Identity(node.getBackingObject()), key);
+                    }
+                } else if (!unlocated.remove(key)) {
+                    unlocate((Reference) key);
+                }
+            }
+        });
+    }
+
+    public CachePolicy getPolicy() {
+        return policy;
+    }
+
+    public CacheStatistics getStatistics() {
+        return cache.statistics();
+    }
+
+    @Override
+    public ImmutableNode getRootNode() {
+        return load(NodePath.ROOT, super::getRootNode);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(TypeDefinition type, String id) throws ItemNotFoundException {
+        return load(new Reference(type.getIdentifier(), id), () -> super.getNodeByReference(type, id));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(String typeName, Object id) {
+        if (!(id instanceof String)) {
+            return super.getNodeByReference(typeName, id);
+        }
+        return load(new Reference(typeName, (String) id), () -> super.getNodeByReference(typeName, id));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(Path absPath) throws PathNotFoundException {
+        return getItem(NodePath.of(absPath));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(NodePath absPath) throws PathNotFoundException {
+        return load(absPath, () -> super.getItem(absPath));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(CompiledPath absPath) throws PathNotFoundException {
+        return load(absPath.getPath(), () -> super.getItem(absPath));
+    }
+
+    /**
+     * Removes the nodes of the path, of its ancestors holding it and of its descendants,
+     * by path and by reference. Nodes cached by reference at an unknown path are all removed,
+     * the nodes being loaded of these paths or by reference are not cached
+     */
+    public void invalidate(NodePath path) {
+        List<Object> keys = new ArrayList<>(paths.affectedBy(path));
+        synchronized (referencesAt) {
+            for (NodePath referenced : referencedPaths.affectedBy(path)) {
+                keys.addAll(referencesAt.get(referenced));
+            }
+        }
+        keys.addAll(unlocated);
+        for (Object key : loading.keySet()) {
+            if (!(key instanceof NodePath) || ((NodePath) key).startsWith(path) || path.startsWith((NodePath) key)) {
+                keys.add(key);
+            }
+        }
+        cache.invalidate(keys);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateIf(key -> true);
+    }
+
+    /**
+     * @return listener invalidating the paths of the received events
+     */
+    public EventListener getInvalidationListener() {
+        return invalidationListener;
+    }
+
+    /**
+     * Gets the node from the cache, the key being known as loading until the loaded node is cached
+     */
+    @Nullable
+    private <V extends ImmutableNode> V load(Object key, Supplier<V> loader) {
+        loading.merge(key, 1, Integer::sum);
+        try {
+            return cache.get(key, loader);
+        } finally {
+            loading.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private void locate(Reference reference, NodePath path) {
+        synchronized (referencesAt) {
+            referencePaths.put(reference, path);
+            referencesAt.computeIfAbsent(path, p -> new HashSet<>(2)).add(reference);
+            referencedPaths.add(path);
+        }
+    }
+
+    private void unlocate(Reference reference) {
+        synchronized (referencesAt) {
+            NodePath path = referencePaths.remove(reference);
+            Set<Reference> located = path == null ? null : referencesAt.get(path);
+            if (located != null && located.remove(reference) && located.isEmpty()) {
+                referencesAt.remove(path);
+                referencedPaths.remove(path);
+            }
+        }
+    }
+
+    private void invalidateEvents(Iterable<Event> events) {
+        for (Event event : events) {
+            invalidate(event.getPath());
+        }
+    }
+
+    /**
+     * Backing object of a node, compared by identity
+     */
+    private static final class Identity {
+        final Object object;
+
+        Identity(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Identity && ((Identity) obj).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+
+    private static final class Reference {
+        final String typeName;
+        final String id;
+
+        Reference(String typeName, String id) {
+            this.typeName = typeName;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Reference)) {
+                return false;
+            }
+            Reference other = (Reference) obj;
+            return typeName.equals(other.typeName) && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(typeName, id);
+        }
+    }
+}
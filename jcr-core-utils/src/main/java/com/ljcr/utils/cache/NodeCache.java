@@ -0,0 +1,277 @@
+package com.ljcr.utils.cache;
+
+import com.ljcr.api.ImmutableNode;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Segmented LRU cache split in stripes locked independently.
+ * <p>
+ * A stripe keeps new entries in a probation segment, and moves them to a protected segment of 80% of its weight
+ * when they are read again, so that a scan of many nodes only evicts other nodes read once.
+ * Entries leaving the protected segment go back to probation, entries are evicted from probation first.
+ * <p>
+ * Each stripe counts the invalidations of its keys, a node of the stripe loaded while an invalidation runs
+ * is returned but not cached.
+ */
+final class NodeCache<K> {
+    private static final int PROTECTED_PERCENT = 80;
+    private static final int MIN_STRIPE_WEIGHT = 8;
+
+    private static final class Entry<V extends ImmutableNode> {
+        final V value;
+        final long weight;
+        final long expiresAt;
+        boolean protect;
+
+        Entry(V value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Notified of the keys entering and leaving the cache with their node, under the lock of their stripe
+     */
+    interface KeyListener<K> {
+        void added(K key, ImmutableNode node);
+
+        void removed(K key, ImmutableNode node);
+    }
+
+    private final Stripe[] stripes;
+    private final KeyListener<? super K> listener;
+    private final ToLongFunction<ImmutableNode> weigher;
+    private final long timeToLive;
+    private final LongSupplier ticker;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    NodeCache(CachePolicy policy, KeyListener<? super K> listener) {
+        int count = policy.getConcurrencyLevel();
+        while (count > 1 && policy.getMaximumWeight() / count < MIN_STRIPE_WEIGHT) {
+            count >>= 1;
+        }
+        this.stripes = (Stripe[]) new NodeCache.Stripe[count];
+        long maximum = (policy.getMaximumWeight() + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(maximum);
+        }
+        this.weigher = policy.getWeigher();
+        this.timeToLive = policy.getTimeToLive(TimeUnit.NANOSECONDS);
+        this.ticker = policy.getTicker();
+        this.listener = listener;
+    }
+
+    /**
+     * @return cached node, or the node of the loader which is cached if not null. The loader is called
+     * without lock, concurrent misses of a key may load it several times. A node loaded while its stripe
+     * is invalidated is not cached
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    <V extends ImmutableNode> V get(K key, Supplier<V> loader) {
+        Stripe stripe = stripeOf(key);
+        long generation = stripe.generation;
+        Entry<?> cached = stripe.get(key);
+        if (cached != null) {
+            hits.increment();
+            return (V) cached.value;
+        }
+        misses.increment();
+        V loaded = loader.get();
+        if (loaded != null) {
+            long weight = weigher.applyAsLong(loaded);
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive: " + weight + " for " + key);
+            }
+            stripe.put(key, loaded, weight, generation);
+        }
+        return loaded;
+    }
+
+    /**
+     * Removes the keys, and prevents the nodes being loaded in their stripes from being cached
+     */
+    void invalidate(Iterable<? extends K> keys) {
+        for (K key : keys) {
+            stripeOf(key).invalidate(key);
+        }
+    }
+
+    void invalidateIf(Predicate<? super K> keys) {
+        for (Stripe stripe : stripes) {
+            stripe.removeIf(keys);
+        }
+    }
+
+    CacheStatistics statistics() {
+        long size = 0;
+        long weight = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.probation.size() + stripe.protectedEntries.size();
+                weight += stripe.probationWeight + stripe.protectedWeight;
+            }
+        }
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), size, weight);
+    }
+
+    private Stripe stripeOf(K key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private final class Stripe {
+        // insertion ordered: the first entry is the least recently used
+        final LinkedHashMap<K, Entry<?>> probation = new LinkedHashMap<>();
+        final LinkedHashMap<K, Entry<?>> protectedEntries = new LinkedHashMap<>();
+        final long maximum;
+        final long protectedMaximum;
+        long probationWeight;
+        long protectedWeight;
+        // incremented by the invalidations, a node loaded before is not cached
+        volatile long generation;
+
+        Stripe(long maximum) {
+            this.maximum = maximum;
+            this.protectedMaximum = maximum * PROTECTED_PERCENT / 100;
+        }
+
+        synchronized Entry<?> get(K key) {
+            Entry<?> entry = probation.get(key);
+            if (entry == null) {
+                entry = protectedEntries.get(key);
+            }
+            if (entry == null) {
+                return null;
+            } else if (timeToLive > 0 && ticker.getAsLong() - entry.expiresAt >= 0) {
+                remove(key, entry);
+                return null;
+            }
+            if (entry.protect) {
+                protectedEntries.remove(key);
+                protectedEntries.put(key, entry);
+            } else {
+                probation.remove(key);
+                probationWeight -= entry.weight;
+                entry.protect = true;
+                protectedEntries.put(key, entry);
+                protectedWeight += entry.weight;
+                demote();
+            }
+            return entry;
+        }
+
+        synchronized void put(K key, ImmutableNode value, long weight, long loadedAt) {
+            if (generation != loadedAt) {
+                return;
+            }
+            Entry<?> previous = probation.get(key);
+            if (previous == null) {
+                previous = protectedEntries.get(key);
+            }
+            if (previous != null) {
+                remove(key, previous);
+            }
+            if (weight > maximum) {
+                return;
+            }
+            long expiresAt = timeToLive > 0 ? ticker.getAsLong() + timeToLive : 0;
+            probation.put(key, new Entry<>(value, weight, expiresAt));
+            probationWeight += weight;
+            listener.added(key, value);
+            evict();
+        }
+
+        synchronized void invalidate(K key) {
+            generation++;
+            remove(key);
+        }
+
+        synchronized void remove(K key) {
+            Entry<?> entry = probation.get(key);
+            if (entry == null) {
+                entry = protectedEntries.get(key);
+            }
+            if (entry != null) {
+                remove(key, entry);
+            }
+        }
+
+        synchronized void removeIf(Predicate<? super K> keys) {
+            generation++;
+            removeIf(probation, keys);
+            removeIf(protectedEntries, keys);
+        }
+
+        private void removeIf(Map<K, Entry<?>> entries, Predicate<? super K> keys) {
+            for (Iterator<Map.Entry<K, Entry<?>>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<K, Entry<?>> e = it.next();
+                if (keys.test(e.getKey())) {
+                    it.remove();
+                    subtract(e.getValue());
+                    listener.removed(e.getKey(), e.getValue().value);
+                }
+            }
+        }
+
+        private void remove(K key, Entry<?> entry) {
+            (entry.protect ? protectedEntries : probation).remove(key);
+            subtract(entry);
+            listener.removed(key, entry.value);
+        }
+
+        private void subtract(Entry<?> entry) {
+            if (entry.protect) {
+                protectedWeight -= entry.weight;
+            } else {
+                probationWeight -= entry.weight;
+            }
+        }
+
+        /**
+         * Moves the least recently used protected entries back to probation
+         */
+        private void demote() {
+            Iterator<Map.Entry<K, Entry<?>>> it = protectedEntries.entrySet().iterator();
+            while (protectedWeight > protectedMaximum && it.hasNext()) {
+                Map.Entry<K, Entry<?>> e = it.next();
+                it.remove();
+                Entry<?> entry = e.getValue();
+                protectedWeight -= entry.weight;
+                entry.protect = false;
+                probation.put(e.getKey(), entry);
+                probationWeight += entry.weight;
+            }
+        }
+
+        private void evict() {
+            evict(probation);
+            evict(protectedEntries);
+        }
+
+        private void evict(Map<K, Entry<?>> entries) {
+            Iterator<Map.Entry<K, Entry<?>>> it = entries.entrySet().iterator();
+            while (probationWeight + protectedWeight > maximum && it.hasNext()) {
+                Map.Entry<K, Entry<?>> e = it.next();
+                it.remove();
+                subtract(e.getValue());
+                listener.removed(e.getKey(), e.getValue().value);
+                evictions.increment();
+            }
+        }
+    }
+}
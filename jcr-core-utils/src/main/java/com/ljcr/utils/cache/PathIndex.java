@@ -0,0 +1,102 @@
+package com.ljcr.utils.cache;
+
+import com.ljcr.api.NodePath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tree of the cached paths and of their ancestors, so that invalidating a path visits its ancestors
+ * and its subtree only.
+ */
+final class PathIndex {
+    private final Map<NodePath, Node> nodes = new HashMap<>();
+
+    private static final class Node {
+        final Set<String> children = new HashSet<>(4);
+        boolean cached;
+    }
+
+    synchronized void add(NodePath path) {
+        Node node = nodes.get(path);
+        if (node == null) {
+            node = new Node();
+            nodes.put(path, node);
+            link(path);
+        }
+        node.cached = true;
+    }
+
+    synchronized void remove(NodePath path) {
+        Node node = nodes.get(path);
+        if (node == null) {
+            return;
+        }
+        node.cached = false;
+        while (!node.cached && node.children.isEmpty()) {
+            nodes.remove(path);
+            NodePath parent = path.getParent();
+            if (parent == null) {
+                return;
+            }
+            node = nodes.get(parent);
+            node.children.remove(path.getName(path.getNameCount() - 1));
+            path = parent;
+        }
+    }
+
+    /**
+     * @return cached paths among the ancestors of the path, the path and its descendants
+     */
+    synchronized List<NodePath> affectedBy(NodePath path) {
+        List<NodePath> affected = new ArrayList<>();
+        for (NodePath ancestor = path.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+            Node node = nodes.get(ancestor);
+            if (node != null && node.cached) {
+                affected.add(ancestor);
+            }
+        }
+        collect(path, affected);
+        return affected;
+    }
+
+    synchronized int size() {
+        return nodes.size();
+    }
+
+    private void collect(NodePath path, List<NodePath> affected) {
+        Node node = nodes.get(path);
+        if (node == null) {
+            return;
+        }
+        if (node.cached) {
+            affected.add(path);
+        }
+        for (String name : node.children) {
+            collect(path.resolve(name), affected);
+        }
+    }
+
+    /**
+     * Links the new node to its parent, creating the missing ancestors
+     */
+    private void link(NodePath path) {
+        for (NodePath child = path; !child.isRoot(); child = child.getParent()) {
+            NodePath parent = child.getParent();
+            Node node = nodes.get(parent);
+            boolean linked = node != null;
+            if (!linked) {
+                node = new Node();
+                nodes.put(parent, node);
+            }
+            node.children.add(child.getName(child.getNameCount() - 1));
+            if (linked) {
+                return;
+            }
+        }
+    }
+}
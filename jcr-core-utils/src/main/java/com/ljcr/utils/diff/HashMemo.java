@@ -0,0 +1,87 @@
+package com.ljcr.utils.diff;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.utils.diff.MerkleTree.HashedNode;
+
+import javax.annotation.Nullable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hashed containers, by identity of their {@link ImmutableNode#getBackingObject() backing object}:
+ * the nodes created by an adapter on each access to the same content share their hashes.
+ * <p>
+ * Backing objects are weakly referenced, so that the entry of a node is dropped once its object is collected.
+ * Hashes are computed by the callers, outside of any lock: a container hashed concurrently by two callers
+ * is recorded once. It is safe to share between threads.
+ */
+final class HashMemo {
+    private final ConcurrentMap<NodeKey, HashedNode> hashes = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    @Nullable
+    HashedNode get(ImmutableNode node) {
+        purge();
+        return hashes.get(new NodeKey(node.getBackingObject(), null));
+    }
+
+    void put(ImmutableNode node, HashedNode hashed) {
+        hashes.putIfAbsent(new NodeKey(node.getBackingObject(), collected), hashed);
+    }
+
+    void remove(ImmutableNode node) {
+        hashes.remove(new NodeKey(node.getBackingObject(), null));
+    }
+
+    void clear() {
+        hashes.clear();
+        purge();
+    }
+
+    /**
+     * @return number of entries, including those whose object was collected but not yet dropped
+     */
+    int size() {
+        purge();
+        return hashes.size();
+    }
+
+    private void purge() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            hashes.remove(ref);
+        }
+    }
+
+    /**
+     * Weak reference to the backing object of a node, equal to the keys of the same object while it is not collected
+     */
+    private static final class NodeKey extends WeakReference<Object> {
+        private final int hash;
+
+        NodeKey(Object backing, @Nullable ReferenceQueue<Object> queue) {
+            super(backing, queue);
+            this.hash = System.identityHashCode(backing);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof NodeKey)) {
+                return false;
+            }
+            Object backing = get();
+            return backing != null && backing == ((NodeKey) obj).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
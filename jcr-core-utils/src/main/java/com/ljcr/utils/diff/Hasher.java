@@ -0,0 +1,186 @@
+package com.ljcr.utils.diff;
+
+import com.ljcr.api.PrimitiveValueVisitor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming 128-bit hash of a sequence of 64-bit words, with the block mixing and finalization of MurmurHash3 x64.
+ * Hashes only depend on the words, they are stable across runs and virtual machines.
+ * <p>
+ * Also hashes the values of scalars as a {@link PrimitiveValueVisitor}, each value being prefixed by a tag of its kind.
+ */
+final class Hasher implements PrimitiveValueVisitor {
+    static final long SCALAR = 0x5ca1a7L;
+    static final long OBJECT = 0x0b1ec7L;
+    static final long COLLECTION = 0xc011ecL;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final long NULL = 0;
+    private static final long BOOLEAN = 1;
+    private static final long LONG = 2;
+    private static final long DOUBLE = 3;
+    private static final long STRING = 4;
+    private static final long BYTES = 5;
+
+    private long h1;
+    private long h2;
+    private long pending;
+    private boolean hasPending;
+    private long words;
+
+    Hasher reset(long seed) {
+        h1 = seed;
+        h2 = seed;
+        hasPending = false;
+        words = 0;
+        return this;
+    }
+
+    Hasher putLong(long word) {
+        if (hasPending) {
+            mix(pending, word);
+            hasPending = false;
+        } else {
+            pending = word;
+            hasPending = true;
+        }
+        words++;
+        return this;
+    }
+
+    /**
+     * Hashes the length then the characters, four per word
+     */
+    Hasher putString(String s) {
+        int length = s.length();
+        putLong(length);
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            putLong((long) s.charAt(i) << 48 | (long) s.charAt(i + 1) << 32 | (long) s.charAt(i + 2) << 16 | s.charAt(i + 3));
+        }
+        if (i < length) {
+            long word = 0;
+            for (; i < length; i++) {
+                word = word << 16 | s.charAt(i);
+            }
+            putLong(word);
+        }
+        return this;
+    }
+
+    Hasher putBytes(ByteBuffer bytes) {
+        ByteBuffer b = bytes.duplicate();
+        putLong(b.remaining());
+        while (b.remaining() >= 8) {
+            putLong(b.getLong());
+        }
+        if (b.hasRemaining()) {
+            long word = 0;
+            while (b.hasRemaining()) {
+                word = word << 8 | (b.get() & 0xff);
+            }
+            putLong(word);
+        }
+        return this;
+    }
+
+    long high() {
+        finish();
+        return h1;
+    }
+
+    /**
+     * Only valid after {@link #high()}
+     */
+    long low() {
+        return h2;
+    }
+
+    NodeHash hash() {
+        return new NodeHash(high(), low());
+    }
+
+    private void finish() {
+        if (hasPending) {
+            long k1 = pending * C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            hasPending = false;
+        }
+        h1 ^= words;
+        h2 ^= words;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+    }
+
+    private void mix(long k1, long k2) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public void onNull() {
+        putLong(NULL);
+    }
+
+    @Override
+    public void onBoolean(boolean value) {
+        putLong(BOOLEAN).putLong(value ? 1 : 0);
+    }
+
+    @Override
+    public void onLong(long value) {
+        putLong(LONG).putLong(value);
+    }
+
+    @Override
+    public void onDouble(double value) {
+        putLong(DOUBLE).putLong(Double.doubleToLongBits(value));
+    }
+
+    @Override
+    public void onString(String value) {
+        putLong(STRING).putString(value);
+    }
+
+    @Override
+    public void onObject(Object value) {
+        if (value instanceof ByteBuffer) {
+            putLong(BYTES).putBytes((ByteBuffer) value);
+        } else if (value instanceof byte[]) {
+            putLong(BYTES).putBytes(ByteBuffer.wrap((byte[]) value));
+        } else {
+            onString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.ljcr.utils.diff;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.NodeCursor;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Content hashes of all the nodes of a tree, computed in a single pass of a {@link NodeCursor},
+ * or by walking the nodes when the hashes of shared subtrees are memoized by {@link TreeDiff}.
+ * <p>
+ * The hash of a scalar covers its type name and value. The hash of a container covers its kind, type name
+ * and the names and hashes of its children: fields of objects are hashed in the order of their names,
+ * so that two objects with the same fields are equal whatever the order of the fields,
+ * elements of collections are hashed in order. Elements of collections are named by their position, starting at 1,
+ * as for {@link ImmutableNode#getItem(String)}.
+ * <p>
+ * Only the containers are kept as nodes, the hashes of the scalars are stored in their parent.
+ */
+public final class MerkleTree {
+
+    /**
+     * Hashed container, its children are sorted by name for objects and by position for collections
+     */
+    static final class HashedNode {
+        final String typeName;
+        final boolean object;
+        final long high;
+        final long low;
+        final String[] names;
+        final long[] hashes;
+        final String[] typeNames;
+        /**
+         * children which are containers, <code>null</code> for scalars
+         */
+        final HashedNode[] containers;
+
+        HashedNode(String typeName, boolean object, long high, long low,
+                   String[] names, long[] hashes, String[] typeNames, HashedNode[] containers) {
+            this.typeName = typeName;
+            this.object = object;
+            this.high = high;
+            this.low = low;
+            this.names = names;
+            this.hashes = hashes;
+            this.typeNames = typeNames;
+            this.containers = containers;
+        }
+
+        int size() {
+            return names.length;
+        }
+
+        boolean sameHash(int idx, HashedNode other, int otherIdx) {
+            return hashes[2 * idx] == other.hashes[2 * otherIdx] && hashes[2 * idx + 1] == other.hashes[2 * otherIdx + 1];
+        }
+
+        /**
+         * @return position of the child, or -1
+         */
+        int indexOf(String name) {
+            if (object) {
+                int idx = Arrays.binarySearch(names, name);
+                return idx >= 0 ? idx : -1;
+            }
+            try {
+                int idx = Integer.parseInt(name) - 1;
+                return idx >= 0 && idx < names.length ? idx : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    private static final class Builder {
+        final String name;
+        final String typeName;
+        final boolean object;
+        final List<String> names = new ArrayList<>();
+        final List<String> typeNames = new ArrayList<>();
+        final List<HashedNode> containers = new ArrayList<>();
+        long[] hashes = new long[16];
+
+        Builder(String name, String typeName, boolean object) {
+            this.name = name;
+            this.typeName = typeName;
+            this.object = object;
+        }
+
+        void add(String name, String typeName, long high, long low, @Nullable HashedNode container) {
+            int idx = names.size();
+            if (2 * idx + 2 > hashes.length) {
+                hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            }
+            hashes[2 * idx] = high;
+            hashes[2 * idx + 1] = low;
+            names.add(name);
+            typeNames.add(typeName);
+            containers.add(container);
+        }
+
+        HashedNode build(Hasher hasher) {
+            int size = names.size();
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            if (object) {
+                Arrays.sort(order, (a, b) -> names.get(a).compareTo(names.get(b)));
+            }
+
+            String[] sortedNames = new String[size];
+            long[] sortedHashes = new long[2 * size];
+            String[] sortedTypeNames = new String[size];
+            HashedNode[] sortedContainers = new HashedNode[size];
+            hasher.reset(object ? Hasher.OBJECT : Hasher.COLLECTION);
+            putNullable(hasher, typeName).putLong(size);
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                sortedNames[i] = names.get(from);
+                sortedHashes[2 * i] = hashes[2 * from];
+                sortedHashes[2 * i + 1] = hashes[2 * from + 1];
+                sortedTypeNames[i] = typeNames.get(from);
+                sortedContainers[i] = containers.get(from);
+                if (object) {
+                    hasher.putString(sortedNames[i]);
+                }
+                hasher.putLong(sortedHashes[2 * i]).putLong(sortedHashes[2 * i + 1]);
+            }
+            long high = hasher.high();
+            return new HashedNode(typeName, object, high, hasher.low(),
+                    sortedNames, sortedHashes, sortedTypeNames, sortedContainers);
+        }
+    }
+
+    /**
+     * Container being hashed from its node, its children are named as by the cursor
+     */
+    private static final class NodeFrame {
+        final ImmutableNode node;
+        final Builder builder;
+        final Iterator<ImmutableNode> elements;
+        int index;
+
+        NodeFrame(ImmutableNode node, Builder builder) {
+            this.node = node;
+            this.builder = builder;
+            this.elements = node.getElements().iterator();
+        }
+
+        @Nullable
+        ImmutableNode nextChild() {
+            while (elements.hasNext()) {
+                ImmutableNode child = elements.next();
+                if (child != null) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        String nameOf(ImmutableNode child) {
+            index++;
+            String name = null;
+            if (builder.object) {
+                try {
+                    name = child.getName();
+                } catch (RepositoryException e) {
+                    name = null;
+                }
+            }
+            return name != null ? name : Integer.toString(index);
+        }
+    }
+
+    private final long high;
+    private final long low;
+    @Nullable
+    private final String typeName;
+    @Nullable
+    private final HashedNode root;
+
+    private MerkleTree(long high, long low, @Nullable String typeName, @Nullable HashedNode root) {
+        this.high = high;
+        this.low = low;
+        this.typeName = typeName;
+        this.root = root;
+    }
+
+    public static MerkleTree of(Repository repository) {
+        return of(repository.getRootNode());
+    }
+
+    public static MerkleTree of(ImmutableNode node) {
+        Hasher hasher = new Hasher();
+        Deque<Builder> stack = new ArrayDeque<>();
+        try (NodeCursor cursor = node.cursor()) {
+            for (NodeCursor.Event e = cursor.next(); e != null; e = cursor.next()) {
+                switch (e) {
+                    case ENTER:
+                        stack.push(new Builder(nameOf(cursor, stack.peek()), typeNameOf(cursor), cursor.isObject()));
+                        break;
+                    case NEXT:
+                        String typeName = typeNameOf(cursor);
+                        hasher.reset(Hasher.SCALAR);
+                        putNullable(hasher, typeName);
+                        cursor.acceptValue(hasher);
+                        long high = hasher.high();
+                        if (stack.isEmpty()) {
+                            return new MerkleTree(high, hasher.low(), typeName, null);
+                        }
+                        stack.peek().add(nameOf(cursor, stack.peek()), typeName, high, hasher.low(), null);
+                        break;
+                    case EXIT:
+                        Builder builder = stack.pop();
+                        HashedNode hashed = builder.build(hasher);
+                        if (stack.isEmpty()) {
+                            return new MerkleTree(hashed.high, hashed.low, hashed.typeName, hashed);
+                        }
+                        stack.peek().add(builder.name, builder.typeName, hashed.high, hashed.low, hashed);
+                        break;
+                }
+            }
+        }
+        throw new IllegalStateException("Cursor ended before the end of its root");
+    }
+
+    /**
+     * Same hashes as {@link #of(ImmutableNode)}, computed by walking the nodes themselves:
+     * containers found in the memo are not visited again, the others are recorded in it.
+     * Subtrees shared by several trees, as the unchanged branches of versions, are hashed once.
+     */
+    static MerkleTree of(ImmutableNode node, HashMemo memo) {
+        if (!node.isObject() && !node.isCollection()) {
+            Hasher hasher = hashScalar(new Hasher(), node);
+            return new MerkleTree(hasher.high(), hasher.low(), typeNameOf(node), null);
+        }
+        HashedNode root = memo.get(node);
+        if (root == null) {
+            root = hashContainer(node, memo);
+        }
+        return new MerkleTree(root.high, root.low, root.typeName, root);
+    }
+
+    private static HashedNode hashContainer(ImmutableNode node, HashMemo memo) {
+        Hasher hasher = new Hasher();
+        Deque<NodeFrame> stack = new ArrayDeque<>();
+        stack.push(new NodeFrame(node, new Builder("", typeNameOf(node), node.isObject())));
+        while (true) {
+            NodeFrame frame = stack.peek();
+            ImmutableNode child = frame.nextChild();
+            if (child == null) {
+                stack.pop();
+                HashedNode hashed = frame.builder.build(hasher);
+                memo.put(frame.node, hashed);
+                if (stack.isEmpty()) {
+                    return hashed;
+                }
+                stack.peek().builder.add(frame.builder.name, hashed.typeName, hashed.high, hashed.low, hashed);
+                continue;
+            }
+
+            String name = frame.nameOf(child);
+            if (child.isObject() || child.isCollection()) {
+                HashedNode hashed = memo.get(child);
+                if (hashed != null) {
+                    frame.builder.add(name, hashed.typeName, hashed.high, hashed.low, hashed);
+                } else {
+                    stack.push(new NodeFrame(child, new Builder(name, typeNameOf(child), child.isObject())));
+                }
+            } else {
+                hashScalar(hasher, child);
+                long high = hasher.high();
+                frame.builder.add(name, typeNameOf(child), high, hasher.low(), null);
+            }
+        }
+    }
+
+    private static Hasher hashScalar(Hasher hasher, ImmutableNode node) {
+        hasher.reset(Hasher.SCALAR);
+        putNullable(hasher, typeNameOf(node));
+        node.acceptValue(hasher);
+        return hasher;
+    }
+
+    public NodeHash getRootHash() {
+        return new NodeHash(high, low);
+    }
+
+    /**
+     * @return hash of the node at the path relative to the root of the tree, or null if there is no such node
+     */
+    @Nullable
+    public NodeHash hashOf(NodePath path) {
+        if (path.isRoot()) {
+            return getRootHash();
+        }
+        HashedNode node = root;
+        for (int i = 0; node != null; i++) {
+            int idx = node.indexOf(path.getName(i));
+            if (idx < 0) {
+                return null;
+            } else if (i == path.getNameCount() - 1) {
+                return new NodeHash(node.hashes[2 * idx], node.hashes[2 * idx + 1]);
+            }
+            node = node.containers[idx];
+        }
+        return null;
+    }
+
+    @Nullable
+    HashedNode getRoot() {
+        return root;
+    }
+
+    @Nullable
+    String getRootTypeName() {
+        return typeName;
+    }
+
+    private static String nameOf(NodeCursor cursor, @Nullable Builder parent) {
+        if (parent == null) {
+            return "";
+        }
+        String name = parent.object ? cursor.getName() : null;
+        return name != null ? name : Integer.toString(cursor.getIndex() + 1);
+    }
+
+    @Nullable
+    private static String typeNameOf(ImmutableNode node) {
+        try {
+            return node.getTypeDefinition().getIdentifier();
+        } catch (RepositoryException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String typeNameOf(NodeCursor cursor) {
+        try {
+            return cursor.getTypeDefinition().getIdentifier();
+        } catch (RepositoryException e) {
+            return null;
+        }
+    }
+
+    private static Hasher putNullable(Hasher hasher, @Nullable String s) {
+        return s != null ? hasher.putString(s) : hasher.putLong(-1);
+    }
+}
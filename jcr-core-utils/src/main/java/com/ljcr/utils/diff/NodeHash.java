@@ -0,0 +1,47 @@
+package com.ljcr.utils.diff;
+
+/**
+ * 128-bit content hash of a node, see {@link MerkleTree}
+ */
+public final class NodeHash {
+    private final long high;
+    private final long low;
+
+    public NodeHash(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof NodeHash)) {
+            return false;
+        }
+        NodeHash other = (NodeHash) obj;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32));
+    }
+
+    /**
+     * @return 32 hexadecimal digits
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
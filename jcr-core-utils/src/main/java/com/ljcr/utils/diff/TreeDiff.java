@@ -0,0 +1,155 @@
+package com.ljcr.utils.diff;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.observation.Event;
+import com.ljcr.utils.diff.MerkleTree.HashedNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Differences between two repositories, found by comparing their {@link MerkleTree}s:
+ * subtrees with equal hashes are skipped without being visited.
+ * <p>
+ * Hashes of containers are memoized per {@link ImmutableNode#getBackingObject() backing object}, so a subtree
+ * shared by several repositories, as the unchanged branches of successive versions, is traversed once,
+ * including when the adapter wraps it in new nodes on each access. Nodes whose content changes in place
+ * must be {@link #invalidate(ImmutableNode) invalidated}, together with their ancestors.
+ * <p>
+ * Differences are reported as {@link Event}s, the same way as by the observation managers:
+ * children of objects are matched by field name, elements of collections by position.
+ * A node replaced by a node of another kind or type is reported as changed, without the details of its children.
+ */
+public final class TreeDiff {
+    private final HashMemo hashes = new HashMemo();
+
+    /**
+     * @return tree of the repository, reusing the memoized hashes of its containers
+     */
+    public MerkleTree treeOf(Repository repository) {
+        return MerkleTree.of(repository.getRootNode(), hashes);
+    }
+
+    /**
+     * Forgets the hash of the node, the hashes of its ancestors must be forgotten as well
+     */
+    public void invalidate(ImmutableNode node) {
+        hashes.remove(node);
+    }
+
+    public void invalidateAll() {
+        hashes.clear();
+    }
+
+    public Stream<Event> diff(Repository before, Repository after) {
+        return diff(treeOf(before), treeOf(after));
+    }
+
+    /**
+     * @return changes from <code>before</code> to <code>after</code>, computed lazily as the stream is consumed
+     */
+    public static Stream<Event> diff(MerkleTree before, MerkleTree after) {
+        Changes changes = new Changes();
+        if (!before.getRootHash().equals(after.getRootHash())) {
+            if (comparable(before.getRoot(), after.getRoot())) {
+                changes.pending.push(new Pair(NodePath.ROOT, before.getRoot(), after.getRoot()));
+            } else {
+                changes.events.add(Event.changed(NodePath.ROOT, after.getRootTypeName()));
+            }
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(changes, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static boolean comparable(HashedNode before, HashedNode after) {
+        return before != null && after != null && before.object == after.object && Objects.equals(before.typeName, after.typeName);
+    }
+
+    private static final class Pair {
+        final NodePath path;
+        final HashedNode before;
+        final HashedNode after;
+
+        Pair(NodePath path, HashedNode before, HashedNode after) {
+            this.path = path;
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    private static final class Changes implements Iterator<Event> {
+        final Deque<Pair> pending = new ArrayDeque<>();
+        final Deque<Event> events = new ArrayDeque<>();
+        private final List<Pair> children = new ArrayList<>();
+
+        @Override
+        public boolean hasNext() {
+            while (events.isEmpty() && !pending.isEmpty()) {
+                compare(pending.pop());
+            }
+            return !events.isEmpty();
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return events.poll();
+        }
+
+        private void compare(Pair pair) {
+            HashedNode before = pair.before;
+            HashedNode after = pair.after;
+            int i = 0;
+            int j = 0;
+            while (i < before.size() && j < after.size()) {
+                int cmp = before.object ? before.names[i].compareTo(after.names[j]) : 0;
+                if (cmp < 0) {
+                    events.add(Event.removed(pair.path.resolve(before.names[i]), before.typeNames[i]));
+                    i++;
+                } else if (cmp > 0) {
+                    events.add(Event.added(pair.path.resolve(after.names[j]), after.typeNames[j]));
+                    j++;
+                } else {
+                    compareChild(pair.path, before, i, after, j);
+                    i++;
+                    j++;
+                }
+            }
+            for (; i < before.size(); i++) {
+                events.add(Event.removed(pair.path.resolve(before.names[i]), before.typeNames[i]));
+            }
+            for (; j < after.size(); j++) {
+                events.add(Event.added(pair.path.resolve(after.names[j]), after.typeNames[j]));
+            }
+            // children are visited in order, before the siblings of their parent
+            for (int k = children.size() - 1; k >= 0; k--) {
+                pending.push(children.get(k));
+            }
+            children.clear();
+        }
+
+        private void compareChild(NodePath parent, HashedNode before, int i, HashedNode after, int j) {
+            if (before.sameHash(i, after, j)) {
+                return;
+            }
+            NodePath path = parent.resolve(after.names[j]);
+            if (comparable(before.containers[i], after.containers[j])) {
+                children.add(new Pair(path, before.containers[i], after.containers[j]));
+            } else {
+                events.add(Event.changed(path, after.typeNames[j]));
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.ljcr.utils.export;
+
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV (RFC 4180) export of flat rows, with a header line.
+ * <p>
+ * Columns are either given or, if none are given, taken from the fields of the first row; fields of other rows which are not columns
+ * are ignored and missing fields are left empty. Binary values are encoded in base 64.
+ */
+public final class CsvExportWriter extends FlatRowWriter {
+    private final Writer out;
+    private final List<String> columns;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final boolean columnsOfFirstRow;
+    private final Cell cell = new Cell();
+    private String[] row;
+    private boolean headerWritten;
+
+    public CsvExportWriter(Writer out) {
+        this(out, new ArrayList<>());
+    }
+
+    public CsvExportWriter(Writer out, List<String> columns) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+        this.columns = new ArrayList<>(columns);
+        for (int i = 0; i < this.columns.size(); i++) {
+            indexes.put(this.columns.get(i), i);
+        }
+        this.row = new String[this.columns.size()];
+        this.columnsOfFirstRow = columns.isEmpty();
+    }
+
+    @Override
+    protected void startRow(@Nullable String name, TypeDefinition type) {
+        Arrays.fill(row, null);
+    }
+
+    @Override
+    protected PrimitiveValueVisitor column(String name, TypeDefinition type) {
+        Integer idx = indexes.get(name);
+        if (idx == null && columnsOfFirstRow && !headerWritten) {
+            idx = columns.size();
+            columns.add(name);
+            indexes.put(name, idx);
+            row = Arrays.copyOf(row, columns.size());
+        }
+        cell.index = idx != null ? idx : -1;
+        return cell;
+    }
+
+    @Override
+    protected void endRow() {
+        try {
+            writeHeader();
+            writeLine(row);
+        } catch (IOException e) {
+            throw new RepositoryException("CSV row can not be written", e);
+        }
+    }
+
+    /**
+     * Also writes the header of given columns when there was no row
+     */
+    @Override
+    public void flush() {
+        try {
+            if (!columns.isEmpty()) {
+                writeHeader();
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new RepositoryException("CSV rows can not be written", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new RepositoryException("CSV rows can not be written", e);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            writeLine(columns.toArray(new String[0]));
+            headerWritten = true;
+        }
+    }
+
+    private void writeLine(String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeQuoted(values[i]);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private final class Cell implements PrimitiveValueVisitor {
+        int index;
+
+        private void set(String value) {
+            if (index >= 0) {
+                row[index] = value;
+            }
+        }
+
+        @Override
+        public void onNull() {
+            set(null);
+        }
+
+        @Override
+        public void onBoolean(boolean value) {
+            set(Boolean.toString(value));
+        }
+
+        @Override
+        public void onLong(long value) {
+            set(Long.toString(value));
+        }
+
+        @Override
+        public void onDouble(double value) {
+            set(Double.toString(value));
+        }
+
+        @Override
+        public void onString(String value) {
+            set(value);
+        }
+
+        @Override
+        public void onObject(Object value) {
+            if (value instanceof ByteBuffer) {
+                set(StandardCharsets.US_ASCII.decode(Base64.getEncoder().encode(((ByteBuffer) value).duplicate())).toString());
+            } else if (value instanceof byte[]) {
+                set(Base64.getEncoder().encodeToString((byte[]) value));
+            } else {
+                set(value.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ljcr.utils.export;
+
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nullable;
+
+/**
+ * Streaming sink of an {@link Exporter}, receiving the items of a tree in depth-first order.
+ * <p>
+ * Each container is announced by {@link #startObject} or {@link #startCollection}, followed by its elements
+ * and closed by {@link #endContainer()}. Names are given for the fields of objects only,
+ * they are <code>null</code> for the root and the elements of collections.
+ * <p>
+ * Writers are expected to write each item as it comes, keeping only what a row or the current path needs.
+ * Failures of the underlying sink are reported as <code>RepositoryException</code>s.
+ */
+public interface ExportWriter extends AutoCloseable {
+
+    void startObject(@Nullable String name, TypeDefinition type);
+
+    void startCollection(@Nullable String name, TypeDefinition type);
+
+    void endContainer();
+
+    /**
+     * @return visitor receiving the value of the scalar, called once before the next item
+     */
+    PrimitiveValueVisitor scalar(@Nullable String name, TypeDefinition type);
+
+    /**
+     * Writes the buffered items to the sink
+     */
+    default void flush() {
+    }
+
+    /**
+     * Flushes and releases the sink
+     */
+    @Override
+    void close();
+}
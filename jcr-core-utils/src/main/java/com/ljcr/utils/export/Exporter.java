@@ -0,0 +1,93 @@
+package com.ljcr.utils.export;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.NodeCursor;
+import com.ljcr.api.Repository;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Copies a tree into an {@link ExportWriter} with a {@link NodeCursor}, so that neither side holds more
+ * than the current path: nodes of the source are not materialized and the writer streams to its sink.
+ * An {@link com.ljcr.api.ImmutableItemVisitor} would need a node per item and a stack frame per level,
+ * the cursor walks the native structures of the adapters in a loop.
+ * <p>
+ * Progress is reported as the number of exported nodes, every <code>interval</code> nodes and at the end.
+ * <pre>
+ * try (ExportWriter writer = new CsvExportWriter(out)) {
+ *     new Exporter(n -&gt; log.info("{} nodes", n), 1_000_000).export(ws.getItem(path), writer);
+ * }
+ * </pre>
+ */
+public final class Exporter {
+    private static final LongConsumer NO_PROGRESS = n -> {
+    };
+
+    private final LongConsumer progress;
+    private final long interval;
+
+    public Exporter() {
+        this(NO_PROGRESS, Long.MAX_VALUE);
+    }
+
+    public Exporter(LongConsumer progress, long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Progress interval must be positive: " + interval);
+        }
+        this.progress = progress;
+        this.interval = interval;
+    }
+
+    public long export(Repository repository, ExportWriter writer) {
+        return export(repository.getRootNode(), writer);
+    }
+
+    /**
+     * Writes <code>root</code> and its descendants, the writer is flushed but not closed
+     *
+     * @return number of exported nodes
+     */
+    public long export(ImmutableNode root, ExportWriter writer) {
+        long nodes = 0;
+        boolean[] objects = new boolean[16];
+        try (NodeCursor cursor = root.cursor()) {
+            for (NodeCursor.Event e = cursor.next(); e != null; e = cursor.next()) {
+                if (e == NodeCursor.Event.EXIT) {
+                    writer.endContainer();
+                    continue;
+                }
+
+                int depth = cursor.getDepth();
+                String name = nameOf(cursor, depth, objects);
+                if (e == NodeCursor.Event.NEXT) {
+                    cursor.acceptValue(writer.scalar(name, cursor.getTypeDefinition()));
+                } else {
+                    if (depth == objects.length) {
+                        objects = Arrays.copyOf(objects, depth * 2);
+                    }
+                    objects[depth] = cursor.isObject();
+                    if (cursor.isObject()) {
+                        writer.startObject(name, cursor.getTypeDefinition());
+                    } else {
+                        writer.startCollection(name, cursor.getTypeDefinition());
+                    }
+                }
+                if (++nodes % interval == 0) {
+                    progress.accept(nodes);
+                }
+            }
+        }
+        writer.flush();
+        progress.accept(nodes);
+        return nodes;
+    }
+
+    private static String nameOf(NodeCursor cursor, int depth, boolean[] objects) {
+        if (depth == 0 || !objects[depth - 1]) {
+            return null;
+        }
+        String name = cursor.getName();
+        return name != null ? name : Integer.toString(cursor.getIndex() + 1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ljcr.utils.export;
+
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writer of tabular formats: each element of the exported container is a row, each scalar field of a row a column.
+ * Rows are passed to the subclass one at a time, nested containers in rows are not supported.
+ */
+public abstract class FlatRowWriter implements ExportWriter {
+    private int depth;
+
+    /**
+     * @param name field name of the row in an exported object, or null in an exported collection
+     */
+    protected abstract void startRow(@Nullable String name, TypeDefinition type);
+
+    protected abstract PrimitiveValueVisitor column(String name, TypeDefinition type);
+
+    protected abstract void endRow();
+
+    @Override
+    public void startObject(@Nullable String name, TypeDefinition type) {
+        if (depth == 1) {
+            startRow(name, type);
+        } else if (depth > 1) {
+            throw new UnsupportedRepositoryOperationException("Nested object in a row: " + name);
+        }
+        depth++;
+    }
+
+    @Override
+    public void startCollection(@Nullable String name, TypeDefinition type) {
+        if (depth > 0) {
+            throw new UnsupportedRepositoryOperationException("Collection in a row or as a row: " + name);
+        }
+        depth++;
+    }
+
+    @Override
+    public void endContainer() {
+        depth--;
+        if (depth == 1) {
+            endRow();
+        }
+    }
+
+    @Override
+    public PrimitiveValueVisitor scalar(@Nullable String name, TypeDefinition type) {
+        if (depth != 2) {
+            throw new UnsupportedRepositoryOperationException("Rows must be objects, not scalars: " + name);
+        }
+        return column(name, type);
+    }
+}
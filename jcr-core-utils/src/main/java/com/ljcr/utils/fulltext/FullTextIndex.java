@@ -0,0 +1,513 @@
+package com.ljcr.utils.fulltext;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index over the string values of the full-text searchable properties
+ * (see {@link PropertyDefinition#isFullTextSearchable()}) of the objects of container types.
+ * <p>
+ * Each indexed object is a document, identified by its type and reference (its name). Documents get
+ * increasing ids, the postings of a term are the ascending ids of the documents containing it,
+ * with the positions of the term, delta and varint encoded. Values of different properties are
+ * separated by a position gap, so phrases do not span properties.
+ * <p>
+ * Updating an object removes its previous document and appends a new one, removed documents are
+ * skipped by queries until {@link #compact()}. The index can be saved to a file and loaded back
+ * memory-mapped, postings are then read in place.
+ * <p>
+ * Document ids are stable until the next {@link #compact()}. The index is thread safe.
+ */
+public final class FullTextIndex {
+    private static final int MAGIC = 0x4c4a4654;
+    private static final int VERSION = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final List<String> docTypes = new ArrayList<>();
+    private final List<String> docReferences = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Map<String, Integer>> docsByType = new HashMap<>();
+    private final Map<TypeDefinition, List<PropertyDefinition>> searchableByType = new HashMap<>();
+
+    public FullTextIndex() {
+    }
+
+    /**
+     * @return index of the objects of all container types of the repository having full-text searchable properties
+     */
+    public static FullTextIndex of(Repository repository) {
+        FullTextIndex index = new FullTextIndex();
+        for (TypeDefinition type : repository.getKnownTypes()) {
+            if (type instanceof ContainerTypeDefinition && !searchablePropertiesOf(type).isEmpty()) {
+                ((ContainerTypeDefinition) type).getItems().forEach(index::update);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Indexes the object, replacing its previous version if any
+     */
+    public void update(@Nonnull ImmutableNodeObject node) {
+        String typeName = node.getTypeDefinition().getIdentifier();
+        String reference = Objects.requireNonNull(node.getName(), "Object without reference");
+        Map<String, int[]> positions = positionsOf(node);
+
+        lock.writeLock().lock();
+        try {
+            removeDoc(typeName, reference);
+            int doc = docReferences.size();
+            docTypes.add(typeName);
+            docReferences.add(reference);
+            live.set(doc);
+            docsByType.computeIfAbsent(typeName, k -> new HashMap<>()).put(reference, doc);
+            for (Map.Entry<String, int[]> e : positions.entrySet()) {
+                int[] pos = e.getValue();
+                terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(doc, pos, pos.length);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the object from the index
+     *
+     * @return false if the object was not indexed
+     */
+    public boolean remove(String typeName, String reference) {
+        lock.writeLock().lock();
+        try {
+            return removeDoc(typeName, reference);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeDoc(String typeName, String reference) {
+        Map<String, Integer> docs = docsByType.get(typeName);
+        Integer doc = docs != null ? docs.remove(reference) : null;
+        if (doc == null) {
+            return false;
+        }
+        live.clear(doc);
+        return true;
+    }
+
+    /**
+     * @return ascending ids of the documents containing the term
+     */
+    public int[] findTerm(String term) {
+        List<String> tokens = Tokenizer.tokenize(term);
+        if (tokens.size() != 1) {
+            return tokens.isEmpty() ? new int[0] : findPhrase(term);
+        }
+        lock.readLock().lock();
+        try {
+            Postings postings = terms.get(tokens.get(0));
+            if (postings == null) {
+                return new int[0];
+            }
+            IntStream.Builder result = IntStream.builder();
+            Postings.Reader reader = postings.reader();
+            while (reader.next()) {
+                if (live.get(reader.doc())) {
+                    result.add(reader.doc());
+                }
+            }
+            return result.build().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ascending ids of the documents containing a term starting with the prefix
+     */
+    public int[] findPrefix(String prefix) {
+        List<String> tokens = Tokenizer.tokenize(prefix);
+        if (tokens.size() != 1) {
+            return new int[0];
+        }
+        String from = tokens.get(0);
+        lock.readLock().lock();
+        try {
+            BitSet docs = new BitSet();
+            for (Postings postings : terms.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+                Postings.Reader reader = postings.reader();
+                while (reader.next()) {
+                    docs.set(reader.doc());
+                }
+            }
+            docs.and(live);
+            return docs.stream().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ascending ids of the documents containing the terms of the phrase at consecutive positions
+     */
+    public int[] findPhrase(String phrase) {
+        List<String> tokens = Tokenizer.tokenize(phrase);
+        if (tokens.isEmpty()) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            Postings.Reader[] readers = new Postings.Reader[tokens.size()];
+            for (int i = 0; i < readers.length; i++) {
+                Postings postings = terms.get(tokens.get(i));
+                if (postings == null) {
+                    return new int[0];
+                }
+                readers[i] = postings.reader();
+            }
+
+            IntStream.Builder result = IntStream.builder();
+            int doc = 0;
+            while (true) {
+                // leap-frog intersection of the documents of all terms
+                int candidate = doc;
+                boolean aligned = true;
+                for (Postings.Reader r : readers) {
+                    if (!r.advance(candidate)) {
+                        return result.build().toArray();
+                    }
+                    if (r.doc() > candidate) {
+                        candidate = r.doc();
+                        aligned = false;
+                    }
+                }
+                if (aligned) {
+                    if (live.get(candidate) && hasPhrase(readers)) {
+                        result.add(candidate);
+                    }
+                    candidate++;
+                }
+                doc = candidate;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean hasPhrase(Postings.Reader[] readers) {
+        Postings.Reader first = readers[0];
+        int[] starts = first.positions();
+        for (int p = 0; p < first.freq(); p++) {
+            boolean match = true;
+            for (int i = 1; i < readers.length && match; i++) {
+                match = readers[i].hasPosition(starts[p] + i);
+            }
+            if (match) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return reference of the object of the document
+     */
+    public String getReference(int doc) {
+        lock.readLock().lock();
+        try {
+            return docReferences.get(doc);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return type name of the object of the document
+     */
+    public String getTypeName(int doc) {
+        lock.readLock().lock();
+        try {
+            return docTypes.get(doc);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return references of the documents
+     */
+    public List<String> referencesOf(int[] docs) {
+        lock.readLock().lock();
+        try {
+            return Arrays.stream(docs).mapToObj(docReferences::get).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return objects of the documents, looked up by reference in the repository
+     */
+    public Stream<ImmutableNodeObject> nodesOf(Repository repository, int[] docs) {
+        lock.readLock().lock();
+        try {
+            List<String[]> keys = Arrays.stream(docs)
+                    .mapToObj(d -> new String[]{docTypes.get(d), docReferences.get(d)})
+                    .collect(Collectors.toList());
+            return keys.stream()
+                    .map(k -> repository.getNodeByReference(k[0], k[1]))
+                    .filter(Objects::nonNull);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of indexed objects
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops removed documents from the postings and renumbers the remaining ones
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            int[] remap = new int[docReferences.size()];
+            List<String> types = new ArrayList<>(live.cardinality());
+            List<String> references = new ArrayList<>(live.cardinality());
+            for (int doc = 0; doc < remap.length; doc++) {
+                if (live.get(doc)) {
+                    remap[doc] = references.size();
+                    types.add(docTypes.get(doc));
+                    references.add(docReferences.get(doc));
+                } else {
+                    remap[doc] = -1;
+                }
+            }
+
+            Iterator<Map.Entry<String, Postings>> it = terms.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Postings> e = it.next();
+                Postings compacted = new Postings();
+                Postings.Reader reader = e.getValue().reader();
+                while (reader.next()) {
+                    if (remap[reader.doc()] >= 0) {
+                        compacted.add(remap[reader.doc()], reader.positions(), reader.freq());
+                    }
+                }
+                if (compacted.getDocCount() == 0) {
+                    it.remove();
+                } else {
+                    e.setValue(compacted);
+                }
+            }
+
+            docTypes.clear();
+            docTypes.addAll(types);
+            docReferences.clear();
+            docReferences.addAll(references);
+            live.clear();
+            live.set(0, references.size());
+            for (Map<String, Integer> docs : docsByType.values()) {
+                docs.replaceAll((ref, doc) -> remap[doc]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the index to a file, which can be loaded by {@link #load(Path)}
+     */
+    public void save(Path file) throws IOException {
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(docReferences.size());
+            for (int doc = 0; doc < docReferences.size(); doc++) {
+                out.writeBoolean(live.get(doc));
+                writeString(out, docTypes.get(doc));
+                writeString(out, docReferences.get(doc));
+            }
+            out.writeInt(terms.size());
+            for (Map.Entry<String, Postings> e : terms.entrySet()) {
+                Postings postings = e.getValue();
+                ByteBuffer encoded = postings.encoded();
+                writeString(out, e.getKey());
+                out.writeInt(postings.getDocCount());
+                out.writeInt(postings.getLastDoc());
+                out.writeInt(encoded.remaining());
+                byte[] bytes = new byte[encoded.remaining()];
+                encoded.get(bytes);
+                out.write(bytes);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads an index saved by {@link #save(Path)}. The file is mapped in memory,
+     * the postings are not copied until they are updated
+     */
+    public static FullTextIndex load(Path file) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+            throw new RepositoryException("Not a full-text index file: " + file);
+        }
+
+        FullTextIndex index = new FullTextIndex();
+        int docCount = buf.getInt();
+        for (int doc = 0; doc < docCount; doc++) {
+            boolean isLive = buf.get() != 0;
+            String typeName = readString(buf);
+            String reference = readString(buf);
+            index.docTypes.add(typeName);
+            index.docReferences.add(reference);
+            if (isLive) {
+                index.live.set(doc);
+                index.docsByType.computeIfAbsent(typeName, k -> new HashMap<>()).put(reference, doc);
+            }
+        }
+        int termCount = buf.getInt();
+        for (int i = 0; i < termCount; i++) {
+            String term = readString(buf);
+            int termDocs = buf.getInt();
+            int lastDoc = buf.getInt();
+            int length = buf.getInt();
+            ByteBuffer postings = buf.slice();
+            postings.limit(length);
+            buf.position(buf.position() + length);
+            index.terms.put(term, new Postings(postings.asReadOnlyBuffer(), termDocs, lastDoc));
+        }
+        return index;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getInt()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return positions of each term in the searchable properties of the node
+     */
+    private Map<String, int[]> positionsOf(ImmutableNodeObject node) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        int position = 0;
+        for (PropertyDefinition p : searchableProperties(node.getTypeDefinition())) {
+            for (CharSequence text : textsOf(node, p)) {
+                for (String term : Tokenizer.tokenize(text)) {
+                    positions.computeIfAbsent(term, k -> new ArrayList<>()).add(position++);
+                }
+                position++;
+            }
+        }
+
+        Map<String, int[]> result = new HashMap<>(positions.size() * 2);
+        positions.forEach((term, list) -> result.put(term, list.stream().mapToInt(Integer::intValue).toArray()));
+        return result;
+    }
+
+    private List<PropertyDefinition> searchableProperties(TypeDefinition type) {
+        synchronized (searchableByType) {
+            return searchableByType.computeIfAbsent(type, FullTextIndex::searchablePropertiesOf);
+        }
+    }
+
+    private static List<PropertyDefinition> searchablePropertiesOf(TypeDefinition type) {
+        return type.getPropertyDefinitions().stream()
+                .filter(PropertyDefinition::isFullTextSearchable)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return string values of a scalar property or of the elements of a collection property
+     */
+    private static List<CharSequence> textsOf(ImmutableNodeObject node, PropertyDefinition p) {
+        ImmutableNode item;
+        try {
+            item = node.getItem(p);
+        } catch (RepositoryException e) {
+            return Collections.emptyList();
+        }
+        if (item == null) {
+            return Collections.emptyList();
+        } else if (item.isCollection()) {
+            return item.getElements()
+                    .filter(e -> e != null && e.isScalarValue() && e.getValue() instanceof CharSequence)
+                    .map(e -> (CharSequence) e.getValue())
+                    .collect(Collectors.toList());
+        }
+        Object value = item.isScalarValue() ? item.getValue() : null;
+        return value instanceof CharSequence
+                ? Collections.singletonList((CharSequence) value)
+                : Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[docs=%d, terms=%d]", getClass().getSimpleName(), size(), getTermCount());
+    }
+}
@@ -0,0 +1,137 @@
+package com.ljcr.utils.fulltext;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Postings of a term: ascending document ids with the positions of the term in each document.
+ * <p>
+ * Stored as varints: <code>docDelta freq posDelta*</code> per document. Postings loaded from a mapped
+ * file are read in place and copied to the heap on the first update.
+ */
+final class Postings {
+    private byte[] bytes;
+    private int length;
+    private ByteBuffer mapped;
+    private int docCount;
+    private int lastDoc = -1;
+
+    Postings() {
+        this.bytes = new byte[16];
+    }
+
+    Postings(ByteBuffer mapped, int docCount, int lastDoc) {
+        this.mapped = mapped;
+        this.docCount = docCount;
+        this.lastDoc = lastDoc;
+    }
+
+    /**
+     * Appends a document, its id must be greater than the ids already added
+     */
+    void add(int doc, int[] positions, int freq) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Document " + doc + " added after " + lastDoc);
+        }
+        if (mapped != null) {
+            bytes = new byte[mapped.remaining() + 16];
+            mapped.duplicate().get(bytes, 0, mapped.remaining());
+            length = mapped.remaining();
+            mapped = null;
+        }
+        int required = length + (2 + freq) * VarInts.MAX_LENGTH;
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+        int pos = VarInts.write(bytes, length, doc - lastDoc);
+        pos = VarInts.write(bytes, pos, freq);
+        int prev = 0;
+        for (int i = 0; i < freq; i++) {
+            pos = VarInts.write(bytes, pos, positions[i] - prev);
+            prev = positions[i];
+        }
+        length = pos;
+        lastDoc = doc;
+        docCount++;
+    }
+
+    int getDocCount() {
+        return docCount;
+    }
+
+    int getLastDoc() {
+        return lastDoc;
+    }
+
+    /**
+     * @return read only view of the encoded postings
+     */
+    ByteBuffer encoded() {
+        return mapped != null ? mapped.duplicate() : ByteBuffer.wrap(bytes, 0, length).asReadOnlyBuffer();
+    }
+
+    Reader reader() {
+        return new Reader(encoded());
+    }
+
+    /**
+     * Iterates over the documents of the postings, positions are decoded into a reused array
+     */
+    static final class Reader {
+        private final ByteBuffer buf;
+        private int doc = -1;
+        private int freq;
+        private int[] positions = new int[4];
+
+        private Reader(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        boolean next() {
+            if (!buf.hasRemaining()) {
+                return false;
+            }
+            doc += VarInts.read(buf);
+            freq = VarInts.read(buf);
+            if (freq > positions.length) {
+                positions = new int[Math.max(freq, positions.length * 2)];
+            }
+            int p = 0;
+            for (int i = 0; i < freq; i++) {
+                p += VarInts.read(buf);
+                positions[i] = p;
+            }
+            return true;
+        }
+
+        /**
+         * Moves to the first document with an id not less than <code>target</code>
+         *
+         * @return false if there is no such document
+         */
+        boolean advance(int target) {
+            while (doc < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int freq() {
+            return freq;
+        }
+
+        int[] positions() {
+            return positions;
+        }
+
+        boolean hasPosition(int position) {
+            return Arrays.binarySearch(positions, 0, freq, position) >= 0;
+        }
+    }
+}
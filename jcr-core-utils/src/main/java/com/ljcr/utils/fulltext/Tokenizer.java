@@ -0,0 +1,30 @@
+package com.ljcr.utils.fulltext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower case terms of letters and digits
+ */
+final class Tokenizer {
+
+    private Tokenizer() {
+        // utility class
+    }
+
+    static List<String> tokenize(CharSequence text) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0, len = text.length(); i <= len; i++) {
+            boolean inTerm = i < len && Character.isLetterOrDigit(text.charAt(i));
+            if (inTerm && start < 0) {
+                start = i;
+            } else if (!inTerm && start >= 0) {
+                terms.add(text.subSequence(start, i).toString().toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ljcr.utils.fulltext;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable length encoding of non negative ints, 7 bits per byte, low bits first
+ */
+final class VarInts {
+
+    private VarInts() {
+        // utility class
+    }
+
+    /**
+     * @return position after the written value
+     */
+    static int write(byte[] bytes, int pos, int value) {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            bytes[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        bytes[pos++] = (byte) v;
+        return pos;
+    }
+
+    static int read(ByteBuffer buf) {
+        int b = buf.get();
+        int result = b & 0x7F;
+        for (int shift = 7; b < 0; shift += 7) {
+            b = buf.get();
+            result |= (b & 0x7F) << shift;
+        }
+        return result;
+    }
+
+    /**
+     * Maximal encoded length of an int
+     */
+    static final int MAX_LENGTH = 5;
+}
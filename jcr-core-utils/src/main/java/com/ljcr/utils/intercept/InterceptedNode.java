@@ -0,0 +1,240 @@
+package com.ljcr.utils.intercept;
+
+import com.ljcr.api.ImmutableItemVisitor;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Node decorated by a list of {@link NodeInterceptor}s.
+ * <p>
+ * Wrapping an intercepted node adds the interceptor to its list instead of wrapping it again, so each call
+ * reaches the decorated node through a single wrapper whatever the number of decorators, rather than through
+ * a chain of wrappers. Interceptors are called in the order they were added, the first one seeing the values
+ * of the decorated node:
+ * <pre>
+ * ImmutableNode node = InterceptedNode.wrap(InterceptedNode.wrap(user, resolver), masking);
+ * </pre>
+ * Scalars are only wrapped for interceptors of values.
+ */
+public class InterceptedNode implements ImmutableNode {
+    private final ImmutableNode delegate;
+    private final InterceptorChain chain;
+
+    InterceptedNode(ImmutableNode delegate, InterceptorChain chain) {
+        this.delegate = delegate;
+        this.chain = chain;
+    }
+
+    @Nullable
+    public static ImmutableNode wrap(@Nullable ImmutableNode node, NodeInterceptor interceptor) {
+        return of(node, InterceptorChain.of(interceptor));
+    }
+
+    @Nullable
+    static ImmutableNode of(@Nullable ImmutableNode node, InterceptorChain chain) {
+        if (node == null || chain.isEmpty()) {
+            return node;
+        } else if (node instanceof InterceptedNode) {
+            InterceptedNode intercepted = (InterceptedNode) node;
+            return create(intercepted.delegate, intercepted.chain.concat(chain));
+        } else if (node.isScalarValue() && !chain.has(InterceptorChain.VALUES)) {
+            return node;
+        }
+        return create(node, chain);
+    }
+
+    private static ImmutableNode create(ImmutableNode node, InterceptorChain chain) {
+        if (node.isObject()) {
+            return new InterceptedNodeObject(node, chain);
+        } else if (node.isCollection()) {
+            return new InterceptedNodeCollection(node, chain);
+        }
+        return new InterceptedNode(node, chain);
+    }
+
+    /**
+     * @return the decorated node, never an intercepted one
+     */
+    public ImmutableNode getDelegate() {
+        return delegate;
+    }
+
+    public List<NodeInterceptor> getInterceptors() {
+        return Collections.unmodifiableList(Arrays.asList(chain.interceptors));
+    }
+
+    @Nullable
+    private ImmutableNode child(@Nullable ImmutableNode item) {
+        ImmutableNode child = of(item, chain.inherited());
+        return chain.has(InterceptorChain.ITEMS) ? chain.item(this, child) : child;
+    }
+
+    private boolean interceptsChildren() {
+        return chain.has(InterceptorChain.ITEMS) || !chain.inherited().isEmpty();
+    }
+
+    private boolean interceptsValues() {
+        return chain.has(InterceptorChain.VALUES);
+    }
+
+    @Nullable
+    @Override
+    public Object getValue() {
+        Object value = delegate.getValue();
+        return interceptsValues() ? chain.value(this, value) : value;
+    }
+
+    @Override
+    @Nonnull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Nullable
+    @Override
+    public <U> U accept(@Nonnull ImmutableItemVisitor<U> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+        ImmutableNode item = delegate.getItem(field);
+        return interceptsChildren() ? child(item) : item;
+    }
+
+    @Override
+    @Nullable
+    public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
+        ImmutableNode item = delegate.getItem(fieldName);
+        return interceptsChildren() ? child(item) : item;
+    }
+
+    @Override
+    @Nullable
+    public ImmutableNode getItem(int ordinal) throws PathNotFoundException {
+        ImmutableNode item = delegate.getItem(ordinal);
+        return interceptsChildren() ? child(item) : item;
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        Stream<ImmutableNode> elements = delegate.getElements(parallel);
+        if (!interceptsChildren()) {
+            return elements;
+        }
+        // interceptors may hide children
+        return elements.map(this::child).filter(Objects::nonNull);
+    }
+
+    @Override
+    public boolean isObject() {
+        return delegate.isObject();
+    }
+
+    @Override
+    public boolean isCollection() {
+        return delegate.isCollection();
+    }
+
+    @Override
+    public boolean isScalarValue() {
+        return delegate.isScalarValue();
+    }
+
+    @Override
+    @Nonnull
+    public TypeDefinition getTypeDefinition() {
+        return delegate.getTypeDefinition();
+    }
+
+    @Override
+    public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        if (interceptsValues()) {
+            PrimitiveValueVisitor.visitValue(getValue(), visitor);
+        } else {
+            delegate.acceptValue(visitor);
+        }
+    }
+
+    @Override
+    @Nullable
+    public String asString() {
+        if (!interceptsValues()) {
+            return delegate.asString();
+        }
+        Object value = getValue();
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public boolean asBoolean() {
+        if (!interceptsValues()) {
+            return delegate.asBoolean();
+        }
+        Object value = getValue();
+        return value instanceof Boolean ? (Boolean) value : Boolean.valueOf(String.valueOf(value));
+    }
+
+    @Override
+    public long asLong() throws NumberFormatException {
+        if (!interceptsValues()) {
+            return delegate.asLong();
+        }
+        Object value = getValue();
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    @Override
+    public double asDouble() throws NumberFormatException {
+        if (!interceptsValues()) {
+            return delegate.asDouble();
+        }
+        Object value = getValue();
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(String.valueOf(value));
+    }
+
+    @Override
+    @Nullable
+    public BigDecimal asDecimal() throws NumberFormatException {
+        return interceptsValues() ? ImmutableNode.super.asDecimal() : delegate.asDecimal();
+    }
+
+    @Override
+    @Nullable
+    public LocalDate asDate() {
+        return interceptsValues() ? ImmutableNode.super.asDate() : delegate.asDate();
+    }
+
+    @Override
+    @Nullable
+    public LocalDateTime asDateTime() {
+        return interceptsValues() ? ImmutableNode.super.asDateTime() : delegate.asDateTime();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, %s]", getClass().getSimpleName(), delegate, getInterceptors());
+    }
+}
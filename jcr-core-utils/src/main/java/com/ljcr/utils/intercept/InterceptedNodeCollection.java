@@ -0,0 +1,28 @@
+package com.ljcr.utils.intercept;
+
+import com.ljcr.api.ImmutableItemVisitor;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+final class InterceptedNodeCollection extends InterceptedNode implements ImmutableNodeCollection {
+
+    InterceptedNodeCollection(ImmutableNode delegate, InterceptorChain chain) {
+        super(delegate, chain);
+    }
+
+    @Override
+    public Collection<ImmutableNode> getValue() {
+        return getElements().collect(Collectors.toList());
+    }
+
+    @Nullable
+    @Override
+    public <U> U accept(@Nonnull ImmutableItemVisitor<U> visitor) {
+        return visitor.visit(this);
+    }
+}
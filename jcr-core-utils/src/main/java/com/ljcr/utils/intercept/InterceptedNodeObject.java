@@ -0,0 +1,27 @@
+package com.ljcr.utils.intercept;
+
+import com.ljcr.api.ImmutableItemVisitor;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.stream.Stream;
+
+final class InterceptedNodeObject extends InterceptedNode implements ImmutableNodeObject {
+
+    InterceptedNodeObject(ImmutableNode delegate, InterceptorChain chain) {
+        super(delegate, chain);
+    }
+
+    @Override
+    public Stream<String> getFieldNames() {
+        return getDelegate().asObjectNode().getFieldNames();
+    }
+
+    @Nullable
+    @Override
+    public <U> U accept(@Nonnull ImmutableItemVisitor<U> visitor) {
+        return visitor.visit(this);
+    }
+}
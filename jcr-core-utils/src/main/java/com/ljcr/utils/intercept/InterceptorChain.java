@@ -0,0 +1,102 @@
+package com.ljcr.utils.intercept;
+
+import com.ljcr.api.ImmutableNode;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Immutable list of interceptors, shared by the intercepted nodes and the children they intercept
+ */
+final class InterceptorChain {
+    static final int ITEMS = 1;
+    static final int VALUES = 2;
+
+    private static final ClassValue<Integer> HOOKS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            int hooks = 0;
+            if (overrides(type, "interceptItem", ImmutableNode.class, ImmutableNode.class)) {
+                hooks |= ITEMS;
+            }
+            if (overrides(type, "interceptValue", ImmutableNode.class, Object.class)) {
+                hooks |= VALUES;
+            }
+            return hooks;
+        }
+    };
+
+    private static final InterceptorChain NONE = new InterceptorChain(new NodeInterceptor[0]);
+
+    final NodeInterceptor[] interceptors;
+    final int hooks;
+
+    // computed once per chain, races compute equal chains
+    private InterceptorChain inherited;
+
+    private InterceptorChain(NodeInterceptor[] interceptors) {
+        int all = 0;
+        for (NodeInterceptor interceptor : interceptors) {
+            all |= HOOKS.get(interceptor.getClass());
+        }
+        this.interceptors = interceptors;
+        this.hooks = all;
+    }
+
+    static InterceptorChain of(NodeInterceptor interceptor) {
+        return new InterceptorChain(new NodeInterceptor[]{interceptor});
+    }
+
+    InterceptorChain concat(InterceptorChain next) {
+        NodeInterceptor[] all = Arrays.copyOf(interceptors, interceptors.length + next.interceptors.length);
+        System.arraycopy(next.interceptors, 0, all, interceptors.length, next.interceptors.length);
+        return new InterceptorChain(all);
+    }
+
+    boolean isEmpty() {
+        return interceptors.length == 0;
+    }
+
+    boolean has(int hook) {
+        return (hooks & hook) != 0;
+    }
+
+    /**
+     * @return interceptors of the children
+     */
+    InterceptorChain inherited() {
+        InterceptorChain chain = inherited;
+        if (chain == null) {
+            NodeInterceptor[] all = Arrays.stream(interceptors)
+                    .filter(NodeInterceptor::isInherited)
+                    .toArray(NodeInterceptor[]::new);
+            chain = all.length == interceptors.length ? this : all.length == 0 ? NONE : new InterceptorChain(all);
+            inherited = chain;
+        }
+        return chain;
+    }
+
+    @Nullable
+    ImmutableNode item(ImmutableNode node, @Nullable ImmutableNode item) {
+        for (NodeInterceptor interceptor : interceptors) {
+            item = interceptor.interceptItem(node, item);
+        }
+        return item;
+    }
+
+    @Nullable
+    Object value(ImmutableNode node, @Nullable Object value) {
+        for (NodeInterceptor interceptor : interceptors) {
+            value = interceptor.interceptValue(node, value);
+        }
+        return value;
+    }
+
+    private static boolean overrides(Class<?> type, String name, Class<?>... parameters) {
+        try {
+            return type.getMethod(name, parameters).getDeclaringClass() != NodeInterceptor.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Not an interceptor: " + type, e);
+        }
+    }
+}
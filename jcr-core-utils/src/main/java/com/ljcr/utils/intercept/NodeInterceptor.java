@@ -0,0 +1,48 @@
+package com.ljcr.utils.intercept;
+
+import com.ljcr.api.ImmutableNode;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Decorator of nodes registered on an {@link InterceptedNode}, to be used instead of a subclass of
+ * {@link com.ljcr.utils.ImmutableNodeWrapper} when decorators are stacked.
+ * <p>
+ * Only the methods overridden by an implementation are called, the calls an interceptor does not override
+ * go directly to the intercepted node.
+ */
+public interface NodeInterceptor {
+
+    /**
+     * Called with the child returned by <code>getItem</code> or by <code>getElements</code> of the node
+     *
+     * @param node intercepted node
+     * @param item child of the node, already intercepted when {@link #isInherited()}, or null
+     * @return child to return instead
+     */
+    @Nullable
+    default ImmutableNode interceptItem(@Nonnull ImmutableNode node, @Nullable ImmutableNode item) {
+        return item;
+    }
+
+    /**
+     * Called with the value of the node. The <code>asString</code>, <code>asLong</code>... conversions
+     * of the node convert the returned value
+     *
+     * @param node intercepted node
+     * @param value value of the node, as returned by the previous interceptor
+     * @return value to return instead
+     */
+    @Nullable
+    default Object interceptValue(@Nonnull ImmutableNode node, @Nullable Object value) {
+        return value;
+    }
+
+    /**
+     * @return whether the children of the intercepted nodes are intercepted too
+     */
+    default boolean isInherited() {
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ljcr.utils.metrics;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.utils.ImmutableNodeWrapper;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.stream.Stream;
+
+/**
+ * Container node recording the calls to its delegate under the type of the delegate
+ */
+abstract class MetricsNode extends ImmutableNodeWrapper {
+    private final RepositoryMetrics metrics;
+    private String typeName;
+
+    MetricsNode(RepositoryMetrics metrics, ImmutableNode delegate) {
+        super(delegate);
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+        if (!metrics.isEnabled()) {
+            return super.getItem(field);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return MetricsRepository.wrap(metrics, super.getItem(field));
+        } finally {
+            metrics.record(Operation.NODE_GET_ITEM, typeName(), start, allocated);
+        }
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
+        if (!metrics.isEnabled()) {
+            return super.getItem(fieldName);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return MetricsRepository.wrap(metrics, super.getItem(fieldName));
+        } finally {
+            metrics.record(Operation.NODE_GET_ITEM, typeName(), start, allocated);
+        }
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(int ordinal) throws PathNotFoundException {
+        if (!metrics.isEnabled()) {
+            return super.getItem(ordinal);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return MetricsRepository.wrap(metrics, super.getItem(ordinal));
+        } finally {
+            metrics.record(Operation.NODE_GET_ITEM, typeName(), start, allocated);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        if (!metrics.isEnabled()) {
+            return getDelegate().getElements(parallel);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return getDelegate().getElements(parallel).map(e -> MetricsRepository.wrap(metrics, e));
+        } finally {
+            metrics.record(Operation.NODE_GET_ELEMENTS, typeName(), start, allocated);
+        }
+    }
+
+    private String typeName() {
+        String name = typeName;
+        if (name == null) {
+            name = MetricsRepository.typeNameOf(getDelegate());
+            typeName = name != null ? name : RepositoryMetrics.NO_TYPE;
+        }
+        return typeName;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]", getClass().getSimpleName(), getDelegate());
+    }
+}
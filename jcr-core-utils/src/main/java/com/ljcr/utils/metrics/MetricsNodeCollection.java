@@ -0,0 +1,28 @@
+package com.ljcr.utils.metrics;
+
+import com.ljcr.api.ImmutableItemVisitor;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+final class MetricsNodeCollection extends MetricsNode implements ImmutableNodeCollection {
+
+    MetricsNodeCollection(RepositoryMetrics metrics, ImmutableNode delegate) {
+        super(metrics, delegate);
+    }
+
+    @Override
+    public Collection<ImmutableNode> getValue() {
+        return getElements().collect(Collectors.toList());
+    }
+
+    @Nullable
+    @Override
+    public <U> U accept(@Nonnull ImmutableItemVisitor<U> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ljcr.utils.metrics;
+
+import com.ljcr.api.ImmutableItemVisitor;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.stream.Stream;
+
+final class MetricsNodeObject extends MetricsNode implements ImmutableNodeObject {
+
+    MetricsNodeObject(RepositoryMetrics metrics, ImmutableNode delegate) {
+        super(metrics, delegate);
+    }
+
+    @Override
+    public Stream<String> getFieldNames() {
+        return getDelegate().asObjectNode().getFieldNames();
+    }
+
+    @Nullable
+    @Override
+    public <U> U accept(@Nonnull ImmutableItemVisitor<U> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -0,0 +1,206 @@
+package com.ljcr.utils.metrics;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.ItemNotFoundException;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.query.Query;
+import com.ljcr.utils.RepositoryWrapper;
+
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Repository recording the latencies of the calls to its delegate in {@link RepositoryMetrics}.
+ * <p>
+ * Calls returning a node are recorded under the type of the node. While the metrics are enabled,
+ * the returned objects and collections are wrapped to record the calls on them as well; while disabled,
+ * the nodes of the delegate are returned as is.
+ */
+public class MetricsRepository extends RepositoryWrapper {
+    private final RepositoryMetrics metrics;
+
+    public MetricsRepository(Repository delegate, RepositoryMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+    }
+
+    public MetricsRepository(Repository delegate) {
+        this(delegate, new RepositoryMetrics());
+    }
+
+    public RepositoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public ImmutableNode getRootNode() {
+        if (!metrics.isEnabled()) {
+            return super.getRootNode();
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        ImmutableNode node = null;
+        try {
+            node = super.getRootNode();
+        } finally {
+            metrics.record(Operation.GET_ROOT_NODE, typeNameOf(node), start, allocated);
+        }
+        return wrap(metrics, node);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(TypeDefinition type, String id) throws ItemNotFoundException {
+        if (!metrics.isEnabled()) {
+            return super.getNodeByReference(type, id);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return (ImmutableNodeObject) wrap(metrics, super.getNodeByReference(type, id));
+        } finally {
+            metrics.record(Operation.GET_NODE_BY_REFERENCE, type.getIdentifier(), start, allocated);
+        }
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(String typeName, Object id) {
+        if (!metrics.isEnabled()) {
+            return super.getNodeByReference(typeName, id);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return (ImmutableNodeObject) wrap(metrics, super.getNodeByReference(typeName, id));
+        } finally {
+            metrics.record(Operation.GET_NODE_BY_REFERENCE, typeName, start, allocated);
+        }
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(Path absPath) throws PathNotFoundException {
+        if (!metrics.isEnabled()) {
+            return super.getItem(absPath);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        ImmutableNode node = null;
+        try {
+            node = super.getItem(absPath);
+        } finally {
+            metrics.record(Operation.GET_ITEM, typeNameOf(node), start, allocated);
+        }
+        return wrap(metrics, node);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(NodePath absPath) throws PathNotFoundException {
+        if (!metrics.isEnabled()) {
+            return super.getItem(absPath);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        ImmutableNode node = null;
+        try {
+            node = super.getItem(absPath);
+        } finally {
+            metrics.record(Operation.GET_ITEM, typeNameOf(node), start, allocated);
+        }
+        return wrap(metrics, node);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(CompiledPath absPath) throws PathNotFoundException {
+        if (!metrics.isEnabled()) {
+            return super.getItem(absPath);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        ImmutableNode node = null;
+        try {
+            node = super.getItem(absPath);
+        } finally {
+            metrics.record(Operation.GET_ITEM, typeNameOf(node), start, allocated);
+        }
+        return wrap(metrics, node);
+    }
+
+    @Override
+    public Collection<TypeDefinition> getKnownTypes() {
+        if (!metrics.isEnabled()) {
+            return super.getKnownTypes();
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return super.getKnownTypes();
+        } finally {
+            metrics.record(Operation.GET_KNOWN_TYPES, null, start, allocated);
+        }
+    }
+
+    @Nullable
+    @Override
+    public ContainerTypeDefinition findContainerType(String typeName) {
+        if (!metrics.isEnabled()) {
+            return super.findContainerType(typeName);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return super.findContainerType(typeName);
+        } finally {
+            metrics.record(Operation.FIND_CONTAINER_TYPE, typeName, start, allocated);
+        }
+    }
+
+    /**
+     * Records the time to start the query, the stream is consumed by the caller
+     */
+    @Override
+    public Stream<ImmutableNodeObject> query(Query query) {
+        if (!metrics.isEnabled()) {
+            return super.query(query);
+        }
+        long start = System.nanoTime();
+        long allocated = metrics.allocatedBytes();
+        try {
+            return super.query(query).map(n -> (ImmutableNodeObject) wrap(metrics, n));
+        } finally {
+            metrics.record(Operation.QUERY, query.getType().getIdentifier(), start, allocated);
+        }
+    }
+
+    @Nullable
+    static ImmutableNode wrap(RepositoryMetrics metrics, @Nullable ImmutableNode node) {
+        if (node == null || node.isScalarValue() || node instanceof MetricsNode) {
+            return node;
+        } else if (node.isObject()) {
+            return new MetricsNodeObject(metrics, node);
+        } else if (node.isCollection()) {
+            return new MetricsNodeCollection(metrics, node);
+        }
+        return node;
+    }
+
+    @Nullable
+    static String typeNameOf(@Nullable ImmutableNode node) {
+        if (node == null) {
+            return null;
+        }
+        TypeDefinition type = node.getTypeDefinition();
+        return type != null ? type.getIdentifier() : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ljcr.utils.metrics;
+
+/**
+ * Calls recorded by a {@link MetricsRepository}, on the repository and on the nodes it returns
+ */
+public enum Operation {
+    GET_ROOT_NODE,
+    GET_ITEM,
+    GET_NODE_BY_REFERENCE,
+    FIND_CONTAINER_TYPE,
+    GET_KNOWN_TYPES,
+    QUERY,
+    /**
+     * <code>getItem</code> on a node, by name or by property definition
+     */
+    NODE_GET_ITEM,
+    /**
+     * Opening the stream of the elements of a node, not their traversal
+     */
+    NODE_GET_ELEMENTS
+}
@@ -0,0 +1,16 @@
+package com.ljcr.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and allocated bytes of an operation on the nodes of a type
+ */
+final class OperationMetrics {
+    final LatencyHistogram latencies = new LatencyHistogram();
+    final LongAdder allocatedBytes = new LongAdder();
+
+    void reset() {
+        latencies.reset();
+        allocatedBytes.reset();
+    }
+}
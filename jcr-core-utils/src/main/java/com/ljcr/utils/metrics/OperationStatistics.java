@@ -0,0 +1,84 @@
+package com.ljcr.utils.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Statistics of an operation on the nodes of a type, exported as composite data through JMX. Latencies in nanoseconds
+ */
+public final class OperationStatistics {
+    private final String operation;
+    private final String typeName;
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+    private final long allocatedBytes;
+
+    @ConstructorProperties({"operation", "typeName", "count", "mean", "p50", "p90", "p99", "max", "allocatedBytes"})
+    public OperationStatistics(String operation, String typeName, long count, double mean,
+                               long p50, long p90, long p99, long max, long allocatedBytes) {
+        this.operation = operation;
+        this.typeName = typeName;
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    static OperationStatistics of(Operation operation, String typeName, OperationMetrics metrics) {
+        LatencyHistogram.Snapshot s = metrics.latencies.snapshot();
+        return new OperationStatistics(operation.name(), typeName, s.getCount(), s.getMean(),
+                s.getValueAtPercentile(50), s.getValueAtPercentile(90), s.getValueAtPercentile(99), s.getMax(),
+                metrics.allocatedBytes.sum());
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return bytes allocated by the calls while allocation tracking was on
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-22s %-20s %,10d %,10.0f %,10d %,10d %,10d %,12d %,10d",
+                operation, typeName, count, mean, p50, p90, p99, max, count == 0 ? 0 : allocatedBytes / count);
+    }
+}
@@ -0,0 +1,178 @@
+package com.ljcr.utils.metrics;
+
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Call counts, latencies and allocated bytes of the operations of a {@link MetricsRepository},
+ * per {@link Operation} and per identifier of the type definition of the node.
+ * <p>
+ * Disabled metrics cost a volatile read per call. Allocation tracking reads the bytes allocated by the current thread
+ * before and after each call, it is off by default and only available on HotSpot based virtual machines.
+ */
+public class RepositoryMetrics implements RepositoryMetricsMXBean {
+    /**
+     * Type name of the calls without resulting node
+     */
+    public static final String NO_TYPE = "-";
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    @Nullable
+    private static final com.sun.management.ThreadMXBean threads = allocationCounter();
+
+    private final Map<String, OperationMetrics[]> byType = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+    private volatile boolean allocationTracking;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isAllocationTracking() {
+        return allocationTracking;
+    }
+
+    @Override
+    public void setAllocationTracking(boolean allocationTracking) {
+        if (allocationTracking && threads == null) {
+            throw new UnsupportedRepositoryOperationException("Allocated bytes per thread are not available on this virtual machine");
+        }
+        this.allocationTracking = allocationTracking;
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, 0 if allocations are not tracked
+     */
+    long allocatedBytes() {
+        return allocationTracking ? threads.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    void record(Operation operation, @Nullable String typeName, long startNanos, long startAllocated) {
+        long elapsed = System.nanoTime() - startNanos;
+        OperationMetrics metrics = metricsOf(operation, typeName);
+        metrics.latencies.record(elapsed);
+        if (startAllocated != 0) {
+            metrics.allocatedBytes.add(allocatedBytes() - startAllocated);
+        }
+    }
+
+    OperationMetrics metricsOf(Operation operation, @Nullable String typeName) {
+        String key = typeName == null ? NO_TYPE : typeName;
+        OperationMetrics[] row = byType.get(key);
+        if (row == null) {
+            row = byType.computeIfAbsent(key, t -> new OperationMetrics[OPERATIONS.length]);
+        }
+        OperationMetrics metrics = row[operation.ordinal()];
+        if (metrics == null) {
+            synchronized (row) {
+                metrics = row[operation.ordinal()];
+                if (metrics == null) {
+                    metrics = new OperationMetrics();
+                    row[operation.ordinal()] = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @return statistics of the recorded operations, by type name and operation
+     */
+    @Override
+    public List<OperationStatistics> getStatistics() {
+        List<OperationStatistics> statistics = new ArrayList<>();
+        for (Map.Entry<String, OperationMetrics[]> e : byType.entrySet()) {
+            OperationMetrics[] row = e.getValue();
+            synchronized (row) {
+                for (Operation operation : OPERATIONS) {
+                    OperationMetrics metrics = row[operation.ordinal()];
+                    if (metrics != null) {
+                        statistics.add(OperationStatistics.of(operation, e.getKey(), metrics));
+                    }
+                }
+            }
+        }
+        statistics.sort(Comparator.comparing(OperationStatistics::getTypeName)
+                .thenComparing(s -> Operation.valueOf(s.getOperation())));
+        return statistics;
+    }
+
+    /**
+     * @return statistics as a text table, latencies in nanoseconds
+     */
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder(String.format("%-22s %-20s %10s %10s %10s %10s %10s %12s %10s%n",
+                "operation", "type", "count", "mean", "p50", "p90", "p99", "max", "bytes/op"));
+        for (OperationStatistics s : getStatistics()) {
+            sb.append(s).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (OperationMetrics[] row : byType.values()) {
+            synchronized (row) {
+                for (OperationMetrics metrics : row) {
+                    if (metrics != null) {
+                        metrics.reset();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers these metrics in the platform MBean server as <code>com.ljcr:type=RepositoryMetrics,name=&lt;name&gt;</code>
+     *
+     * @return name of the registered MBean
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("com.ljcr:type=RepositoryMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new RepositoryException("Metrics can not be registered as " + name, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return dump();
+    }
+
+    @Nullable
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
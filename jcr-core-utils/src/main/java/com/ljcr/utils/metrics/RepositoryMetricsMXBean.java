@@ -0,0 +1,23 @@
+package com.ljcr.utils.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of {@link RepositoryMetrics}, see {@link RepositoryMetrics#register(String)}
+ */
+public interface RepositoryMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    boolean isAllocationTracking();
+
+    void setAllocationTracking(boolean allocationTracking);
+
+    List<OperationStatistics> getStatistics();
+
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,76 @@
+package com.ljcr.utils.overlay;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Object found at the same path in several layers. It is named and typed as the object of its owner,
+ * its fields being resolved by the overlay.
+ */
+final class OverlayNodeObject implements ImmutableNodeObject {
+    private final OverlayRepository overlay;
+    private final OverlayRepository.Slot slot;
+    private final NodePath path;
+    private final ImmutableNodeObject ownerNode;
+
+    OverlayNodeObject(OverlayRepository overlay, OverlayRepository.Slot slot, NodePath path,
+                      ImmutableNodeObject ownerNode) {
+        this.overlay = overlay;
+        this.slot = slot;
+        this.path = path;
+        this.ownerNode = ownerNode;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return ownerNode.getName();
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return ownerNode.getTypeDefinition();
+    }
+
+    /**
+     * @return fields of the merged objects, those of the owner first
+     */
+    @Override
+    public Stream<String> getFieldNames() {
+        return OverlayRepository.fieldNames(slot).stream();
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
+        return overlay.child(slot, path, fieldName);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+        return getItem(field.getIdentifier());
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getFieldNames().map(this::getItem).filter(Objects::nonNull);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, layers=%d]", getClass().getSimpleName(), path,
+                Integer.bitCount(slot.ownership().objects));
+    }
+}
@@ -0,0 +1,388 @@
+package com.ljcr.utils.overlay;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.ItemNotFoundException;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.observation.Event;
+import com.ljcr.api.observation.EventListener;
+
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * Repository merging layers of repositories, the first layer taking precedence over the following ones.
+ * A node belongs to the first layer having it. Objects found at the same path in several layers are merged:
+ * their fields are the union of the fields of these layers, each field resolved in the same way.
+ * Other nodes, as collections and scalars, hide the nodes of the following layers.
+ * <p>
+ * The layer owning each path is recorded on first lookup, in an index shaped as the tree of looked up paths,
+ * together with the objects of the layers at this path. A path is probed in these objects of its parent only,
+ * then read from its owner only.
+ * Changes of a layer are reported by {@link #invalidate(NodePath)}, or by registering the listener
+ * of the overlay on each layer:
+ * <pre>
+ * OverlayRepository overlay = new OverlayRepository("site", Arrays.asList(tenant, site, defaults));
+ * tenant.getObservationManager().addEventListener(overlay.getInvalidationListener(), EventFilter.all());
+ * </pre>
+ * Missing paths are not recorded, so that the index is bounded by the objects of the layers: they are probed
+ * again on each lookup. It is safe to share between threads.
+ */
+public class OverlayRepository implements Repository {
+    public static final int MAX_LAYERS = Integer.SIZE;
+
+    private final String name;
+    private final Repository[] layers;
+    private final int allLayers;
+    private final EventListener invalidationListener = this::invalidateEvents;
+    private volatile Slot root = new Slot();
+    // incremented by the invalidations, a child probed before is not recorded
+    private volatile long generation;
+
+    /**
+     * @param layers repositories, by decreasing precedence
+     */
+    public OverlayRepository(String name, List<? extends Repository> layers) {
+        if (layers.isEmpty() || layers.size() > MAX_LAYERS) {
+            throw new IllegalArgumentException("Expecting 1 to " + MAX_LAYERS + " layers, got " + layers.size());
+        }
+        this.name = name;
+        this.layers = layers.toArray(new Repository[0]);
+        this.allLayers = -1 >>> (MAX_LAYERS - layers.size());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public List<Repository> getLayers() {
+        return Collections.unmodifiableList(Arrays.asList(layers));
+    }
+
+    @Override
+    public ImmutableNode getRootNode() {
+        return getItem(NodePath.ROOT);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(Path absPath) throws PathNotFoundException {
+        return getItem(NodePath.of(absPath));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(CompiledPath absPath) throws PathNotFoundException {
+        return getItem(absPath.getPath());
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(NodePath absPath) throws PathNotFoundException {
+        Slot slot = rootSlot();
+        if (slot == null) {
+            return null;
+        }
+        Slot parent = null;
+        NodePath path = NodePath.ROOT;
+        for (int idx = 0; idx < absPath.getNameCount(); idx++) {
+            if (!slot.isObject()) {
+                // below a collection or a scalar, the path is resolved in its owner only
+                ImmutableNode node = ownerNode(parent, slot, path);
+                for (; idx < absPath.getNameCount() && node != null; idx++) {
+                    node = item(node, absPath.getName(idx));
+                }
+                return node;
+            }
+            String childName = absPath.getName(idx);
+            parent = slot;
+            slot = childSlot(slot, childName);
+            if (slot == null) {
+                return null;
+            }
+            path = path.resolve(childName);
+        }
+        return node(parent, slot, path);
+    }
+
+    /**
+     * @return layer owning the node at the path, or null if no layer has it
+     */
+    @Nullable
+    public Repository getOwner(NodePath absPath) {
+        Slot slot = rootSlot();
+        int idx = 0;
+        for (; idx < absPath.getNameCount() && slot != null && slot.isObject(); idx++) {
+            slot = childSlot(slot, absPath.getName(idx));
+        }
+        if (slot == null || idx < absPath.getNameCount() && getItem(absPath) == null) {
+            return null;
+        }
+        return layers[slot.ownership().owner];
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(TypeDefinition type, String id) throws ItemNotFoundException {
+        for (Repository layer : layers) {
+            ImmutableNodeObject node = layer.getNodeByReference(type, id);
+            if (node != null) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(String typeName, Object id) {
+        for (Repository layer : layers) {
+            ImmutableNodeObject node = layer.getNodeByReference(typeName, id);
+            if (node != null) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return types of all layers, the first layer defining an identifier taking precedence
+     */
+    @Override
+    public Collection<TypeDefinition> getKnownTypes() {
+        Map<String, TypeDefinition> types = new LinkedHashMap<>();
+        for (Repository layer : layers) {
+            for (TypeDefinition type : layer.getKnownTypes()) {
+                types.putIfAbsent(type.getIdentifier(), type);
+            }
+        }
+        return new ArrayList<>(types.values());
+    }
+
+    /**
+     * Forgets the owners of the path, of its ancestors and of its descendants
+     */
+    public synchronized void invalidate(NodePath path) {
+        generation++;
+        if (path.isRoot()) {
+            root = new Slot();
+            return;
+        }
+        // ancestors are replaced by unresolved slots sharing their children, so that a concurrent lookup
+        // cannot record an owner probed before the change
+        Slot slot = root = new Slot(root);
+        for (int idx = 0; idx < path.getNameCount() - 1 && slot != null; idx++) {
+            slot = slot.children.computeIfPresent(path.getName(idx), (k, previous) -> new Slot(previous));
+        }
+        if (slot != null) {
+            slot.children.remove(path.getName(path.getNameCount() - 1));
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        root = new Slot();
+    }
+
+    /**
+     * @return listener invalidating the paths of the received events
+     */
+    public EventListener getInvalidationListener() {
+        return invalidationListener;
+    }
+
+    private void invalidateEvents(Iterable<Event> events) {
+        for (Event event : events) {
+            invalidate(event.getPath());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, layers=%d]", getClass().getSimpleName(), name, layers.length);
+    }
+
+    /**
+     * @return node of the child of an object, read from its owner only
+     */
+    @Nullable
+    ImmutableNode child(Slot parent, NodePath parentPath, String childName) {
+        Slot slot = childSlot(parent, childName);
+        return slot == null ? null : node(parent, slot, parentPath.resolve(childName));
+    }
+
+    /**
+     * @return names of the fields of the objects of the slot, in the order of the layers
+     */
+    static Collection<String> fieldNames(Slot slot) {
+        Collection<String> names = new LinkedHashSet<>();
+        Ownership ownership = slot.ownership();
+        for (int bits = ownership.objects; bits != 0; bits &= bits - 1) {
+            ownership.nodes[Integer.numberOfTrailingZeros(bits)].asObjectNode().getFieldNames().forEach(names::add);
+        }
+        return names;
+    }
+
+    @Nullable
+    private ImmutableNode node(@Nullable Slot parent, Slot slot, NodePath path) {
+        Ownership ownership = slot.ownership();
+        if (Integer.bitCount(ownership.objects) > 1) {
+            return new OverlayNodeObject(this, slot, path, ownership.nodes[ownership.owner].asObjectNode());
+        }
+        return ownerNode(parent, slot, path);
+    }
+
+    /**
+     * @return node of the owner of the slot: kept by the slot if it is an object, read from its parent otherwise
+     */
+    @Nullable
+    private ImmutableNode ownerNode(@Nullable Slot parent, Slot slot, NodePath path) {
+        Ownership ownership = slot.ownership();
+        if (ownership.nodes != null) {
+            return ownership.nodes[ownership.owner];
+        } else if (parent == null) {
+            return layers[ownership.owner].getRootNode();
+        }
+        return item(parent.ownership().nodes[ownership.owner], path.getName(path.getNameCount() - 1));
+    }
+
+    @Nullable
+    private Slot rootSlot() {
+        Slot slot = root;
+        if (slot.ownership() == null) {
+            Ownership ownership = probe(allLayers, layer -> layers[layer].getRootNode());
+            if (ownership == null) {
+                return null;
+            }
+            slot.resolve(ownership);
+        }
+        return slot;
+    }
+
+    /**
+     * Probes the child in the layers holding an object at the parent, from the nodes kept by the parent.
+     * Missing children are not recorded.
+     *
+     * @return slot of the child, or null if no layer has it
+     */
+    @Nullable
+    private Slot childSlot(Slot parent, String childName) {
+        Slot slot = parent.children.get(childName);
+        if (slot != null && slot.ownership() != null) {
+            return slot;
+        }
+
+        long probedAt = generation;
+        Ownership parentOwnership = parent.ownership();
+        Ownership ownership = probe(parentOwnership.objects, layer -> item(parentOwnership.nodes[layer], childName));
+        if (ownership == null) {
+            return null;
+        }
+        slot = parent.children.computeIfAbsent(childName, k -> new Slot());
+        slot.resolve(ownership);
+        if (generation != probedAt) {
+            // the child may have changed while probed: it is returned but not recorded
+            parent.children.remove(childName, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * @param candidates layers to probe, by precedence
+     * @return owner and objects of the candidates, or null if none has a node
+     */
+    @Nullable
+    private Ownership probe(int candidates, IntFunction<ImmutableNode> nodeOfLayer) {
+        int owner = -1;
+        int objects = 0;
+        ImmutableNode[] nodes = null;
+        for (int bits = candidates; bits != 0; bits &= bits - 1) {
+            int layer = Integer.numberOfTrailingZeros(bits);
+            ImmutableNode node = nodeOfLayer.apply(layer);
+            if (node == null || owner >= 0 && !node.isObject()) {
+                continue;
+            }
+            if (owner < 0) {
+                owner = layer;
+                if (!node.isObject()) {
+                    break;
+                }
+                nodes = new ImmutableNode[layers.length];
+            }
+            nodes[layer] = node;
+            objects |= 1 << layer;
+        }
+        return owner < 0 ? null : new Ownership(owner, objects, nodes);
+    }
+
+    @Nullable
+    private static ImmutableNode item(ImmutableNode node, String childName) {
+        try {
+            return node.getItem(childName);
+        } catch (PathNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Node of the index, recorded for the paths found in a layer. Its owner is resolved once:
+     * a change replaces the slot instead.
+     */
+    static final class Slot {
+        final ConcurrentHashMap<String, Slot> children;
+        private final AtomicReference<Ownership> ownership = new AtomicReference<>();
+
+        Slot() {
+            this.children = new ConcurrentHashMap<>();
+        }
+
+        Slot(Slot previous) {
+            this.children = previous.children;
+        }
+
+        @Nullable
+        Ownership ownership() {
+            return ownership.get();
+        }
+
+        void resolve(Ownership resolved) {
+            ownership.compareAndSet(null, resolved);
+        }
+
+        boolean isObject() {
+            return ownership().nodes != null;
+        }
+    }
+
+    static final class Ownership {
+        // first layer having the path
+        final int owner;
+        // bit set of the layers having an object at the path, 0 unless the owner has one
+        final int objects;
+        // objects of these layers, by layer, null unless the owner has one
+        @Nullable
+        final ImmutableNode[] nodes;
+
+        Ownership(int owner, int objects, @Nullable ImmutableNode[] nodes) {
+            this.owner = owner;
+            this.objects = objects;
+            this.nodes = nodes;
+        }
+    }
+}
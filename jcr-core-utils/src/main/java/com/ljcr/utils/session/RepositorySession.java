@@ -0,0 +1,183 @@
+package com.ljcr.utils.session;
+
+import com.ljcr.api.AccessControlManager;
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.Session;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+import com.ljcr.utils.acl.AccessControlledRepository;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Session caching the items it reads by path and the nodes it resolves by reference.
+ * <p>
+ * The cache is bounded by the number of entries, missing items included, and least recently used entries
+ * are evicted first. Items are cached by {@link NodePath}, whichever kind of path they are read by.
+ * Cached items are not refreshed
+ * when the workspace changes, call {@link #refresh(boolean)} to drop them. A session is meant to be used
+ * by a single thread at a time, e.g. borrowed from a {@link SessionPool} for the duration of a request.
+ */
+public class RepositorySession implements Session {
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final Repository workspace;
+    private final String userId;
+    private final SessionCache cache;
+    private boolean live = true;
+
+    public RepositorySession(Repository workspace, @Nullable String userId) {
+        this(workspace, userId, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize - maximal number of cached paths and references
+     */
+    public RepositorySession(Repository workspace, @Nullable String userId, int cacheSize) {
+        this.workspace = Objects.requireNonNull(workspace);
+        this.userId = userId;
+        this.cache = new SessionCache(cacheSize);
+    }
+
+    @Override
+    public Repository getWorkspace() {
+        checkLive();
+        return workspace;
+    }
+
+    @Nullable
+    @Override
+    public String getUserID() {
+        return userId;
+    }
+
+    @Override
+    public ImmutableNode getItem(@Nonnull Path absPath) throws PathNotFoundException {
+        return getItem(NodePath.of(absPath));
+    }
+
+    @Override
+    public ImmutableNode getItem(@Nonnull NodePath absPath) throws PathNotFoundException {
+        checkLive();
+        return cache.get(absPath, path -> workspace.getItem(path.compile()));
+    }
+
+    @Override
+    public ImmutableNode getItem(@Nonnull CompiledPath absPath) throws PathNotFoundException {
+        checkLive();
+        return cache.get(absPath.getPath(), path -> workspace.getItem(absPath));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNodeObject getNodeByReference(@Nonnull String typeName, @Nonnull Object id) {
+        checkLive();
+        return cache.get(new ReferenceKey(typeName, id), key -> workspace.getNodeByReference(key.typeName, key.id));
+    }
+
+    /**
+     * Drops the cached items
+     */
+    @Override
+    public void refresh(boolean keepChanges) {
+        checkLive();
+        cache.clear();
+    }
+
+    /**
+     * Drops the cached items, the session can not be used afterwards
+     */
+    @Override
+    public void logout() {
+        live = false;
+        cache.clear();
+    }
+
+    @Override
+    public boolean isLive() {
+        return live;
+    }
+
+    /**
+     * @throws UnsupportedRepositoryOperationException if the workspace is not an {@link AccessControlledRepository}
+     */
+    @Override
+    public AccessControlManager getAccessControlManager() throws UnsupportedRepositoryOperationException {
+        checkLive();
+        if (workspace instanceof AccessControlledRepository) {
+            return ((AccessControlledRepository) workspace).getAccessControlManager();
+        }
+        throw new UnsupportedRepositoryOperationException("No access control on " + workspace.getName());
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    public long getCacheHits() {
+        return cache.getHits();
+    }
+
+    public long getCacheMisses() {
+        return cache.getMisses();
+    }
+
+    public long getCacheEvictions() {
+        return cache.getEvictions();
+    }
+
+    /**
+     * @return ratio of the lookups answered by the cache, 0 if there were none
+     */
+    public double getCacheHitRate() {
+        long total = cache.getHits() + cache.getMisses();
+        return total == 0 ? 0.0 : (double) cache.getHits() / total;
+    }
+
+    private void checkLive() {
+        if (!live) {
+            throw new RepositoryException("Session has been logged out");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s@%s, %d cached, hit rate %.2f]",
+                getClass().getSimpleName(), userId, workspace.getName(), getCacheSize(), getCacheHitRate());
+    }
+
+    private static final class ReferenceKey {
+        private final String typeName;
+        private final Object id;
+
+        ReferenceKey(String typeName, Object id) {
+            this.typeName = typeName;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ReferenceKey)) {
+                return false;
+            }
+            ReferenceKey other = (ReferenceKey) obj;
+            return typeName.equals(other.typeName) && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * typeName.hashCode() + id.hashCode();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ljcr.utils.session;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded least recently used cache of a session. Absent items are cached as well.
+ * Not thread-safe, as the session owning it.
+ */
+final class SessionCache {
+    private static final Object ABSENT = new Object();
+
+    private final int maxEntries;
+    private LinkedHashMap<Object, Object> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    SessionCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    @SuppressWarnings("unchecked")
+    <K, V> V get(K key, Function<? super K, ? extends V> loader) {
+        if (entries == null) {
+            entries = newMap();
+        }
+        Object value = entries.get(key);
+        if (value != null) {
+            hits++;
+            return value == ABSENT ? null : (V) value;
+        }
+        misses++;
+        V loaded = loader.apply(key);
+        entries.put(key, loaded == null ? ABSENT : loaded);
+        return loaded;
+    }
+
+    /**
+     * Drops the entries and the table holding them
+     */
+    void clear() {
+        entries = null;
+    }
+
+    int size() {
+        return entries == null ? 0 : entries.size();
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    long getEvictions() {
+        return evictions;
+    }
+
+    private LinkedHashMap<Object, Object> newMap() {
+        return new LinkedHashMap<Object, Object>(Math.min(maxEntries, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                if (size() > maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+}
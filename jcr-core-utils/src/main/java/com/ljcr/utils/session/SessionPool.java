@@ -0,0 +1,112 @@
+package com.ljcr.utils.session;
+
+import com.ljcr.api.Repository;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pool of the sessions of a workspace. Released sessions keep their caches, so the next request
+ * of the same user starts with a warm cache.
+ * <pre>
+ * RepositorySession session = pool.login(user);
+ * try {
+ *     ...
+ * } finally {
+ *     pool.release(session);
+ * }
+ * </pre>
+ * At most <code>maxIdle</code> sessions are kept, released sessions beyond that are logged out.
+ * The pool is thread-safe, the sessions are not.
+ */
+public class SessionPool implements AutoCloseable {
+    private final Repository workspace;
+    private final int maxIdle;
+    private final int cacheSize;
+    private final Map<String, Deque<RepositorySession>> idle = new HashMap<>();
+    private int idleCount;
+    private boolean closed;
+
+    public SessionPool(Repository workspace, int maxIdle) {
+        this(workspace, maxIdle, RepositorySession.DEFAULT_CACHE_SIZE);
+    }
+
+    public SessionPool(Repository workspace, int maxIdle, int cacheSize) {
+        this.workspace = Objects.requireNonNull(workspace);
+        this.maxIdle = maxIdle;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * @return an idle session of the user if there is one, a new session otherwise
+     */
+    public RepositorySession login(@Nullable String userId) {
+        synchronized (this) {
+            if (closed) {
+                throw new RepositoryException("Session pool is closed");
+            }
+            Deque<RepositorySession> sessions = idle.get(userId);
+            if (sessions != null) {
+                RepositorySession session = sessions.pop();
+                if (sessions.isEmpty()) {
+                    idle.remove(userId);
+                }
+                idleCount--;
+                return session;
+            }
+        }
+        return new RepositorySession(workspace, userId, cacheSize);
+    }
+
+    /**
+     * Returns the session to the pool, it must not be used by the caller afterwards
+     */
+    public void release(RepositorySession session) {
+        if (!session.isLive()) {
+            return;
+        }
+        if (session.getWorkspace() != workspace) {
+            throw new IllegalArgumentException("Session of another workspace: " + session);
+        }
+        synchronized (this) {
+            if (!closed && idleCount < maxIdle) {
+                idle.computeIfAbsent(session.getUserID(), u -> new ArrayDeque<>()).push(session);
+                idleCount++;
+                return;
+            }
+        }
+        session.logout();
+    }
+
+    public synchronized int getIdleCount() {
+        return idleCount;
+    }
+
+    /**
+     * @return number of users with idle sessions
+     */
+    synchronized int getIdleUserCount() {
+        return idle.size();
+    }
+
+    /**
+     * Logs out the idle sessions, sessions released afterwards are logged out as well
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        idle.values().forEach(sessions -> sessions.forEach(RepositorySession::logout));
+        idle.clear();
+        idleCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, %d idle]", getClass().getSimpleName(), workspace.getName(), getIdleCount());
+    }
+}
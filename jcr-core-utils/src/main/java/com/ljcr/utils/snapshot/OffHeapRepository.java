@@ -0,0 +1,70 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.Repository;
+import com.ljcr.utils.RepositoryWrapper;
+import com.ljcr.utils.export.Exporter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * In-memory copy of a repository held out of the heap: the copy is a snapshot (see {@link SnapshotWriter})
+ * written to direct buffers, so that the heap only holds the decoded names and types whatever the size of the tree.
+ * Numbers are stored as primitives in the node records and short strings are dictionary encoded.
+ * <pre>
+ * Repository ws = OffHeapRepository.copyOf(AvroAdapter.createWs(file));
+ * </pre>
+ */
+public final class OffHeapRepository extends RepositoryWrapper {
+    private static final int SEGMENT_BITS = 24;
+
+    private final long memoryUsage;
+
+    private OffHeapRepository(SnapshotRepository snapshot, long memoryUsage) {
+        super(snapshot);
+        this.memoryUsage = memoryUsage;
+    }
+
+    public static OffHeapRepository copyOf(Repository source) {
+        return copyOf(source, SnapshotWriter.DICTIONARY_SIZE, SEGMENT_BITS);
+    }
+
+    /**
+     * @param dictionarySize maximal number of dictionary encoded strings, 0 to store all strings inline
+     */
+    public static OffHeapRepository copyOf(Repository source, int dictionarySize) {
+        return copyOf(source, dictionarySize, SEGMENT_BITS);
+    }
+
+    static OffHeapRepository copyOf(Repository source, int dictionarySize, int segmentBits) {
+        String name = "off-heap copy of " + source.getName();
+        OffHeapSnapshotSink sink = new OffHeapSnapshotSink(segmentBits);
+        try (SnapshotWriter writer = new SnapshotWriter(name, sink, source.getName(), dictionarySize)) {
+            new Exporter().export(source, writer);
+        }
+        ByteBuffer[] segments = sink.toSegments();
+        long memoryUsage = 0;
+        for (ByteBuffer segment : segments) {
+            memoryUsage += segment.capacity();
+        }
+        return new OffHeapRepository(new SnapshotRepository(name, source.getName(), segments, segmentBits), memoryUsage);
+    }
+
+    @Override
+    public SnapshotRepository getDelegate() {
+        return (SnapshotRepository) super.getDelegate();
+    }
+
+    /**
+     * @return number of nodes
+     */
+    public long size() {
+        return getDelegate().size();
+    }
+
+    /**
+     * @return bytes of direct memory holding the nodes
+     */
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ljcr.utils.snapshot;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ljcr.utils.snapshot.SnapshotFormat.OVERLAP;
+
+/**
+ * Bytes written to direct buffers of <code>2^segmentBits</code> bytes, each followed by the first
+ * {@value SnapshotFormat#OVERLAP} bytes of the next one, as expected by {@link SnapshotRepository}
+ */
+final class OffHeapSnapshotSink implements SnapshotSink {
+    private final int segmentBits;
+    private final int segmentSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private long length;
+
+    OffHeapSnapshotSink(int segmentBits) {
+        if (segmentBits < 8 || segmentBits > 30) {
+            throw new IllegalArgumentException("Segments must have between 2^8 and 2^30 bytes: " + segmentBits);
+        }
+        this.segmentBits = segmentBits;
+        this.segmentSize = 1 << segmentBits;
+    }
+
+    int getSegmentBits() {
+        return segmentBits;
+    }
+
+    @Override
+    public void write(ByteBuffer bytes) {
+        length = Math.max(length, put(length, bytes));
+    }
+
+    @Override
+    public void write(long position, ByteBuffer bytes) {
+        length = Math.max(length, put(position, bytes));
+    }
+
+    private long put(long position, ByteBuffer bytes) {
+        while (bytes.hasRemaining()) {
+            int idx = (int) (position >>> segmentBits);
+            int at = (int) (position & (segmentSize - 1));
+            int n = Math.min(bytes.remaining(), segmentSize - at);
+            ByteBuffer chunk = bytes.duplicate();
+            chunk.limit(chunk.position() + n);
+            if (idx > 0 && at < OVERLAP) {
+                ByteBuffer head = chunk.duplicate();
+                head.limit(head.position() + Math.min(n, OVERLAP - at));
+                ByteBuffer previous = segments.get(idx - 1).duplicate();
+                previous.position(segmentSize + at);
+                previous.put(head);
+            }
+            ByteBuffer segment = segment(idx).duplicate();
+            segment.position(at);
+            segment.put(chunk);
+            bytes.position(bytes.position() + n);
+            position += n;
+        }
+        return position;
+    }
+
+    private ByteBuffer segment(int idx) {
+        while (segments.size() <= idx) {
+            segments.add(ByteBuffer.allocateDirect(segmentSize + OVERLAP));
+        }
+        return segments.get(idx);
+    }
+
+    /**
+     * @return written segments, the last one being trimmed to the written bytes
+     */
+    ByteBuffer[] toSegments() {
+        ByteBuffer[] all = segments.toArray(new ByteBuffer[0]);
+        if (all.length > 0) {
+            int last = all.length - 1;
+            int used = (int) (length - ((long) last << segmentBits));
+            if (used < all[last].capacity()) {
+                ByteBuffer trimmed = ByteBuffer.allocateDirect(used);
+                ByteBuffer src = all[last].duplicate();
+                src.limit(used);
+                trimmed.put(src);
+                all[last] = trimmed;
+                segments.set(last, trimmed);
+            }
+        }
+        return all;
+    }
+}
@@ -0,0 +1,120 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.ImmutableBinary;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Binary of a snapshot, read directly from the mapped file
+ */
+final class SnapshotBinary extends SnapshotNodeScalar implements ImmutableBinary {
+
+    SnapshotBinary(SnapshotRepository snapshot, long record, String name) {
+        super(snapshot, record, name);
+    }
+
+    @Override
+    public long length() {
+        return snapshot.count(record);
+    }
+
+    @Override
+    public InputStream openStream() {
+        return new InputStream() {
+            private final long start = snapshot.payload(record);
+            private final int length = snapshot.count(record);
+            private int position;
+
+            @Override
+            public int read() {
+                return position < length ? snapshot.getByte(start + position++) & 0xFF : -1;
+            }
+
+            @Override
+            public int read(@Nonnull byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                } else if (position >= length) {
+                    return -1;
+                }
+                int n = Math.min(len, length - position);
+                snapshot.read(start + position, b, off, n);
+                position += n;
+                return n;
+            }
+
+            @Override
+            public long skip(long n) {
+                long skipped = Math.max(0, Math.min(n, length - position));
+                position += (int) skipped;
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                return length - position;
+            }
+        };
+    }
+
+    @Override
+    public int read(long offset, @Nonnull ByteBuffer dst) {
+        long length = length();
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset: " + offset);
+        } else if (offset >= length) {
+            return -1;
+        }
+        int n = (int) Math.min(dst.remaining(), length - offset);
+        if (dst.hasArray()) {
+            snapshot.read(snapshot.payload(record) + offset, dst.array(), dst.arrayOffset() + dst.position(), n);
+            dst.position(dst.position() + n);
+        } else {
+            dst.put(snapshot.bytes(snapshot.payload(record) + offset, n));
+        }
+        return n;
+    }
+
+    @Override
+    public long transferTo(@Nonnull WritableByteChannel target) throws IOException {
+        long start = snapshot.payload(record);
+        int length = snapshot.count(record);
+        long total = 0;
+        while (total < length) {
+            ByteBuffer source = snapshot.view(start + total, (int) (length - total));
+            while (source.hasRemaining()) {
+                int n = target.write(source);
+                if (n <= 0) {
+                    throw new IOException("Target channel accepts no more bytes after " + total + " bytes");
+                }
+                total += n;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return view of the mapped file, or a copy if the bytes span two segments
+     */
+    @Override
+    public ByteBuffer slice(long offset, int length) {
+        long size = length();
+        long from = Math.max(0, Math.min(offset, size));
+        int n = (int) Math.max(0, Math.min(length, size - from));
+        long start = snapshot.payload(record) + from;
+        ByteBuffer view = snapshot.view(start, n);
+        if (view.remaining() == n) {
+            return view;
+        }
+        return ByteBuffer.wrap(snapshot.bytes(start, n)).asReadOnlyBuffer();
+    }
+
+    @Override
+    public String asString() {
+        return ImmutableBinary.super.asString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ljcr.utils.snapshot;
+
+/**
+ * Layout of a snapshot file, all values big endian.
+ * <pre>
+ * header   magic:int version:int root:long strings:long types:long name:int nodes:long values:long (64 bytes)
+ * nodes    records written children first, the root being the last one
+ * strings  count:int capacity:int offsets:long[count] slots:int[capacity] (length:int utf8)*
+ * values   count:int offsets:long[count] (length:int utf8)*
+ * types    count:int offsets:long[count] (identifier:int kind:byte flags:byte valueType:int
+ *          properties:int (name:int type:int ordinal:int flags:byte)*)*
+ * </pre>
+ * A node record has a fixed width: <code>kind:byte pad:3 name:int type:int count:int payload:long</code>.
+ * The payload of booleans, longs and doubles is the value itself; for strings, decimals and binaries it is
+ * the offset of <code>count</code> bytes, and for dictionary strings the id of the string in the value table.
+ * For containers it is the offset of their child table:
+ * <code>long[count]</code> record offsets in document order, followed for objects by
+ * <code>(name:int position:int)[count]</code> sorted by name id.
+ * <p>
+ * Strings of the string table (names and type identifiers) are found by an open addressing
+ * table of <code>capacity</code> slots holding the string id plus one, zero for an empty slot.
+ * <p>
+ * Version 1 has a 48 bytes header and no value table.
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x4C4A534E; // LJSN
+    static final int VERSION = 2;
+    static final int HEADER = 64;
+
+    static final int H_ROOT = 8;
+    static final int H_STRINGS = 16;
+    static final int H_TYPES = 24;
+    static final int H_NAME = 32;
+    static final int H_NODES = 36;
+    static final int H_VALUES = 44;
+
+    static final int RECORD = 24;
+    static final int R_NAME = 4;
+    static final int R_TYPE = 8;
+    static final int R_COUNT = 12;
+    static final int R_PAYLOAD = 16;
+
+    static final byte NULL = 0;
+    static final byte BOOLEAN = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte STRING = 4;
+    static final byte DECIMAL = 5;
+    static final byte BINARY = 6;
+    static final byte OBJECT = 7;
+    static final byte COLLECTION = 8;
+    static final byte STRING_REF = 9;
+
+    // kinds of type records
+    static final byte T_CUSTOM = 0;
+    static final byte T_STANDARD = 1;
+    static final byte T_ARRAY = 2;
+    static final byte T_MAP = 3;
+    static final byte T_REFERENCE = 4;
+    static final byte T_WEAKREFERENCE = 5;
+
+    static final byte F_REFERENCABLE = 1;
+    static final byte F_MANDATORY = 1;
+    static final byte F_IDENTIFIER = 2;
+
+    static final int NO_NAME = -1;
+
+    // first bytes of a segment, repeated at the end of the previous one so that a number never spans two segments
+    static final int OVERLAP = 64;
+
+    private SnapshotFormat() {
+    }
+
+    static int hash(String s) {
+        int h = s.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
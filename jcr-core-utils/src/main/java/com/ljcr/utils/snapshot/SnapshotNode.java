@@ -0,0 +1,45 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.NodeCursor;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Flyweight over the record of a node in a snapshot
+ */
+abstract class SnapshotNode implements ImmutableNode {
+    final SnapshotRepository snapshot;
+    final long record;
+    private final String name;
+
+    SnapshotNode(SnapshotRepository snapshot, long record, String name) {
+        this.snapshot = snapshot;
+        this.record = record;
+        this.name = name;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return snapshot.typeOf(record);
+    }
+
+    @Nonnull
+    @Override
+    public NodeCursor cursor() {
+        return new SnapshotNodeCursor(snapshot, record, name);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + name + "@" + record + "]";
+    }
+}
@@ -0,0 +1,47 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.IndexedSpliterator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.stream.Stream;
+
+/**
+ * Collection of a snapshot, elements are named by their position starting at 1
+ */
+final class SnapshotNodeCollection extends SnapshotNode implements ImmutableNodeCollection {
+
+    SnapshotNodeCollection(SnapshotRepository snapshot, long record, String name) {
+        super(snapshot, record, name);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) {
+        int position;
+        try {
+            position = Integer.parseInt(fieldName) - 1;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (position < 0 || position >= snapshot.count(record)) {
+            return null;
+        }
+        return snapshot.node(snapshot.child(record, position), fieldName);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        return IndexedSpliterator.stream(snapshot.count(record),
+                i -> snapshot.node(snapshot.child(record, i), String.valueOf(i + 1)), parallel);
+    }
+}
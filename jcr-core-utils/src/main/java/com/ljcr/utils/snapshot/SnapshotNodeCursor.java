@@ -0,0 +1,77 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.AbstractNodeCursor;
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nonnull;
+
+import static com.ljcr.utils.snapshot.SnapshotFormat.COLLECTION;
+import static com.ljcr.utils.snapshot.SnapshotFormat.OBJECT;
+
+/**
+ * Cursor walking the records of a snapshot, no node is created
+ */
+class SnapshotNodeCursor extends AbstractNodeCursor<SnapshotNodeCursor.SnapshotFrame> {
+
+    static final class SnapshotFrame extends AbstractNodeCursor.Frame {
+        private long record;
+        private boolean named;
+        private int children;
+        private int position;
+    }
+
+    private final SnapshotRepository snapshot;
+    private final long root;
+    private final String rootName;
+
+    SnapshotNodeCursor(SnapshotRepository snapshot, long root, String rootName) {
+        this.snapshot = snapshot;
+        this.root = root;
+        this.rootName = rootName;
+    }
+
+    @Override
+    protected SnapshotFrame newFrame() {
+        return new SnapshotFrame();
+    }
+
+    @Override
+    protected void setRoot(SnapshotFrame frame) {
+        describe(frame, rootName, root);
+    }
+
+    @Override
+    protected void open(SnapshotFrame frame) {
+        frame.children = snapshot.count(frame.record);
+        frame.position = 0;
+    }
+
+    @Override
+    protected boolean nextChild(SnapshotFrame parent, SnapshotFrame child) {
+        if (parent.position == parent.children) {
+            return false;
+        }
+        long record = snapshot.child(parent.record, parent.position++);
+        describe(child, parent.named ? snapshot.nameOf(record) : null, record);
+        return true;
+    }
+
+    private void describe(SnapshotFrame frame, String name, long record) {
+        byte kind = snapshot.kind(record);
+        frame.record = record;
+        frame.named = kind == OBJECT;
+        frame.reset(name, kind == OBJECT, kind == COLLECTION);
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return snapshot.typeOf(current().record);
+    }
+
+    @Override
+    public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        snapshot.acceptValue(currentValue().record, visitor);
+    }
+}
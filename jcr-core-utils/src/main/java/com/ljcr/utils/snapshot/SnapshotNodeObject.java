@@ -0,0 +1,58 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.IndexedSpliterator;
+import com.ljcr.api.definitions.PropertyDefinition;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.stream.Stream;
+
+/**
+ * Object of a snapshot: fields are found by a binary search on the ids of their names
+ */
+final class SnapshotNodeObject extends SnapshotNode implements ImmutableNodeObject {
+
+    SnapshotNodeObject(SnapshotRepository snapshot, long record, String name) {
+        super(snapshot, record, name);
+    }
+
+    @Override
+    public Stream<String> getFieldNames() {
+        return IndexedSpliterator.stream(snapshot.count(record), i -> snapshot.nameOf(snapshot.child(record, i)), false);
+    }
+
+    @Override
+    public boolean hasField(String fieldName) {
+        return snapshot.child(record, fieldName) >= 0;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) {
+        long child = snapshot.child(record, fieldName);
+        return child < 0 ? null : snapshot.node(child, fieldName);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+        return getItem(field.getIdentifier());
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        return IndexedSpliterator.stream(snapshot.count(record), i -> {
+            long child = snapshot.child(record, i);
+            return snapshot.node(child, snapshot.nameOf(child));
+        }, parallel);
+    }
+}
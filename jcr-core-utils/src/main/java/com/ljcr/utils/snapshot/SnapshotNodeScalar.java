@@ -0,0 +1,60 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.PrimitiveValueVisitor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.ljcr.utils.snapshot.SnapshotFormat.BOOLEAN;
+import static com.ljcr.utils.snapshot.SnapshotFormat.DOUBLE;
+import static com.ljcr.utils.snapshot.SnapshotFormat.LONG;
+
+/**
+ * Scalar of a snapshot, primitive values are read without boxing
+ */
+class SnapshotNodeScalar extends SnapshotNode implements ImmutableNodeScalar {
+
+    SnapshotNodeScalar(SnapshotRepository snapshot, long record, String name) {
+        super(snapshot, record, name);
+    }
+
+    @Nullable
+    @Override
+    public Object getValue() {
+        return snapshot.valueOf(record);
+    }
+
+    @Override
+    public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        snapshot.acceptValue(record, visitor);
+    }
+
+    @Nullable
+    @Override
+    public String asString() {
+        return snapshot.isText(record) ? snapshot.text(record) : super.asString();
+    }
+
+    @Override
+    public boolean asBoolean() {
+        return snapshot.kind(record) == BOOLEAN ? snapshot.payload(record) != 0 : super.asBoolean();
+    }
+
+    @Override
+    public long asLong() throws NumberFormatException {
+        return snapshot.kind(record) == LONG ? snapshot.payload(record) : super.asLong();
+    }
+
+    @Override
+    public double asDouble() throws NumberFormatException {
+        switch (snapshot.kind(record)) {
+            case DOUBLE:
+                return Double.longBitsToDouble(snapshot.payload(record));
+            case LONG:
+                return snapshot.payload(record);
+            default:
+                return super.asDouble();
+        }
+    }
+}
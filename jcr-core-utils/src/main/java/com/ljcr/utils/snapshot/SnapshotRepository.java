@@ -0,0 +1,444 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.StandardType;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ljcr.utils.snapshot.SnapshotFormat.*;
+
+/**
+ * Read-only repository over a memory mapped snapshot written by {@link SnapshotWriter}.
+ * <p>
+ * Opening a snapshot maps the file and reads its header only. Nodes are flyweights holding the offset of
+ * their record, values and names are decoded when they are read, the recent names being kept by a small cache;
+ * types are decoded once and shared.
+ * The file is mapped in segments of 1GB, each followed by the first bytes of the next one, so that
+ * the numbers of a record are always read from a single segment.
+ */
+public final class SnapshotRepository implements Repository {
+    private static final int SEGMENT_BITS = 30;
+    private static final int NAME_CACHE_SIZE = 1024;
+
+    private static final Map<String, StandardType> STANDARD_TYPES = new HashMap<>();
+
+    static {
+        List<StandardType> all = new ArrayList<>(StandardTypes.getPrimitiveTypes());
+        all.addAll(StandardTypes.getSpecialTypes());
+        all.addAll(Arrays.asList(StandardTypes.DOUBLE, StandardTypes.REPOSITORY));
+        for (StandardType type : all) {
+            STANDARD_TYPES.put(type.getIdentifier(), type);
+        }
+    }
+
+    private final String source;
+    private final String defaultName;
+    private final ByteBuffer[] segments;
+    private final int segmentBits;
+    private final long segmentMask;
+    private final long root;
+    private final long stringTable;
+    private final long typeTable;
+    private final int name;
+    private final long nodes;
+    private final long valueTable;
+
+    // direct-mapped by string id, so that the heap used does not grow with the number of distinct names
+    private final CachedString[] names = new CachedString[NAME_CACHE_SIZE];
+    private volatile TypeDefinition[] types;
+
+    SnapshotRepository(String source, String defaultName, ByteBuffer[] segments, int segmentBits) {
+        this.source = source;
+        this.defaultName = defaultName;
+        this.segments = segments;
+        this.segmentBits = segmentBits;
+        this.segmentMask = (1L << segmentBits) - 1;
+        int version = getInt(4);
+        if (getInt(0) != MAGIC) {
+            throw new RepositoryException("Not a snapshot: " + source);
+        } else if (version < 1 || version > VERSION) {
+            throw new RepositoryException("Unsupported snapshot version " + version + ": " + source);
+        }
+        this.root = getLong(H_ROOT);
+        this.stringTable = getLong(H_STRINGS);
+        this.typeTable = getLong(H_TYPES);
+        this.name = getInt(H_NAME);
+        this.nodes = getLong(H_NODES);
+        this.valueTable = version > 1 ? getLong(H_VALUES) : -1;
+    }
+
+    public static SnapshotRepository open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // header of the first version has no value table
+            if (size < H_VALUES) {
+                throw new RepositoryException("File is not a snapshot: " + file);
+            }
+            ByteBuffer[] segments = new ByteBuffer[(int) (((size - 1) >>> SEGMENT_BITS) + 1)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, (1L << SEGMENT_BITS) + OVERLAP));
+            }
+            return new SnapshotRepository(file.toString(), file.getFileName().toString(), segments, SEGMENT_BITS);
+        } catch (IOException e) {
+            throw new RepositoryException("Snapshot can not be opened: " + file, e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name == NO_NAME ? defaultName : string(name);
+    }
+
+    @Override
+    public ImmutableNode getRootNode() {
+        return node(root, "");
+    }
+
+    /**
+     * @return number of nodes in the snapshot
+     */
+    public long size() {
+        return nodes;
+    }
+
+    /**
+     * @return custom types of the snapshot
+     */
+    @Override
+    public Collection<TypeDefinition> getKnownTypes() {
+        List<TypeDefinition> known = new ArrayList<>();
+        for (TypeDefinition type : types()) {
+            if (type instanceof SnapshotTypeDefinition) {
+                known.add(type);
+            }
+        }
+        return known;
+    }
+
+    ImmutableNode node(long offset, String name) {
+        switch (kind(offset)) {
+            case OBJECT:
+                return new SnapshotNodeObject(this, offset, name);
+            case COLLECTION:
+                return new SnapshotNodeCollection(this, offset, name);
+            case BINARY:
+                return new SnapshotBinary(this, offset, name);
+            default:
+                return new SnapshotNodeScalar(this, offset, name);
+        }
+    }
+
+    byte kind(long record) {
+        return getByte(record);
+    }
+
+    int count(long record) {
+        return getInt(record + R_COUNT);
+    }
+
+    long payload(long record) {
+        return getLong(record + R_PAYLOAD);
+    }
+
+    TypeDefinition typeOf(long record) {
+        return type(getInt(record + R_TYPE));
+    }
+
+    @Nullable
+    String nameOf(long record) {
+        int id = getInt(record + R_NAME);
+        return id == NO_NAME ? null : string(id);
+    }
+
+    /**
+     * @return offset of the child record at the position in document order
+     */
+    long child(long record, int position) {
+        return getLong(payload(record) + 8L * position);
+    }
+
+    /**
+     * @return offset of the child record of an object having the name, or -1
+     */
+    long child(long record, String name) {
+        int id = stringId(name);
+        if (id < 0) {
+            return -1;
+        }
+        int count = count(record);
+        long pairs = payload(record) + 8L * count;
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = getInt(pairs + 8L * mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return child(record, getInt(pairs + 8L * mid + 4));
+            }
+        }
+        return -1;
+    }
+
+    @Nullable
+    Object valueOf(long record) {
+        switch (kind(record)) {
+            case NULL:
+                return null;
+            case BOOLEAN:
+                return payload(record) != 0;
+            case LONG:
+                return payload(record);
+            case DOUBLE:
+                return Double.longBitsToDouble(payload(record));
+            case STRING:
+            case STRING_REF:
+                return text(record);
+            case DECIMAL:
+                return new BigDecimal(text(record));
+            case BINARY:
+                return bytes(payload(record), count(record));
+            default:
+                throw new RepositoryException("Not a value at " + record + ": " + source);
+        }
+    }
+
+    void acceptValue(long record, PrimitiveValueVisitor visitor) {
+        switch (kind(record)) {
+            case NULL:
+                visitor.onNull();
+                break;
+            case BOOLEAN:
+                visitor.onBoolean(payload(record) != 0);
+                break;
+            case LONG:
+                visitor.onLong(payload(record));
+                break;
+            case DOUBLE:
+                visitor.onDouble(Double.longBitsToDouble(payload(record)));
+                break;
+            case STRING:
+            case STRING_REF:
+                visitor.onString(text(record));
+                break;
+            default:
+                PrimitiveValueVisitor.visitValue(valueOf(record), visitor);
+        }
+    }
+
+    boolean isText(long record) {
+        byte kind = kind(record);
+        return kind == STRING || kind == STRING_REF;
+    }
+
+    /**
+     * @return string value of the record, dictionary strings are not cached
+     */
+    String text(long record) {
+        if (kind(record) == STRING_REF) {
+            long entry = getLong(valueTable + 4 + 8L * payload(record));
+            return new String(bytes(entry + 4, getInt(entry)), StandardCharsets.UTF_8);
+        }
+        return new String(bytes(payload(record), count(record)), StandardCharsets.UTF_8);
+    }
+
+    byte[] bytes(long offset, int length) {
+        byte[] bytes = new byte[length];
+        read(offset, bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * @return read-only view of the bytes starting at <code>offset</code>, up to <code>length</code> of them
+     * or up to the end of the segment holding the offset
+     */
+    ByteBuffer view(long offset, int length) {
+        ByteBuffer segment = segments[(int) (offset >>> segmentBits)].duplicate();
+        int position = (int) (offset & segmentMask);
+        segment.position(position);
+        segment.limit((int) Math.min(segmentMask + 1, position + (long) length));
+        return segment.slice().asReadOnlyBuffer();
+    }
+
+    void read(long offset, byte[] dst, int from, int length) {
+        while (length > 0) {
+            ByteBuffer segment = segments[(int) (offset >>> segmentBits)].duplicate();
+            int position = (int) (offset & segmentMask);
+            int n = (int) Math.min(length, segmentMask + 1 - position);
+            segment.position(position);
+            segment.get(dst, from, n);
+            offset += n;
+            from += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * @return string of the string table, decoded on demand unless recently read
+     */
+    String string(int id) {
+        int slot = id & (NAME_CACHE_SIZE - 1);
+        CachedString cached = names[slot];
+        if (cached != null && cached.id == id) {
+            return cached.value;
+        }
+        long entry = stringEntry(id);
+        String s = new String(bytes(entry + 4, getInt(entry)), StandardCharsets.UTF_8);
+        names[slot] = new CachedString(id, s);
+        return s;
+    }
+
+    /**
+     * @return id of the string in the string table, or -1. Probed strings are compared to their encoded bytes
+     */
+    int stringId(String s) {
+        int count = getInt(stringTable);
+        int mask = getInt(stringTable + 4) - 1;
+        long slots = stringTable + 8 + 8L * count;
+        byte[] utf8 = null;
+        for (int slot = hash(s) & mask; ; slot = (slot + 1) & mask) {
+            int id = getInt(slots + 4L * slot) - 1;
+            if (id < 0) {
+                return -1;
+            }
+            CachedString cached = names[id & (NAME_CACHE_SIZE - 1)];
+            if (cached != null && cached.id == id) {
+                if (s.equals(cached.value)) {
+                    return id;
+                }
+                continue;
+            }
+            if (utf8 == null) {
+                utf8 = s.getBytes(StandardCharsets.UTF_8);
+            }
+            if (equalBytes(stringEntry(id), utf8)) {
+                return id;
+            }
+        }
+    }
+
+    private long stringEntry(int id) {
+        return getLong(stringTable + 8 + 8L * id);
+    }
+
+    /**
+     * @return whether the length prefixed bytes at the offset are the given bytes
+     */
+    private boolean equalBytes(long entry, byte[] bytes) {
+        if (getInt(entry) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (getByte(entry + 4 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    TypeDefinition type(int id) {
+        return types()[id];
+    }
+
+    private TypeDefinition[] types() {
+        TypeDefinition[] all = types;
+        if (all == null) {
+            synchronized (this) {
+                all = types;
+                if (all == null) {
+                    all = new TypeDefinition[getInt(typeTable)];
+                    for (int id = 0; id < all.length; id++) {
+                        resolve(all, id);
+                    }
+                    types = all;
+                }
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Decodes a type record. Property types are resolved lazily, so recursive types are supported
+     */
+    private TypeDefinition resolve(TypeDefinition[] all, int id) {
+        if (all[id] != null) {
+            return all[id];
+        }
+        long entry = getLong(typeTable + 4 + 8L * id);
+        String identifier = string(getInt(entry));
+        byte kind = getByte(entry + 4);
+        int valueType = getInt(entry + 6);
+        TypeDefinition type;
+        switch (kind) {
+            case T_ARRAY:
+                type = StandardTypes.arrayOf(resolve(all, valueType));
+                break;
+            case T_MAP:
+                type = StandardTypes.mapOf(resolve(all, valueType));
+                break;
+            case T_REFERENCE:
+                type = StandardTypes.referenceOf(resolve(all, valueType));
+                break;
+            case T_WEAKREFERENCE:
+                type = StandardTypes.weakReferenceOf(resolve(all, valueType));
+                break;
+            default:
+                type = kind == T_STANDARD ? STANDARD_TYPES.get(identifier) : null;
+                if (type == null) {
+                    type = new SnapshotTypeDefinition(this, identifier, (getByte(entry + 5) & F_REFERENCABLE) != 0,
+                            valueType, entry + 14, getInt(entry + 10));
+                }
+        }
+        all[id] = type;
+        return type;
+    }
+
+    byte getByte(long offset) {
+        return segments[(int) (offset >>> segmentBits)].get((int) (offset & segmentMask));
+    }
+
+    int getInt(long offset) {
+        return segments[(int) (offset >>> segmentBits)].getInt((int) (offset & segmentMask));
+    }
+
+    long getLong(long offset) {
+        return segments[(int) (offset >>> segmentBits)].getLong((int) (offset & segmentMask));
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotRepository[" + source + "]";
+    }
+
+    private static final class CachedString {
+        final int id;
+        final String value;
+
+        CachedString(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ljcr.utils.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Destination of the bytes of a {@link SnapshotWriter}
+ */
+interface SnapshotSink {
+
+    /**
+     * Appends the remaining bytes of the buffer
+     */
+    void write(ByteBuffer bytes) throws IOException;
+
+    /**
+     * Overwrites bytes already appended
+     */
+    void write(long position, ByteBuffer bytes) throws IOException;
+
+    default void force() throws IOException {
+    }
+
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,136 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static com.ljcr.utils.snapshot.SnapshotFormat.F_IDENTIFIER;
+import static com.ljcr.utils.snapshot.SnapshotFormat.F_MANDATORY;
+
+/**
+ * Custom type read from the type table of a snapshot. Properties are decoded on first use
+ */
+final class SnapshotTypeDefinition implements TypeDefinition {
+    private final SnapshotRepository snapshot;
+    private final String identifier;
+    private final boolean referencable;
+    private final int valueType;
+    private final long properties;
+    private final int propertyCount;
+
+    private volatile List<PropertyDefinition> propertyDefinitions;
+
+    SnapshotTypeDefinition(SnapshotRepository snapshot, String identifier, boolean referencable,
+                           int valueType, long properties, int propertyCount) {
+        this.snapshot = snapshot;
+        this.identifier = identifier;
+        this.referencable = referencable;
+        this.valueType = valueType;
+        this.properties = properties;
+        this.propertyCount = propertyCount;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
+        List<PropertyDefinition> defs = propertyDefinitions;
+        if (defs == null) {
+            defs = new ArrayList<>(propertyCount);
+            for (int i = 0; i < propertyCount; i++) {
+                long entry = properties + 13L * i;
+                byte flags = snapshot.getByte(entry + 12);
+                defs.add(new Property(snapshot.string(snapshot.getInt(entry)), snapshot.getInt(entry + 4),
+                        snapshot.getInt(entry + 8), (flags & F_MANDATORY) != 0, (flags & F_IDENTIFIER) != 0));
+            }
+            defs = Collections.unmodifiableList(defs);
+            propertyDefinitions = defs;
+        }
+        return defs;
+    }
+
+    @Nullable
+    @Override
+    public TypeDefinition getValueType() {
+        return valueType < 0 ? null : snapshot.type(valueType);
+    }
+
+    @Override
+    public boolean isReferencable() {
+        return referencable;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof TypeDefinition) {
+            return identifier.equals(((TypeDefinition) obj).getIdentifier());
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return identifier.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return identifier;
+    }
+
+    private final class Property implements PropertyDefinition {
+        private final String name;
+        private final int type;
+        private final int ordinal;
+        private final boolean mandatory;
+        private final boolean identifier;
+
+        Property(String name, int type, int ordinal, boolean mandatory, boolean identifier) {
+            this.name = name;
+            this.type = type;
+            this.ordinal = ordinal;
+            this.mandatory = mandatory;
+            this.identifier = identifier;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return name;
+        }
+
+        @Override
+        public TypeDefinition getType() {
+            return snapshot.type(type);
+        }
+
+        @Override
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        @Override
+        public boolean isMandatory() {
+            return mandatory;
+        }
+
+        @Override
+        public boolean isIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[t=%s%s]", name, getType(), mandatory ? "!" : "?");
+        }
+    }
+}
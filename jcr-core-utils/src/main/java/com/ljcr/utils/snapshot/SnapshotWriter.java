@@ -0,0 +1,520 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardType;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.utils.export.ExportWriter;
+import com.ljcr.utils.export.Exporter;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ljcr.utils.snapshot.SnapshotFormat.*;
+
+/**
+ * Writes a snapshot file (see {@link SnapshotFormat}) of the exported tree, to be read by {@link SnapshotRepository}.
+ * <p>
+ * Nodes are written as they are completed, children before their parent, so only the child offsets of the
+ * current path are held in memory, with the names and type identifiers interned in the string table.
+ * String values up to {@value #DICTIONARY_LENGTH} chars are written once in a value dictionary,
+ * until it has <code>dictionarySize</code> entries.
+ * <pre>
+ * SnapshotWriter.write(ws, Paths.get("ws.snapshot"));
+ * Repository snapshot = SnapshotRepository.open(Paths.get("ws.snapshot"));
+ * </pre>
+ */
+public final class SnapshotWriter implements ExportWriter {
+    static final int DICTIONARY_SIZE = 1 << 16;
+    static final int DICTIONARY_LENGTH = 32;
+
+    private static final class Level {
+        long[] children = new long[16];
+        int[] names = new int[16];
+        int count;
+        boolean object;
+        int name;
+        int type;
+
+        void add(long offset, int nameId) {
+            if (count == children.length) {
+                children = Arrays.copyOf(children, count * 2);
+                names = Arrays.copyOf(names, count * 2);
+            }
+            children[count] = offset;
+            names[count] = nameId;
+            count++;
+        }
+    }
+
+    private final String target;
+    private final SnapshotSink sink;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> typeIds = new HashMap<>();
+    private final List<TypeDefinition> types = new ArrayList<>();
+    private final int dictionarySize;
+    private final Map<String, Integer> valueIds = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final Value value = new Value();
+    private final int repositoryName;
+
+    private Level[] levels = new Level[8];
+    private int depth;
+    private long written;
+    private long root = -1;
+    private long nodes;
+    private boolean closed;
+
+    public SnapshotWriter(Path file, @Nullable String repositoryName) {
+        this(file, repositoryName, DICTIONARY_SIZE);
+    }
+
+    public SnapshotWriter(Path file, @Nullable String repositoryName, int dictionarySize) {
+        this(file.toString(), openFile(file), repositoryName, dictionarySize);
+    }
+
+    SnapshotWriter(String target, SnapshotSink sink, @Nullable String repositoryName, int dictionarySize) {
+        if (dictionarySize < 0) {
+            throw new IllegalArgumentException("Dictionary size must not be negative: " + dictionarySize);
+        }
+        this.target = target;
+        this.sink = sink;
+        this.repositoryName = nameId(repositoryName);
+        this.dictionarySize = dictionarySize;
+        buffer.put(new byte[HEADER]);
+    }
+
+    private static SnapshotSink openFile(Path file) {
+        try {
+            return new FileSnapshotSink(file);
+        } catch (IOException e) {
+            throw new RepositoryException("Snapshot can not be created: " + file, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the whole repository
+     *
+     * @return number of written nodes
+     */
+    public static long write(Repository repository, Path file) {
+        try (SnapshotWriter writer = new SnapshotWriter(file, repository.getName())) {
+            return new Exporter().export(repository, writer);
+        }
+    }
+
+    @Override
+    public void startObject(@Nullable String name, TypeDefinition type) {
+        start(name, type, true);
+    }
+
+    @Override
+    public void startCollection(@Nullable String name, TypeDefinition type) {
+        start(name, type, false);
+    }
+
+    private void start(@Nullable String name, TypeDefinition type, boolean object) {
+        if (depth == levels.length) {
+            levels = Arrays.copyOf(levels, depth * 2);
+        }
+        Level level = levels[depth];
+        if (level == null) {
+            level = new Level();
+            levels[depth] = level;
+        }
+        level.count = 0;
+        level.object = object;
+        level.name = nameId(name);
+        level.type = typeId(type);
+        depth++;
+    }
+
+    @Override
+    public void endContainer() {
+        Level level = levels[--depth];
+        long table = position();
+        for (int i = 0; i < level.count; i++) {
+            putLong(level.children[i]);
+        }
+        if (level.object) {
+            long[] sorted = new long[level.count];
+            for (int i = 0; i < level.count; i++) {
+                sorted[i] = ((long) level.names[i] << 32) | i;
+            }
+            Arrays.sort(sorted);
+            for (long pair : sorted) {
+                putLong(pair);
+            }
+        }
+        added(record(level.object ? OBJECT : COLLECTION, level.name, level.type, level.count, table), level.name);
+    }
+
+    @Override
+    public PrimitiveValueVisitor scalar(@Nullable String name, TypeDefinition type) {
+        value.name = nameId(name);
+        value.type = typeId(type);
+        return value;
+    }
+
+    private void added(long offset, int name) {
+        if (depth == 0) {
+            root = offset;
+        } else {
+            levels[depth - 1].add(offset, name);
+        }
+    }
+
+    private long record(byte kind, int name, int type, int count, long payload) {
+        ensure(RECORD);
+        long offset = position();
+        buffer.put(kind).put((byte) 0).putShort((short) 0)
+                .putInt(name)
+                .putInt(type)
+                .putInt(count)
+                .putLong(payload);
+        nodes++;
+        return offset;
+    }
+
+    private int nameId(@Nullable String name) {
+        return name == null ? NO_NAME : stringId(name);
+    }
+
+    private int stringId(String s) {
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(s, id);
+            strings.add(s);
+        }
+        return id;
+    }
+
+    private int typeId(TypeDefinition type) {
+        Integer id = typeIds.get(type.getIdentifier());
+        if (id == null) {
+            id = types.size();
+            typeIds.put(type.getIdentifier(), id);
+            types.add(type);
+        }
+        return id;
+    }
+
+    /**
+     * @return id of the value in the dictionary, or -1 if it is written inline
+     */
+    private int valueId(String value) {
+        if (value.length() > DICTIONARY_LENGTH) {
+            return -1;
+        }
+        Integer id = valueIds.get(value);
+        if (id == null) {
+            if (values.size() == dictionarySize) {
+                return -1;
+            }
+            id = values.size();
+            valueIds.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    @Override
+    public void flush() {
+        try {
+            drain();
+            sink.force();
+        } catch (IOException e) {
+            throw new RepositoryException("Snapshot can not be written: " + target, e);
+        }
+    }
+
+    /**
+     * Writes the string and type tables and the header. The snapshot is not readable before
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (depth != 0 || root < 0) {
+                throw new RepositoryException("Snapshot is not complete: " + target);
+            }
+            // types are registered before the strings, as their names and identifiers are strings too
+            List<List<PropertyDefinition>> properties = registerTypes();
+            long typeTable = writeTypes(properties);
+            long stringTable = writeStrings();
+            long valueTable = writeValues();
+            drain();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(VERSION)
+                    .putLong(root)
+                    .putLong(stringTable)
+                    .putLong(typeTable)
+                    .putInt(repositoryName)
+                    .putLong(nodes)
+                    .putLong(valueTable);
+            header.flip();
+            sink.write(0, header);
+            sink.force();
+        } catch (IOException e) {
+            throw new RepositoryException("Snapshot can not be written: " + target, e);
+        } finally {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                throw new RepositoryException("Snapshot can not be written: " + target, e);
+            }
+        }
+    }
+
+    /**
+     * Registers the value and property types of the used types, recursively
+     *
+     * @return properties of each type, by type id
+     */
+    private List<List<PropertyDefinition>> registerTypes() {
+        List<List<PropertyDefinition>> properties = new ArrayList<>();
+        for (int id = 0; id < types.size(); id++) {
+            TypeDefinition type = types.get(id);
+            stringId(type.getIdentifier());
+            if (type.getValueType() != null) {
+                typeId(type.getValueType());
+            }
+            List<PropertyDefinition> fields = type instanceof StandardType
+                    ? Collections.emptyList() : new ArrayList<>(type.getPropertyDefinitions());
+            for (PropertyDefinition p : fields) {
+                stringId(p.getIdentifier());
+                typeId(p.getType());
+            }
+            properties.add(fields);
+        }
+        return properties;
+    }
+
+    private long writeTypes(List<List<PropertyDefinition>> properties) throws IOException {
+        long table = position();
+        putInt(types.size());
+        long offset = table + 4 + 8L * types.size();
+        for (List<PropertyDefinition> fields : properties) {
+            putLong(offset);
+            offset += 14 + 13L * fields.size();
+        }
+        for (int id = 0; id < types.size(); id++) {
+            TypeDefinition type = types.get(id);
+            TypeDefinition valueType = type.getValueType();
+            ensure(14);
+            buffer.putInt(stringId(type.getIdentifier()))
+                    .put(kindOf(type))
+                    .put(type.isReferencable() ? F_REFERENCABLE : 0)
+                    .putInt(valueType != null ? typeId(valueType) : -1)
+                    .putInt(properties.get(id).size());
+            for (PropertyDefinition p : properties.get(id)) {
+                ensure(13);
+                buffer.putInt(stringId(p.getIdentifier()))
+                        .putInt(typeId(p.getType()))
+                        .putInt(p.getOrdinal())
+                        .put((byte) ((p.isMandatory() ? F_MANDATORY : 0) | (p.isIdentifier() ? F_IDENTIFIER : 0)));
+            }
+        }
+        return table;
+    }
+
+    private static byte kindOf(TypeDefinition type) {
+        if (type instanceof StandardTypes.ArrayType) {
+            return T_ARRAY;
+        } else if (type instanceof StandardTypes.MapType) {
+            return T_MAP;
+        } else if (type instanceof StandardTypes.ReferenceType) {
+            return T_REFERENCE;
+        } else if (type instanceof StandardTypes.WeakReferenceType) {
+            return T_WEAKREFERENCE;
+        }
+        return type instanceof StandardType ? T_STANDARD : T_CUSTOM;
+    }
+
+    private long writeStrings() throws IOException {
+        int count = strings.size();
+        int capacity = Integer.highestOneBit(Math.max(count * 2, 2) - 1) << 1;
+        byte[][] bytes = new byte[count][];
+        int[] slots = new int[capacity];
+        for (int id = 0; id < count; id++) {
+            String s = strings.get(id);
+            bytes[id] = s.getBytes(StandardCharsets.UTF_8);
+            int slot = hash(s) & (capacity - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slots[slot] = id + 1;
+        }
+
+        long table = position();
+        putInt(count);
+        putInt(capacity);
+        long offset = table + 8 + 8L * count + 4L * capacity;
+        for (byte[] b : bytes) {
+            putLong(offset);
+            offset += 4 + b.length;
+        }
+        for (int slot : slots) {
+            putInt(slot);
+        }
+        for (byte[] b : bytes) {
+            putInt(b.length);
+            putBytes(b);
+        }
+        return table;
+    }
+
+    private long writeValues() {
+        long table = position();
+        putInt(values.size());
+        byte[][] bytes = new byte[values.size()][];
+        long offset = table + 4 + 8L * bytes.length;
+        for (int id = 0; id < bytes.length; id++) {
+            bytes[id] = values.get(id).getBytes(StandardCharsets.UTF_8);
+            putLong(offset);
+            offset += 4 + bytes[id].length;
+        }
+        for (byte[] b : bytes) {
+            putInt(b.length);
+            putBytes(b);
+        }
+        return table;
+    }
+
+    private long position() {
+        return written + buffer.position();
+    }
+
+    private void putInt(int v) {
+        ensure(4);
+        buffer.putInt(v);
+    }
+
+    private void putLong(long v) {
+        ensure(8);
+        buffer.putLong(v);
+    }
+
+    private void putBytes(byte[] bytes) {
+        if (bytes.length > buffer.remaining()) {
+            write(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            write(null);
+        }
+    }
+
+    /**
+     * Writes the buffered bytes, followed by <code>more</code>
+     */
+    private void write(@Nullable ByteBuffer more) {
+        try {
+            drain();
+            if (more != null) {
+                written += more.remaining();
+                sink.write(more);
+            }
+        } catch (IOException e) {
+            throw new RepositoryException("Snapshot can not be written: " + target, e);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        written += buffer.remaining();
+        sink.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes the record of a scalar, preceded by its bytes for variable length values
+     */
+    private final class Value implements PrimitiveValueVisitor {
+        int name;
+        int type;
+
+        private void set(byte kind, long payload) {
+            added(record(kind, name, type, 0, payload), name);
+        }
+
+        private void set(byte kind, byte[] bytes) {
+            long offset = position();
+            putBytes(bytes);
+            added(record(kind, name, type, bytes.length, offset), name);
+        }
+
+        @Override
+        public void onNull() {
+            set(NULL, 0);
+        }
+
+        @Override
+        public void onBoolean(boolean value) {
+            set(BOOLEAN, value ? 1 : 0);
+        }
+
+        @Override
+        public void onLong(long value) {
+            set(LONG, value);
+        }
+
+        @Override
+        public void onDouble(double value) {
+            set(DOUBLE, Double.doubleToRawLongBits(value));
+        }
+
+        @Override
+        public void onString(String value) {
+            int id = valueId(value);
+            if (id < 0) {
+                set(STRING, value.getBytes(StandardCharsets.UTF_8));
+            } else {
+                set(STRING_REF, id);
+            }
+        }
+
+        @Override
+        public void onDecimal(BigDecimal value) {
+            set(DECIMAL, value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onObject(Object value) {
+            if (value instanceof byte[]) {
+                set(BINARY, (byte[]) value);
+            } else if (value instanceof ByteBuffer) {
+                ByteBuffer bytes = ((ByteBuffer) value).duplicate();
+                byte[] copy = new byte[bytes.remaining()];
+                bytes.get(copy);
+                set(BINARY, copy);
+            } else {
+                onString(value.toString());
+            }
+        }
+    }
+}
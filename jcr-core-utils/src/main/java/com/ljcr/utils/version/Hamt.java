@@ -0,0 +1,273 @@
+package com.ljcr.utils.version;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Persistent hash array mapped trie with string keys.
+ * <p>
+ * Updates copy only the path from the root to the changed entry (at most 7 nodes of up to 32 entries),
+ * the returned trie shares all other nodes with the original one.
+ *
+ * @param <V> - value type
+ */
+final class Hamt<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final Hamt<?> EMPTY = new Hamt<>(new BitmapNode<>(0, new Object[0]), 0);
+
+    private final Node<V> root;
+    private final int size;
+
+    private Hamt(Node<V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> Hamt<V> empty() {
+        return (Hamt<V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Nullable
+    V get(String key) {
+        return root.find(0, hash(key), key);
+    }
+
+    Hamt<V> put(String key, V value) {
+        boolean[] added = new boolean[1];
+        Node<V> newRoot = root.put(0, hash(key), key, Objects.requireNonNull(value), added);
+        return newRoot == root ? this : new Hamt<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    Hamt<V> remove(String key) {
+        Node<V> newRoot = root.remove(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? empty() : new Hamt<>(newRoot, size - 1);
+    }
+
+    void forEach(BiConsumer<String, V> action) {
+        root.forEach(action);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private abstract static class Node<V> {
+        abstract V find(int shift, int hash, String key);
+
+        abstract Node<V> put(int shift, int hash, String key, V value, boolean[] added);
+
+        /**
+         * @return null if the node becomes empty
+         */
+        abstract Node<V> remove(int shift, int hash, String key);
+
+        abstract void forEach(BiConsumer<String, V> action);
+    }
+
+    /**
+     * Up to 32 entries selected by 5 bits of the hash. An entry is a key and its value,
+     * or a null key and a sub-node for the keys sharing these bits
+     */
+    private static final class BitmapNode<V> extends Node<V> {
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int indexOf(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V find(int shift, int hash, String key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int idx = indexOf(bit);
+            Object k = array[idx];
+            if (k == null) {
+                return ((Node<V>) array[idx + 1]).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? (V) array[idx + 1] : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<V> put(int shift, int hash, String key, V value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int idx = indexOf(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, idx);
+                newArray[idx] = key;
+                newArray[idx + 1] = value;
+                System.arraycopy(array, idx, newArray, idx + 2, array.length - idx);
+                added[0] = true;
+                return new BitmapNode<>(bitmap | bit, newArray);
+            }
+
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                Node<V> sub = (Node<V>) v;
+                Node<V> newSub = sub.put(shift + BITS, hash, key, value, added);
+                return newSub == sub ? this : with(idx, null, newSub);
+            } else if (key.equals(k)) {
+                return v == value ? this : with(idx, k, value);
+            }
+            added[0] = true;
+            return with(idx, null, merge(shift + BITS, (String) k, (V) v, hash, key, value));
+        }
+
+        private BitmapNode<V> with(int idx, Object key, Object value) {
+            Object[] newArray = array.clone();
+            newArray[idx] = key;
+            newArray[idx + 1] = value;
+            return new BitmapNode<>(bitmap, newArray);
+        }
+
+        private static <V> Node<V> merge(int shift, String k1, V v1, int h2, String k2, V v2) {
+            int h1 = hash(k1);
+            if (h1 == h2) {
+                return new CollisionNode<>(h1, new Object[]{k1, v1, k2, v2});
+            }
+            boolean[] added = new boolean[1];
+            return new BitmapNode<V>(0, new Object[0])
+                    .put(shift, h1, k1, v1, added)
+                    .put(shift, h2, k2, v2, added);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<V> remove(int shift, int hash, String key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = indexOf(bit);
+            Object k = array[idx];
+            if (k == null) {
+                Node<V> sub = (Node<V>) array[idx + 1];
+                Node<V> newSub = sub.remove(shift + BITS, hash, key);
+                if (newSub == sub) {
+                    return this;
+                } else if (newSub != null) {
+                    return with(idx, null, newSub);
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, array.length - idx - 2);
+            return new BitmapNode<>(bitmap & ~bit, newArray);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void forEach(BiConsumer<String, V> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node<V>) array[i + 1]).forEach(action);
+                } else {
+                    action.accept((String) array[i], (V) array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keys with the same hash
+     */
+    private static final class CollisionNode<V> extends Node<V> {
+        private final int hash;
+        private final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(String key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V find(int shift, int hash, String key) {
+            int idx = hash == this.hash ? indexOf(key) : -1;
+            return idx < 0 ? null : (V) array[idx + 1];
+        }
+
+        @Override
+        Node<V> put(int shift, int hash, String key, V value, boolean[] added) {
+            if (hash != this.hash) {
+                // nest this node under a bitmap node of the current level
+                int bit = 1 << ((this.hash >>> shift) & MASK);
+                return new BitmapNode<V>(bit, new Object[]{null, this}).put(shift, hash, key, value, added);
+            }
+            int idx = indexOf(key);
+            if (idx >= 0) {
+                if (array[idx + 1] == value) {
+                    return this;
+                }
+                Object[] newArray = array.clone();
+                newArray[idx + 1] = value;
+                return new CollisionNode<>(hash, newArray);
+            }
+            Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode<>(hash, newArray);
+        }
+
+        @Override
+        Node<V> remove(int shift, int hash, String key) {
+            int idx = hash == this.hash ? indexOf(key) : -1;
+            if (idx < 0) {
+                return this;
+            } else if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, array.length - idx - 2);
+            return new CollisionNode<>(hash, newArray);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void forEach(BiConsumer<String, V> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept((String) array[i], (V) array[i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ljcr.utils.version;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.version.Version;
+import com.ljcr.api.version.VersionHistory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Version of a {@link VersionStore}, it is the frozen root object of the versionable node
+ */
+final class StoredVersion implements Version {
+    private final StoredVersionHistory history;
+    private final int number;
+    private final LocalDateTime created;
+    private final VersionedObject root;
+    private final StoredVersion predecessor;
+
+    private final List<Version> successors = new ArrayList<>(1);
+    private volatile StoredVersion linearSuccessor;
+
+    StoredVersion(StoredVersionHistory history, int number, LocalDateTime created, VersionedObject root, @Nullable StoredVersion predecessor) {
+        this.history = history;
+        this.number = number;
+        this.created = created;
+        this.root = root;
+        this.predecessor = predecessor;
+    }
+
+    VersionedObject getRoot() {
+        return root;
+    }
+
+    int getNumber() {
+        return number;
+    }
+
+    /**
+     * Registers a successor, the first one continues the line of descent of this version
+     */
+    void addSuccessor(StoredVersion successor) {
+        synchronized (successors) {
+            successors.add(successor);
+        }
+        if (linearSuccessor == null) {
+            linearSuccessor = successor;
+        }
+    }
+
+    @Override
+    public VersionHistory getContainingHistory() {
+        return history;
+    }
+
+    @Override
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    @Nullable
+    @Override
+    public StoredVersion getLinearSuccessor() {
+        return linearSuccessor;
+    }
+
+    @Override
+    public Collection<Version> getSuccessors() {
+        synchronized (successors) {
+            return new ArrayList<>(successors);
+        }
+    }
+
+    @Nullable
+    @Override
+    public StoredVersion getLinearPredecessor() {
+        return predecessor;
+    }
+
+    @Override
+    public Collection<Version> getPredecessors() {
+        return predecessor == null ? Collections.emptyList() : Collections.singletonList(predecessor);
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return String.valueOf(number);
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return root.getTypeDefinition();
+    }
+
+    @Override
+    public Stream<String> getFieldNames() {
+        return root.getFieldNames();
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+        return root.getItem(field);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) {
+        return root.getItem(fieldName);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return root.getElements();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s@%d(%s)", history.getVersionableIdentifier(), number, created);
+    }
+}
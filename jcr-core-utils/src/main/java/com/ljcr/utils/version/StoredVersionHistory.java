@@ -0,0 +1,146 @@
+package com.ljcr.utils.version;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.IndexedSpliterator;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.version.Version;
+import com.ljcr.api.version.VersionHistory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Versions of a versionable node, numbered from 1 in order of creation.
+ * <p>
+ * Versions are appended to an array published through a volatile counter,
+ * so readers never lock and the streams see the versions created before they were opened.
+ */
+final class StoredVersionHistory implements VersionHistory {
+    static final TypeDefinition HISTORY_TYPE = () -> "nt:versionHistory";
+
+    private final String versionableId;
+    private StoredVersion[] versions = new StoredVersion[8];
+    private volatile int count;
+    private volatile StoredVersion head;
+
+    StoredVersionHistory(String versionableId) {
+        this.versionableId = versionableId;
+    }
+
+    /**
+     * @return base of the next version checked in without an explicit base
+     */
+    @Nullable
+    StoredVersion getHead() {
+        return head;
+    }
+
+    synchronized StoredVersion add(LocalDateTime created, VersionedObject root, @Nullable StoredVersion base) {
+        StoredVersion version = new StoredVersion(this, count + 1, created, root, base);
+        if (count == versions.length) {
+            versions = Arrays.copyOf(versions, count * 2);
+        }
+        versions[count] = version;
+        count = count + 1;
+        if (base != null) {
+            base.addSuccessor(version);
+        }
+        if (base == head) {
+            head = version;
+        }
+        return version;
+    }
+
+    @Nullable
+    StoredVersion get(int number) {
+        int n = count;
+        StoredVersion[] all = versions;
+        return number >= 1 && number <= n ? all[number - 1] : null;
+    }
+
+    @Override
+    public String getVersionableIdentifier() {
+        return versionableId;
+    }
+
+    /**
+     * @return versions from the first one, following linear successors; successors are read lazily
+     */
+    @Override
+    public Stream<Version> getAllLinearVersions() {
+        StoredVersion first = get(1);
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Version>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            private StoredVersion next = first;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Version> action) {
+                if (next == null) {
+                    return false;
+                }
+                action.accept(next);
+                next = next.getLinearSuccessor();
+                return true;
+            }
+        }, false);
+    }
+
+    @Override
+    public Stream<Version> getAllVersions() {
+        int n = count;
+        StoredVersion[] all = versions;
+        return IndexedSpliterator.stream(n, idx -> all[idx], false);
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return versionableId;
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return HISTORY_TYPE;
+    }
+
+    @Override
+    public Stream<String> getFieldNames() {
+        return getAllVersions().map(Version::getName);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+        return getItem(field.getIdentifier());
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String versionName) {
+        try {
+            return get(Integer.parseInt(versionName));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return getAllVersions().map(v -> v);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%d versions]", versionableId, count);
+    }
+}
@@ -0,0 +1,249 @@
+package com.ljcr.utils.version;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.api.version.Version;
+import com.ljcr.api.version.VersionHistory;
+
+import javax.annotation.Nullable;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory store of the versions of node trees.
+ * <p>
+ * A version is a frozen copy of a tree built from persistent structures: objects are hash array mapped
+ * tries of their fields, and every version shares the unchanged sub-trees with its predecessor.
+ * <ul>
+ * <li>{@link #checkin(String, ImmutableNodeObject)} compares the tree with the previous version and
+ * copies only the changed nodes and their ancestors;</li>
+ * <li>{@link #update(Version, NodePath, ImmutableNode)} replaces a single item, without walking the tree.</li>
+ * </ul>
+ * Historical versions are complete trees, reading them costs the same as reading the last one.
+ */
+public class VersionStore {
+    private final ConcurrentMap<String, StoredVersionHistory> histories = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public VersionStore() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public VersionStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a new version of the versionable node, successor of the last version of its main line
+     *
+     * @param versionableId - identifier of the versionable node
+     * @param root          - current state of the node
+     */
+    public Version checkin(String versionableId, ImmutableNodeObject root) {
+        StoredVersionHistory history = histories.computeIfAbsent(versionableId, StoredVersionHistory::new);
+        synchronized (history) {
+            return checkin(history, history.getHead(), root);
+        }
+    }
+
+    /**
+     * Creates a new version as successor of the given one. If the base version already has successors,
+     * the new version starts a new line of descent
+     */
+    public Version checkin(Version base, ImmutableNodeObject root) {
+        StoredVersion baseVersion = storedVersionOf(base);
+        return checkin((StoredVersionHistory) base.getContainingHistory(), baseVersion, root);
+    }
+
+    private Version checkin(StoredVersionHistory history, @Nullable StoredVersion base, ImmutableNodeObject root) {
+        VersionedObject previous = base != null ? base.getRoot() : null;
+        VersionedObject frozen = (VersionedObject) snapshot(root, previous, nameOf(root));
+        return history.add(LocalDateTime.now(clock), frozen, base);
+    }
+
+    /**
+     * Creates a new version as successor of the given one, with the item at the path replaced.
+     * Only the ancestors of the item are copied
+     *
+     * @param path  - path of the item, relative to the versioned node; collection elements are addressed by index
+     * @param value - new value of the item, or null to remove it
+     * @throws PathNotFoundException if the parent of the item does not exist
+     */
+    public Version update(Version base, NodePath path, @Nullable ImmutableNode value) throws PathNotFoundException {
+        if (path.isRoot()) {
+            throw new PathNotFoundException("Root can not be replaced, use checkin instead");
+        }
+        StoredVersion baseVersion = storedVersionOf(base);
+        VersionedObject root = (VersionedObject) replace(baseVersion.getRoot(), path, 0, value);
+        return ((StoredVersionHistory) base.getContainingHistory()).add(LocalDateTime.now(clock), root, baseVersion);
+    }
+
+    @Nullable
+    public VersionHistory getVersionHistory(String versionableId) {
+        return histories.get(versionableId);
+    }
+
+    public Stream<VersionHistory> getVersionHistories() {
+        return histories.values().stream().map(h -> h);
+    }
+
+    private StoredVersion storedVersionOf(Version version) {
+        if (!(version instanceof StoredVersion) || histories.get(version.getContainingHistory().getVersionableIdentifier()) != version.getContainingHistory()) {
+            throw new IllegalArgumentException("Not a version of this store: " + version);
+        }
+        return (StoredVersion) version;
+    }
+
+    private static ImmutableNode replace(ImmutableNode node, NodePath path, int depth, @Nullable ImmutableNode value) {
+        String segment = path.getName(depth);
+        boolean last = depth == path.getNameCount() - 1;
+        if (node instanceof VersionedObject) {
+            VersionedObject obj = (VersionedObject) node;
+            ImmutableNode child = obj.getItem(segment);
+            return obj.with(segment, last ? snapshot(value, child, segment) : replaceChild(child, path, depth, value));
+        } else if (node instanceof VersionedCollection) {
+            VersionedCollection collection = (VersionedCollection) node;
+            int idx = indexOf(segment, path);
+            if (idx < 0 || idx > collection.size() || (idx == collection.size() && (!last || value == null))) {
+                throw new PathNotFoundException(path.toString());
+            }
+            ImmutableNode child = idx < collection.size() ? collection.get(idx) : null;
+            return collection.with(idx, last ? snapshot(value, child, nameOf(value)) : replaceChild(child, path, depth, value));
+        }
+        throw new PathNotFoundException(path.toString());
+    }
+
+    private static ImmutableNode replaceChild(@Nullable ImmutableNode child, NodePath path, int depth, @Nullable ImmutableNode value) {
+        if (child == null) {
+            throw new PathNotFoundException(path.toString());
+        }
+        return replace(child, path, depth + 1, value);
+    }
+
+    /**
+     * @return index of the element named by its position, starting at 1
+     */
+    private static int indexOf(String segment, NodePath path) {
+        try {
+            return Integer.parseInt(segment) - 1;
+        } catch (NumberFormatException e) {
+            throw new PathNotFoundException(path.toString());
+        }
+    }
+
+    /**
+     * Freezes a node, reusing the nodes of the previous version which did not change
+     *
+     * @return frozen node, <code>previous</code> itself if nothing changed
+     */
+    @Nullable
+    static ImmutableNode snapshot(@Nullable ImmutableNode node, @Nullable ImmutableNode previous, @Nullable String name) {
+        if (node == null) {
+            return null;
+        } else if (node instanceof VersionedObject || node instanceof VersionedCollection || node instanceof VersionedScalar) {
+            // already frozen, e.g. an item of another version
+            return node;
+        } else if (node.isObject()) {
+            return snapshotObject(node.asObjectNode(), previous instanceof VersionedObject ? (VersionedObject) previous : null, name);
+        } else if (node.isCollection()) {
+            return snapshotCollection(node, previous instanceof VersionedCollection ? (VersionedCollection) previous : null, name);
+        }
+
+        TypeDefinition type = node.getTypeDefinition();
+        Object value = node.getValue();
+        if (previous instanceof VersionedScalar && ((VersionedScalar) previous).isSame(name, type, value)) {
+            return previous;
+        }
+        return new VersionedScalar(name, type, value);
+    }
+
+    private static ImmutableNode snapshotObject(ImmutableNodeObject node, @Nullable VersionedObject previous, @Nullable String name) {
+        TypeDefinition type = node.getTypeDefinition();
+        List<String> names = node.getFieldNames().collect(Collectors.toList());
+        List<ImmutableNode> children = new ArrayList<>(names.size());
+        if (names.isEmpty()) {
+            // untyped objects, e.g. maps: named elements
+            node.getElements().filter(e -> e != null && nameOf(e) != null).forEach(e -> {
+                names.add(nameOf(e));
+                children.add(e);
+            });
+        } else {
+            names.forEach(n -> children.add(node.getItem(n)));
+        }
+
+        if (previous != null && previous.getTypeDefinition().equals(type) && Objects.equals(previous.getName(), name)) {
+            VersionedObject result = previous;
+            Set<String> present = new HashSet<>(names.size() * 2);
+            for (int i = 0; i < names.size(); i++) {
+                String n = names.get(i);
+                ImmutableNode child = children.get(i);
+                if (child != null) {
+                    present.add(n);
+                    result = result.with(n, snapshot(child, previous.getItem(n), n));
+                }
+            }
+            for (String n : previous.getNames()) {
+                if (!present.contains(n)) {
+                    result = result.with(n, null);
+                }
+            }
+            return result;
+        }
+
+        Hamt<ImmutableNode> fields = Hamt.empty();
+        List<String> fieldNames = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            ImmutableNode child = snapshot(children.get(i), null, names.get(i));
+            if (child != null && fields.get(names.get(i)) == null) {
+                fields = fields.put(names.get(i), child);
+                fieldNames.add(names.get(i));
+            }
+        }
+        return new VersionedObject(name, type, fieldNames.toArray(new String[0]), fields);
+    }
+
+    private static ImmutableNode snapshotCollection(ImmutableNode node, @Nullable VersionedCollection previous, @Nullable String name) {
+        List<ImmutableNode> elements = node.getElements().collect(Collectors.toList());
+        ImmutableNode[] frozen = new ImmutableNode[elements.size()];
+        boolean same = previous != null && previous.size() == frozen.length
+                && Objects.equals(previous.getName(), name)
+                && previous.getTypeDefinition().equals(node.getTypeDefinition());
+        for (int i = 0; i < frozen.length; i++) {
+            ImmutableNode element = elements.get(i);
+            ImmutableNode before = previous != null && i < previous.size() ? previous.get(i) : null;
+            frozen[i] = snapshot(element, before, nameOf(element));
+            same = same && frozen[i] == before;
+        }
+        return same ? previous : new VersionedCollection(name, node.getTypeDefinition(), frozen);
+    }
+
+    @Nullable
+    private static String nameOf(@Nullable ImmutableNode node) {
+        if (node == null) {
+            return null;
+        }
+        try {
+            return node.getName();
+        } catch (RepositoryException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%d histories]", getClass().getSimpleName(), histories.size());
+    }
+}
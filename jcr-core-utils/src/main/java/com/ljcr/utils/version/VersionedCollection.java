@@ -0,0 +1,92 @@
+package com.ljcr.utils.version;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.IndexedSpliterator;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.PathNotFoundException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Collection captured by a version. Elements are shared with the previous version,
+ * the array of elements is copied when one of them changes. Elements are named by their position, starting at 1.
+ */
+final class VersionedCollection implements ImmutableNodeCollection {
+    private final String name;
+    private final TypeDefinition type;
+    private final ImmutableNode[] elements;
+
+    VersionedCollection(@Nullable String name, TypeDefinition type, ImmutableNode[] elements) {
+        this.name = name;
+        this.type = type;
+        this.elements = elements;
+    }
+
+    int size() {
+        return elements.length;
+    }
+
+    ImmutableNode get(int idx) {
+        return elements[idx];
+    }
+
+    /**
+     * @return collection with the element at the index replaced, or removed if the value is null
+     */
+    VersionedCollection with(int idx, @Nullable ImmutableNode value) {
+        if (idx < elements.length && elements[idx] == value) {
+            return this;
+        } else if (value == null) {
+            ImmutableNode[] newElements = new ImmutableNode[elements.length - 1];
+            System.arraycopy(elements, 0, newElements, 0, idx);
+            System.arraycopy(elements, idx + 1, newElements, idx, elements.length - idx - 1);
+            return new VersionedCollection(name, type, newElements);
+        }
+        ImmutableNode[] newElements = Arrays.copyOf(elements, Math.max(elements.length, idx + 1));
+        newElements[idx] = value;
+        return new VersionedCollection(name, type, newElements);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return type;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
+        try {
+            int idx = Integer.parseInt(fieldName) - 1;
+            return idx >= 0 && idx < elements.length ? elements[idx] : null;
+        } catch (NumberFormatException e) {
+            throw new PathNotFoundException("Not an index: " + fieldName);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return Arrays.stream(elements);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        return IndexedSpliterator.stream(elements.length, idx -> elements[idx], parallel);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%d]", name, elements.length);
+    }
+}
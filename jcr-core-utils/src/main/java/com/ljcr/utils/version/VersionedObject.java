@@ -0,0 +1,97 @@
+package com.ljcr.utils.version;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Object captured by a version. Fields are kept in a {@link Hamt}, so that changing a field copies
+ * only a few trie nodes; the field names are kept in their original order in an array shared
+ * by all versions having the same fields.
+ */
+final class VersionedObject implements ImmutableNodeObject {
+    private final String name;
+    private final TypeDefinition type;
+    private final String[] names;
+    private final Hamt<ImmutableNode> fields;
+
+    VersionedObject(@Nullable String name, TypeDefinition type, String[] names, Hamt<ImmutableNode> fields) {
+        this.name = name;
+        this.type = type;
+        this.names = names;
+        this.fields = fields;
+    }
+
+    String[] getNames() {
+        return names;
+    }
+
+    Hamt<ImmutableNode> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return object with the field set to the value, or removed if the value is null
+     */
+    VersionedObject with(String field, @Nullable ImmutableNode value) {
+        ImmutableNode previous = fields.get(field);
+        if (previous == value) {
+            return this;
+        } else if (value == null) {
+            String[] newNames = Arrays.stream(names).filter(n -> !n.equals(field)).toArray(String[]::new);
+            return new VersionedObject(name, type, newNames, fields.remove(field));
+        }
+        String[] newNames = names;
+        if (previous == null) {
+            newNames = Arrays.copyOf(names, names.length + 1);
+            newNames[names.length] = field;
+        }
+        return new VersionedObject(name, type, newNames, fields.put(field, value));
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return type;
+    }
+
+    @Override
+    public Stream<String> getFieldNames() {
+        return Arrays.stream(names);
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+        return fields.get(field.getIdentifier());
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) {
+        return fields.get(fieldName);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNode> getElements() {
+        return Arrays.stream(names).map(fields::get);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", name, Arrays.toString(names));
+    }
+}
@@ -0,0 +1,49 @@
+package com.ljcr.utils.version;
+
+import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.definitions.TypeDefinition;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Value captured by a version
+ */
+final class VersionedScalar implements ImmutableNodeScalar {
+    private final String name;
+    private final TypeDefinition type;
+    private final Object value;
+
+    VersionedScalar(@Nullable String name, TypeDefinition type, @Nullable Object value) {
+        this.name = name;
+        this.type = type;
+        this.value = value;
+    }
+
+    boolean isSame(@Nullable String otherName, TypeDefinition otherType, @Nullable Object otherValue) {
+        return Objects.equals(name, otherName) && type.equals(otherType) && Objects.equals(value, otherValue);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Nullable
+    @Override
+    public Object getValue() {
+        return value;
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s=%s", name, value);
+    }
+}
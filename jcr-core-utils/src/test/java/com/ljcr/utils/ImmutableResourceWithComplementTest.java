@@ -0,0 +1,135 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ImmutableResourceWithComplementTest {
+    private static final TypeDefinition REFERENCABLE = type("Referencable", "name", "id");
+    private static final TypeDefinition USER = type("User", "id", "email", "age");
+
+    @Test
+    public void propertiesAreRoutedToTheirNode() {
+        ImmutableNode node = new ImmutableResourceWithComplement(node(REFERENCABLE, "p"), node(USER, "f"));
+
+        assertThat(node.getItem("name").getValue(), equalTo("p:name"));
+        assertThat(node.getItem("id").getValue(), equalTo("p:id"));
+        assertThat(node.getItem("email").getValue(), equalTo("f:email"));
+        assertThat(node.getItem(USER.getFieldDefByName("age")).getValue(), equalTo("f:age"));
+        assertThat(node.getItem(3).getValue(), equalTo("p:name"));
+    }
+
+    @Test
+    public void elementsFollowTheMergedType() {
+        ImmutableNode node = new ImmutableResourceWithComplement(node(REFERENCABLE, "p"), node(USER, "f"));
+
+        List<String> names = node.getTypeDefinition().getPropertyDefinitions().stream()
+                .map(PropertyDefinition::getIdentifier)
+                .collect(Collectors.toList());
+        List<Object> values = node.getElements().map(ImmutableNode::getValue).collect(Collectors.toList());
+
+        assertThat(node.getTypeDefinition().getIdentifier(), equalTo("User"));
+        assertThat(names, equalTo(Arrays.asList("id", "email", "age", "name")));
+        assertThat(values, equalTo(Arrays.asList("p:id", "f:email", "f:age", "p:name")));
+    }
+
+    @Test
+    public void mergedTypeIsSharedByPairOfTypes() {
+        ImmutableNode first = new ImmutableResourceWithComplement(node(REFERENCABLE, "p"), node(USER, "f"));
+        ImmutableNode second = new ImmutableResourceWithComplement(node(REFERENCABLE, "q"), node(USER, "g"));
+
+        assertThat(first.getTypeDefinition(), sameInstance(second.getTypeDefinition()));
+        assertThat(second.getItem(first.getTypeDefinition().getFieldDefByName("id")).getValue(), equalTo("q:id"));
+    }
+
+    @Test
+    public void mergedTypesAreKeptWhileInUse() {
+        ImmutableNode first = new ImmutableResourceWithComplement(node(REFERENCABLE, "p"), node(USER, "f"));
+        List<ImmutableNode> others = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            others.add(new ImmutableResourceWithComplement(node(type("T" + i, "x" + i), "p"), node(USER, "f")));
+        }
+        ImmutableNode second = new ImmutableResourceWithComplement(node(REFERENCABLE, "q"), node(USER, "g"));
+
+        assertThat(first.getTypeDefinition(), sameInstance(second.getTypeDefinition()));
+        assertThat(others.size(), equalTo(2000));
+    }
+
+    @Test
+    public void fallbackTypeIsKeptUnlessExtended() {
+        ImmutableNode node = new ImmutableResourceWithComplement(node(type("Identified", "id"), "p"), node(USER, "f"));
+
+        assertThat(node.getTypeDefinition(), sameInstance(USER));
+        assertThat(node.getItem("id").getValue(), equalTo("p:id"));
+        assertThat(node.getElements().count(), equalTo(3L));
+    }
+
+    @Test
+    public void missingValuesAreNotElements() {
+        ImmutableNode node = new ImmutableResourceWithComplement(node(REFERENCABLE, "p"),
+                node(type("User", "id", "missing", "age"), "f"));
+
+        List<Object> values = node.getElements().map(ImmutableNode::getValue).collect(Collectors.toList());
+        assertThat(values, equalTo(Arrays.asList("p:id", "f:age", "p:name")));
+    }
+
+    private static TypeDefinition type(String identifier, String... fields) {
+        List<PropertyDefinition> properties = Arrays.stream(fields)
+                .map(f -> StandardTypes.propertyOf(f, StandardTypes.STRING))
+                .collect(Collectors.toList());
+        return new TypeDefinition() {
+            @Override
+            public String getIdentifier() {
+                return identifier;
+            }
+
+            @Override
+            public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
+                return properties;
+            }
+        };
+    }
+
+    /**
+     * @return node of the type, having the value prefix:field for each field but <code>missing</code>
+     */
+    private static ImmutableNodeObject node(TypeDefinition type, String prefix) {
+        return new ImmutableNodeObject() {
+            @Nonnull
+            @Override
+            public String getName() {
+                return prefix;
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return type;
+            }
+
+            @Override
+            public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+                if (type.getFieldDefByName(field.getIdentifier()) == null) {
+                    throw new IllegalArgumentException(field.getIdentifier() + " not in " + type.getIdentifier());
+                }
+                return field.getIdentifier().equals("missing") ? null
+                        : StandardValueNodes.of(prefix + ":" + field.getIdentifier());
+            }
+        };
+    }
+}
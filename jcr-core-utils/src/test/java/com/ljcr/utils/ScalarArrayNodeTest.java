@@ -0,0 +1,82 @@
+package com.ljcr.utils;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ScalarArrayNodeTest {
+
+    @Test
+    public void longsAreReadInBulkAndByPosition() {
+        LongArrayNode node = LongArrayNode.of("prices", LongStream.range(0, 10_000).toArray());
+
+        AtomicLong sum = new AtomicLong();
+        node.forEachLong(sum::addAndGet);
+        assertThat(sum.get(), equalTo(49_995_000L));
+        assertThat(node.longs().parallel().sum(), equalTo(49_995_000L));
+        assertThat(node.getElements(true).mapToLong(ImmutableNode::asLong).sum(), equalTo(49_995_000L));
+
+        assertThat(node.getName(), equalTo("prices"));
+        assertThat(node.getTypeDefinition(), equalTo(StandardTypes.arrayOf(StandardTypes.LONG)));
+        assertThat(node.getItem("1").asLong(), equalTo(0L));
+        assertThat(node.getItem("1").getName(), equalTo("1"));
+        assertThat(node.getItem(9_999).asLong(), equalTo(9_999L));
+        assertThat(node.getItem("10001"), equalTo(null));
+        assertThat(node.getValue().size(), equalTo(10_000));
+    }
+
+    @Test(expected = PathNotFoundException.class)
+    public void elementsAreIndexedFromZero() {
+        DoubleArrayNode node = DoubleArrayNode.of("rates", new double[]{0.5, 1.5});
+
+        assertThat(node.getItem(1).asDouble(), equalTo(1.5));
+        assertThat(node.toDoubleArray()[0], equalTo(0.5));
+        node.getItem(2);
+    }
+
+    @Test
+    public void stringsArePacked() {
+        StringArrayNode node = StringArrayNode.of("tags", Arrays.asList("a", "", "bcd", "\u00e9"));
+
+        assertThat(node.size(), equalTo(4));
+        assertThat(node.getString(2), equalTo("bcd"));
+        assertThat(Arrays.asList(node.toStringArray()), equalTo(Arrays.asList("a", "", "bcd", "\u00e9")));
+        assertThat(node.getElements().map(ImmutableNode::getValue).collect(Collectors.toList()),
+                equalTo(Arrays.asList("a", "", "bcd", "\u00e9")));
+        assertThat(node.getItem("4").asString(), equalTo("\u00e9"));
+        assertThat(node.strings(true).isParallel(), equalTo(true));
+        assertThat(node.strings(true).collect(Collectors.joining()), equalTo("abcd\u00e9"));
+        assertThat(StringArrayNode.of("empty", Arrays.asList()).getElements().count(), equalTo(0L));
+    }
+
+    @Test
+    public void arraysAreCopiedOncePerSource() {
+        IdentityMemo<long[], LongArrayNode> memo = new IdentityMemo<>();
+        AtomicLong copies = new AtomicLong();
+        long[] source = {1, 2, 3};
+        Function<long[], LongArrayNode> copy = a -> {
+            copies.incrementAndGet();
+            return LongArrayNode.of(null, a.clone());
+        };
+
+        LongArrayNode first = memo.get(source, copy).withName("a");
+        LongArrayNode second = memo.get(source, copy).withName("b");
+        memo.get(new long[]{1, 2, 3}, copy);
+
+        assertThat(copies.get(), equalTo(2L));
+        assertThat(memo.size(), equalTo(2));
+        assertThat(first.getName(), equalTo("a"));
+        assertThat(second.getName(), equalTo("b"));
+        assertThat(second.longs().sum(), equalTo(6L));
+    }
+}
@@ -0,0 +1,271 @@
+package com.ljcr.utils.acl;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Privilege;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.AccessDeniedException;
+import com.ljcr.api.observation.Event;
+import com.ljcr.api.observation.EventFilter;
+import com.ljcr.api.observation.EventListener;
+import com.ljcr.api.observation.ObservationManager;
+import com.ljcr.api.query.Conditions;
+import com.ljcr.api.query.Query;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ljcr.tests.TestNodes.object;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AccessControlledRepositoryTest {
+    private static final TypeDefinition SECRET = () -> "Secret";
+    private static final TypeDefinition DOC = () -> "Doc";
+
+    private final Map<EventListener, EventFilter> listeners = new LinkedHashMap<>();
+    private final Repository delegate = workspace();
+    private final AccessControlList acl = new AccessControlList()
+            .allow(AccessControlList.EVERYONE, NodePath.ROOT, Privilege.READ)
+            .deny(AccessControlList.EVERYONE, NodePath.of("/private"), Privilege.READ)
+            .allow("ann", NodePath.of("/private/shared"), Privilege.READ);
+
+    @Test
+    public void unrestrictedSubtreesAreNotWrapped() {
+        Repository ws = new AccessControlledRepository(delegate, acl, Collections.singleton("bob"));
+
+        assertThat(ws.getItem(NodePath.of("/public")), sameInstance(delegate.getItem(NodePath.of("/public"))));
+        assertThat(ws.getItem(NodePath.of("/public/b/c")).asLong(), equalTo(2L));
+        assertThat(names(ws.getRootNode()), equalTo(Arrays.asList("public", "docs")));
+        assertThat(ws.getRootNode().asObjectNode().getFieldNames().collect(Collectors.toList()), equalTo(Arrays.asList("public", "docs")));
+        assertThat(ws.getRootNode().getItem("private"), nullValue());
+    }
+
+    @Test
+    public void deniedSubtreesAreHidden() {
+        Repository bob = new AccessControlledRepository(delegate, acl, Collections.singleton("bob"));
+        Repository ann = new AccessControlledRepository(delegate, acl, Collections.singleton("ann"));
+
+        assertThat(bob.getItem(NodePath.of("/private")), nullValue());
+        assertThat(bob.getItem(NodePath.of("/private/shared/y")), nullValue());
+        assertThat(ann.getItem(NodePath.of("/private/x")), nullValue());
+        assertThat(ann.getItem(NodePath.of("/private/shared/y")).asLong(), equalTo(4L));
+        assertThat(ann.getRootNode().getItem("private"), nullValue());
+    }
+
+    @Test
+    public void rulesOnTypes() {
+        acl.denyType(AccessControlList.EVERYONE, NodePath.of("/docs"), "Secret", Privilege.READ)
+                .allowType("ann", NodePath.ROOT, "Secret", Privilege.READ);
+        AccessControlledRepository bob = new AccessControlledRepository(delegate, acl, Collections.singleton("bob"));
+        AccessControlledRepository ann = new AccessControlledRepository(delegate, acl, Collections.singleton("ann"));
+
+        assertThat(bob.getItem(NodePath.of("/docs/d1")), nullValue());
+        assertThat(bob.getItem(NodePath.of("/docs/d1/title")), nullValue());
+        assertThat(bob.getItem(NodePath.of("/docs/d2/title")).asString(), equalTo("public"));
+        assertThat(names(bob.getItem(NodePath.of("/docs"))), equalTo(Collections.singletonList("d2")));
+        // the rule on the sub-tree overrides the one on the root
+        assertThat(ann.getItem(NodePath.of("/docs/d1")), nullValue());
+
+        assertThat(bob.getAccessControlManager().getPrivileges(NodePath.of("/docs/d1")), equalTo(Collections.emptySet()));
+        assertThat(bob.getAccessControlManager().hasPrivileges(NodePath.of("/docs/d2"), Privilege.READ), equalTo(true));
+    }
+
+    @Test
+    public void privilegesOfPaths() {
+        PrivilegeTrie trie = acl.compile(Collections.singleton("ann"));
+
+        assertThat(trie.getPrivileges(NodePath.of("/public/b/c")), equalTo(EnumSet.of(Privilege.READ)));
+        assertThat(trie.getPrivileges(NodePath.of("/private/x")), equalTo(EnumSet.noneOf(Privilege.class)));
+        assertThat(trie.getPrivileges(NodePath.of("/private/shared/y/z")), equalTo(EnumSet.of(Privilege.READ)));
+        assertThat(trie.size(), equalTo(3));
+    }
+
+    @Test
+    public void namedPrincipalsOverrideEveryoneOnTheSameNode() {
+        AccessControlList mixed = new AccessControlList()
+                .allow(AccessControlList.EVERYONE, NodePath.ROOT, Privilege.READ, Privilege.QUERY)
+                .deny(AccessControlList.EVERYONE, NodePath.of("/users"), Privilege.READ, Privilege.QUERY)
+                .allow("admins", NodePath.of("/users"), Privilege.READ)
+                .deny("auditors", NodePath.of("/users"), Privilege.READ)
+                .allow("auditors", NodePath.of("/users"), Privilege.READ)
+                .denyType(AccessControlList.EVERYONE, NodePath.ROOT, "Secret", Privilege.READ)
+                .allowType("admins", NodePath.ROOT, "Secret", Privilege.READ);
+
+        PrivilegeTrie admins = mixed.compile(Arrays.asList("ann", "admins"));
+        assertThat(admins.getPrivileges(NodePath.of("/users/x")), equalTo(EnumSet.of(Privilege.READ)));
+        assertThat(admins.getRoot().child("users").canRead(SECRET), equalTo(true));
+        assertThat(mixed.compile(Collections.singleton("bob")).getPrivileges(NodePath.of("/users")),
+                equalTo(EnumSet.noneOf(Privilege.class)));
+        assertThat(mixed.compile(Collections.singleton("bob")).getRoot().canRead(SECRET), equalTo(false));
+        // between named principals, the deny wins
+        assertThat(mixed.compile(Arrays.asList("admins", "auditors")).getPrivileges(NodePath.of("/users")),
+                equalTo(EnumSet.noneOf(Privilege.class)));
+    }
+
+    @Test
+    public void queriesNeedPrivilege() {
+        Query query = Query.from(DOC).where(Conditions.ALL);
+        Repository denied = new AccessControlledRepository(delegate, acl, Collections.singleton("bob"));
+        try {
+            denied.query(query);
+            throw new AssertionError("query should be denied");
+        } catch (AccessDeniedException e) {
+            // expected
+        }
+
+        acl.allow("bob", NodePath.ROOT, Privilege.QUERY)
+                .denyType(AccessControlList.EVERYONE, NodePath.ROOT, "Secret", Privilege.READ);
+        Repository granted = new AccessControlledRepository(delegate, acl, Collections.singleton("bob"));
+        assertThat(granted.query(query).map(ImmutableNode::getName).collect(Collectors.toList()), equalTo(Collections.singletonList("d2")));
+    }
+
+    @Test
+    public void containerTypesShowReadableItems() {
+        acl.denyType(AccessControlList.EVERYONE, NodePath.ROOT, "Secret", Privilege.READ);
+        Repository bob = new AccessControlledRepository(delegate, acl, Collections.singleton("bob"));
+
+        assertThat(bob.getKnownTypes().stream().map(TypeDefinition::getIdentifier).collect(Collectors.toList()),
+                equalTo(Collections.singletonList("Doc")));
+        assertThat(bob.findContainerType("Secret"), nullValue());
+        ContainerTypeDefinition docs = bob.findContainerType("Doc");
+        assertThat(docs.getItems().map(ImmutableNode::getName).collect(Collectors.toList()), equalTo(Collections.singletonList("d2")));
+        assertThat(docs.findByReference("d1"), nullValue());
+        assertThat(docs.findByReference("d2").getName(), equalTo("d2"));
+        ContainerTypeDefinition known = (ContainerTypeDefinition) bob.getKnownTypes().iterator().next();
+        assertThat(known.getItems().count(), equalTo(1L));
+    }
+
+    @Test
+    public void listenersReceiveReadableEvents() {
+        acl.denyType(AccessControlList.EVERYONE, NodePath.ROOT, "Secret", Privilege.READ);
+        Repository bob = new AccessControlledRepository(delegate, acl, Collections.singleton("bob"));
+        List<Event> received = new ArrayList<>();
+        EventListener listener = received::addAll;
+        bob.getObservationManager().addEventListener(listener, EventFilter.all());
+
+        List<Event> events = Arrays.asList(Event.changed(NodePath.of("/public/a"), null),
+                Event.changed(NodePath.of("/private/x"), null),
+                Event.changed(NodePath.of("/docs/d1"), null),
+                Event.removed(NodePath.of("/docs/d3"), "Secret"),
+                Event.lost(NodePath.of("/private")));
+        listeners.keySet().forEach(l -> l.onEvents(events));
+        assertThat(received, equalTo(Arrays.asList(events.get(0), events.get(4))));
+
+        received.clear();
+        listeners.keySet().forEach(l -> l.onEvents(events.subList(1, 4)));
+        assertThat(received, equalTo(Collections.emptyList()));
+
+        bob.getObservationManager().removeEventListener(listener);
+        assertThat(listeners.isEmpty(), equalTo(true));
+    }
+
+    private static List<String> names(ImmutableNode node) {
+        return node.getElements().map(ImmutableNode::getName).collect(Collectors.toList());
+    }
+
+    private Repository workspace() {
+        Map<String, ImmutableNode> b = new LinkedHashMap<>();
+        b.put("c", StandardValueNodes.ofLong("c", 2));
+        Map<String, ImmutableNode> pub = new LinkedHashMap<>();
+        pub.put("a", StandardValueNodes.ofLong("a", 1));
+        pub.put("b", object("b", StandardTypes.MAP, b));
+        Map<String, ImmutableNode> shared = new LinkedHashMap<>();
+        shared.put("y", StandardValueNodes.ofLong("y", 4));
+        Map<String, ImmutableNode> priv = new LinkedHashMap<>();
+        priv.put("x", StandardValueNodes.ofLong("x", 3));
+        priv.put("shared", object("shared", StandardTypes.MAP, shared));
+        Map<String, ImmutableNode> docs = new LinkedHashMap<>();
+        docs.put("d1", object("d1", SECRET, Collections.singletonMap("title", StandardValueNodes.of("secret"))));
+        docs.put("d2", object("d2", DOC, Collections.singletonMap("title", StandardValueNodes.of("public"))));
+        Map<String, ImmutableNode> root = new LinkedHashMap<>();
+        root.put("public", object("public", StandardTypes.MAP, pub));
+        root.put("private", object("private", StandardTypes.MAP, priv));
+        root.put("docs", object("docs", StandardTypes.MAP, docs));
+        ImmutableNodeObject rootNode = object("", StandardTypes.MAP, root);
+        return new Repository() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public ImmutableNode getRootNode() {
+                return rootNode;
+            }
+
+            @Override
+            public Stream<ImmutableNodeObject> query(Query query) {
+                return docs.values().stream().map(ImmutableNode::asObjectNode);
+            }
+
+            @Override
+            public Collection<TypeDefinition> getKnownTypes() {
+                return Arrays.asList(container(SECRET, docs), container(DOC, docs));
+            }
+
+            @Override
+            public ContainerTypeDefinition findContainerType(String typeName) {
+                return getKnownTypes().stream()
+                        .filter(t -> t.getIdentifier().equals(typeName))
+                        .map(t -> (ContainerTypeDefinition) t)
+                        .findFirst().orElse(null);
+            }
+
+            @Override
+            public ObservationManager getObservationManager() {
+                return new ObservationManager() {
+                    @Override
+                    public void addEventListener(@Nonnull EventListener listener, @Nonnull EventFilter filter) {
+                        listeners.put(listener, filter);
+                    }
+
+                    @Override
+                    public void removeEventListener(@Nonnull EventListener listener) {
+                        listeners.remove(listener);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @return container listing all the documents, whatever their types
+     */
+    private static ContainerTypeDefinition container(TypeDefinition type, Map<String, ImmutableNode> docs) {
+        return new ContainerTypeDefinition() {
+            @Override
+            public String getIdentifier() {
+                return type.getIdentifier();
+            }
+
+            @Override
+            public ImmutableNodeObject findByReference(String id) {
+                ImmutableNode doc = docs.get(id);
+                return doc != null ? doc.asObjectNode() : null;
+            }
+
+            @Override
+            public Stream<ImmutableNodeObject> getItems() {
+                return docs.values().stream().map(ImmutableNode::asObjectNode);
+            }
+        };
+    }
+}
@@ -0,0 +1,249 @@
+package com.ljcr.utils.cache;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.observation.Event;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ljcr.tests.TestNodes.doc;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CachingRepositoryTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void nodesAreCachedByPath() {
+        CachingRepository cached = new CachingRepository(repository(), CachePolicy.maximumSize(100));
+
+        ImmutableNode a = cached.getItem(NodePath.of("a"));
+        assertThat(cached.getItem(NodePath.of("a")), sameInstance(a));
+        assertThat(cached.getItem(NodePath.of("a").compile()), sameInstance(a));
+        assertThat(cached.getItem(NodePath.of("missing")), equalTo(null));
+        assertThat(cached.getItem(NodePath.of("missing")), equalTo(null));
+
+        assertThat(loads.get(), equalTo(3));
+        CacheStatistics statistics = cached.getStatistics();
+        assertThat(statistics.getHitCount(), equalTo(2L));
+        assertThat(statistics.getMissCount(), equalTo(3L));
+        assertThat(statistics.getSize(), equalTo(1L));
+    }
+
+    @Test
+    public void frequentNodesSurviveScans() {
+        CachingRepository cached = new CachingRepository(repository(), CachePolicy.maximumSize(5).concurrencyLevel(1));
+        cached.getItem(NodePath.of("a"));
+        cached.getItem(NodePath.of("a"));
+        for (int i = 0; i < 20; i++) {
+            cached.getItem(NodePath.of("n" + i));
+        }
+        int before = loads.get();
+        cached.getItem(NodePath.of("a"));
+
+        assertThat(loads.get(), equalTo(before));
+        assertThat(cached.getStatistics().getSize(), equalTo(5L));
+        assertThat(cached.getStatistics().getEvictionCount(), equalTo(16L));
+    }
+
+    @Test
+    public void nodesAreWeighedAndExpire() {
+        AtomicLong now = new AtomicLong();
+        CachePolicy policy = CachePolicy.maximumWeight(10, n -> n.isObject() ? 4 : 1)
+                .expireAfterWrite(1, TimeUnit.SECONDS)
+                .concurrencyLevel(1)
+                .ticker(now::get);
+        CachingRepository cached = new CachingRepository(repository(), policy);
+
+        cached.getItem(NodePath.of("a"));
+        cached.getItem(NodePath.of("b"));
+        cached.getItem(NodePath.of("c"));
+        assertThat(cached.getStatistics().getWeight(), equalTo(8L));
+        assertThat(cached.getStatistics().getEvictionCount(), equalTo(1L));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        cached.getItem(NodePath.of("c"));
+        assertThat(cached.getStatistics().getHitCount(), equalTo(1L));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        cached.getItem(NodePath.of("c"));
+        assertThat(cached.getStatistics().getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    public void changesInvalidateTheirPaths() {
+        CachingRepository cached = new CachingRepository(repository(), CachePolicy.maximumSize(100));
+        cached.getItem(NodePath.of("a"));
+        cached.getItem(NodePath.of("a", "id"));
+        cached.getItem(NodePath.of("b"));
+        cached.getNodeByReference("Map", "b");
+
+        cached.getInvalidationListener().onEvents(Collections.singletonList(Event.changed(NodePath.of("a", "id"), null)));
+
+        // the reference is located at the path of its node, which did not change
+        assertThat(cached.getStatistics().getSize(), equalTo(2L));
+        int before = loads.get();
+        cached.getItem(NodePath.of("b"));
+        cached.getNodeByReference("Map", "b");
+        assertThat(loads.get(), equalTo(before));
+
+        cached.invalidateAll();
+        assertThat(cached.getStatistics().getSize(), equalTo(0L));
+    }
+
+    @Test
+    public void changesInvalidateTheReferencesOfTheirPaths() {
+        CachingRepository cached = new CachingRepository(repository(), CachePolicy.maximumSize(100));
+        cached.getItem(NodePath.of("a"));
+        cached.getItem(NodePath.of("b"));
+        cached.getNodeByReference("Map", "a");
+        cached.getNodeByReference("Map", "b");
+        // not cached by path, its path is unknown
+        cached.getNodeByReference("Map", "c");
+
+        cached.invalidate(NodePath.of("a", "id"));
+        int before = loads.get();
+        cached.getNodeByReference("Map", "b");
+        assertThat(loads.get(), equalTo(before));
+        cached.getNodeByReference("Map", "a");
+        cached.getNodeByReference("Map", "c");
+        assertThat(loads.get(), equalTo(before + 2));
+
+        // the reference of b is removed with the node of its path
+        cached.invalidate(NodePath.of("b"));
+        cached.getNodeByReference("Map", "b");
+        assertThat(loads.get(), equalTo(before + 3));
+    }
+
+    @Test
+    public void nodesLoadedDuringAnInvalidationAreNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        AtomicLong version = new AtomicLong();
+        Repository slow = new Repository() {
+            @Override
+            public String getName() {
+                return "slow";
+            }
+
+            @Override
+            public ImmutableNode getRootNode() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ImmutableNode getItem(CompiledPath absPath) {
+                loads.incrementAndGet();
+                ImmutableNode node = StandardValueNodes.ofLong("id", version.get());
+                if (loading.getCount() > 0) {
+                    loading.countDown();
+                    await(invalidated);
+                }
+                return node;
+            }
+        };
+        CachingRepository cached = new CachingRepository(slow, CachePolicy.maximumSize(100));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ImmutableNode> stale = executor.submit(() -> cached.getItem(NodePath.of("a", "id")));
+            loading.await();
+            version.set(1);
+            cached.invalidate(NodePath.of("a"));
+            invalidated.countDown();
+            assertThat(stale.get().asLong(), equalTo(0L));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(cached.getItem(NodePath.of("a", "id")).asLong(), equalTo(1L));
+        assertThat(cached.getItem(NodePath.of("a", "id")).asLong(), equalTo(1L));
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void cacheIsSharedBetweenThreads() throws Exception {
+        CachingRepository cached = new CachingRepository(repository(), CachePolicy.maximumSize(64).concurrencyLevel(4));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ImmutableNode node = cached.getItem(NodePath.of("n" + i % 100));
+                        assertThat(node.getItem("id").asLong(), equalTo((long) (i % 100)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        CacheStatistics statistics = cached.getStatistics();
+        assertThat(statistics.getHitCount() + statistics.getMissCount(), equalTo(40_000L));
+        assertThat(statistics.getMissCount(), equalTo((long) loads.get()));
+        assertThat(statistics.getWeight() <= 64, equalTo(true));
+    }
+
+    private Repository repository() {
+        Map<String, ImmutableNode> children = new LinkedHashMap<>();
+        children.put("a", doc("a", "id", StandardValueNodes.ofLong("id", -1)));
+        children.put("b", doc("b", "id", StandardValueNodes.ofLong("id", -2)));
+        children.put("c", doc("c", "id", StandardValueNodes.ofLong("id", -3)));
+        for (int i = 0; i < 100; i++) {
+            children.put("n" + i, doc("n" + i, "id", StandardValueNodes.ofLong("id", i)));
+        }
+        ImmutableNodeObject root = doc("", children);
+        return new Repository() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public ImmutableNode getRootNode() {
+                return root;
+            }
+
+            @Override
+            public ImmutableNode getItem(CompiledPath absPath) {
+                loads.incrementAndGet();
+                return absPath.resolve(root);
+            }
+
+            @Override
+            public ImmutableNodeObject getNodeByReference(String typeName, Object id) {
+                loads.incrementAndGet();
+                return (ImmutableNodeObject) root.getItem((String) id);
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.ljcr.utils.diff;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.observation.Event;
+import com.ljcr.utils.ImmutableNodeWrapper;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ljcr.tests.TestNodes.array;
+import static com.ljcr.tests.TestNodes.doc;
+import static com.ljcr.tests.TestNodes.repository;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TreeDiffTest {
+
+    @Test
+    public void hashesAreStableAndIgnoreFieldOrder() {
+        MerkleTree tree = MerkleTree.of(doc("", "a", StandardValueNodes.ofLong("a", 1), "b", StandardValueNodes.ofBoolean("b", true)));
+        MerkleTree same = MerkleTree.of(doc("", "b", StandardValueNodes.ofBoolean("b", true), "a", StandardValueNodes.ofLong("a", 1)));
+        MerkleTree other = MerkleTree.of(doc("", "a", StandardValueNodes.ofLong("a", 2), "b", StandardValueNodes.ofBoolean("b", true)));
+
+        assertThat(tree.getRootHash(), equalTo(same.getRootHash()));
+        assertThat(tree.getRootHash(), not(equalTo(other.getRootHash())));
+        assertThat(tree.getRootHash().toString().length(), equalTo(32));
+        assertThat(tree.hashOf(NodePath.of("b")), equalTo(other.hashOf(NodePath.of("b"))));
+        assertThat(tree.hashOf(NodePath.of("a")), not(equalTo(other.hashOf(NodePath.of("a")))));
+        assertThat(tree.hashOf(NodePath.of("missing")), nullValue());
+    }
+
+    @Test
+    public void valuesOfDifferentTypesHaveDifferentHashes() {
+        MerkleTree longs = MerkleTree.of(doc("", "v", StandardValueNodes.ofLong("v", 1)));
+        MerkleTree doubles = MerkleTree.of(doc("", "v", StandardValueNodes.ofDouble("v", 1)));
+        MerkleTree strings = MerkleTree.of(doc("", "v", named("v", "1")));
+
+        assertThat(longs.getRootHash(), not(equalTo(doubles.getRootHash())));
+        assertThat(longs.getRootHash(), not(equalTo(strings.getRootHash())));
+    }
+
+    @Test
+    public void equalRepositoriesHaveNoChanges() {
+        Repository before = repository(doc("", "user", user("user", "Ann", "a@x", "b@x")));
+        Repository after = repository(doc("", "user", user("user", "Ann", "a@x", "b@x")));
+
+        assertThat(new TreeDiff().diff(before, after).count(), equalTo(0L));
+    }
+
+    @Test
+    public void onlyChangedLeavesAreReported() {
+        Repository before = repository(doc("",
+                "ann", user("ann", "Ann", "a@x", "b@x"),
+                "bob", user("bob", "Bob", "bob@x"),
+                "eve", user("eve", "Eve")));
+        Repository after = repository(doc("",
+                "ann", user("ann", "Ann", "a@x", "c@x", "d@x"),
+                "bob", user("bob", "Robert", "bob@x"),
+                "joe", user("joe", "Joe")));
+
+        assertThat(events(new TreeDiff().diff(before, after)), equalTo(new HashSet<>(Arrays.asList(
+                Event.removed(NodePath.of("eve"), StandardTypes.MAP.getIdentifier()),
+                Event.added(NodePath.of("joe"), StandardTypes.MAP.getIdentifier()),
+                Event.changed(NodePath.of("ann", "emails", "2"), StandardTypes.STRING.getIdentifier()),
+                Event.added(NodePath.of("ann", "emails", "3"), StandardTypes.STRING.getIdentifier()),
+                Event.changed(NodePath.of("bob", "name"), StandardTypes.STRING.getIdentifier())))));
+    }
+
+    @Test
+    public void replacedContainersAreChangedAsAWhole() {
+        Repository before = repository(doc("", "tags", array("tags", named(null, "x"))));
+        Repository after = repository(doc("", "tags", doc("tags", "x", named("x", "x"))));
+
+        assertThat(events(new TreeDiff().diff(before, after)), equalTo(new HashSet<>(Arrays.asList(
+                Event.changed(NodePath.of("tags"), StandardTypes.MAP.getIdentifier())))));
+    }
+
+    @Test
+    public void hashesAreMemoizedPerNode() {
+        AtomicInteger visits = new AtomicInteger();
+        ImmutableNode shared = new ImmutableNodeWrapper(user("ann", "Ann", "a@x", "b@x")) {
+            @Override
+            public Stream<ImmutableNode> getElements() {
+                visits.incrementAndGet();
+                return super.getElements();
+            }
+        };
+        Repository before = repository(doc("", "ann", shared, "rev", StandardValueNodes.ofLong("rev", 1)));
+        Repository after = repository(doc("", "ann", shared, "rev", StandardValueNodes.ofLong("rev", 2)));
+        TreeDiff diff = new TreeDiff();
+
+        assertThat(events(diff.diff(before, after)), equalTo(new HashSet<>(Arrays.asList(
+                Event.changed(NodePath.of("rev"), StandardTypes.LONG.getIdentifier())))));
+        MerkleTree tree = diff.treeOf(after);
+        // the shared subtree is walked once, by the first tree
+        assertThat(visits.get(), equalTo(1));
+        diff.invalidate(shared);
+        diff.invalidate(after.getRootNode());
+        diff.treeOf(after);
+        assertThat(visits.get(), equalTo(2));
+
+        // memoized hashes are the hashes of the cursor
+        assertThat(tree.getRootHash(), equalTo(MerkleTree.of(after).getRootHash()));
+        assertThat(tree.hashOf(NodePath.of("ann", "emails", "2")),
+                equalTo(MerkleTree.of(after).hashOf(NodePath.of("ann", "emails", "2"))));
+    }
+
+    private static Set<Event> events(Stream<Event> events) {
+        return events.collect(Collectors.toSet());
+    }
+
+    private static ImmutableNodeObject user(String key, String name, String... emails) {
+        ImmutableNode[] nodes = new ImmutableNode[emails.length];
+        for (int i = 0; i < emails.length; i++) {
+            nodes[i] = named(null, emails[i]);
+        }
+        return doc(key, "name", named("name", name), "emails", array("emails", nodes));
+    }
+
+    private static ImmutableNode named(String name, String value) {
+        return new ImmutableNodeScalar() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return StandardTypes.STRING;
+            }
+
+            @Override
+            public Object getValue() {
+                return value;
+            }
+        };
+    }
+}
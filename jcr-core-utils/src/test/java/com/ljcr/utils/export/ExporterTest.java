@@ -0,0 +1,75 @@
+package com.ljcr.utils.export;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.ljcr.tests.TestNodes.array;
+import static com.ljcr.tests.TestNodes.doc;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ExporterTest {
+
+    @Test
+    public void rowsAreWrittenAsCsv() {
+        ImmutableNode users = array(
+                doc(null, "name", StandardValueNodes.ofLong("name", 10), "id", StandardValueNodes.ofLong("id", 1)),
+                doc(null, "name", StandardValueNodes.ofBoolean("name", true), "id", StandardValueNodes.ofLong("id", 2)));
+        StringWriter out = new StringWriter();
+        try (CsvExportWriter writer = new CsvExportWriter(out)) {
+            assertThat(new Exporter().export(users, writer), equalTo(7L));
+        }
+        assertThat(out.toString(), equalTo("name,id\r\n10,1\r\ntrue,2\r\n"));
+    }
+
+    @Test
+    public void valuesAreQuotedAndColumnsKept() {
+        ImmutableNode users = doc("",
+                "ann", doc("ann", "name", StandardValueNodes.ofDouble("name", 1.5), "extra", StandardValueNodes.ofLong("extra", 0)),
+                "bob", doc("bob", "id", StandardValueNodes.ofLong("id", 2)));
+        StringWriter out = new StringWriter();
+        try (CsvExportWriter writer = new CsvExportWriter(out, Arrays.asList("id", "name"))) {
+            new Exporter().export(users, writer);
+        }
+        assertThat(out.toString(), equalTo("id,name\r\n,1.5\r\n2,\r\n"));
+
+        StringWriter quoted = new StringWriter();
+        try (CsvExportWriter writer = new CsvExportWriter(quoted, Arrays.asList("a"))) {
+            writer.startCollection(null, StandardTypes.ARRAY);
+            writer.startObject(null, StandardTypes.MAP);
+            writer.scalar("a", StandardTypes.STRING).onString("say \"hi\", bye");
+            writer.endContainer();
+            writer.endContainer();
+        }
+        assertThat(quoted.toString(), equalTo("a\r\n\"say \"\"hi\"\", bye\"\r\n"));
+    }
+
+    @Test
+    public void progressIsReported() {
+        ImmutableNode[] rows = new ImmutableNode[10];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = doc(null, "id", StandardValueNodes.ofLong("id", i));
+        }
+        List<Long> progress = new ArrayList<>();
+        try (CsvExportWriter writer = new CsvExportWriter(new StringWriter())) {
+            new Exporter(progress::add, 8).export(array(rows), writer);
+        }
+        assertThat(progress, equalTo(Arrays.asList(8L, 16L, 21L)));
+    }
+
+    @Test(expected = UnsupportedRepositoryOperationException.class)
+    public void nestedContainersAreNotFlat() {
+        ImmutableNode users = array(doc(null, "tags", array(StandardValueNodes.ofLong(1))));
+        try (CsvExportWriter writer = new CsvExportWriter(new StringWriter())) {
+            new Exporter().export(users, writer);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ljcr.utils.fulltext;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FullTextIndexTest {
+
+    private static final PropertyDefinition TITLE = new PropertyDefinition() {
+        @Override
+        public String getIdentifier() {
+            return "title";
+        }
+
+        @Override
+        public TypeDefinition getType() {
+            return StandardTypes.STRING;
+        }
+
+        @Override
+        public boolean isFullTextSearchable() {
+            return true;
+        }
+    };
+
+    private static final PropertyDefinition CODE = StandardTypes.propertyOf("code", StandardTypes.STRING);
+
+    private static final TypeDefinition BOOK = new TypeDefinition() {
+        @Override
+        public String getIdentifier() {
+            return "Book";
+        }
+
+        @Override
+        public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
+            return Arrays.asList(TITLE, CODE);
+        }
+    };
+
+    @Test
+    public void termPrefixAndPhraseQueries() {
+        FullTextIndex index = newIndex();
+
+        assertThat(index.referencesOf(index.findTerm("Quick")), equalTo(Arrays.asList("b1", "b3")));
+        assertThat(index.referencesOf(index.findTerm("hidden")), equalTo(Collections.emptyList()));
+        assertThat(index.referencesOf(index.findPrefix("la")), equalTo(Arrays.asList("b2", "b3")));
+        assertThat(index.referencesOf(index.findPhrase("quick brown fox")), equalTo(Arrays.asList("b1")));
+        assertThat(index.referencesOf(index.findPhrase("brown dog")), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void incrementalUpdates() {
+        FullTextIndex index = newIndex();
+        index.update(book("b1", "Slow green turtle", "x"));
+        index.remove("Book", "b2");
+
+        assertThat(index.referencesOf(index.findTerm("quick")), equalTo(Arrays.asList("b3")));
+        assertThat(index.referencesOf(index.findTerm("turtle")), equalTo(Arrays.asList("b1")));
+        assertThat(index.size(), equalTo(2));
+
+        index.compact();
+        assertThat(index.referencesOf(index.findTerm("turtle")), equalTo(Arrays.asList("b1")));
+        assertThat(index.referencesOf(index.findPrefix("")), equalTo(Collections.emptyList()));
+        assertThat(index.referencesOf(index.findPrefix("s")), equalTo(Arrays.asList("b3", "b1")));
+    }
+
+    @Test
+    public void saveAndLoad() throws IOException {
+        FullTextIndex index = newIndex();
+        index.remove("Book", "b3");
+        Path file = File.createTempFile("fulltext", ".idx").toPath();
+        try {
+            index.save(file);
+            FullTextIndex loaded = FullTextIndex.load(file);
+
+            assertThat(loaded.size(), equalTo(2));
+            assertThat(loaded.referencesOf(loaded.findPhrase("quick brown fox")), equalTo(Arrays.asList("b1")));
+            assertThat(loaded.referencesOf(loaded.findTerm("quick")), equalTo(Arrays.asList("b1")));
+
+            loaded.update(book("b4", "Quick silver", "y"));
+            assertThat(loaded.referencesOf(loaded.findTerm("quick")), equalTo(Arrays.asList("b1", "b4")));
+        } finally {
+            file.toFile().delete();
+        }
+    }
+
+    private static FullTextIndex newIndex() {
+        FullTextIndex index = new FullTextIndex();
+        index.update(book("b1", "The quick brown fox", "hidden"));
+        index.update(book("b2", "A lazy dog", "y"));
+        index.update(book("b3", "Quick and lazy: a story", "z"));
+        return index;
+    }
+
+    private static ImmutableNodeObject book(String reference, String title, String code) {
+        Map<String, String> values = new HashMap<>();
+        values.put(TITLE.getIdentifier(), title);
+        values.put(CODE.getIdentifier(), code);
+        return new ImmutableNodeObject() {
+            @Nonnull
+            @Override
+            public String getName() {
+                return reference;
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return BOOK;
+            }
+
+            @Override
+            public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+                String value = values.get(field.getIdentifier());
+                return value != null ? StandardValueNodes.of(value) : null;
+            }
+        };
+    }
+}
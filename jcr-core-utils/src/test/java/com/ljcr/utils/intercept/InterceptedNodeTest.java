@@ -0,0 +1,162 @@
+package com.ljcr.utils.intercept;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InterceptedNodeTest {
+
+    @Test
+    public void wrappingAnInterceptedNodeExtendsItsInterceptors() {
+        ImmutableNodeObject user = user();
+        NodeInterceptor first = new Suffix("1");
+        NodeInterceptor second = new Suffix("2");
+
+        ImmutableNode node = InterceptedNode.wrap(InterceptedNode.wrap(user, first), second);
+
+        assertThat(node, instanceOf(ImmutableNodeObject.class));
+        assertThat(((InterceptedNode) node).getDelegate(), sameInstance(user));
+        assertThat(((InterceptedNode) node).getInterceptors(), equalTo(Arrays.asList(first, second)));
+    }
+
+    @Test
+    public void valuesAreInterceptedInOrder() {
+        ImmutableNode name = StandardValueNodes.of("john");
+
+        ImmutableNode node = InterceptedNode.wrap(InterceptedNode.wrap(InterceptedNode.wrap(name,
+                new Suffix("1")), new UpperCase()), new Suffix("2"));
+
+        assertThat(node.getValue(), equalTo("JOHN12"));
+        assertThat(node.asString(), equalTo("JOHN12"));
+    }
+
+    @Test
+    public void inheritedInterceptorsApplyToDescendants() {
+        ImmutableNode node = InterceptedNode.wrap(InterceptedNode.wrap(user(), new UpperCase()), new Suffix("!"));
+
+        assertThat(node.getItem("name").asString(), equalTo("JOHN"));
+        assertThat(node.getItem("age").asLong(), equalTo(42L));
+        ImmutableNode emails = node.getItem("emails");
+        assertThat(emails, instanceOf(ImmutableNodeCollection.class));
+        assertThat(((InterceptedNode) emails).getInterceptors().size(), equalTo(1));
+        List<Object> values = emails.getElements().map(ImmutableNode::getValue).collect(Collectors.toList());
+        assertThat(values, equalTo(Arrays.asList("A@B.C", "D@E.F")));
+    }
+
+    @Test
+    public void itemsAreInterceptedWithoutWrappingScalars() {
+        ImmutableNodeObject user = user();
+        NodeInterceptor hiding = new NodeInterceptor() {
+            @Override
+            public ImmutableNode interceptItem(@Nonnull ImmutableNode node, ImmutableNode item) {
+                return item != null && item.getValue() instanceof Long ? null : item;
+            }
+
+            @Override
+            public boolean isInherited() {
+                return true;
+            }
+        };
+
+        ImmutableNode node = InterceptedNode.wrap(user, hiding);
+
+        assertThat(node.getItem("age"), equalTo(null));
+        assertThat(node.getItem("name"), sameInstance(user.getItem("name")));
+        assertThat(node.getElements().count(), equalTo(2L));
+        assertThat(InterceptedNode.wrap(user.getItem("name"), hiding), sameInstance(user.getItem("name")));
+    }
+
+    private static final class Suffix implements NodeInterceptor {
+        private final String suffix;
+
+        Suffix(String suffix) {
+            this.suffix = suffix;
+        }
+
+        @Override
+        public Object interceptValue(@Nonnull ImmutableNode node, Object value) {
+            return value instanceof String ? value + suffix : value;
+        }
+    }
+
+    private static final class UpperCase implements NodeInterceptor {
+        @Override
+        public Object interceptValue(@Nonnull ImmutableNode node, Object value) {
+            return value instanceof String ? ((String) value).toUpperCase() : value;
+        }
+
+        @Override
+        public boolean isInherited() {
+            return true;
+        }
+    }
+
+    private static ImmutableNodeObject user() {
+        Map<String, ImmutableNode> values = new LinkedHashMap<>();
+        values.put("name", StandardValueNodes.of("john"));
+        values.put("age", StandardValueNodes.ofLong("age", 42));
+        values.put("emails", list(StandardValueNodes.of("a@b.c"), StandardValueNodes.of("d@e.f")));
+        return new ImmutableNodeObject() {
+            @Nonnull
+            @Override
+            public String getName() {
+                return "john";
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return StandardTypes.MAP;
+            }
+
+            @Override
+            public Stream<String> getFieldNames() {
+                return values.keySet().stream();
+            }
+
+            @Override
+            public ImmutableNode getItem(@Nonnull String fieldName) {
+                return values.get(fieldName);
+            }
+
+            @Override
+            public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+                return values.get(field.getIdentifier());
+            }
+        };
+    }
+
+    private static ImmutableNodeCollection list(ImmutableNode... items) {
+        return new ImmutableNodeCollection() {
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return StandardTypes.arrayOf(StandardTypes.STRING);
+            }
+
+            @Nonnull
+            @Override
+            public Stream<ImmutableNode> getElements() {
+                return Stream.of(items);
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.ljcr.utils.metrics;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.ljcr.tests.TestNodes.object;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MetricsRepositoryTest {
+    private static final TypeDefinition DOC = () -> "Doc";
+    private static final TypeDefinition HOLDER = new TypeDefinition() {
+        @Override
+        public String getIdentifier() {
+            return "Holder";
+        }
+
+        @Override
+        public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
+            return Collections.singletonList(StandardTypes.propertyOf("doc", DOC, 0));
+        }
+    };
+    private static final String MAP = StandardTypes.MAP.getIdentifier();
+
+    private final Repository delegate = workspace();
+
+    @Test
+    public void callsAreRecordedPerOperationAndType() {
+        MetricsRepository ws = new MetricsRepository(delegate);
+
+        ImmutableNode docs = ws.getItem(NodePath.of("/docs"));
+        assertThat(docs, instanceOf(ImmutableNodeObject.class));
+        assertThat(docs.getItem("d1").getItem("title").asString(), equalTo("first"));
+        assertThat(docs.getElements().count(), equalTo(2L));
+        ws.getItem(NodePath.of("/docs/d2"));
+        ws.getItem(NodePath.of("/missing"));
+
+        Map<String, Long> counts = ws.getMetrics().getStatistics().stream()
+                .collect(Collectors.toMap(s -> s.getOperation() + " " + s.getTypeName(), OperationStatistics::getCount));
+        assertThat(counts.get("GET_ITEM " + MAP), equalTo(1L));
+        assertThat(counts.get("GET_ITEM Doc"), equalTo(1L));
+        assertThat(counts.get("GET_ITEM -"), equalTo(1L));
+        assertThat(counts.get("NODE_GET_ITEM " + MAP), equalTo(1L));
+        assertThat(counts.get("NODE_GET_ITEM Doc"), equalTo(1L));
+        assertThat(counts.get("NODE_GET_ELEMENTS " + MAP), equalTo(1L));
+        assertThat(ws.getMetrics().dump(), containsString("NODE_GET_ELEMENTS"));
+    }
+
+    @Test
+    public void fieldsByOrdinalAreRecordedAndWrapped() {
+        MetricsRepository ws = new MetricsRepository(delegate);
+
+        ImmutableNode doc = ws.getItem(NodePath.of("/holder")).getItem(0);
+        assertThat(doc, instanceOf(MetricsNodeObject.class));
+        assertThat(doc.getItem("title").asString(), equalTo("third"));
+
+        Map<String, Long> counts = ws.getMetrics().getStatistics().stream()
+                .collect(Collectors.groupingBy(OperationStatistics::getOperation, Collectors.summingLong(OperationStatistics::getCount)));
+        assertThat(counts.get("NODE_GET_ITEM"), equalTo(2L));
+    }
+
+    @Test
+    public void disabledMetricsReturnNodesOfTheDelegate() {
+        MetricsRepository ws = new MetricsRepository(delegate);
+        ws.getMetrics().setEnabled(false);
+
+        assertThat(ws.getItem(NodePath.of("/docs")), sameInstance(delegate.getItem(NodePath.of("/docs"))));
+        assertThat(ws.getMetrics().getStatistics(), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-1);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount(), equalTo(10_001L));
+        assertThat(snapshot.getMax(), equalTo(10_000L));
+        long p50 = snapshot.getValueAtPercentile(50);
+        long p99 = snapshot.getValueAtPercentile(99);
+        assertThat(p50 >= 5_000 && p50 <= 5_000 * 17 / 16, equalTo(true));
+        assertThat(p99 >= 9_900 && p99 <= 10_000, equalTo(true));
+        assertThat(snapshot.getValueAtPercentile(100), equalTo(10_000L));
+        for (int idx = 0; idx < LatencyHistogram.BUCKETS; idx++) {
+            assertThat(LatencyHistogram.indexOf(LatencyHistogram.lowestValueOf(idx)), equalTo(idx));
+        }
+    }
+
+    @Test
+    public void statisticsAreExportedThroughJmx() throws Exception {
+        MetricsRepository ws = new MetricsRepository(delegate);
+        ws.getRootNode();
+        ObjectName name = ws.getMetrics().register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertThat(server.getAttribute(name, "Enabled"), equalTo(true));
+            assertThat(((Object[]) server.getAttribute(name, "Statistics")).length, equalTo(1));
+            assertThat((String) server.invoke(name, "dump", new Object[0], new String[0]), containsString("GET_ROOT_NODE"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    private static Repository workspace() {
+        Map<String, ImmutableNode> docs = new LinkedHashMap<>();
+        docs.put("d1", object("d1", DOC, Collections.singletonMap("title", StandardValueNodes.of("first"))));
+        docs.put("d2", object("d2", DOC, Collections.singletonMap("title", StandardValueNodes.of("second"))));
+        Map<String, ImmutableNode> children = new LinkedHashMap<>();
+        children.put("docs", object("docs", StandardTypes.MAP, docs));
+        children.put("holder", object("holder", HOLDER, Collections.singletonMap("doc",
+                object("doc", DOC, Collections.singletonMap("title", StandardValueNodes.of("third"))))));
+        ImmutableNodeObject rootNode = object("", StandardTypes.MAP, children);
+        return new Repository() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public ImmutableNode getRootNode() {
+                return rootNode;
+            }
+        };
+    }
+}
@@ -0,0 +1,189 @@
+package com.ljcr.utils.overlay;
+
+import com.ljcr.api.CompiledPath;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.observation.Event;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ljcr.tests.TestNodes.doc;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class OverlayRepositoryTest {
+
+    @Test
+    public void objectsAreMergedByPrecedence() {
+        Layer tenant = new Layer(doc("", "a", doc("a", "id", StandardValueNodes.ofLong("id", 1))));
+        Layer defaults = new Layer(doc("",
+                "a", doc("a", "id", StandardValueNodes.ofLong("id", -1), "age", StandardValueNodes.ofLong("age", 30)),
+                "b", doc("b", "id", StandardValueNodes.ofLong("id", -2))));
+        OverlayRepository overlay = new OverlayRepository("test", Arrays.asList(tenant, defaults));
+
+        assertThat(overlay.getItem(NodePath.of("a", "id")).asLong(), equalTo(1L));
+        assertThat(overlay.getItem(NodePath.of("a", "age")).asLong(), equalTo(30L));
+        assertThat(overlay.getItem(NodePath.of("b", "id")).asLong(), equalTo(-2L));
+        assertThat(overlay.getItem(NodePath.of("c")), equalTo(null));
+        assertThat(overlay.getItem(NodePath.of("c", "id")), equalTo(null));
+
+        ImmutableNode a = overlay.getItem(CompiledPath.of("/a"));
+        List<Long> values = a.getElements().map(ImmutableNode::asLong).collect(Collectors.toList());
+        assertThat(values, equalTo(Arrays.asList(1L, 30L)));
+        assertThat(fieldNames(overlay.getRootNode()), equalTo(Arrays.asList("a", "b")));
+        assertThat(overlay.getOwner(NodePath.of("a", "age")), sameInstance(defaults));
+        assertThat(overlay.getOwner(NodePath.of("a", "id")), sameInstance(tenant));
+    }
+
+    @Test
+    public void lookupsTouchTheOwnerOnly() {
+        Layer tenant = new Layer(doc("", "a", doc("a", "id", StandardValueNodes.ofLong("id", 1))));
+        Layer site = new Layer(doc("", "a", doc("a", "age", StandardValueNodes.ofLong("age", 40))));
+        Layer defaults = new Layer(doc("", "b", doc("b", "id", StandardValueNodes.ofLong("id", -2))));
+        OverlayRepository overlay = new OverlayRepository("test", Arrays.asList(tenant, site, defaults));
+        overlay.getItem(NodePath.of("a", "age"));
+        overlay.getItem(NodePath.of("b", "id"));
+        overlay.getItem(NodePath.of("c", "id"));
+        tenant.loads.set(0);
+        site.loads.set(0);
+        defaults.loads.set(0);
+
+        assertThat(overlay.getItem(NodePath.of("a", "age")).asLong(), equalTo(40L));
+        assertThat(overlay.getItem(NodePath.of("b", "id")).asLong(), equalTo(-2L));
+
+        // scalars are read from their owner, indexed objects are not probed again
+        assertThat(tenant.loads.get(), equalTo(0));
+        assertThat(site.loads.get(), equalTo(1));
+        assertThat(defaults.loads.get(), equalTo(1));
+    }
+
+    @Test
+    public void missingPathsAreNotRecorded() {
+        Layer tenant = new Layer(doc("", "a", doc("a", "id", StandardValueNodes.ofLong("id", 1))));
+        Layer defaults = new Layer(doc("", "b", doc("b", "id", StandardValueNodes.ofLong("id", -2))));
+        OverlayRepository overlay = new OverlayRepository("test", Arrays.asList(tenant, defaults));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(overlay.getItem(NodePath.of("c", "id")), equalTo(null));
+            assertThat(overlay.getItem(NodePath.of("a", "age")), equalTo(null));
+        }
+
+        // each miss is probed again, in the objects of its parent only
+        assertThat(tenant.loads.get(), equalTo(3 + 1 + 3));
+        assertThat(defaults.loads.get(), equalTo(3 + 1));
+    }
+
+    @Test
+    public void scalarsHideLowerLayers() {
+        Layer tenant = new Layer(doc("", "a", StandardValueNodes.ofLong("a", 1)));
+        Layer defaults = new Layer(doc("", "a", doc("a", "id", StandardValueNodes.ofLong("id", -1))));
+        OverlayRepository overlay = new OverlayRepository("test", Arrays.asList(tenant, defaults));
+
+        assertThat(overlay.getItem(NodePath.of("a")).asLong(), equalTo(1L));
+        assertThat(overlay.getItem(NodePath.of("a", "id")), equalTo(null));
+        assertThat(overlay.getOwner(NodePath.of("a")), sameInstance(tenant));
+        assertThat(overlay.getOwner(NodePath.of("a", "id")), equalTo(null));
+    }
+
+    @Test
+    public void changesInvalidateTheirPaths() {
+        Map<String, ImmutableNode> tenantFields = new LinkedHashMap<>();
+        tenantFields.put("a", doc("a", "id", StandardValueNodes.ofLong("id", 1)));
+        Layer tenant = new Layer(doc("", tenantFields));
+        Layer defaults = new Layer(doc("",
+                "a", doc("a", "id", StandardValueNodes.ofLong("id", -1)),
+                "b", doc("b", "id", StandardValueNodes.ofLong("id", -2))));
+        OverlayRepository overlay = new OverlayRepository("test", Arrays.asList(tenant, defaults));
+        assertThat(overlay.getItem(NodePath.of("b", "id")).asLong(), equalTo(-2L));
+        assertThat(overlay.getItem(NodePath.of("a", "id")).asLong(), equalTo(1L));
+
+        tenantFields.put("b", doc("b", "id", StandardValueNodes.ofLong("id", 2)));
+        assertThat(overlay.getItem(NodePath.of("b", "id")).asLong(), equalTo(-2L));
+
+        overlay.getInvalidationListener().onEvents(Collections.singletonList(Event.added(NodePath.of("b"), null)));
+        tenant.loads.set(0);
+        assertThat(overlay.getItem(NodePath.of("b", "id")).asLong(), equalTo(2L));
+        assertThat(overlay.getItem(NodePath.of("a", "id")).asLong(), equalTo(1L));
+        // b and its field are probed again, a is still indexed: both fields are read from their owner
+        assertThat(tenant.loads.get(), equalTo(2 + 2));
+    }
+
+    private static List<String> fieldNames(ImmutableNode node) {
+        return node.asObjectNode().getFieldNames().collect(Collectors.toList());
+    }
+
+    /**
+     * Layer counting the lookups of fields of its objects
+     */
+    private static final class Layer implements Repository {
+        final AtomicInteger loads = new AtomicInteger();
+        final ImmutableNodeObject root;
+
+        Layer(ImmutableNodeObject root) {
+            this.root = counting(root);
+        }
+
+        private ImmutableNodeObject counting(ImmutableNodeObject node) {
+            return new ImmutableNodeObject() {
+                @Nonnull
+                @Override
+                public String getName() {
+                    return node.getName();
+                }
+
+                @Nonnull
+                @Override
+                public TypeDefinition getTypeDefinition() {
+                    return node.getTypeDefinition();
+                }
+
+                @Override
+                public Stream<String> getFieldNames() {
+                    return node.getFieldNames();
+                }
+
+                @Override
+                public ImmutableNode getItem(@Nonnull String fieldName) {
+                    loads.incrementAndGet();
+                    ImmutableNode item = node.getItem(fieldName);
+                    return item != null && item.isObject() ? counting(item.asObjectNode()) : item;
+                }
+
+                @Override
+                public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
+                    return getItem(field.getIdentifier());
+                }
+            };
+        }
+
+        @Override
+        public String getName() {
+            return "layer";
+        }
+
+        @Override
+        public ImmutableNode getRootNode() {
+            return root;
+        }
+
+        @Override
+        public ImmutableNode getItem(CompiledPath absPath) {
+            throw new AssertionError("Expecting lookups from the root node, got " + absPath);
+        }
+    }
+}
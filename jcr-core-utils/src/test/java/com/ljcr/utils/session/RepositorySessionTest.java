@@ -0,0 +1,127 @@
+package com.ljcr.utils.session;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.exceptions.RepositoryException;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ljcr.tests.TestNodes.doc;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RepositorySessionTest {
+    private final AtomicInteger reads = new AtomicInteger();
+    private final Repository workspace = workspace();
+
+    @Test
+    public void itemsAreCachedByPath() {
+        RepositorySession session = new RepositorySession(workspace, "ann", 10);
+
+        ImmutableNode title = session.getItem(NodePath.of("/book/title"));
+        assertThat(title.asString(), equalTo("Dune"));
+        assertThat(session.getItem(NodePath.of("/book/title")), sameInstance(title));
+        assertThat(session.itemExists(Paths.get("/book/missing")), equalTo(false));
+        assertThat(session.itemExists(Paths.get("/book/missing")), equalTo(false));
+
+        assertThat(reads.get(), equalTo(2));
+        assertThat(session.getCacheHits(), equalTo(2L));
+        assertThat(session.getCacheHitRate(), equalTo(0.5));
+
+        session.refresh(false);
+        assertThat(session.getItem(NodePath.of("/book/title")).asString(), equalTo("Dune"));
+        assertThat(reads.get(), equalTo(3));
+    }
+
+    @Test
+    public void itemsAreCachedByPathWhicheverKindOfPathReadsThem() {
+        RepositorySession session = new RepositorySession(workspace, "ann", 10);
+
+        ImmutableNode title = session.getItem(Paths.get("/book/title"));
+        assertThat(session.getItem(NodePath.of("/book/title")), sameInstance(title));
+        assertThat(session.getItem(NodePath.of("/book/title").compile()), sameInstance(title));
+        assertThat(session.getCacheSize(), equalTo(1));
+        assertThat(reads.get(), equalTo(1));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        RepositorySession session = new RepositorySession(workspace, "ann", 2);
+        session.getItem(NodePath.of("/book/title"));
+        session.getItem(NodePath.of("/book/pages"));
+        session.getItem(NodePath.of("/book/title"));
+        session.getItem(NodePath.of("/book"));
+
+        assertThat(session.getCacheSize(), equalTo(2));
+        assertThat(session.getCacheEvictions(), equalTo(1L));
+        session.getItem(NodePath.of("/book/title"));
+        assertThat(reads.get(), equalTo(3));
+        session.getItem(NodePath.of("/book/pages"));
+        assertThat(reads.get(), equalTo(4));
+    }
+
+    @Test(expected = RepositoryException.class)
+    public void logoutReleasesTheSession() {
+        RepositorySession session = new RepositorySession(workspace, "ann", 10);
+        session.getItem(NodePath.of("/book/title"));
+        session.logout();
+
+        assertThat(session.isLive(), equalTo(false));
+        assertThat(session.getCacheSize(), equalTo(0));
+        session.getItem(NodePath.of("/book/title"));
+    }
+
+    @Test
+    public void poolRecyclesWarmSessions() {
+        SessionPool pool = new SessionPool(workspace, 1, 10);
+        RepositorySession first = pool.login("ann");
+        first.getItem(NodePath.of("/book/title"));
+        RepositorySession second = pool.login("ann");
+        pool.release(first);
+        pool.release(second);
+
+        assertThat(second.isLive(), equalTo(false));
+        assertThat(pool.getIdleCount(), equalTo(1));
+        assertThat(pool.login("bob"), not(sameInstance(first)));
+
+        RepositorySession recycled = pool.login("ann");
+        assertThat(recycled, sameInstance(first));
+        assertThat(pool.getIdleUserCount(), equalTo(0));
+        recycled.getItem(NodePath.of("/book/title"));
+        assertThat(reads.get(), equalTo(1));
+
+        pool.release(recycled);
+        pool.close();
+        assertThat(recycled.isLive(), equalTo(false));
+    }
+
+    private Repository workspace() {
+        Map<String, ImmutableNode> book = new LinkedHashMap<>();
+        book.put("title", StandardValueNodes.of("Dune"));
+        book.put("pages", StandardValueNodes.of(412L));
+        Map<String, ImmutableNode> root = new LinkedHashMap<>();
+        root.put("book", doc("book", book));
+        ImmutableNodeObject rootNode = doc("", root);
+        return new Repository() {
+            @Override
+            public String getName() {
+                return "books";
+            }
+
+            @Override
+            public ImmutableNode getRootNode() {
+                reads.incrementAndGet();
+                return rootNode;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.utils.diff.MerkleTree;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+
+import static com.ljcr.tests.TestNodes.doc;
+import static com.ljcr.tests.TestNodes.repository;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class OffHeapRepositoryTest {
+
+    @Test
+    public void copyHasTheSameTree() {
+        Repository original = repository(users(200, "user"));
+        // small segments, so that records and strings span several of them
+        OffHeapRepository copy = OffHeapRepository.copyOf(original, 16, 8);
+
+        assertThat(copy.getName(), equalTo("test"));
+        assertThat(copy.size(), equalTo(1 + 200 * 4L));
+        assertThat(copy.getRootNode().cursor() instanceof SnapshotNodeCursor, is(true));
+        assertThat(MerkleTree.of(copy).getRootHash(), equalTo(MerkleTree.of(original).getRootHash()));
+        assertThat(copy.getItem(NodePath.of("123", "name")).asString(), equalTo("user number 123 with a name long enough to span segments"));
+        assertThat(copy.getItem(NodePath.of("199", "id")).asLong(), equalTo(199L));
+        assertThat(copy.getItem(NodePath.of("7", "group")).asString(), equalTo("group 7"));
+    }
+
+    @Test
+    public void stringsAreDictionaryEncoded() {
+        Repository original = repository(users(100, "user"));
+        OffHeapRepository inline = OffHeapRepository.copyOf(original, 0);
+        OffHeapRepository encoded = OffHeapRepository.copyOf(original);
+
+        assertThat(encoded.getMemoryUsage() < inline.getMemoryUsage(), is(true));
+        assertThat(MerkleTree.of(encoded).getRootHash(), equalTo(MerkleTree.of(inline).getRootHash()));
+        assertThat(encoded.getItem(NodePath.of("42", "group")).getValue(), equalTo("group 2"));
+    }
+
+    private static ImmutableNode users(int count, String prefix) {
+        Object[] fields = new Object[count * 2];
+        for (int i = 0; i < count; i++) {
+            String key = String.valueOf(i);
+            fields[2 * i] = key;
+            fields[2 * i + 1] = doc(key,
+                    "id", StandardValueNodes.ofLong("id", i),
+                    "name", named("name", prefix + " number " + i + " with a name long enough to span segments"),
+                    "group", named("group", "group " + i % 10));
+        }
+        return doc("", fields);
+    }
+
+    private static ImmutableNode named(String name, String value) {
+        return new ImmutableNodeScalar() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return StandardTypes.STRING;
+            }
+
+            @Override
+            public Object getValue() {
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,229 @@
+package com.ljcr.utils.snapshot;
+
+import com.ljcr.api.ImmutableBinary;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.utils.diff.MerkleTree;
+import com.ljcr.utils.diff.TreeDiff;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ljcr.tests.TestNodes.object;
+import static com.ljcr.tests.TestNodes.repository;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SnapshotRepositoryTest {
+
+    private static final TypeDefinition USER = new TypeDefinition() {
+        @Override
+        public String getIdentifier() {
+            return "User";
+        }
+
+        @Override
+        public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
+            return Arrays.asList(
+                    StandardTypes.mandatoryPropertyOf("name", StandardTypes.STRING, 0),
+                    StandardTypes.propertyOf("scores", StandardTypes.arrayOf(StandardTypes.LONG), 1),
+                    StandardTypes.propertyOf("friend", this, 2));
+        }
+
+        @Override
+        public boolean isReferencable() {
+            return true;
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void valuesAreReadBack() throws IOException {
+        Repository snapshot = snapshotOf(sample());
+        ImmutableNodeObject root = snapshot.getRootNode().asObjectNode();
+
+        assertThat(snapshot.getName(), equalTo("test"));
+        assertThat(root.getFieldNames().collect(Collectors.toList()),
+                equalTo(Arrays.asList("ann", "bob", "ratio", "price", "flag", "none", "blob", "empty")));
+        assertThat(root.getItem("ann").getItem("name").asString(), equalTo("Ann"));
+        assertThat(root.getItem("ann").getItem("name").getName(), equalTo("name"));
+        assertThat(root.getItem("ann").getItem("scores").getItem("2").asLong(), equalTo(20L));
+        assertThat(root.getItem("ann").getItem("scores").getItem("3"), nullValue());
+        assertThat(root.getItem("ratio").asDouble(), equalTo(0.25));
+        assertThat(root.getItem("price").getValue(), equalTo(new BigDecimal("12.50")));
+        assertThat(root.getItem("flag").asBoolean(), equalTo(true));
+        assertThat(root.getItem("none").getValue(), nullValue());
+        assertThat(root.getItem("missing"), nullValue());
+        assertThat(root.getItem("empty").asObjectNode().getElements().count(), equalTo(0L));
+        assertThat(snapshot.getItem(NodePath.of("bob", "friend", "name")).asString(), equalTo("Ann"));
+
+        ImmutableBinary blob = (ImmutableBinary) root.getItem("blob");
+        assertThat(blob.length(), equalTo(5L));
+        assertThat(blob.slice(1, 3), equalTo(ByteBuffer.wrap("ell".getBytes(StandardCharsets.UTF_8))));
+        assertThat(blob.slice(1, 3).isReadOnly(), equalTo(true));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(blob.transferTo(Channels.newChannel(out)), equalTo(5L));
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), equalTo("hello"));
+        try (InputStream in = blob.openStream()) {
+            byte[] bytes = new byte[8];
+            assertThat(in.read(bytes), equalTo(5));
+            assertThat(new String(bytes, 0, 5, StandardCharsets.UTF_8), equalTo("hello"));
+        }
+    }
+
+    @Test
+    public void typesAreReadBack() throws IOException {
+        SnapshotRepository snapshot = snapshotOf(sample());
+        ImmutableNode ann = snapshot.getRootNode().getItem("ann");
+        TypeDefinition user = ann.getTypeDefinition();
+
+        assertThat(user.getIdentifier(), equalTo("User"));
+        assertThat(user.isReferencable(), equalTo(true));
+        assertThat(user.getFieldDefByName("name").isMandatory(), equalTo(true));
+        assertThat(user.getFieldDefByName("friend").getType(), sameInstance(user));
+        assertThat(user.getFieldDefByName("scores").getType(), sameInstance(StandardTypes.arrayOf(StandardTypes.LONG)));
+        assertThat(ann.getItem("scores").getTypeDefinition(), sameInstance(StandardTypes.arrayOf(StandardTypes.LONG)));
+        assertThat(snapshot.getRootNode().getItem("ratio").getTypeDefinition(), sameInstance(StandardTypes.DOUBLE));
+        assertThat(snapshot.getKnownTypes(), equalTo(Arrays.asList(user)));
+        assertThat(snapshot.size(), equalTo(16L));
+    }
+
+    @Test
+    public void snapshotHasTheSameTree() throws IOException {
+        Repository original = repository(sample());
+        Repository snapshot = snapshotOf(sample());
+
+        assertThat(MerkleTree.of(snapshot).getRootHash(), equalTo(MerkleTree.of(original).getRootHash()));
+        assertThat(new TreeDiff().diff(original, snapshot).count(), equalTo(0L));
+        assertThat(snapshot.getRootNode().getItem("ann"), instanceOf(ImmutableNodeObject.class));
+        assertThat(snapshot.getRootNode().getItem("ann").getItem("scores"), instanceOf(ImmutableNodeCollection.class));
+    }
+
+    @Test
+    public void namesBeyondTheCacheAreDecodedOnDemand() throws IOException {
+        Object[] fields = new Object[2 * 5000];
+        for (int i = 0; i < 5000; i++) {
+            fields[2 * i] = "k\u00e9" + i;
+            fields[2 * i + 1] = StandardValueNodes.ofLong("k\u00e9" + i, i);
+        }
+        SnapshotRepository snapshot = snapshotOf(object("", StandardTypes.MAP, fields));
+        ImmutableNodeObject root = snapshot.getRootNode().asObjectNode();
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 5000; i += 7) {
+                assertThat(root.getItem("k\u00e9" + i).asLong(), equalTo((long) i));
+                assertThat(root.getItem("k\u00e9" + i).getName(), equalTo("k\u00e9" + i));
+            }
+        }
+        assertThat(root.getItem("k\u00e95000"), nullValue());
+        assertThat(root.getFieldNames().count(), equalTo(5000L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeOffsetsAreRejected() throws IOException {
+        ImmutableBinary blob = (ImmutableBinary) snapshotOf(sample()).getRootNode().getItem("blob");
+        blob.read(-1, ByteBuffer.allocate(1));
+    }
+
+    @Test(expected = RepositoryException.class)
+    public void otherFilesAreRejected() throws IOException {
+        Path file = folder.newFile("other.json").toPath();
+        Files.write(file, "{\"this\": \"is not a snapshot at all, but a long enough file\"}".getBytes(StandardCharsets.UTF_8));
+        SnapshotRepository.open(file);
+    }
+
+    private SnapshotRepository snapshotOf(ImmutableNode root) throws IOException {
+        Path file = folder.newFile().toPath();
+        SnapshotWriter.write(repository(root), file);
+        return SnapshotRepository.open(file);
+    }
+
+    private static ImmutableNode sample() {
+        ImmutableNodeObject ann = object("ann", USER,
+                "name", value("name", StandardTypes.STRING, "Ann"),
+                "scores", array("scores", StandardTypes.arrayOf(StandardTypes.LONG),
+                        value(null, StandardTypes.LONG, 10L), value(null, StandardTypes.LONG, 20L)));
+        ImmutableNodeObject bob = object("bob", USER,
+                "name", value("name", StandardTypes.STRING, "Bob"),
+                "friend", object("friend", USER, "name", value("name", StandardTypes.STRING, "Ann")));
+        return object("", StandardTypes.MAP,
+                "ann", ann,
+                "bob", bob,
+                "ratio", value("ratio", StandardTypes.DOUBLE, 0.25),
+                "price", value("price", StandardTypes.DECIMAL, new BigDecimal("12.50")),
+                "flag", value("flag", StandardTypes.BOOLEAN, true),
+                "none", value("none", StandardTypes.NULL, null),
+                "blob", value("blob", StandardTypes.BINARY, "hello".getBytes(StandardCharsets.UTF_8)),
+                "empty", object("empty", StandardTypes.MAP));
+    }
+
+    private static ImmutableNode value(String name, TypeDefinition type, Object value) {
+        return new ImmutableNodeScalar() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return type;
+            }
+
+            @Override
+            public Object getValue() {
+                return value;
+            }
+        };
+    }
+
+    private static ImmutableNodeCollection array(String name, TypeDefinition type, ImmutableNode... elements) {
+        return new ImmutableNodeCollection() {
+            @Nonnull
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return type;
+            }
+
+            @Override
+            public Stream<ImmutableNode> getElements() {
+                return Arrays.stream(elements);
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.ljcr.utils.version;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.version.Version;
+import com.ljcr.api.version.VersionHistory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.ljcr.tests.TestNodes.array;
+import static com.ljcr.tests.TestNodes.doc;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class VersionStoreTest {
+
+    @Test
+    public void historicalVersionsAreReadable() {
+        VersionStore store = new VersionStore();
+        Version v1 = store.checkin("doc", doc("doc", "title", StandardValueNodes.of("first"), "rev", StandardValueNodes.ofLong("rev", 1)));
+        Version v2 = store.checkin("doc", doc("doc", "title", StandardValueNodes.of("second"), "rev", StandardValueNodes.ofLong("rev", 2)));
+
+        assertThat(v1.getItem("title").asString(), equalTo("first"));
+        assertThat(v1.getItem("rev").asLong(), equalTo(1L));
+        assertThat(v2.getItem("title").asString(), equalTo("second"));
+        assertThat(v2.getFieldNames().collect(Collectors.toList()), equalTo(Arrays.asList("title", "rev")));
+
+        VersionHistory history = store.getVersionHistory("doc");
+        assertThat(history.getItem("1"), sameInstance(v1));
+        assertThat(history.getItem("2"), sameInstance(v2));
+        assertThat(store.getVersionHistory("other"), nullValue());
+    }
+
+    @Test
+    public void unchangedSubtreesAreShared() {
+        VersionStore store = new VersionStore();
+        Version v1 = store.checkin("doc", doc("doc",
+                "author", doc("author", "name", StandardValueNodes.of("Ann")),
+                "body", doc("body", "text", StandardValueNodes.of("a"))));
+        Version v2 = store.checkin("doc", doc("doc",
+                "author", doc("author", "name", StandardValueNodes.of("Ann")),
+                "body", doc("body", "text", StandardValueNodes.of("b"))));
+        Version v3 = store.checkin("doc", doc("doc",
+                "author", doc("author", "name", StandardValueNodes.of("Ann")),
+                "body", doc("body", "text", StandardValueNodes.of("b"))));
+
+        assertThat(v2.getItem("author"), sameInstance(v1.getItem("author")));
+        assertThat(v2.getItem("body").asObjectNode().getItem("text").asString(), equalTo("b"));
+        assertThat(v1.getItem("body").asObjectNode().getItem("text").asString(), equalTo("a"));
+        assertThat(((StoredVersion) v3).getRoot(), sameInstance(((StoredVersion) v2).getRoot()));
+    }
+
+    @Test
+    public void linearNavigationAndBranches() {
+        VersionStore store = new VersionStore();
+        Version v1 = store.checkin("doc", doc("doc", "rev", StandardValueNodes.ofLong("rev", 1)));
+        Version v2 = store.checkin("doc", doc("doc", "rev", StandardValueNodes.ofLong("rev", 2)));
+        Version v3 = store.checkin("doc", doc("doc", "rev", StandardValueNodes.ofLong("rev", 3)));
+        Version branch = store.checkin(v1, doc("doc", "rev", StandardValueNodes.ofLong("rev", 10)));
+
+        assertThat(v1.getLinearPredecessor(), nullValue());
+        assertThat(v2.getLinearPredecessor(), sameInstance(v1));
+        assertThat(v1.getLinearSuccessor(), sameInstance(v2));
+        assertThat(v3.getLinearSuccessor(), nullValue());
+        assertThat(v1.getSuccessors(), equalTo(Arrays.asList(v2, branch)));
+        assertThat(branch.getLinearPredecessor(), sameInstance(v1));
+
+        VersionHistory history = v1.getContainingHistory();
+        assertThat(history.getAllLinearVersions().collect(Collectors.toList()), equalTo(Arrays.asList(v1, v2, v3)));
+        assertThat(history.getAllVersions().count(), equalTo(4L));
+
+        Version v4 = store.checkin("doc", doc("doc", "rev", StandardValueNodes.ofLong("rev", 4)));
+        assertThat(v4.getLinearPredecessor(), sameInstance(v3));
+    }
+
+    @Test
+    public void updateByPath() {
+        VersionStore store = new VersionStore();
+        Version v1 = store.checkin("doc", doc("doc",
+                "author", doc("author", "name", StandardValueNodes.of("Ann")),
+                "tags", array(StandardValueNodes.of("x"), StandardValueNodes.of("y"))));
+
+        Version v2 = store.update(v1, NodePath.of("author", "name"), StandardValueNodes.of("Bob"));
+        Version v3 = store.update(v2, NodePath.of("tags", "2"), StandardValueNodes.of("z"));
+        Version v4 = store.update(v3, NodePath.of("tags", "1"), null);
+
+        assertThat(v1.getItem("author").asObjectNode().getItem("name").asString(), equalTo("Ann"));
+        assertThat(v2.getItem("author").asObjectNode().getItem("name").asString(), equalTo("Bob"));
+        assertThat(v2.getItem("tags"), sameInstance(v1.getItem("tags")));
+        assertThat(values(v3.getItem("tags")), equalTo(Arrays.asList("x", "z")));
+        assertThat(values(v4.getItem("tags")), equalTo(Arrays.asList("z")));
+        assertThat(v4.getItem("author"), sameInstance(v2.getItem("author")));
+        assertThat(v4.getLinearPredecessor(), sameInstance(v3));
+    }
+
+    @Test(expected = PathNotFoundException.class)
+    public void updateOfMissingParentFails() {
+        VersionStore store = new VersionStore();
+        Version v1 = store.checkin("doc", doc("doc", "rev", StandardValueNodes.ofLong("rev", 1)));
+        store.update(v1, NodePath.of("missing", "name"), StandardValueNodes.of("x"));
+    }
+
+    private static List<String> values(ImmutableNode collection) {
+        return collection.getElements().map(ImmutableNode::asString).collect(Collectors.toList());
+    }
+}
@@ -4,12 +4,21 @@ import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeObject;
 import com.ljcr.api.Repository;
 import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
 import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.observation.PollingFileRepository;
+import com.ljcr.api.query.QueryExecutor;
+import com.ljcr.utils.DoubleArrayNode;
+import com.ljcr.utils.IdentityMemo;
+import com.ljcr.utils.LongArrayNode;
+import com.ljcr.utils.ScalarArrayNode;
+import com.ljcr.utils.StringArrayNode;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.FileReader;
 import org.apache.avro.generic.GenericArray;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.util.Utf8;
 import org.slf4j.Logger;
@@ -17,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.*;
 
@@ -26,6 +36,8 @@ import static java.util.stream.Collectors.toList;
 public class AvroAdapter {
     private static final Logger logger = LoggerFactory.getLogger(AvroAdapter.class);
 
+    private static final IdentityMemo<GenericArray<?>, ScalarArrayNode> SCALAR_ARRAYS = new IdentityMemo<>();
+
     private static final Map<Class<?>, TypeDefinition> typeMapping;
 
     static {
@@ -41,12 +53,19 @@ public class AvroAdapter {
         GenericDatumReader<GenericRecord> reader = new GenericDatumReader<GenericRecord>();
         FileReader<GenericRecord> streamReader = DataFileReader.openReader(fileName, reader);
 
-        GenericRecord rootRecord = streamReader.next(null); // I expect only one record
+        GenericRecord rootRecord;
+        Map<Schema, Collection<Path>> containers;
+        Map<Schema, Collection<Path>> objects;
+        try {
+            rootRecord = streamReader.next(null); // I expect only one record
+            containers = TypeUtils.collectTypes(streamReader.getSchema(), Schema.Type.MAP);
+            objects = TypeUtils.collectTypes(streamReader.getSchema(), Schema.Type.RECORD);
+        } finally {
+            streamReader.close();
+        }
         AvroImmutableNodeObject rootNode = new AvroImmutableNodeObject(rootRecord, "");
 
-        Map<Schema, Collection<Path>> containers = TypeUtils.collectTypes(streamReader.getSchema(), Schema.Type.MAP);
-        Map<Schema, Collection<Path>> objects = TypeUtils.collectTypes(streamReader.getSchema(), Schema.Type.RECORD);
-
+        QueryExecutor queryExecutor = new AvroQueryExecutor();
         return new Repository() {
             public String getName() {
                 return rootRecord.getSchema().getName();
@@ -63,9 +82,21 @@ public class AvroAdapter {
                         .map(s -> newTypeOf(s, containers, this))
                         .collect(toList());
             }
+
+            @Override
+            public QueryExecutor getQueryExecutor() {
+                return queryExecutor;
+            }
         };
     }
 
+    /**
+     * @return workspace read again from the file when it is modified, notifying its listeners of the changes
+     */
+    public static PollingFileRepository watchWs(final File fileName, long intervalMillis) throws IOException {
+        return new PollingFileRepository(fileName.toPath(), p -> createWs(p.toFile()), intervalMillis);
+    }
+
     private static TypeDefinition newTypeOf(Schema object, Map<Schema, Collection<Path>> containers, Repository rep) {
         for (Map.Entry<Schema, Collection<Path>> e : containers.entrySet()) {
             if (e.getKey().getValueType().equals(object)) {
@@ -78,7 +109,7 @@ public class AvroAdapter {
                 return new AvroContainerTypeDefinition(object, maps);
             }
         }
-        return new AvroTypeDefinition(object);
+        return AvroTypeDefinition.of(object);
     }
 
     static ImmutableNode nodeOf(Schema s, Object obj, String fieldName) {
@@ -89,7 +120,7 @@ public class AvroAdapter {
         if (obj instanceof GenericRecord) {
             return AvroImmutableNodeObject.of((GenericRecord) obj, fieldName);
         } else if (obj instanceof GenericArray<?>) {
-            return new AvroImmutableNodeCollection((GenericArray) obj, fieldName);
+            return arrayOf((GenericArray<?>) obj, fieldName);
         } else if (obj instanceof Utf8) {
             return new AvroImmutableScalar(((Utf8) obj).toString(), fieldName, s);
         } else if (obj instanceof Map<?, ?>) {
@@ -98,10 +129,75 @@ public class AvroAdapter {
             }
 
             return AvroImmutableMapNodeObject.ofUtf8((Map<Utf8, Object>) obj, fieldName);
+        } else if (obj instanceof Long || obj instanceof Integer) {
+            return StandardValueNodes.ofLong(fieldName, ((Number) obj).longValue());
+        } else if (obj instanceof Double) {
+            return StandardValueNodes.ofDouble(fieldName, (Double) obj);
+        } else if (obj instanceof Float) {
+            return StandardValueNodes.ofFloat(fieldName, (Float) obj);
+        } else if (obj instanceof Boolean) {
+            return StandardValueNodes.ofBoolean(fieldName, (Boolean) obj);
+        } else if (obj instanceof ByteBuffer) {
+            return StandardValueNodes.ofBinary(fieldName, (ByteBuffer) obj);
+        } else if (obj instanceof GenericFixed) {
+            return StandardValueNodes.ofBinary(fieldName, ByteBuffer.wrap(((GenericFixed) obj).bytes()));
         }
         return new AvroImmutableScalar(obj, fieldName, s);
     }
 
+    /**
+     * Arrays of ints or longs, floats or doubles and strings are copied to primitive arrays, typed as arrays
+     * of {@link StandardTypes#LONG}, {@link StandardTypes#DOUBLE} and {@link StandardTypes#STRING}
+     * as their elements are. Their elements are named by position from 1, as by getItem(String).
+     * Each array is copied once, the nodes of later accesses share its copy.
+     */
+    private static ImmutableNode arrayOf(GenericArray<?> array, String fieldName) {
+        switch (array.getSchema().getElementType().getType()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+                return SCALAR_ARRAYS.get(array, AvroAdapter::scalarArrayOf).withName(fieldName);
+            default:
+                return new AvroImmutableNodeCollection(array, fieldName);
+        }
+    }
+
+    private static ScalarArrayNode scalarArrayOf(GenericArray<?> array) {
+        switch (array.getSchema().getElementType().getType()) {
+            case INT:
+            case LONG: {
+                long[] values = new long[array.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = ((Number) array.get(i)).longValue();
+                }
+                return LongArrayNode.of(null, values);
+            }
+            case FLOAT: {
+                double[] values = new double[array.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = StandardValueNodes.widen((Float) array.get(i));
+                }
+                return DoubleArrayNode.of(null, values);
+            }
+            case DOUBLE: {
+                double[] values = new double[array.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = (Double) array.get(i);
+                }
+                return DoubleArrayNode.of(null, values);
+            }
+            default: {
+                List<String> values = new ArrayList<>(array.size());
+                for (Object value : array) {
+                    values.add(value.toString());
+                }
+                return StringArrayNode.of(null, values);
+            }
+        }
+    }
+
     public static ImmutableNode referencableNodeOf(Object obj, String reference) {
         if (obj == null) {
             return null;
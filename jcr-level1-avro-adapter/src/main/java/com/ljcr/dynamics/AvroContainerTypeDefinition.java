@@ -1,7 +1,10 @@
 package com.ljcr.dynamics;
 
+import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeObject;
 import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
 import org.apache.avro.Schema;
 
 import javax.annotation.Nullable;
@@ -16,11 +19,17 @@ public class AvroContainerTypeDefinition extends AvroTypeDefinition implements C
         this.containers = maps;
     }
 
+    List<ImmutableNodeObject> getContainers() {
+        return containers;
+    }
+
     @Nullable
     @Override
     public ImmutableNodeObject findByReference(String id) {
+        // maps have no declared fields, look up the key directly
+        PropertyDefinition key = StandardTypes.propertyOf(id, StandardTypes.ANYTYPE);
         return containers.stream()
-                .map(c -> c.getItem(id))
+                .map(c -> c.getItem(key))
                 .filter(o -> o != null && o.isObject())
                 .map(o -> o.asObjectNode())
                 .findFirst()
@@ -29,8 +38,14 @@ public class AvroContainerTypeDefinition extends AvroTypeDefinition implements C
 
     @Override
     public Stream<ImmutableNodeObject> getItems() {
-        return containers.stream()
-                .flatMap(c -> c.getElements())
+        // concatenation keeps the spliterators of the containers, flatMap would not split
+        Stream<ImmutableNode> elements = containers.size() == 1
+                ? containers.get(0).getElements()
+                : containers.stream()
+                .map(ImmutableNode::getElements)
+                .reduce(Stream::concat)
+                .orElseGet(Stream::empty);
+        return elements
                 .filter(o -> o != null && o.isObject())
                 .map(o -> o.asObjectNode());
     }
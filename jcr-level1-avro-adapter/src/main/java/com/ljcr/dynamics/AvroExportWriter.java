@@ -0,0 +1,313 @@
+package com.ljcr.dynamics;
+
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+import com.ljcr.api.exceptions.ValueFormatException;
+import com.ljcr.utils.export.ExportWriter;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Export to an avro data file: each element of the exported container is written as a record of the row schema,
+ * which is given or derived from a type definition (see {@link AvroSchemas}).
+ * <p>
+ * Only one row is held in memory, it is appended to the file through a {@link GenericDatumWriter} when complete.
+ * Fields which are not in the schema are ignored. Note that the file holds several records,
+ * while {@link AvroAdapter#createWs} reads one root record.
+ */
+public final class AvroExportWriter implements ExportWriter {
+    private static final Object NO_MATCH = new Object();
+
+    private static final class Frame {
+        final Schema schema;
+        final Object container;
+        final String name;
+
+        Frame(Schema schema, Object container, String name) {
+            this.schema = schema;
+            this.container = container;
+            this.name = name;
+        }
+
+        boolean isIgnored() {
+            return container == null;
+        }
+    }
+
+    private final Schema rowSchema;
+    private final DataFileWriter<GenericRecord> file;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final Value value = new Value();
+    private int depth;
+
+    public AvroExportWriter(OutputStream out, TypeDefinition rowType) {
+        this(out, AvroSchemas.schemaOf(rowType));
+    }
+
+    public AvroExportWriter(OutputStream out, Schema rowSchema) {
+        if (rowSchema.getType() != Schema.Type.RECORD) {
+            throw new IllegalArgumentException("Rows must be records: " + rowSchema);
+        }
+        this.rowSchema = rowSchema;
+        this.file = new DataFileWriter<>(new GenericDatumWriter<>(rowSchema));
+        try {
+            file.create(rowSchema, out);
+        } catch (IOException e) {
+            throw new RepositoryException("Avro file can not be created", e);
+        }
+    }
+
+    public Schema getRowSchema() {
+        return rowSchema;
+    }
+
+    @Override
+    public void startObject(@Nullable String name, TypeDefinition type) {
+        if (depth == 1) {
+            frames.push(new Frame(rowSchema, new GenericData.Record(rowSchema), name));
+        } else if (depth > 1) {
+            Schema schema = branch(childSchema(name), Schema.Type.RECORD, Schema.Type.MAP);
+            Object container = null;
+            if (schema != null) {
+                container = schema.getType() == Schema.Type.RECORD ? new GenericData.Record(schema) : new HashMap<String, Object>();
+            }
+            frames.push(new Frame(schema, container, name));
+        }
+        depth++;
+    }
+
+    @Override
+    public void startCollection(@Nullable String name, TypeDefinition type) {
+        if (depth == 1) {
+            throw new UnsupportedRepositoryOperationException("Rows must be objects, not collections: " + name);
+        } else if (depth > 1) {
+            Schema schema = branch(childSchema(name), Schema.Type.ARRAY);
+            frames.push(new Frame(schema, schema != null ? new ArrayList<>() : null, name));
+        }
+        depth++;
+    }
+
+    @Override
+    public void endContainer() {
+        depth--;
+        if (depth == 0) {
+            return;
+        }
+        Frame frame = frames.pop();
+        if (depth == 1) {
+            try {
+                file.append((GenericRecord) frame.container);
+            } catch (IOException | RuntimeException e) {
+                throw new RepositoryException("Row can not be written: " + frame.name, e);
+            }
+        } else if (!frame.isIgnored()) {
+            put(frame.name, frame.container);
+        }
+    }
+
+    @Override
+    public PrimitiveValueVisitor scalar(@Nullable String name, TypeDefinition type) {
+        if (depth < 2) {
+            throw new UnsupportedRepositoryOperationException("Rows must be objects, not scalars: " + name);
+        }
+        value.schema = childSchema(name);
+        value.name = name;
+        return value;
+    }
+
+    @Override
+    public void flush() {
+        try {
+            file.flush();
+        } catch (IOException e) {
+            throw new RepositoryException("Avro file can not be written", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            file.close();
+        } catch (IOException e) {
+            throw new RepositoryException("Avro file can not be written", e);
+        }
+    }
+
+    /**
+     * @return schema of the next child of the current container, or null if it is ignored
+     */
+    @Nullable
+    private Schema childSchema(@Nullable String name) {
+        Frame parent = frames.peek();
+        if (parent.isIgnored()) {
+            return null;
+        }
+        switch (parent.schema.getType()) {
+            case RECORD:
+                Schema.Field field = parent.schema.getField(name);
+                if (field == null) {
+                    field = parent.schema.getField(AvroSchemas.avroName(name));
+                }
+                return field != null ? field.schema() : null;
+            case ARRAY:
+                return parent.schema.getElementType();
+            default:
+                return parent.schema.getValueType();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void put(@Nullable String name, @Nullable Object value) {
+        Frame parent = frames.peek();
+        switch (parent.schema.getType()) {
+            case RECORD:
+                GenericData.Record record = (GenericData.Record) parent.container;
+                Schema.Field field = parent.schema.getField(name);
+                record.put(field != null ? field.pos() : parent.schema.getField(AvroSchemas.avroName(name)).pos(), value);
+                break;
+            case ARRAY:
+                ((List<Object>) parent.container).add(value);
+                break;
+            default:
+                ((Map<String, Object>) parent.container).put(name, value);
+        }
+    }
+
+    /**
+     * @return the schema or the first branch of the union having one of the types, or null
+     */
+    @Nullable
+    private static Schema branch(@Nullable Schema schema, Schema.Type... types) {
+        if (schema == null) {
+            return null;
+        }
+        for (Schema s : schema.getType() == Schema.Type.UNION ? schema.getTypes() : Collections.singletonList(schema)) {
+            for (Schema.Type t : types) {
+                if (s.getType() == t) {
+                    return s;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return value converted to the schema or to the first matching branch of the union, strings accepting any value
+     */
+    private static Object convert(Schema schema, @Nullable Object value) {
+        if (schema.getType() == Schema.Type.UNION) {
+            for (Schema s : schema.getTypes()) {
+                Object v = exact(s, value);
+                if (v != NO_MATCH) {
+                    return v;
+                }
+            }
+        } else {
+            Object v = exact(schema, value);
+            if (v != NO_MATCH) {
+                return v;
+            }
+        }
+        if (value != null && branch(schema, Schema.Type.STRING) != null) {
+            return value.toString();
+        }
+        throw new ValueFormatException("Value " + value + " does not match the schema " + schema);
+    }
+
+    private static Object exact(Schema schema, @Nullable Object value) {
+        switch (schema.getType()) {
+            case NULL:
+                return value == null ? null : NO_MATCH;
+            case BOOLEAN:
+                return value instanceof Boolean ? value : NO_MATCH;
+            case LONG:
+                return value instanceof Long ? value : NO_MATCH;
+            case INT:
+                return value instanceof Long && (Long) value == ((Long) value).intValue() ? ((Long) value).intValue() : NO_MATCH;
+            case DOUBLE:
+                return value instanceof Double || value instanceof Long || value instanceof BigDecimal
+                        ? ((Number) value).doubleValue() : NO_MATCH;
+            case FLOAT:
+                return value instanceof Double ? ((Double) value).floatValue() : NO_MATCH;
+            case STRING:
+                return value instanceof String ? value : NO_MATCH;
+            case ENUM:
+                return value instanceof String && schema.hasEnumSymbol((String) value)
+                        ? new GenericData.EnumSymbol(schema, value) : NO_MATCH;
+            case BYTES:
+                if (value instanceof ByteBuffer) {
+                    return ((ByteBuffer) value).duplicate();
+                }
+                return value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : NO_MATCH;
+            default:
+                return NO_MATCH;
+        }
+    }
+
+    /**
+     * Receives the value of a scalar and puts it in the current container
+     */
+    private final class Value implements PrimitiveValueVisitor {
+        Schema schema;
+        String name;
+
+        private void set(@Nullable Object v) {
+            if (schema != null) {
+                put(name, convert(schema, v));
+            }
+        }
+
+        @Override
+        public void onNull() {
+            set(null);
+        }
+
+        @Override
+        public void onBoolean(boolean value) {
+            set(value);
+        }
+
+        @Override
+        public void onLong(long value) {
+            set(value);
+        }
+
+        @Override
+        public void onDouble(double value) {
+            set(value);
+        }
+
+        @Override
+        public void onString(String value) {
+            set(value);
+        }
+
+        @Override
+        public void onDecimal(BigDecimal value) {
+            set(value);
+        }
+
+        @Override
+        public void onObject(Object value) {
+            set(value);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ljcr.dynamics;
 import com.ljcr.api.ImmutableItemVisitor;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodeCursor;
 import com.ljcr.api.definitions.PropertyDefinition;
 import com.ljcr.api.definitions.StandardTypes;
 import com.ljcr.api.definitions.TypeDefinition;
@@ -12,6 +13,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class AvroImmutableMapNodeObject<T extends CharSequence> implements ImmutableNodeObject {
     private final String name;
@@ -59,18 +61,51 @@ public abstract class AvroImmutableMapNodeObject<T extends CharSequence> impleme
         };
     }
 
+    @Nonnull
+    @Override
+    public Object getBackingObject() {
+        return map;
+    }
+
     @Nonnull
     @Override
     public String getName() {
         return name;
     }
 
+    /**
+     * Map keys are not declared by the type, the default lookup through the type definition would never find them
+     */
+    @Nullable
+    @Override
+    public ImmutableNode getItem(@Nonnull String fieldName) {
+        return getItem(StandardTypes.propertyOf(fieldName, StandardTypes.ANYTYPE));
+    }
+
     @Override
     public Stream<ImmutableNode> getElements() {
-        return map.entrySet().stream()
+        return getElements(false);
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        return StreamSupport.stream(map.entrySet().spliterator(), parallel)
                 .map(e -> AvroAdapter.referencableNodeOf(e.getValue(), e.getKey().toString()));
     }
 
+    /**
+     * @return raw entries of the map, values are not wrapped into nodes
+     */
+    Map<T, Object> getMap() {
+        return map;
+    }
+
+    @Nonnull
+    @Override
+    public NodeCursor cursor() {
+        return new AvroNodeCursor(name, map, null);
+    }
+
     @Nonnull
     @Override
     public TypeDefinition getTypeDefinition() {
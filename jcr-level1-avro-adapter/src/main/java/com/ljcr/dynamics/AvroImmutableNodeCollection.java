@@ -3,6 +3,8 @@ package com.ljcr.dynamics;
 import com.ljcr.api.ImmutableNodeCollection;
 import com.ljcr.api.ImmutableItemVisitor;
 import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.IndexedSpliterator;
+import com.ljcr.api.NodeCursor;
 import com.ljcr.api.definitions.StandardTypes;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.api.exceptions.PathNotFoundException;
@@ -11,7 +13,6 @@ import org.apache.avro.generic.GenericArray;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class AvroImmutableNodeCollection implements ImmutableNodeCollection {
@@ -23,6 +24,12 @@ public class AvroImmutableNodeCollection implements ImmutableNodeCollection {
         this.name = path;
     }
 
+    @Nonnull
+    @Override
+    public Object getBackingObject() {
+        return array;
+    }
+
     @Nonnull
     @Override
     public String getName() {
@@ -38,9 +45,20 @@ public class AvroImmutableNodeCollection implements ImmutableNodeCollection {
 
     @Override
     public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
         Schema elementType = array.getSchema().getElementType();
-        return IntStream.range(0, array.size())
-                .mapToObj(i -> AvroAdapter.nodeOf(elementType, array.get(i), String.valueOf(i)));
+        return IndexedSpliterator.stream(array.size(),
+                i -> AvroAdapter.nodeOf(elementType, array.get(i), String.valueOf(i)), parallel);
+    }
+
+    @Nonnull
+    @Override
+    public NodeCursor cursor() {
+        return new AvroNodeCursor(name, array, array.getSchema());
     }
 
     @Nonnull
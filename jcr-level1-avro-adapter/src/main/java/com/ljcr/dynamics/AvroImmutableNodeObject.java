@@ -3,6 +3,8 @@ package com.ljcr.dynamics;
 import com.ljcr.api.ImmutableItemVisitor;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.IndexedSpliterator;
+import com.ljcr.api.NodeCursor;
 import com.ljcr.api.definitions.PropertyDefinition;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.api.exceptions.PathNotFoundException;
@@ -11,6 +13,7 @@ import org.apache.avro.generic.GenericRecord;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.stream.Stream;
 
 class AvroImmutableNodeObject implements ImmutableNodeObject {
@@ -27,12 +30,13 @@ class AvroImmutableNodeObject implements ImmutableNodeObject {
     }
 
     public static AvroImmutableNodeObject referencableOf(GenericRecord record, String reference) {
-        return new AvroImmutableNodeObject(record, reference) {
-            @Override
-            public String getName() {
-                return getName();
-            }
-        };
+        return new AvroImmutableNodeObject(record, reference);
+    }
+
+    @Nonnull
+    @Override
+    public Object getBackingObject() {
+        return rootRecord;
     }
 
     @Nonnull
@@ -49,34 +53,75 @@ class AvroImmutableNodeObject implements ImmutableNodeObject {
     @Nullable
     public ImmutableNode getItem(@Nonnull PropertyDefinition field) {
         String fieldName = field.getIdentifier();
-        Schema.Field sField = rootRecord.getSchema().getField(fieldName);
-        if (field == null) {
+        Schema.Field sField = fieldOf(rootRecord.getSchema(), fieldName);
+        if (sField == null) {
             throw new PathNotFoundException("./" + fieldName);
         }
 
         return nodeOf(sField, rootRecord);
     }
 
+    /**
+     * @param identifier identifier of the property, properties of reference fields being named
+     *                   after the referenced type as in {@link AvroTypeDefinition}
+     * @return field of the record, or null
+     */
+    @Nullable
+    static Schema.Field fieldOf(Schema schema, String identifier) {
+        Schema.Field field = schema.getField(identifier);
+        if (field != null) {
+            return field;
+        }
+        for (Schema.Field f : schema.getFields()) {
+            if (Schema.Type.STRING.equals(f.schema().getType()) && ("ref:" + identifier).equals(f.doc())) {
+                return f;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(int ordinal) {
+        List<Schema.Field> fields = rootRecord.getSchema().getFields();
+        if (ordinal < 0 || ordinal >= fields.size()) {
+            throw new PathNotFoundException("./#" + ordinal);
+        }
+
+        return nodeOf(fields.get(ordinal), rootRecord);
+    }
+
     private ImmutableNode nodeOf(Schema.Field field, GenericRecord rootRecord) {
         if (Schema.Type.STRING.equals(field.schema().getType())
                 && field.doc() != null && field.doc().startsWith("ref:")) {
 
-            Object obj = rootRecord.get(field.name());
+            Object obj = rootRecord.get(field.pos());
             AvroTypeDefinition type = new AvroTypeDefinition(field.schema(), field.doc().substring("ref:".length()) + "Ref");
             return new AvroImmutableScalar(obj, field.name(), () -> type);
         }
-        return AvroAdapter.nodeOf(field.schema(), rootRecord.get(field.name()), field.name());
+        return AvroAdapter.nodeOf(field.schema(), rootRecord.get(field.pos()), field.name());
     }
 
     @Override
     public Stream<ImmutableNode> getElements() {
-        return rootRecord.getSchema().getFields().stream()
-                .map(f -> nodeOf(f, rootRecord));
+        return getElements(false);
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        List<Schema.Field> fields = rootRecord.getSchema().getFields();
+        return IndexedSpliterator.stream(fields.size(), i -> nodeOf(fields.get(i), rootRecord), parallel);
+    }
+
+    @Nonnull
+    @Override
+    public NodeCursor cursor() {
+        return new AvroNodeCursor(name, rootRecord, rootRecord.getSchema());
     }
 
     @Nonnull
     public TypeDefinition getTypeDefinition() {
-        return new AvroTypeDefinition(rootRecord.getSchema());
+        return AvroTypeDefinition.of(rootRecord.getSchema());
     }
 
     @Override
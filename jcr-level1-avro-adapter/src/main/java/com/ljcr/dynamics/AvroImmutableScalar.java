@@ -23,7 +23,7 @@ public class AvroImmutableScalar implements ImmutableNodeScalar {
     }
 
     public AvroImmutableScalar(Object obj, String path, Schema schema) {
-        this(obj, path, () -> new AvroTypeDefinition(schema));
+        this(obj, path, () -> AvroTypeDefinition.of(schema));
     }
 
     @Nonnull
@@ -0,0 +1,134 @@
+package com.ljcr.dynamics;
+
+import com.ljcr.api.AbstractNodeCursor;
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericArray;
+import org.apache.avro.generic.GenericRecord;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cursor walking avro records directly. Types and values are reported as by {@link AvroAdapter#nodeOf}
+ */
+class AvroNodeCursor extends AbstractNodeCursor<AvroNodeCursor.AvroFrame> {
+
+    static final class AvroFrame extends AbstractNodeCursor.Frame {
+        private Object value;
+        private Schema schema;
+        private Schema.Field field;
+        private int position;
+        private Iterator<? extends Map.Entry<?, ?>> entries;
+    }
+
+    private final String rootName;
+    private final Object root;
+    private final Schema rootSchema;
+
+    AvroNodeCursor(String rootName, Object root, Schema rootSchema) {
+        this.rootName = rootName;
+        this.root = root;
+        this.rootSchema = rootSchema;
+    }
+
+    @Override
+    protected AvroFrame newFrame() {
+        return new AvroFrame();
+    }
+
+    @Override
+    protected void setRoot(AvroFrame frame) {
+        describe(frame, rootName, root, rootSchema, null);
+    }
+
+    @Override
+    protected void open(AvroFrame frame) {
+        frame.position = 0;
+        if (frame.value instanceof Map<?, ?>) {
+            frame.entries = ((Map<?, ?>) frame.value).entrySet().iterator();
+        }
+    }
+
+    @Override
+    protected boolean nextChild(AvroFrame parent, AvroFrame child) {
+        Object value = parent.value;
+        if (value instanceof GenericRecord) {
+            GenericRecord record = (GenericRecord) value;
+            List<Schema.Field> fields = record.getSchema().getFields();
+            if (parent.position < fields.size()) {
+                Schema.Field f = fields.get(parent.position++);
+                describe(child, f.name(), record.get(f.pos()), f.schema(), f);
+                return true;
+            }
+        } else if (value instanceof GenericArray<?>) {
+            GenericArray<?> array = (GenericArray<?>) value;
+            if (parent.position < array.size()) {
+                describe(child, null, array.get(parent.position++), array.getSchema().getElementType(), null);
+                return true;
+            }
+        } else {
+            // map values are only visible if they are records, see AvroAdapter.referencableNodeOf
+            while (parent.entries.hasNext()) {
+                Map.Entry<?, ?> e = parent.entries.next();
+                if (e.getValue() instanceof GenericRecord) {
+                    GenericRecord record = (GenericRecord) e.getValue();
+                    describe(child, e.getKey().toString(), record, record.getSchema(), null);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void close(AvroFrame frame) {
+        frame.entries = null;
+    }
+
+    private static void describe(AvroFrame frame, String name, Object value, Schema schema, Schema.Field field) {
+        frame.value = value;
+        frame.schema = schema;
+        frame.field = field;
+        frame.reset(name,
+                value instanceof GenericRecord || value instanceof Map<?, ?>,
+                value instanceof GenericArray<?>);
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        AvroFrame frame = current();
+        Object value = frame.value;
+        if (value instanceof GenericRecord) {
+            return AvroTypeDefinition.of(((GenericRecord) value).getSchema());
+        } else if (value instanceof GenericArray<?>) {
+            return StandardTypes.BINARY;
+        } else if (value instanceof Map<?, ?>) {
+            return StandardTypes.ANYTYPE;
+        } else if (value instanceof Long || value instanceof Integer) {
+            return StandardTypes.LONG;
+        } else if (value instanceof Double || value instanceof Float) {
+            return StandardTypes.DOUBLE;
+        } else if (value instanceof Boolean) {
+            return StandardTypes.BOOLEAN;
+        } else if (isReference(frame.field)) {
+            return new AvroTypeDefinition(frame.schema, frame.field.doc().substring("ref:".length()) + "Ref");
+        }
+        return AvroTypeDefinition.of(frame.schema);
+    }
+
+    private static boolean isReference(Schema.Field field) {
+        return field != null && Schema.Type.STRING.equals(field.schema().getType())
+                && field.doc() != null && field.doc().startsWith("ref:");
+    }
+
+    @Override
+    public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        PrimitiveValueVisitor.visitValue(currentValue().value, visitor);
+    }
+}
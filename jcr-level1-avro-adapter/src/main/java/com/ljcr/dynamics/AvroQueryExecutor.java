@@ -0,0 +1,177 @@
+package com.ljcr.dynamics;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.query.Condition;
+import com.ljcr.api.query.ConditionVisitor;
+import com.ljcr.api.query.Conditions;
+import com.ljcr.api.query.InMemoryQueryExecutor;
+import com.ljcr.api.query.Ordering;
+import com.ljcr.api.query.Query;
+import com.ljcr.api.query.QueryExecutor;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+
+import javax.annotation.Nonnull;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Evaluates queries on the raw generic records of the containers of a type: conditions and orderings
+ * read only the fields they reference, by position, and only the matching records are wrapped into nodes.
+ * Queries on other types are evaluated in memory.
+ */
+class AvroQueryExecutor implements QueryExecutor {
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNodeObject> execute(@Nonnull Query query) {
+        if (!(query.getType() instanceof AvroContainerTypeDefinition)) {
+            return InMemoryQueryExecutor.getInstance().execute(query);
+        }
+        List<AvroImmutableMapNodeObject<?>> maps = ((AvroContainerTypeDefinition) query.getType()).getContainers().stream()
+                .filter(c -> c instanceof AvroImmutableMapNodeObject)
+                .map(c -> (AvroImmutableMapNodeObject<?>) c)
+                .collect(toList());
+
+        Stream<Map.Entry<?, Object>> entries = maps.stream()
+                .<Map.Entry<?, Object>>flatMap(m -> m.getMap().entrySet().stream())
+                .filter(e -> e.getValue() instanceof GenericRecord);
+
+        Condition condition = query.getCondition();
+        if (condition != Conditions.ALL) {
+            Predicate<GenericRecord> predicate = condition.accept(new PredicateCompiler(), null);
+            entries = entries.filter(e -> predicate.test((GenericRecord) e.getValue()));
+        }
+        if (!query.getOrderings().isEmpty()) {
+            Comparator<GenericRecord> comparator = comparatorOf(query.getOrderings());
+            entries = entries.sorted((a, b) -> comparator.compare((GenericRecord) a.getValue(), (GenericRecord) b.getValue()));
+        }
+        if (query.getOffset() > 0) {
+            entries = entries.skip(query.getOffset());
+        }
+        if (query.getLimit() >= 0) {
+            entries = entries.limit(query.getLimit());
+        }
+        return entries.map(e -> AvroImmutableNodeObject.referencableOf((GenericRecord) e.getValue(), e.getKey().toString()));
+    }
+
+    private static Comparator<GenericRecord> comparatorOf(List<Ordering> orderings) {
+        Comparator<GenericRecord> result = null;
+        for (Ordering o : orderings) {
+            FieldAccessor field = new FieldAccessor(o.getProperty());
+            Comparator<GenericRecord> c = (a, b) -> o.compareValues(field.get(a), field.get(b));
+            result = result == null ? c : result.thenComparing(c);
+        }
+        return result;
+    }
+
+    /**
+     * Reads a field of records by position. Records of a container share their schema,
+     * so the position is resolved once per schema, reference fields by their type as the nodes do
+     */
+    private static final class FieldAccessor {
+        private final String name;
+        private volatile Position last;
+
+        FieldAccessor(PropertyDefinition property) {
+            this.name = property.getIdentifier();
+        }
+
+        Object get(GenericRecord record) {
+            Schema schema = record.getSchema();
+            Position position = last;
+            if (position == null || position.schema != schema) {
+                Schema.Field field = AvroImmutableNodeObject.fieldOf(schema, name);
+                position = new Position(schema, field == null ? -1 : field.pos());
+                last = position;
+            }
+            return position.pos < 0 ? null : valueOf(record.get(position.pos));
+        }
+
+        // same values as the scalar nodes of the adapter, containers have no value
+        private static Object valueOf(Object obj) {
+            if (obj instanceof Utf8) {
+                return obj.toString();
+            } else if (obj instanceof Integer) {
+                return ((Integer) obj).longValue();
+            } else if (obj instanceof Float) {
+                return StandardValueNodes.widen((Float) obj);
+            } else if (obj instanceof GenericRecord || obj instanceof Iterable || obj instanceof Map) {
+                return null;
+            }
+            return obj;
+        }
+    }
+
+    private static final class Position {
+        private final Schema schema;
+        private final int pos;
+
+        Position(Schema schema, int pos) {
+            this.schema = schema;
+            this.pos = pos;
+        }
+    }
+
+    private static final class PredicateCompiler implements ConditionVisitor<Predicate<GenericRecord>> {
+
+        private Predicate<GenericRecord> leaf(Conditions.PropertyCondition condition) {
+            FieldAccessor field = new FieldAccessor(condition.getProperty());
+            return r -> condition.testValue(field.get(r));
+        }
+
+        @Override
+        public Predicate<GenericRecord> visit(Conditions.All condition, Object context) {
+            return r -> true;
+        }
+
+        @Override
+        public Predicate<GenericRecord> visit(Conditions.Equals condition, Object context) {
+            return leaf(condition);
+        }
+
+        @Override
+        public Predicate<GenericRecord> visit(Conditions.Range condition, Object context) {
+            return leaf(condition);
+        }
+
+        @Override
+        public Predicate<GenericRecord> visit(Conditions.In condition, Object context) {
+            return leaf(condition);
+        }
+
+        @Override
+        public Predicate<GenericRecord> visit(Conditions.Prefix condition, Object context) {
+            return leaf(condition);
+        }
+
+        @Override
+        public Predicate<GenericRecord> visit(Conditions.And condition, Object context) {
+            return condition.getOperands().stream()
+                    .map(c -> c.accept(this, context))
+                    .reduce(Predicate::and)
+                    .orElse(r -> true);
+        }
+
+        @Override
+        public Predicate<GenericRecord> visit(Conditions.Or condition, Object context) {
+            return condition.getOperands().stream()
+                    .map(c -> c.accept(this, context))
+                    .reduce(Predicate::or)
+                    .orElse(r -> false);
+        }
+
+        @Override
+        public Predicate<GenericRecord> visit(Conditions.Not condition, Object context) {
+            return condition.getOperand().accept(this, context).negate();
+        }
+    }
+}
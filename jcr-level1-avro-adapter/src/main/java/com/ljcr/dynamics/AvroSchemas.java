@@ -0,0 +1,175 @@
+package com.ljcr.dynamics;
+
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypeVisitor;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import org.apache.avro.JsonProperties;
+import org.apache.avro.Schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Avro schemas of type definitions.
+ * <p>
+ * Types of the avro adapter keep their schema. Other types are mapped as follows: object types become records
+ * with a nullable field per property, arrays and maps become avro arrays and maps, binaries become bytes,
+ * longs, doubles and booleans their avro counterparts, all other scalars (dates, decimals, references...) strings.
+ * Values of any type are unions of the primitive types.
+ */
+public final class AvroSchemas {
+    static final String NAMESPACE = "com.ljcr.export";
+
+    private static final Schema STRING = Schema.create(Schema.Type.STRING);
+    private static final Schema ANY = Schema.createUnion(Arrays.asList(
+            Schema.create(Schema.Type.NULL),
+            Schema.create(Schema.Type.BOOLEAN),
+            Schema.create(Schema.Type.LONG),
+            Schema.create(Schema.Type.DOUBLE),
+            STRING));
+
+    private AvroSchemas() {
+    }
+
+    public static Schema schemaOf(TypeDefinition type) {
+        return new SchemaOfType().of(type);
+    }
+
+    /**
+     * @return name valid for avro: letters, digits and underscores, not starting with a digit
+     */
+    static String avroName(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 1);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            sb.append(c < 128 && (Character.isLetterOrDigit(c) || c == '_') ? c : '_');
+        }
+        if (sb.length() == 0 || Character.isDigit(sb.charAt(0))) {
+            sb.insert(0, '_');
+        }
+        return sb.toString();
+    }
+
+    private static final class SchemaOfType implements StandardTypeVisitor<Schema> {
+        // records by type name, for recursive types
+        private final Map<String, Schema> records = new HashMap<>();
+
+        Schema of(TypeDefinition type) {
+            if (type instanceof AvroTypeDefinition) {
+                return ((AvroTypeDefinition) type).getSchema();
+            }
+            Schema schema = type.accept(this, null);
+            return schema != null ? schema : ANY;
+        }
+
+        private Schema nullable(TypeDefinition type) {
+            Schema schema = of(type);
+            if (schema.getType() == Schema.Type.UNION) {
+                return schema;
+            }
+            return Schema.createUnion(Arrays.asList(Schema.create(Schema.Type.NULL), schema));
+        }
+
+        @Override
+        public Schema visit(StandardTypes.StringType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.BinaryType type, Object context) {
+            return Schema.create(Schema.Type.BYTES);
+        }
+
+        @Override
+        public Schema visit(StandardTypes.LongType type, Object context) {
+            return Schema.create(Schema.Type.LONG);
+        }
+
+        @Override
+        public Schema visit(StandardTypes.DoubleType type, Object context) {
+            return Schema.create(Schema.Type.DOUBLE);
+        }
+
+        @Override
+        public Schema visit(StandardTypes.DateTimeType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.BooleanType type, Object context) {
+            return Schema.create(Schema.Type.BOOLEAN);
+        }
+
+        @Override
+        public Schema visit(StandardTypes.IdentifierType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.PathType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.ReferenceType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.WeakReferenceType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.UriType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.DateType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.DecimalType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.TypeDefinitionType type, Object context) {
+            return STRING;
+        }
+
+        @Override
+        public Schema visit(StandardTypes.ArrayType type, Object context) {
+            return Schema.createArray(nullable(type.getValueType()));
+        }
+
+        @Override
+        public Schema visit(StandardTypes.MapType type, Object context) {
+            return Schema.createMap(nullable(type.getValueType()));
+        }
+
+        @Override
+        public Schema visit(TypeDefinition type, Object context) {
+            String name = avroName(type.getIdentifier());
+            Schema record = records.get(name);
+            if (record != null) {
+                return record;
+            }
+            record = Schema.createRecord(name, null, NAMESPACE, false);
+            records.put(name, record);
+
+            List<Schema.Field> fields = new ArrayList<>();
+            for (PropertyDefinition p : type.getPropertyDefinitions()) {
+                fields.add(new Schema.Field(avroName(p.getIdentifier()), nullable(p.getType()), null, JsonProperties.NULL_VALUE));
+            }
+            record.setFields(fields);
+            return record;
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.ljcr.dynamics;
 
+import com.ljcr.api.definitions.IdentityInterner;
 import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.PropertyIndex;
 import com.ljcr.api.definitions.StandardTypes;
 import com.ljcr.api.definitions.TypeDefinition;
 import org.apache.avro.Schema;
 
+import java.util.ArrayList;
 import java.util.Collection;
-
-import static java.util.stream.Collectors.toList;
+import java.util.List;
 
 public class AvroTypeDefinition implements TypeDefinition {
+    // keyed by identity, as Schema.equals ignores the docs holding the reference targets
+    private static final IdentityInterner<AvroTypeDefinition> TYPES = new IdentityInterner<>();
+
     private final Schema schema;
     private final String name;
 
+    // lazy, as field types are built from nested (possibly recursive) schemas
+    private volatile PropertyIndex fields;
+
     public AvroTypeDefinition(Schema schema) {
         this(schema, schema.getName());
     }
@@ -22,22 +30,62 @@ public class AvroTypeDefinition implements TypeDefinition {
         this.name = name;
     }
 
+    /**
+     * @return type definition shared by the users of the schema instance, so its field index is built only once
+     */
+    public static AvroTypeDefinition of(Schema schema) {
+        return TYPES.intern(schema, () -> new AvroTypeDefinition(schema));
+    }
+
     @Override
     public String getIdentifier() {
         return name;
     }
 
+    public Schema getSchema() {
+        return schema;
+    }
+
     @Override
     public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
-        return schema.getFields().stream()
-                .map(f -> propertyOf(f))
-                .collect(toList());
+        return getFields().values();
+    }
+
+    @Override
+    public PropertyDefinition getFieldDefByName(String name) {
+        return getFields().byName(name);
+    }
+
+    @Override
+    public PropertyDefinition getFieldDefByOrdinal(int ordinal) {
+        return getFields().byOrdinal(ordinal);
+    }
+
+    private PropertyIndex getFields() {
+        PropertyIndex result = fields;
+        if (result == null) {
+            result = indexOf(schema);
+            fields = result;
+        }
+        return result;
+    }
+
+    private static PropertyIndex indexOf(Schema schema) {
+        if (schema.getType() != Schema.Type.RECORD) {
+            return PropertyIndex.empty();
+        }
+
+        List<PropertyDefinition> defs = new ArrayList<>(schema.getFields().size());
+        for (Schema.Field f : schema.getFields()) {
+            defs.add(propertyOf(f));
+        }
+        return PropertyIndex.of(defs);
     }
 
-    private PropertyDefinition propertyOf(Schema.Field f) {
+    private static PropertyDefinition propertyOf(Schema.Field f) {
         if (f.doc() != null && f.doc().startsWith("ref:")) {
-            return StandardTypes.propertyOf(f.doc().substring("ref:".length()), new AvroTypeDefinition(f.schema()));
+            return StandardTypes.propertyOf(f.doc().substring("ref:".length()), of(f.schema()), f.pos());
         }
-        return StandardTypes.propertyOf(f.name(), new AvroTypeDefinition(f.schema()));
+        return StandardTypes.propertyOf(f.name(), of(f.schema()), f.pos());
     }
 }
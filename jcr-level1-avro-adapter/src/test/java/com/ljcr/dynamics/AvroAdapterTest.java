@@ -2,16 +2,37 @@ package com.ljcr.dynamics;
 
 import com.example.avro.EmailAddress;
 import com.example.avro.Identity;
+import com.ljcr.api.ImmutableBinary;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.ContainerTypeDefinition;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.query.Conditions;
+import com.ljcr.api.query.Ordering;
+import com.ljcr.api.query.Query;
 import com.ljcr.tests.UserRepositorySupport;
+import com.ljcr.utils.DoubleArrayNode;
+import com.ljcr.utils.IndexedRepository;
+import com.ljcr.utils.LongArrayNode;
+import com.ljcr.utils.ReferenceIndex;
+import com.ljcr.utils.StringArrayNode;
+import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.specific.SpecificDatumWriter;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -22,6 +43,7 @@ import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
 
 /**
  * User
@@ -70,6 +92,178 @@ public class AvroAdapterTest extends UserRepositorySupport {
                 .collect(toList()), hasItems("facebook", "google", "microsoft", "twitter"));
     }
 
+    @Test
+    public void testQuery() {
+        Repository ws = createWs();
+        ContainerTypeDefinition identity = ws.findContainerType("Identity");
+        assertThat(identity, notNullValue());
+        PropertyDefinition secretId = identity.getFieldDefByName("secretId");
+
+        Query query = Query.from(identity)
+                .where(Conditions.prefix(secretId, "some@").and(Conditions.not(Conditions.eq(secretId, "some@one.com"))))
+                .orderBy(Ordering.desc(secretId))
+                .limit(2);
+        assertThat(ws.query(query)
+                .map(i -> i.getItem(secretId).getValue())
+                .collect(toList()), equalTo(Arrays.asList("some@two.com", "some@microsoft.com")));
+        assertThat(ws.query(query.offset(2)).count(), equalTo(1L));
+    }
+
+    @Test
+    public void testReferenceIndex() {
+        for (Repository ws : Arrays.asList(new IndexedRepository(createWs()), new IndexedRepository(createWs(), ReferenceIndex::offHeap))) {
+            ContainerTypeDefinition identity = ws.findContainerType("Identity");
+            assertThat(identity, notNullValue());
+            assertThat(identity.findByReference("google").getItem("secretId").getValue(), equalTo("some@gmail.com"));
+            assertThat(ws.getNodeByReference("Identity", "twitter").getItem("secretId").getValue(), equalTo("some@two.com"));
+            assertThat(ws.getNodeByReference("Identity", "myspace"), nullValue());
+        }
+    }
+
+    @Test
+    public void typesAreSharedPerSchemaInstance() {
+        String record = "{\"type\":\"record\",\"name\":\"Account\",\"fields\":["
+                + "{\"name\":\"owner\",\"type\":\"string\"%s}]}";
+        Schema plain = new Schema.Parser().parse(String.format(record, ""));
+        Schema referencing = new Schema.Parser().parse(String.format(record, ",\"doc\":\"ref:User\""));
+        assertThat(plain.equals(referencing), equalTo(true));
+
+        assertThat(AvroTypeDefinition.of(plain) == AvroTypeDefinition.of(plain), equalTo(true));
+        assertThat(AvroTypeDefinition.of(plain).getFieldDefByOrdinal(0).getIdentifier(), equalTo("owner"));
+        assertThat(AvroTypeDefinition.of(referencing).getFieldDefByOrdinal(0).getIdentifier(), equalTo("User"));
+    }
+
+    @Test
+    public void floatsKeepTheirDecimalValue() throws IOException {
+        Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Rating\",\"fields\":["
+                + "{\"name\":\"score\",\"type\":\"float\"}]}");
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("score", 1.1f);
+
+        ImmutableNode score = AvroAdapter.createWs(write(record)).getRootNode().getItem("score");
+        assertThat(score.asDouble(), equalTo(1.1));
+        assertThat(score.getValue(), equalTo(1.1));
+    }
+
+    @Test
+    public void queriesReadFloatsAndReferenceFields() throws IOException {
+        Schema rating = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Rating\",\"fields\":["
+                + "{\"name\":\"score\",\"type\":\"float\"},"
+                + "{\"name\":\"author\",\"type\":\"string\",\"doc\":\"ref:User\"}]}");
+        Schema schema = Schema.createRecord("Ratings", null, null, false, Collections.singletonList(
+                new Schema.Field("ratings", Schema.createMap(rating), null, (Object) null)));
+        Map<String, GenericRecord> ratings = new HashMap<>();
+        ratings.put("r1", rating(rating, 1.1f, "ann"));
+        ratings.put("r2", rating(rating, 1.1f, "bob"));
+        ratings.put("r3", rating(rating, 0.5f, "ann"));
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("ratings", ratings);
+
+        Repository ws = AvroAdapter.createWs(write(record));
+        ContainerTypeDefinition type = ws.findContainerType("Rating");
+        PropertyDefinition score = type.getFieldDefByOrdinal(0);
+        PropertyDefinition author = type.getFieldDefByOrdinal(1);
+        assertThat(author.getIdentifier(), equalTo("User"));
+
+        Query query = Query.from(type).where(Conditions.eq(score, 1.1).and(Conditions.eq(author, "ann")));
+        assertThat(ws.query(query).map(ImmutableNode::getName).collect(toList()), equalTo(Arrays.asList("r1")));
+        assertThat(ws.query(Query.from(type).orderBy(Ordering.asc(author), Ordering.asc(score)))
+                .map(ImmutableNode::getName)
+                .collect(toList()), equalTo(Arrays.asList("r3", "r1", "r2")));
+    }
+
+    private static GenericRecord rating(Schema schema, float score, String author) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("score", score);
+        record.put("author", author);
+        return record;
+    }
+
+    @Test
+    public void scalarArraysAreBackedByPrimitiveArrays() throws IOException {
+        Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Series\",\"fields\":["
+                + "{\"name\":\"counts\",\"type\":{\"type\":\"array\",\"items\":\"int\"}},"
+                + "{\"name\":\"ratios\",\"type\":{\"type\":\"array\",\"items\":\"float\"}},"
+                + "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}}]}");
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("counts", Arrays.asList(3, 5));
+        record.put("ratios", Arrays.asList(1.1f, 0.5f));
+        record.put("tags", Arrays.asList("a", "b"));
+        ImmutableNode root = AvroAdapter.createWs(write(record)).getRootNode();
+
+        LongArrayNode counts = (LongArrayNode) root.getItem("counts");
+        assertThat(counts.getTypeDefinition(), equalTo(StandardTypes.arrayOf(StandardTypes.LONG)));
+        assertThat(counts.getItem("2").asLong(), equalTo(5L));
+        assertThat(counts.getElements().map(ImmutableNode::getName).collect(toList()), equalTo(Arrays.asList("1", "2")));
+
+        DoubleArrayNode ratios = (DoubleArrayNode) root.getItem("ratios");
+        assertThat(ratios.getDouble(0), equalTo(1.1));
+        assertThat(ratios.getTypeDefinition(), equalTo(StandardTypes.arrayOf(StandardTypes.DOUBLE)));
+
+        StringArrayNode tags = (StringArrayNode) root.getItem("tags");
+        assertThat(tags.strings().collect(toList()), equalTo(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void bytesAndFixedAreBinaries() throws IOException {
+        Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Attachment\",\"fields\":["
+                + "{\"name\":\"payload\",\"type\":\"bytes\"},"
+                + "{\"name\":\"digest\",\"type\":{\"type\":\"fixed\",\"name\":\"Digest\",\"size\":4}}]}");
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("payload", ByteBuffer.wrap("hello binary".getBytes(StandardCharsets.UTF_8)));
+        record.put("digest", new GenericData.Fixed(schema.getField("digest").schema(), new byte[]{1, 2, 3, 4}));
+        ImmutableNode root = AvroAdapter.createWs(write(record)).getRootNode();
+
+        ImmutableBinary payload = (ImmutableBinary) root.getItem("payload");
+        assertThat(payload.getTypeDefinition(), equalTo(StandardTypes.BINARY));
+        assertThat(payload.length(), equalTo(12L));
+        assertThat(payload.asString(), equalTo("hello binary"));
+        assertThat(StandardCharsets.UTF_8.decode(payload.slice(6, 100)).toString(), equalTo("binary"));
+        ByteBuffer range = ByteBuffer.allocate(4);
+        assertThat(payload.read(6, range), equalTo(4));
+        assertThat(new String(range.array(), StandardCharsets.UTF_8), equalTo("bina"));
+        assertThat(payload.read(12, range), equalTo(-1));
+
+        ImmutableBinary digest = (ImmutableBinary) root.getItem("digest");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(digest.transferTo(Channels.newChannel(out)), equalTo(4L));
+        assertThat(out.toByteArray(), equalTo(new byte[]{1, 2, 3, 4}));
+        try {
+            digest.read(-1, ByteBuffer.allocate(4));
+            throw new AssertionError("negative offsets should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            // a full non-blocking channel fails rather than spinning
+            digest.transferTo(new WritableByteChannel() {
+                public int write(ByteBuffer src) {
+                    return 0;
+                }
+
+                public boolean isOpen() {
+                    return true;
+                }
+
+                public void close() {
+                }
+            });
+            throw new AssertionError("transfers to a full channel should fail");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static File write(GenericRecord record) throws IOException {
+        File file = File.createTempFile("record", ".avro");
+        file.deleteOnExit();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(record.getSchema()))) {
+            writer.create(record.getSchema(), file);
+            writer.append(record);
+        }
+        return file;
+    }
+
     private void serializeToFile(com.example.avro.User user1, String fileName) throws IOException {
         DatumWriter<com.example.avro.User> userDatumWriter = new SpecificDatumWriter<com.example.avro.User>(com.example.avro.User.class);
         DataFileWriter<com.example.avro.User> dataFileWriter = new DataFileWriter<com.example.avro.User>(userDatumWriter);
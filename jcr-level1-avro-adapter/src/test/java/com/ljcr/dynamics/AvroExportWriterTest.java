@@ -0,0 +1,158 @@
+package com.ljcr.dynamics;
+
+import com.example.avro.EmailAddress;
+import com.example.avro.Identity;
+import com.example.avro.User;
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.utils.export.Exporter;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableByteArrayInput;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AvroExportWriterTest {
+    private static final File FILE = new File("/tmp/test-export.avro");
+
+    @Test
+    public void nestedRecordsAreWrittenBack() throws IOException {
+        Repository ws = createWs();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AvroExportWriter writer = new AvroExportWriter(out, User.getClassSchema())) {
+            new Exporter().export(collectionOf(ws.getRootNode()), writer);
+        }
+
+        List<GenericRecord> original = read(Files.readAllBytes(FILE.toPath()));
+        assertThat(read(out.toByteArray()), equalTo(original));
+    }
+
+    @Test
+    public void rowsOfEachElement() throws IOException {
+        Repository ws = createWs();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AvroExportWriter writer = new AvroExportWriter(out, EmailAddress.getClassSchema())) {
+            new Exporter().export(ws.getRootNode().getItem("emailAddresses"), writer);
+        }
+
+        List<GenericRecord> rows = read(out.toByteArray());
+        assertThat(rows.size(), equalTo(2));
+        assertThat(rows.get(0).get("address").toString(), equalTo("some@one.com"));
+        assertThat(rows.get(1).get("verified"), equalTo(true));
+        assertThat(rows.get(1).get("dateBounced"), nullValue());
+    }
+
+    @Test
+    public void schemaIsDerivedFromTypes() throws IOException {
+        TypeDefinition copy = new TypeDefinition() {
+            @Override
+            public String getIdentifier() {
+                return "Identity copy";
+            }
+
+            @Override
+            public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
+                return Arrays.asList(
+                        StandardTypes.propertyOf("secretId", StandardTypes.STRING, 0),
+                        StandardTypes.propertyOf("scores", StandardTypes.arrayOf(StandardTypes.LONG), 1));
+            }
+        };
+        Schema schema = AvroSchemas.schemaOf(copy);
+        assertThat(schema.getName(), equalTo("Identity_copy"));
+        assertThat(schema.getField("scores").schema().getTypes().get(1).getType(), equalTo(Schema.Type.ARRAY));
+
+        Repository ws = createWs();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AvroExportWriter writer = new AvroExportWriter(out, copy)) {
+            new Exporter().export(ws.getRootNode().getItem("identities"), writer);
+        }
+
+        List<GenericRecord> rows = read(out.toByteArray());
+        assertThat(rows.stream().map(r -> r.get("secretId").toString()).collect(toList()),
+                hasItems("some@one.com", "some@gmail.com", "some@microsoft.com", "some@two.com"));
+        assertThat(rows.get(0).get("scores"), nullValue());
+    }
+
+    private static List<GenericRecord> read(byte[] bytes) throws IOException {
+        List<GenericRecord> records = new ArrayList<>();
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(new SeekableByteArrayInput(bytes), new GenericDatumReader<>())) {
+            reader.forEach(records::add);
+        }
+        return records;
+    }
+
+    private static ImmutableNodeCollection collectionOf(ImmutableNode... elements) {
+        return new ImmutableNodeCollection() {
+            @Nonnull
+            @Override
+            public TypeDefinition getTypeDefinition() {
+                return StandardTypes.ARRAY;
+            }
+
+            @Override
+            public Stream<ImmutableNode> getElements() {
+                return Arrays.stream(elements);
+            }
+        };
+    }
+
+    private static Repository createWs() throws IOException {
+        Map<String, Identity> ids = new HashMap<>();
+        ids.put("facebook", Identity.newBuilder().setSecretId("some@one.com").build());
+        ids.put("google", Identity.newBuilder().setSecretId("some@gmail.com").build());
+        ids.put("microsoft", Identity.newBuilder().setSecretId("some@microsoft.com").build());
+        ids.put("twitter", Identity.newBuilder().setSecretId("some@two.com").build());
+
+        User user = User.newBuilder()
+                .setId(10)
+                .setUsername("myuser")
+                .setPasswordHash("DEADBEAF")
+                .setSignupDate(123L)
+                .setEmailAddresses(Arrays.asList(
+                        EmailAddress.newBuilder().setAddress("some@one.com")
+                                .setDateAdded(123456L)
+                                .setDateBounced(123456L)
+                                .build(),
+                        EmailAddress.newBuilder().setAddress("some@two.com")
+                                .setDateAdded(1234567890L)
+                                .setDateBounced(null)
+                                .setVerified(true)
+                                .build()))
+                .setTwitterAccounts(Collections.emptyList())
+                .setToDoItems(Collections.emptyList())
+                .setIdentities(ids)
+                .build();
+        try (DataFileWriter<User> writer = new DataFileWriter<>(new SpecificDatumWriter<>(User.class))) {
+            writer.create(user.getSchema(), FILE);
+            writer.append(user);
+        }
+        return AvroAdapter.createWs(FILE);
+    }
+}
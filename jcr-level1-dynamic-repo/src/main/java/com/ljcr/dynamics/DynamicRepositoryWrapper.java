@@ -1,14 +1,18 @@
 package com.ljcr.dynamics;
 
+import com.ljcr.api.CompiledPath;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodePath;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.api.exceptions.ItemNotFoundException;
 import com.ljcr.api.exceptions.PathNotFoundException;
+import com.ljcr.api.query.Query;
 import com.ljcr.utils.RepositoryWrapper;
 
 import javax.annotation.Nullable;
 import java.nio.file.Path;
+import java.util.stream.Stream;
 
 class DynamicRepositoryWrapper extends RepositoryWrapper {
     private final WrappingVisitor visitor;
@@ -29,6 +33,18 @@ class DynamicRepositoryWrapper extends RepositoryWrapper {
         return visitor.wrap(super.getItem(absPath));
     }
 
+    @Nullable
+    @Override
+    public ImmutableNode getItem(NodePath absPath) throws PathNotFoundException {
+        return visitor.wrap(super.getItem(absPath));
+    }
+
+    @Nullable
+    @Override
+    public ImmutableNode getItem(CompiledPath absPath) throws PathNotFoundException {
+        return visitor.wrap(super.getItem(absPath));
+    }
+
     @Nullable
     @Override
     public ImmutableNodeObject getNodeByReference(String typeName, Object id) {
@@ -40,4 +56,9 @@ class DynamicRepositoryWrapper extends RepositoryWrapper {
     public ImmutableNodeObject getNodeByReference(TypeDefinition type, String id) throws ItemNotFoundException {
         return visitor.wrapAs(ImmutableNodeObject.class, super.getNodeByReference(type, id));
     }
+
+    @Override
+    public Stream<ImmutableNodeObject> query(Query query) {
+        return super.query(query).map(n -> visitor.wrapAs(ImmutableNodeObject.class, n));
+    }
 }
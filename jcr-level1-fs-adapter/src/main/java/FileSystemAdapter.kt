@@ -5,13 +5,30 @@ import com.ljcr.api.definitions.PropertyDefinition
 import com.ljcr.api.definitions.StandardTypes
 import com.ljcr.api.definitions.TypeDefinition
 import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException
+import com.ljcr.api.observation.Event
+import com.ljcr.api.observation.EventDispatcher
+import com.ljcr.api.observation.EventSource
+import java.io.Closeable
+import java.io.IOException
 import java.io.InputStream
 import java.math.BigDecimal
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.channels.WritableByteChannel
+import java.nio.file.ClosedWatchServiceException
+import java.nio.file.DirectoryStream
 import java.nio.file.Files
 import java.nio.file.Path
 import java.nio.file.Paths
+import java.nio.file.StandardOpenOption
+import java.nio.file.StandardWatchEventKinds
+import java.nio.file.WatchEvent
+import java.nio.file.WatchKey
+import java.nio.file.WatchService
 import java.time.LocalDate
 import java.time.LocalDateTime
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function.Consumer
 import java.util.stream.Stream
 
 
@@ -40,17 +57,21 @@ class FilesystemAdapter {
                 return of(root, Paths.get("/").resolve(p))
             }
 
-            return if (root.resolve(p).toFile().isDirectory) FsFolder(root, p)
+            return if (root.resolve(Paths.get("/").relativize(p)).toFile().isDirectory) FsFolder(root, p)
             else FsFile(root, p)
         }
 
         fun createWs(root: Path): Repository {
             val jsonItem = of(root, Paths.get("/"));
 
+            val dispatcher by lazy { EventDispatcher(FileSystemWatcher(root)) }
+
             return object : Repository {
                 override fun getName() = "json"
 
                 override fun getRootNode() = jsonItem
+
+                override fun getObservationManager() = dispatcher
             }
         }
 
@@ -61,6 +82,77 @@ class FilesystemAdapter {
 
 }
 
+/**
+ * Source of the changes of a directory tree, each directory is registered with the watch service of its file system.
+ * Directories created later are registered when their creation is seen
+ */
+class FileSystemWatcher(val root: Path) : EventSource {
+
+    override fun start(sink: Consumer<Event>): Closeable {
+        val watcher = root.fileSystem.newWatchService()
+        val directories = ConcurrentHashMap<WatchKey, Path>()
+        register(watcher, root, directories)
+
+        val thread = Thread({
+            try {
+                while (true) {
+                    val key = watcher.take()
+                    val dir = directories[key]
+                    if (dir != null) {
+                        key.pollEvents().forEach { event -> post(event.kind(), dir, event.context() as Path?, watcher, directories, sink) }
+                    }
+                    if (!key.reset()) {
+                        directories.remove(key)
+                    }
+                }
+            } catch (e: InterruptedException) {
+                // stopped
+            } catch (e: ClosedWatchServiceException) {
+                // stopped
+            }
+        }, "ljcr-watch")
+        thread.isDaemon = true
+        thread.start()
+        return Closeable { watcher.close() }
+    }
+
+    private fun post(kind: WatchEvent.Kind<*>, dir: Path, name: Path?, watcher: WatchService,
+                     directories: MutableMap<WatchKey, Path>, sink: Consumer<Event>) {
+        if (kind == StandardWatchEventKinds.OVERFLOW || name == null) {
+            sink.accept(Event.lost(pathOf(dir)))
+            return
+        }
+        val child = dir.resolve(name)
+        val path = pathOf(child)
+        when (kind) {
+            StandardWatchEventKinds.ENTRY_CREATE -> {
+                val directory = Files.isDirectory(child)
+                if (directory) {
+                    register(watcher, child, directories)
+                }
+                sink.accept(Event.added(path, typeOf(directory)))
+            }
+            StandardWatchEventKinds.ENTRY_MODIFY -> sink.accept(Event.changed(path, typeOf(Files.isDirectory(child))))
+            StandardWatchEventKinds.ENTRY_DELETE -> sink.accept(Event.removed(path, null))
+        }
+    }
+
+    private fun register(watcher: WatchService, dir: Path, directories: MutableMap<WatchKey, Path>) {
+        Files.walk(dir).use { paths ->
+            paths.filter { Files.isDirectory(it) }.forEach {
+                val key = it.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE)
+                directories[key] = it
+            }
+        }
+    }
+
+    private fun pathOf(p: Path) = NodePath.of(root.relativize(p))
+
+    private fun typeOf(directory: Boolean) =
+            if (directory) FilesystemAdapter.arrayType.identifier else FilesystemAdapter.objectType.identifier
+}
+
 class FsFolder(val root: Path, val p: Path) : ImmutableNodeObject {
     override fun getValue(): Any? = null
 
@@ -74,13 +166,13 @@ class FsFolder(val root: Path, val p: Path) : ImmutableNodeObject {
 
     override fun getItem(field: PropertyDefinition) = getItem(field.identifier)
 
-    override fun getElements(): Stream<ImmutableNode> {
-        val realPath = if (p.nameCount == 0) root
-        else root.resolve(p.relativize(Paths.get("/")))
-        val list = Files.newDirectoryStream(realPath)
-                .map { FilesystemAdapter.of(root, root.relativize(it)) }
-        return list // to be fixed. use real stream
-                .stream()
+    override fun getElements(): Stream<ImmutableNode> = getElements(false)
+
+    override fun getElements(parallel: Boolean): Stream<ImmutableNode> {
+        val realPath = root.resolve(Paths.get("/").relativize(p))
+        // the listing is read at once, nodes are created lazily while splitting by index
+        val entries = Files.newDirectoryStream(realPath).use { it.toList() }
+        return IndexedSpliterator.stream(entries.size, { FilesystemAdapter.of(root, root.relativize(entries[it])) }, parallel)
     }
 
     override fun <T : Any?> accept(visitor: ImmutableItemVisitor<T>): T? {
@@ -88,6 +180,8 @@ class FsFolder(val root: Path, val p: Path) : ImmutableNodeObject {
     }
 
     override fun getTypeDefinition(): TypeDefinition = FilesystemAdapter.arrayType
+
+    override fun cursor(): NodeCursor = FsNodeCursor(getName(), root.resolve(Paths.get("/").relativize(p)))
 }
 
 class FsFile(val root: Path, val p: Path) : ImmutableNodeObject {
@@ -99,7 +193,7 @@ class FsFile(val root: Path, val p: Path) : ImmutableNodeObject {
 
     override fun getItem(fieldName: String): ImmutableNode? {
         val realPath = root.resolve(Paths.get("/").relativize(p))
-        return if ("fileContent" == fieldName) GenericProperty("fileContent", p, FileContentNode(realPath))
+        return if ("fileContent" == fieldName) FileContentNode(realPath)
         else GenericProperty(fieldName, p, Files.getAttribute(realPath, fieldName))
     }
 
@@ -117,6 +211,77 @@ class FsFile(val root: Path, val p: Path) : ImmutableNodeObject {
 
     override fun getTypeDefinition(): TypeDefinition = FilesystemAdapter.objectType
 
+    override fun cursor(): NodeCursor = FsNodeCursor(getName(), root.resolve(Paths.get("/").relativize(p)))
+}
+
+/**
+ * Cursor walking the directory tree directly. A file is an object with a single binary fileContent value
+ */
+class FsNodeCursor(val rootName: String, val rootPath: Path) : AbstractNodeCursor<FsNodeCursor.FsFrame>() {
+
+    class FsFrame : AbstractNodeCursor.Frame() {
+        var path: Path? = null
+        var directory = false
+        var content = false
+        var stream: DirectoryStream<Path>? = null
+        var entries: Iterator<Path>? = null
+    }
+
+    override fun newFrame() = FsFrame()
+
+    override fun setRoot(frame: FsFrame) = describe(frame, rootName, rootPath)
+
+    override fun open(frame: FsFrame) {
+        if (frame.directory) {
+            val stream = Files.newDirectoryStream(frame.path)
+            frame.stream = stream
+            frame.entries = stream.iterator()
+        }
+    }
+
+    override fun nextChild(parent: FsFrame, child: FsFrame): Boolean {
+        if (parent.directory) {
+            val entries = parent.entries!!
+            if (entries.hasNext()) {
+                val path = entries.next()
+                describe(child, path.fileName.toString(), path)
+                return true
+            }
+            return false
+        } else if (parent.content) {
+            return false
+        }
+
+        parent.content = true
+        child.path = parent.path
+        child.directory = false
+        child.reset("fileContent", false, false)
+        return true
+    }
+
+    override fun close(frame: FsFrame) {
+        frame.stream?.close()
+        frame.stream = null
+        frame.entries = null
+    }
+
+    private fun describe(frame: FsFrame, name: String, path: Path) {
+        frame.path = path
+        frame.directory = Files.isDirectory(path)
+        frame.content = false
+        frame.reset(name, true, false)
+    }
+
+    override fun getTypeDefinition(): TypeDefinition {
+        val frame = current()
+        return if (!frame.isContainer) StandardTypes.BINARY
+        else if (frame.directory) FilesystemAdapter.arrayType
+        else FilesystemAdapter.objectType
+    }
+
+    override fun acceptValue(visitor: PrimitiveValueVisitor) {
+        visitor.onObject(currentValue().path!!)
+    }
 }
 
 data class GenericProperty(val fieldName: String, val p: Path, val objValue: Any) : ImmutableNode {
@@ -147,7 +312,12 @@ data class GenericProperty(val fieldName: String, val p: Path, val objValue: Any
     }
 }
 
-data class FileContentNode(val p: Path) : ImmutableNodeScalar {
+/**
+ * Content of a file, read with positional reads, zero-copy transfers and mapped slices of the file
+ */
+data class FileContentNode(val p: Path, val fieldName: String = "fileContent") : ImmutableBinary {
+    override fun getName(): String = fieldName
+
     override fun getTypeDefinition(): TypeDefinition = StandardTypes.BINARY;
 
     override fun asLong(): Long = throw UnsupportedRepositoryOperationException()
@@ -168,13 +338,69 @@ data class FileContentNode(val p: Path) : ImmutableNodeScalar {
 
     override fun getValue(): Any = p
 
-    fun newInputStream(): InputStream {
-        return Files.newInputStream(p)
+    override fun length(): Long = Files.size(p)
+
+    override fun openStream(): InputStream = Files.newInputStream(p)
+
+    fun newInputStream(): InputStream = openStream()
+
+    override fun read(offset: Long, dst: ByteBuffer): Int {
+        return FileChannel.open(p, StandardOpenOption.READ).use { channel ->
+            var total = 0
+            while (dst.hasRemaining()) {
+                val n = channel.read(dst, offset + total)
+                if (n < 0) break
+                total += n
+            }
+            if (total == 0 && offset >= channel.size()) -1 else total
+        }
+    }
+
+    /**
+     * Zero-copy transfer, falling back to a buffered copy of the rest when the channel transfers nothing
+     */
+    override fun transferTo(target: WritableByteChannel): Long {
+        return FileChannel.open(p, StandardOpenOption.READ).use { channel ->
+            val size = channel.size()
+            var position = 0L
+            while (position < size) {
+                val n = channel.transferTo(position, size - position, target)
+                if (n <= 0) {
+                    return@use position + copy(channel, position, target)
+                }
+                position += n
+            }
+            position
+        }
     }
 
-    override fun asString(): String {
-        return java.util.Scanner(newInputStream())
-                .useDelimiter("\\A")
-                .next()
+    /**
+     * @throws IOException if the target accepts no bytes, as a full non-blocking channel
+     */
+    private fun copy(channel: FileChannel, from: Long, target: WritableByteChannel): Long {
+        val buffer = ByteBuffer.allocate(8192)
+        var position = from
+        while (channel.read(buffer, position) >= 0) {
+            buffer.flip()
+            while (buffer.hasRemaining()) {
+                val n = target.write(buffer)
+                if (n <= 0) {
+                    throw IOException("Target channel accepts no more bytes after $position bytes of $p")
+                }
+                position += n
+            }
+            buffer.clear()
+        }
+        return position - from
+    }
+
+    /**
+     * Mapped buffer, the mapping stays valid after the channel is closed
+     */
+    override fun slice(offset: Long, length: Int): ByteBuffer {
+        return FileChannel.open(p, StandardOpenOption.READ).use { channel ->
+            val start = Math.min(offset, channel.size())
+            channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(length.toLong(), channel.size() - start))
+        }
     }
 }
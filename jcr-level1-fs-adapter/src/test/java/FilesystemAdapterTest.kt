@@ -1,16 +1,28 @@
 package com.ljcr.filesystems
 
+import com.ljcr.api.ImmutableBinary
+import com.ljcr.api.NodePath
+import com.ljcr.api.observation.Event
+import com.ljcr.api.observation.EventFilter
+import com.ljcr.api.observation.EventListener
 import org.hamcrest.CoreMatchers
 import org.hamcrest.CoreMatchers.*
 import org.junit.After
 import org.junit.Assert
 import org.junit.Before
 import org.junit.Test
+import java.io.ByteArrayOutputStream
 import java.io.File
 import java.io.FileOutputStream
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+import java.nio.channels.WritableByteChannel
 import java.nio.charset.StandardCharsets
 import java.nio.file.Files
 import java.nio.file.Paths
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
 import kotlin.streams.toList
 
 class FilesystemAdapterTest {
@@ -58,4 +70,96 @@ class FilesystemAdapterTest {
         Assert.assertThat(item.getItem("creationTime")?.asDateTime(), notNullValue())
     }
 
-}
\ No newline at end of file
+    @Test
+    fun nestedItemsAreFound() {
+        File(root.toFile(), "dir/sub").mkdirs()
+        File(root.toFile(), "dir/sub/file").writeText("text")
+
+        val ws = FilesystemAdapter.createWs(root)
+        val dir = ws.rootNode.getItem("dir")
+        Assert.assertThat(dir!!.typeDefinition.identifier, equalTo("directory"))
+        Assert.assertThat(dir.getItem("sub")!!.typeDefinition.identifier, equalTo("directory"))
+        Assert.assertThat(ws.getItem(NodePath.of("dir", "sub", "file"))!!.getItem("fileContent")!!.asString(), equalTo("text"))
+    }
+
+    @Test
+    fun binaryContentIsReadByRanges() {
+        val tempFile = File.createTempFile("ljcr", "", root.toFile())
+        FileOutputStream(tempFile).use {
+            it.write("0123456789".toByteArray(StandardCharsets.UTF_8))
+        }
+        val ws = FilesystemAdapter.createWs(root)
+        val content = ws.rootNode.getItem(tempFile.name)!!.getItem("fileContent") as ImmutableBinary
+
+        Assert.assertThat(content.length(), equalTo(10L))
+        val range = ByteBuffer.allocate(4)
+        Assert.assertThat(content.read(3, range), equalTo(4))
+        Assert.assertThat(String(range.array(), StandardCharsets.UTF_8), equalTo("3456"))
+        Assert.assertThat(content.read(10, ByteBuffer.allocate(1)), equalTo(-1))
+        Assert.assertThat(StandardCharsets.UTF_8.decode(content.slice(8, 5)).toString(), equalTo("89"))
+
+        val out = ByteArrayOutputStream()
+        Assert.assertThat(content.transferTo(Channels.newChannel(out)), equalTo(10L))
+        Assert.assertThat(out.toString("UTF-8"), equalTo("0123456789"))
+    }
+
+    @Test(timeout = 10000)
+    fun transfersFailWhenTheTargetAcceptsNothing() {
+        val tempFile = File.createTempFile("ljcr", "", root.toFile())
+        FileOutputStream(tempFile).use {
+            it.write("0123456789".toByteArray(StandardCharsets.UTF_8))
+        }
+        val ws = FilesystemAdapter.createWs(root)
+        val content = ws.rootNode.getItem(tempFile.name)!!.getItem("fileContent") as ImmutableBinary
+
+        // slow targets still receive everything
+        val out = ByteArrayOutputStream()
+        Assert.assertThat(content.transferTo(limited(out, Int.MAX_VALUE, 3)), equalTo(10L))
+        Assert.assertThat(out.toString("UTF-8"), equalTo("0123456789"))
+
+        // a full non-blocking target fails rather than spinning
+        try {
+            content.transferTo(limited(ByteArrayOutputStream(), 4, 4))
+            Assert.fail("Expecting the transfer to fail")
+        } catch (e: IOException) {
+            Assert.assertThat(e.message, containsString("after 4 bytes"))
+        }
+    }
+
+    /**
+     * @return channel accepting at most [perWrite] bytes per write, and nothing after [capacity] bytes
+     */
+    private fun limited(out: ByteArrayOutputStream, capacity: Int, perWrite: Int): WritableByteChannel {
+        return object : WritableByteChannel {
+            override fun write(src: ByteBuffer): Int {
+                val n = Math.min(src.remaining(), Math.min(perWrite, capacity - out.size()))
+                for (i in 0 until n) {
+                    out.write(src.get().toInt())
+                }
+                return n
+            }
+
+            override fun isOpen() = true
+
+            override fun close() {}
+        }
+    }
+
+    @Test
+    fun changesAreObserved() {
+        val ws = FilesystemAdapter.createWs(root)
+        val events = LinkedBlockingQueue<Event>()
+        val listener = EventListener { events.addAll(it) }
+        ws.observationManager.addEventListener(listener, EventFilter.all().ofEventTypes(Event.Type.NODE_ADDED))
+        try {
+            File(root.toFile(), "dir").mkdir()
+            Assert.assertThat(events.poll(10, TimeUnit.SECONDS), equalTo(Event.added(NodePath.of("/dir"), "directory")))
+
+            Thread.sleep(100) // the new directory is registered when its creation is seen
+            File(root.toFile(), "dir/file").writeText("text")
+            Assert.assertThat(events.poll(10, TimeUnit.SECONDS), equalTo(Event.added(NodePath.of("/dir/file"), "file")))
+        } finally {
+            ws.observationManager.removeEventListener(listener)
+        }
+    }
+}
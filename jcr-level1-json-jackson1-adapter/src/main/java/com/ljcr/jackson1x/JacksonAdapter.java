@@ -4,17 +4,31 @@ import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.Repository;
 import com.ljcr.api.definitions.PropertyDefinition;
 import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
 import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.observation.PollingFileRepository;
+import com.ljcr.utils.DoubleArrayNode;
+import com.ljcr.utils.IdentityMemo;
+import com.ljcr.utils.LongArrayNode;
+import com.ljcr.utils.ScalarArrayNode;
+import com.ljcr.utils.StringArrayNode;
 import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.BinaryNode;
 
 import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public class JacksonAdapter {
+    private static final IdentityMemo<JsonNode, Optional<ScalarArrayNode>> SCALAR_ARRAYS = new IdentityMemo<>();
     private static final JsonNode jsonNull = new ObjectMapper().getNodeFactory().nullNode();
     private static final JsonImmutableNodeScalar JSON_IMMUTABLE_NULL = new JsonImmutableNodeScalar(jsonNull, StandardTypes.NULL) {
         @Nullable
@@ -32,7 +46,7 @@ public class JacksonAdapter {
 
     private static final List<PropertyDefinition> anyTypes = Arrays.asList(StandardTypes.UNKNOWN_PROPERTY);
 
-    private static final TypeDefinition objectType = new TypeDefinition() {
+    static final TypeDefinition objectType = new TypeDefinition() {
         @Override
         public String getIdentifier() {
             return "object";
@@ -43,7 +57,7 @@ public class JacksonAdapter {
             return anyTypes;
         }
     };
-    private static final TypeDefinition arrayType = new TypeDefinition() {
+    static final TypeDefinition arrayType = new TypeDefinition() {
         @Override
         public String getIdentifier() {
             return "array";
@@ -61,11 +75,64 @@ public class JacksonAdapter {
         } else if (json.isObject()) {
             return new JsonImmutableNodeObject(name, new JsonImmutableNodeScalar(json, objectType));
         } else if (json.isArray()) {
-            return new JsonImmutableNodeCollection(name, new JsonImmutableNodeScalar(json, arrayType));
+            Optional<ScalarArrayNode> scalars = SCALAR_ARRAYS.get(json, JacksonAdapter::scalarArrayOf);
+            return scalars.isPresent() ? scalars.get().withName(name) : new JsonImmutableNodeCollection(name, new JsonImmutableNodeScalar(json, arrayType));
+        } else if (json.isInt() || json.isLong()) {
+            return StandardValueNodes.ofLong(name, json.getLongValue());
+        } else if (json.isDouble()) {
+            return StandardValueNodes.ofDouble(name, json.getDoubleValue());
+        } else if (json.isBoolean()) {
+            return StandardValueNodes.ofBoolean(name, json.getBooleanValue());
+        } else if (json.isBinary()) {
+            return StandardValueNodes.ofBinary(name, ByteBuffer.wrap(((BinaryNode) json).getBinaryValue()));
         }
         return new JsonImmutableNodeScalar(json, () -> typeOf(json));
     }
 
+    /**
+     * @return unnamed array node backed by a primitive array if all the elements are longs, doubles or strings,
+     * built once per array and renamed by its accesses
+     */
+    static Optional<ScalarArrayNode> scalarArrayOf(JsonNode array) {
+        int size = array.size();
+        if (size == 0) {
+            return Optional.empty();
+        }
+        JsonNode first = array.get(0);
+        if (first.isInt() || first.isLong()) {
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                JsonNode element = array.get(i);
+                if (!element.isInt() && !element.isLong()) {
+                    return Optional.empty();
+                }
+                values[i] = element.getLongValue();
+            }
+            return Optional.of(LongArrayNode.of(null, values));
+        } else if (first.isDouble()) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                JsonNode element = array.get(i);
+                if (!element.isDouble()) {
+                    return Optional.empty();
+                }
+                values[i] = element.getDoubleValue();
+            }
+            return Optional.of(DoubleArrayNode.of(null, values));
+        } else if (first.isTextual()) {
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                JsonNode element = array.get(i);
+                if (!element.isTextual()) {
+                    return Optional.empty();
+                }
+                values.add(element.getTextValue());
+            }
+            return Optional.of(StringArrayNode.of(null, values));
+        }
+        return Optional.empty();
+    }
+
     public static Repository createWs(String name, JsonNode json) {
         ImmutableNode jsonItem = of("", json);
 
@@ -82,6 +149,20 @@ public class JacksonAdapter {
         };
     }
 
+    /**
+     * @return workspace of a JSON file, named after the file
+     */
+    public static Repository createWs(File file) throws IOException {
+        return createWs(file.getName(), new ObjectMapper().readTree(file));
+    }
+
+    /**
+     * @return workspace read again from the file when it is modified, notifying its listeners of the changes
+     */
+    public static PollingFileRepository watchWs(File file, long intervalMillis) throws IOException {
+        return new PollingFileRepository(file.toPath(), p -> createWs(p.toFile()), intervalMillis);
+    }
+
     static TypeDefinition typeOf(JsonNode json) {
         if (json.isTextual()) {
             return StandardTypes.STRING;
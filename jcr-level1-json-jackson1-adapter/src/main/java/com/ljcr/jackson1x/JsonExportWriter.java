@@ -0,0 +1,182 @@
+package com.ljcr.jackson1x;
+
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.RepositoryException;
+import com.ljcr.utils.export.ExportWriter;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Export of a tree as a JSON document, written by a streaming generator as the items come.
+ * Binary values are written in base 64, as done by jackson.
+ */
+public final class JsonExportWriter implements ExportWriter, PrimitiveValueVisitor {
+    private final JsonGenerator generator;
+
+    public JsonExportWriter(OutputStream out) {
+        this(createGenerator(out));
+    }
+
+    public JsonExportWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    private static JsonGenerator createGenerator(OutputStream out) {
+        try {
+            return new JsonFactory().createJsonGenerator(out, JsonEncoding.UTF8);
+        } catch (IOException e) {
+            throw new RepositoryException("JSON generator can not be created", e);
+        }
+    }
+
+    @Override
+    public void startObject(@Nullable String name, TypeDefinition type) {
+        try {
+            writeName(name);
+            generator.writeStartObject();
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void startCollection(@Nullable String name, TypeDefinition type) {
+        try {
+            writeName(name);
+            generator.writeStartArray();
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void endContainer() {
+        try {
+            if (generator.getOutputContext().inArray()) {
+                generator.writeEndArray();
+            } else {
+                generator.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public PrimitiveValueVisitor scalar(@Nullable String name, TypeDefinition type) {
+        try {
+            writeName(name);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+        return this;
+    }
+
+    private void writeName(@Nullable String name) throws IOException {
+        if (name != null) {
+            generator.writeFieldName(name);
+        }
+    }
+
+    @Override
+    public void onNull() {
+        try {
+            generator.writeNull();
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void onBoolean(boolean value) {
+        try {
+            generator.writeBoolean(value);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void onLong(long value) {
+        try {
+            generator.writeNumber(value);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void onDouble(double value) {
+        try {
+            generator.writeNumber(value);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void onDecimal(BigDecimal value) {
+        try {
+            generator.writeNumber(value);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void onString(String value) {
+        try {
+            generator.writeString(value);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void onObject(Object value) {
+        try {
+            if (value instanceof ByteBuffer) {
+                ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                generator.writeBinary(bytes);
+            } else if (value instanceof byte[]) {
+                generator.writeBinary((byte[]) value);
+            } else {
+                generator.writeString(value.toString());
+            }
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            generator.flush();
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            generator.close();
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    private static RepositoryException failure(IOException e) {
+        return new RepositoryException("JSON can not be written", e);
+    }
+}
@@ -4,6 +4,7 @@ import com.ljcr.api.ImmutableItemVisitor;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeCollection;
 import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.NodeCursor;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.api.exceptions.PathNotFoundException;
 import org.codehaus.jackson.JsonNode;
@@ -28,6 +29,12 @@ public abstract class JsonImmutableNode implements ImmutableNode {
         return delegate.getJsonNode();
     }
 
+    @Nonnull
+    @Override
+    public Object getBackingObject() {
+        return getJsonNode();
+    }
+
     @Nonnull
     @Override
     public String getName() {
@@ -51,6 +58,12 @@ public abstract class JsonImmutableNode implements ImmutableNode {
         return Stream.empty();
     }
 
+    @Nonnull
+    @Override
+    public NodeCursor cursor() {
+        return new JsonNodeCursor(name, getJsonNode());
+    }
+
     @Nonnull
     @Override
     public TypeDefinition getTypeDefinition() {
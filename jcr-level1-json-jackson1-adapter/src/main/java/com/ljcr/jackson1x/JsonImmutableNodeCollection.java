@@ -3,17 +3,15 @@ package com.ljcr.jackson1x;
 import com.ljcr.api.ImmutableItemVisitor;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeCollection;
+import com.ljcr.api.IndexedSpliterator;
 import com.ljcr.api.exceptions.PathNotFoundException;
+import org.codehaus.jackson.JsonNode;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
-import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 public class JsonImmutableNodeCollection extends JsonImmutableNode implements ImmutableNodeCollection {
     public JsonImmutableNodeCollection(String p, JsonImmutableNodeScalar jsonImmutableValue) {
@@ -33,10 +31,13 @@ public class JsonImmutableNodeCollection extends JsonImmutableNode implements Im
 
     @Override
     public Stream<ImmutableNode> getElements() {
-        final AtomicInteger counter = new AtomicInteger(1);
-        return StreamSupport.stream(
-                Spliterators.spliteratorUnknownSize(getJsonNode().getElements(), Spliterator.ORDERED), false)
-                .map(f -> JacksonAdapter.of(String.valueOf(counter.getAndIncrement()), f));
+        return getElements(false);
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
+        JsonNode json = getJsonNode();
+        return IndexedSpliterator.stream(json.size(), i -> JacksonAdapter.of(String.valueOf(i + 1), json.get(i)), parallel);
     }
 
     @Nullable
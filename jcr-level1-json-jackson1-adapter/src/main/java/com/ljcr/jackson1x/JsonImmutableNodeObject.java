@@ -3,6 +3,7 @@ package com.ljcr.jackson1x;
 import com.ljcr.api.ImmutableItemVisitor;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.IndexedSpliterator;
 import com.ljcr.api.definitions.PropertyDefinition;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.api.exceptions.PathNotFoundException;
@@ -10,6 +11,7 @@ import org.codehaus.jackson.JsonNode;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Stream;
@@ -36,6 +38,13 @@ public class JsonImmutableNodeObject extends JsonImmutableNode implements Immuta
         return false;
     }
 
+    @Override
+    public Stream<String> getFieldNames() {
+        JsonNode jsonNode = getJsonNode();
+        return StreamSupport.stream(
+                Spliterators.spliterator(jsonNode.getFieldNames(), jsonNode.size(), Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+    }
+
     @Nullable
     @Override
     public ImmutableNode getItem(@Nonnull String fieldName) throws PathNotFoundException {
@@ -50,10 +59,25 @@ public class JsonImmutableNodeObject extends JsonImmutableNode implements Immuta
 
     @Override
     public Stream<ImmutableNode> getElements() {
+        return getElements(false);
+    }
+
+    @Override
+    public Stream<ImmutableNode> getElements(boolean parallel) {
         JsonNode jsonNode = getJsonNode();
-        return StreamSupport.stream(
-                Spliterators.spliteratorUnknownSize(getJsonNode().getFieldNames(), Spliterator.ORDERED), false)
-                .map(f -> JacksonAdapter.of(f, jsonNode.get(f)));
+        if (!parallel) {
+            return StreamSupport.stream(
+                    Spliterators.spliterator(jsonNode.getFieldNames(), jsonNode.size(), Spliterator.ORDERED | Spliterator.IMMUTABLE), false)
+                    .map(f -> JacksonAdapter.of(f, jsonNode.get(f)));
+        }
+
+        // object nodes have no positional access to fields, take a snapshot of the names to split on
+        String[] names = new String[jsonNode.size()];
+        Iterator<String> it = jsonNode.getFieldNames();
+        for (int idx = 0; idx < names.length && it.hasNext(); idx++) {
+            names[idx] = it.next();
+        }
+        return IndexedSpliterator.stream(names.length, i -> JacksonAdapter.of(names[i], jsonNode.get(names[i])), true);
     }
 
     @Nullable
@@ -0,0 +1,109 @@
+package com.ljcr.jackson1x;
+
+import com.ljcr.api.AbstractNodeCursor;
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import org.codehaus.jackson.JsonNode;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+
+/**
+ * Cursor walking the jackson tree directly
+ */
+class JsonNodeCursor extends AbstractNodeCursor<JsonNodeCursor.JsonFrame> {
+
+    static final class JsonFrame extends AbstractNodeCursor.Frame {
+        private JsonNode json;
+        private Iterator<String> fieldNames;
+        private Iterator<JsonNode> elements;
+    }
+
+    private final String rootName;
+    private final JsonNode root;
+
+    JsonNodeCursor(String rootName, JsonNode root) {
+        this.rootName = rootName;
+        this.root = root;
+    }
+
+    @Override
+    protected JsonFrame newFrame() {
+        return new JsonFrame();
+    }
+
+    @Override
+    protected void setRoot(JsonFrame frame) {
+        describe(frame, rootName, root);
+    }
+
+    @Override
+    protected void open(JsonFrame frame) {
+        if (frame.json.isObject()) {
+            frame.fieldNames = frame.json.getFieldNames();
+        } else {
+            frame.elements = frame.json.getElements();
+        }
+    }
+
+    @Override
+    protected boolean nextChild(JsonFrame parent, JsonFrame child) {
+        if (parent.fieldNames != null) {
+            if (parent.fieldNames.hasNext()) {
+                String name = parent.fieldNames.next();
+                describe(child, name, parent.json.get(name));
+                return true;
+            }
+        } else if (parent.elements.hasNext()) {
+            describe(child, null, parent.elements.next());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void close(JsonFrame frame) {
+        frame.fieldNames = null;
+        frame.elements = null;
+    }
+
+    private static void describe(JsonFrame frame, String name, JsonNode json) {
+        frame.json = json;
+        frame.reset(name, json != null && json.isObject(), json != null && json.isArray());
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        JsonNode json = current().json;
+        if (json == null || json.isNull()) {
+            return StandardTypes.NULL;
+        } else if (json.isObject()) {
+            return JacksonAdapter.objectType;
+        } else if (json.isArray()) {
+            return JacksonAdapter.arrayType;
+        }
+        return JacksonAdapter.typeOf(json);
+    }
+
+    @Override
+    public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        JsonNode json = currentValue().json;
+        if (json == null || json.isNull()) {
+            visitor.onNull();
+        } else if (json.isTextual()) {
+            visitor.onString(json.getTextValue());
+        } else if (json.isInt() || json.isLong()) {
+            visitor.onLong(json.getLongValue());
+        } else if (json.isBoolean()) {
+            visitor.onBoolean(json.getBooleanValue());
+        } else if (json.isBigDecimal()) {
+            visitor.onDecimal(json.getDecimalValue());
+        } else if (json.isFloatingPointNumber()) {
+            visitor.onDouble(json.getDoubleValue());
+        } else {
+            visitor.onObject(json);
+        }
+    }
+}
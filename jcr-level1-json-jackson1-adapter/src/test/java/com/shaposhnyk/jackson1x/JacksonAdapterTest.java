@@ -1,16 +1,38 @@
 package com.shaposhnyk.jackson1x;
 
+import com.ljcr.api.ImmutableBinary;
 import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.NodePath;
+import com.ljcr.api.NodeCursor;
+import com.ljcr.api.PrimitiveValueVisitor;
 import com.ljcr.api.Repository;
 import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.observation.Event;
+import com.ljcr.api.observation.EventFilter;
+import com.ljcr.api.observation.EventListener;
+import com.ljcr.api.observation.PollingFileRepository;
 import com.ljcr.jackson1x.JacksonAdapter;
+import com.ljcr.utils.DoubleArrayNode;
+import com.ljcr.utils.LongArrayNode;
+import com.ljcr.utils.StringArrayNode;
+import com.ljcr.utils.diff.MerkleTree;
+import com.ljcr.utils.diff.TreeDiff;
 import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ObjectNode;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.*;
@@ -19,6 +41,30 @@ public class JacksonAdapterTest {
 
     private static final ObjectMapper om = new ObjectMapper();
 
+    @Test
+    public void hashesAreSharedByTheNodesOfTheSameJson() {
+        ObjectNode json = om.createObjectNode();
+        json.put("title", "Notes");
+        json.putArray("authors").addObject().put("name", "Ann");
+        NodePath authors = NodePath.of("authors");
+        TreeDiff diff = new TreeDiff();
+        MerkleTree before = diff.treeOf(JacksonAdapter.createWs("Test", json));
+
+        // changed in place: only the root is forgotten, the authors are found by their json node
+        ((ObjectNode) json.get("authors").get(0)).put("name", "Bob");
+        json.put("title", "Drafts");
+        Repository ws = JacksonAdapter.createWs("Test", json);
+        diff.invalidate(ws.getRootNode());
+        MerkleTree stale = diff.treeOf(ws);
+        Assert.assertThat(stale.hashOf(authors), equalTo(before.hashOf(authors)));
+        Assert.assertThat(stale.getRootHash(), not(equalTo(before.getRootHash())));
+
+        diff.invalidate(ws.getRootNode());
+        diff.invalidate(ws.getRootNode().getItem("authors"));
+        diff.invalidate(ws.getRootNode().getItem("authors").getItem("1"));
+        Assert.assertThat(diff.treeOf(ws).hashOf(authors), not(equalTo(before.hashOf(authors))));
+    }
+
     @Test
     public void simpleValuesAreOk() throws IOException {
         JsonNode json = om.readTree("{"
@@ -78,4 +124,97 @@ public class JacksonAdapterTest {
         Assert.assertThat(rootNode.getItem("myObject").getElements().collect(toList()).size(), equalTo(2));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void homogeneousArraysAreBackedByPrimitiveArrays() throws IOException {
+        JsonNode json = om.readTree("{\"longs\": [1, 2, 3], \"doubles\": [0.5, 1.5], \"strings\": [\"a\", \"bc\"],"
+                + " \"mixed\": [1, \"a\"]}");
+        ImmutableNode rootNode = JacksonAdapter.createWs("Test", json).getRootNode();
+
+        Assert.assertThat(rootNode.getItem("longs"), instanceOf(LongArrayNode.class));
+        Assert.assertThat(((LongArrayNode) rootNode.getItem("longs")).toLongArray(), equalTo(new long[]{1, 2, 3}));
+        Assert.assertThat(rootNode.getItem("longs").getItem("2").asLong(), equalTo(2L));
+        Assert.assertThat(rootNode.getItem("doubles"), instanceOf(DoubleArrayNode.class));
+        Assert.assertThat(rootNode.getItem("strings"), instanceOf(StringArrayNode.class));
+        Assert.assertThat(rootNode.getItem("strings").getElements().map(ImmutableNode::asString).collect(toList()),
+                equalTo(Arrays.asList("a", "bc")));
+        Assert.assertThat(rootNode.getItem("mixed").getTypeDefinition().getIdentifier(), equalTo("array"));
+    }
+
+    @Test
+    public void cursorWalksDepthFirst() throws IOException {
+        JsonNode json = om.readTree("{\"myFieldL\": 12, \"myArray\": [true, \"some\"], \"myObject\": {\"myFieldN\": null}}");
+        ImmutableNode rootNode = JacksonAdapter.createWs("Test", json).getRootNode();
+
+        StringBuilder sb = new StringBuilder();
+        PrimitiveValueVisitor printer = new PrimitiveValueVisitor() {
+            public void onNull() { sb.append("null"); }
+            public void onBoolean(boolean value) { sb.append(value); }
+            public void onLong(long value) { sb.append(value); }
+            public void onDouble(double value) { sb.append(value); }
+            public void onString(String value) { sb.append('"').append(value).append('"'); }
+        };
+
+        try (NodeCursor cursor = rootNode.cursor()) {
+            for (NodeCursor.Event e = cursor.next(); e != null; e = cursor.next()) {
+                String name = cursor.getName() != null ? cursor.getName() : "#" + cursor.getIndex();
+                if (e == NodeCursor.Event.ENTER) {
+                    sb.append(name).append(cursor.isCollection() ? "[" : "{");
+                } else if (e == NodeCursor.Event.EXIT) {
+                    sb.append(cursor.isCollection() ? "]" : "}");
+                } else {
+                    sb.append(name).append('=');
+                    cursor.acceptValue(printer);
+                    sb.append(';');
+                }
+            }
+        }
+
+        Assert.assertThat(sb.toString(), equalTo("{myFieldL=12;myArray[#0=true;#1=\"some\";]myObject{myFieldN=null;}}"));
+    }
+
+    @Test
+    public void binaryNodesOfBuiltTreesAreBinaries() throws IOException {
+        // parsed JSON keeps base64 as text, binary nodes come from trees built in code
+        Assert.assertThat(om.readTree("{\"data\": \"AQID\"}").get("data").isBinary(), equalTo(false));
+        ObjectNode json = om.createObjectNode();
+        json.put("data", "hello binary".getBytes(StandardCharsets.UTF_8));
+        ImmutableNode rootNode = JacksonAdapter.createWs("Test", json).getRootNode();
+
+        ImmutableBinary data = (ImmutableBinary) rootNode.getItem("data");
+        Assert.assertThat(data.getTypeDefinition(), equalTo(StandardTypes.BINARY));
+        Assert.assertThat(data.length(), equalTo(12L));
+        Assert.assertThat(StandardCharsets.UTF_8.decode(data.slice(6, 6)).toString(), equalTo("binary"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertThat(data.transferTo(Channels.newChannel(out)), equalTo(12L));
+        Assert.assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), equalTo("hello binary"));
+
+        try (NodeCursor cursor = rootNode.cursor()) {
+            Assert.assertThat(cursor.next(), equalTo(NodeCursor.Event.ENTER));
+            Assert.assertThat(cursor.next(), equalTo(NodeCursor.Event.NEXT));
+            Assert.assertThat(cursor.getTypeDefinition(), equalTo(StandardTypes.BINARY));
+        }
+    }
+
+    @Test
+    public void modifiedFilesAreReloaded() throws IOException {
+        File file = File.createTempFile("ljcr", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "{\"a\": 1, \"b\": {\"c\": \"x\"}, \"d\": true}".getBytes(StandardCharsets.UTF_8));
+        PollingFileRepository ws = JacksonAdapter.watchWs(file, 60_000);
+        List<Event> events = Collections.synchronizedList(new ArrayList<>());
+        EventListener listener = events::addAll;
+        ws.getObservationManager().addEventListener(listener, EventFilter.all());
+        try {
+            Files.write(file.toPath(), "{\"a\": 2, \"b\": {\"c\": \"x\", \"e\": 1}}".getBytes(StandardCharsets.UTF_8));
+            Assert.assertThat(ws.refresh(), equalTo(true));
+            ws.getEventDispatcher().dispatch();
+
+            Assert.assertThat(ws.getRootNode().getItem("a").asLong(), equalTo(2L));
+            Assert.assertThat(events.stream().map(e -> e.getType() + " " + e.getPath()).collect(toList()), equalTo(Arrays.asList(
+                    "NODE_CHANGED /a", "NODE_ADDED /b/e", "NODE_REMOVED /d")));
+            Assert.assertThat(ws.refresh(), equalTo(false));
+        } finally {
+            ws.getObservationManager().removeEventListener(listener);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.shaposhnyk.jackson1x;
+
+import com.ljcr.jackson1x.JacksonAdapter;
+import com.ljcr.jackson1x.JsonExportWriter;
+import com.ljcr.utils.export.Exporter;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+
+public class JsonExportWriterTest {
+
+    private static final ObjectMapper om = new ObjectMapper();
+
+    @Test
+    public void documentIsWrittenBack() throws IOException {
+        JsonNode json = om.readTree("{"
+                + "\"name\": \"user\","
+                + "\"id\": 1234567890123,"
+                + "\"score\": 1.5,"
+                + "\"active\": true,"
+                + "\"bounced\": null,"
+                + "\"emails\": [{\"address\": \"a@x\"}, {\"address\": \"b@x\", \"tags\": [1, \"two\", []]}],"
+                + "\"empty\": {}"
+                + "}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long nodes;
+        try (JsonExportWriter writer = new JsonExportWriter(out)) {
+            nodes = new Exporter().export(JacksonAdapter.createWs("Test", json), writer);
+        }
+
+        Assert.assertThat(om.readTree(out.toByteArray()), equalTo(json));
+        Assert.assertThat(nodes, equalTo(16L));
+    }
+}
@@ -1,19 +1,21 @@
 package com.ljcr.srdb;
 
 import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.PropertyIndex;
 import com.ljcr.api.definitions.StandardTypes;
 import com.ljcr.api.definitions.TypeDefinition;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class FieldSchema extends StandardTypes.TypeDefinitionType {
 
-    private static final Map<String, PropertyDefinition> FIELDS = initFields();
+    private static final PropertyIndex FIELDS = initFields();
 
-    private static Map<String, PropertyDefinition> initFields() {
+    private static PropertyIndex initFields() {
         Map<String, TypeDefinition> fields = new LinkedHashMap<>();
         fields.put("name", StandardTypes.NAME);
         fields.put("doc", StandardTypes.STRING);
@@ -23,23 +25,23 @@ public class FieldSchema extends StandardTypes.TypeDefinitionType {
         fields.put("aliases", StandardTypes.ARRAY);
         fields.put("mandatory", StandardTypes.BOOLEAN);
 
-        Map<String, PropertyDefinition> defs = new LinkedHashMap<>();
+        List<PropertyDefinition> defs = new ArrayList<>(fields.size());
         for (Map.Entry<String, TypeDefinition> e : fields.entrySet()) {
             if ("name".equals(e.getKey()) || "type".equals(e.getKey())) {
-                defs.put(e.getKey(), StandardTypes.mandatoryPropertyOf(e.getKey(), e.getValue()));
+                defs.add(StandardTypes.mandatoryPropertyOf(e.getKey(), e.getValue(), defs.size()));
             } else {
-                defs.put(e.getKey(), StandardTypes.propertyOf(e.getKey(), e.getValue()));
+                defs.add(StandardTypes.propertyOf(e.getKey(), e.getValue(), defs.size()));
             }
         }
 
-        return Collections.unmodifiableMap(defs);
+        return PropertyIndex.of(defs);
     }
 
     public FieldSchema() {
         super(StandardTypes.FIELDDEF.getIdentifier());
     }
 
-    protected Map<String, PropertyDefinition> getInternalMap() {
+    protected PropertyIndex getInternalIndex() {
         return FIELDS;
     }
 
@@ -50,11 +52,16 @@ public class FieldSchema extends StandardTypes.TypeDefinitionType {
 
     @Override
     public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
-        return getInternalMap().values();
+        return getInternalIndex().values();
     }
 
     @Override
     public PropertyDefinition getFieldDefByName(String name) {
-        return getInternalMap().get(name);
+        return getInternalIndex().byName(name);
+    }
+
+    @Override
+    public PropertyDefinition getFieldDefByOrdinal(int ordinal) {
+        return getInternalIndex().byOrdinal(ordinal);
     }
 }
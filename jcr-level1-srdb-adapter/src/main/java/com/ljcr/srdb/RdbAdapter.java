@@ -1,6 +1,11 @@
 package com.ljcr.srdb;
 
 import com.ljcr.api.*;
+import com.ljcr.api.observation.EventDispatcher;
+import com.ljcr.api.observation.ObservationManager;
+import com.ljcr.api.query.QueryExecutor;
+
+import javax.persistence.EntityManager;
 
 
 public class RdbAdapter {
@@ -16,6 +21,49 @@ public class RdbAdapter {
             }
         };
     }
-}
 
+    /**
+     * @return workspace whose queries on relational types are translated into JPQL by a {@link RelationalQueryExecutor}
+     */
+    public static Repository createWs(final String name, EntityManager em, RepositoryReader reader) {
+        final QueryExecutor executor = new RelationalQueryExecutor(em, reader);
+        return new Repository() {
+            public String getName() {
+                return name;
+            }
+
+            public ImmutableNode getRootNode() {
+                return null;
+            }
+
+            public QueryExecutor getQueryExecutor() {
+                return executor;
+            }
+        };
+    }
+
+    /**
+     * @return workspace as above, whose observation manager is fed by the poller while listeners are registered
+     */
+    public static Repository watchWs(final String name, EntityManager em, RepositoryReader reader, ResourceVersionPoller poller) {
+        final Repository ws = createWs(name, em, reader);
+        final EventDispatcher dispatcher = new EventDispatcher(poller);
+        return new Repository() {
+            public String getName() {
+                return name;
+            }
+
+            public ImmutableNode getRootNode() {
+                return ws.getRootNode();
+            }
 
+            public QueryExecutor getQueryExecutor() {
+                return ws.getQueryExecutor();
+            }
+
+            public ObservationManager getObservationManager() {
+                return dispatcher;
+            }
+        };
+    }
+}
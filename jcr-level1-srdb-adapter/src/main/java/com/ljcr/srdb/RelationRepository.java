@@ -42,4 +42,12 @@ public interface RelationRepository extends CrudRepository<ResourceRelation, Lon
         long typeId = ((StandardType) type).getNumericCode() * 1L;
         return relationsBetween(parent.getId(), field.getIdentifier(), typeId);
     }
+
+    /**
+     * @return relations of the field of an object of the given type, field resources being named <code>Type.field</code>
+     */
+    default Iterable<ResourceRelation> relationsBetween(Resource parent, TypeDefinition parentType, PropertyDefinition field) {
+        long typeId = ((StandardType) field.getType()).getNumericCode() * 1L;
+        return relationsBetween(parent.getId(), parentType.getIdentifier() + "." + field.getIdentifier(), typeId);
+    }
 }
@@ -0,0 +1,240 @@
+package com.ljcr.srdb;
+
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.srdb.mods.ResourceModifiers;
+import com.ljcr.utils.export.FlatRowWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Export of flat rows as resources of a relational type: each row is inserted in the <code>res</code> table
+ * with a relation per known field in the <code>rel</code> table. Fields which are not in the type are ignored.
+ * <p>
+ * Rows are buffered and inserted by JDBC batches of <code>batchSize</code> rows, each batch in its own transaction,
+ * when it is full and on {@link #flush()}: one query drawing their ids from the <code>sq_res_id</code> sequence,
+ * one batch of resources and one batch of relations. Fields are resolved once per writer, references to other
+ * resources once per value.
+ * <p>
+ * Rows of referencable types are identified by their field name in the exported object,
+ * or by the value of their identifier field if they have one. Other rows are referenced by their id.
+ */
+public class RelationalExportWriter extends FlatRowWriter {
+    private static final String NEXT_IDS = "select sq_res_id.nextval from system_range(1, ?)";
+    private static final String INSERT_RES = "insert into res (id, type_id, ref, ver) values (?, ?, ?, 0)";
+    private static final String INSERT_REL = "insert into rel (parent_id, field_id, value_id, l, vstr, vdec) values (?, ?, ?, ?, ?, ?)";
+    private static final int[] RES_TYPES = {Types.BIGINT, Types.BIGINT, Types.VARCHAR};
+    private static final int[] REL_TYPES = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL};
+
+    private final JdbcTemplate jdbc;
+    private final ResourceRepository res;
+    private final PlatformTransactionManager txManager;
+    private final RelationalTypeDefinition type;
+    private final long typeId;
+    private final int batchSize;
+    private final RelationalResourceBuilder fields;
+    private final Map<PropertyDefinition, Resource> fieldResources = new HashMap<>();
+    private final Value value = new Value();
+
+    private final List<String> references = new ArrayList<>();
+    private final List<List<ResourceRelation>> relations = new ArrayList<>();
+    private String reference;
+    private List<ResourceRelation> rowRelations;
+    private TransactionStatus tx;
+    private long rows;
+
+    public RelationalExportWriter(DataSource dataSource, ResourceRepository res, RelationRepository rels,
+                                  PlatformTransactionManager txManager, RelationalTypeDefinition type, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.res = res;
+        this.txManager = txManager;
+        this.type = type;
+        this.typeId = type.getTypeResource().getId();
+        this.batchSize = batchSize;
+        this.fields = new RelationalResourceBuilder(res, rels, type);
+    }
+
+    /**
+     * @return number of exported rows, including the ones not yet inserted
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    protected void startRow(@Nullable String name, TypeDefinition rowType) {
+        // fields and references are looked up as the row is set, in the transaction of its batch
+        if (tx == null) {
+            tx = txManager.getTransaction(new DefaultTransactionDefinition());
+        }
+        reference = type.isReferencable() ? name : null;
+        rowRelations = new ArrayList<>();
+    }
+
+    @Override
+    protected PrimitiveValueVisitor column(String name, TypeDefinition columnType) {
+        value.field = type.getFieldDefByName(name);
+        return value;
+    }
+
+    @Override
+    protected void endRow() {
+        if (reference == null) {
+            if (type.isReferencable()) {
+                abort();
+                throw new IllegalArgumentException("Object must have reference set, but it was not");
+            }
+        }
+        // null until the id of the row is drawn
+        references.add(reference);
+        relations.add(rowRelations);
+        reference = null;
+        rowRelations = null;
+        rows++;
+        if (references.size() == batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Inserts the buffered rows and commits them
+     */
+    @Override
+    public void flush() {
+        if (tx == null) {
+            return;
+        }
+        try {
+            insertBatch();
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+        TransactionStatus committed = tx;
+        tx = null;
+        txManager.commit(committed);
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void insertBatch() {
+        if (references.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbc.queryForList(NEXT_IDS, Long.class, references.size());
+        List<Object[]> resArgs = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String ref = references.get(i);
+            resArgs.add(new Object[]{ids.get(i), typeId, ref != null ? ref : ids.get(i).toString()});
+        }
+        jdbc.batchUpdate(INSERT_RES, resArgs, RES_TYPES);
+
+        List<Object[]> args = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long parentId = ids.get(i);
+            for (ResourceRelation rel : relations.get(i)) {
+                Resource valueRes = rel.getResourceValue();
+                args.add(new Object[]{parentId, rel.getChild().getId(), valueRes == null ? null : valueRes.getId(),
+                        rel.getLoc(), rel.getStringValue(), rel.getDecimalValue()});
+            }
+        }
+        jdbc.batchUpdate(INSERT_REL, args, REL_TYPES);
+        references.clear();
+        relations.clear();
+    }
+
+    /**
+     * Drops the buffered rows and rolls back their transaction
+     */
+    private void abort() {
+        references.clear();
+        relations.clear();
+        reference = null;
+        rowRelations = null;
+        TransactionStatus failed = tx;
+        tx = null;
+        if (failed != null) {
+            txManager.rollback(failed);
+        }
+    }
+
+    private void set(PropertyDefinition field, Object v) {
+        if (field.isIdentifier()) {
+            reference = v.toString();
+            return;
+        }
+        Resource fieldRes = fieldResources.computeIfAbsent(field, fields::findFieldResource);
+        TypeDefinition valueType = field.getType().getValueType();
+        Object relationValue = v;
+        if (v instanceof String && valueType != null && valueType.isReferencable()) {
+            relationValue = res.findByReference((String) v, valueType)
+                    .orElseThrow(() -> new IllegalArgumentException("Cannot find object '" + v + "' of type: " + valueType));
+        }
+        rowRelations.add(ResourceModifiers.newRelation(fieldRes, field, null, relationValue));
+    }
+
+    /**
+     * Sets the boxed value of a scalar on the current row
+     */
+    private final class Value implements PrimitiveValueVisitor {
+        PropertyDefinition field;
+
+        private void set(@Nullable Object v) {
+            if (field != null && v != null) {
+                RelationalExportWriter.this.set(field, v);
+            }
+        }
+
+        @Override
+        public void onNull() {
+        }
+
+        @Override
+        public void onBoolean(boolean value) {
+            set(value);
+        }
+
+        @Override
+        public void onLong(long value) {
+            set(value);
+        }
+
+        @Override
+        public void onDouble(double value) {
+            set(value);
+        }
+
+        @Override
+        public void onString(String value) {
+            set(value);
+        }
+
+        @Override
+        public void onDecimal(BigDecimal value) {
+            set(value);
+        }
+
+        @Override
+        public void onObject(Object value) {
+            set(value);
+        }
+    }
+}
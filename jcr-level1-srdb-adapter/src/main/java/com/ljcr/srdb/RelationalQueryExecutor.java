@@ -0,0 +1,317 @@
+package com.ljcr.srdb;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.exceptions.UnsupportedRepositoryOperationException;
+import com.ljcr.api.query.Condition;
+import com.ljcr.api.query.ConditionVisitor;
+import com.ljcr.api.query.Conditions;
+import com.ljcr.api.query.InMemoryQueryExecutor;
+import com.ljcr.api.query.Query;
+import com.ljcr.api.query.QueryExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Translates conditions on scalar fields into JPQL over the relations table, one <code>EXISTS</code>
+ * sub-query per condition on a field. Conditions which can not be translated (null values, negations,
+ * non scalar fields) are only evaluated in memory, on the lazily loaded objects. Ordering is done in memory.
+ * <p>
+ * All the rows are filtered again in memory, so that the collation or the rounding of the database
+ * can not add rows to the result. Offset and limit are passed to the database only if the condition
+ * is completely translated and the query has no ordering: the page is then the one of the database.
+ * <p>
+ * Resources are read by pages of {@value #PAGE_SIZE}, by increasing id after the last one read,
+ * so that a stream which is not consumed to its end reads only the pages it needs.
+ */
+public class RelationalQueryExecutor implements QueryExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(RelationalQueryExecutor.class);
+    static final int PAGE_SIZE = 500;
+
+    private final EntityManager em;
+    private final RepositoryReader reader;
+
+    public RelationalQueryExecutor(EntityManager em, RepositoryReader reader) {
+        this.em = em;
+        this.reader = reader;
+    }
+
+    @Nonnull
+    @Override
+    public Stream<ImmutableNodeObject> execute(@Nonnull Query query) {
+        if (!(query.getType() instanceof RelationalTypeDefinition)) {
+            throw new UnsupportedRepositoryOperationException("Not a relational type: " + query.getType().getIdentifier());
+        }
+        RelationalTypeDefinition type = (RelationalTypeDefinition) query.getType();
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("typeId", type.getTypeResource().getId());
+        JpqlBuilder builder = new JpqlBuilder(type);
+        String where = query.getCondition().accept(builder, params);
+
+        StringBuilder jpql = new StringBuilder("SELECT R FROM Resource R WHERE R.typeId = :typeId AND R.id <> R.typeId");
+        if (where != null && !where.isEmpty()) {
+            jpql.append(" AND ").append(where);
+        }
+        boolean pushedDown = where != null && builder.complete && query.getOrderings().isEmpty();
+        logger.debug("Query {}: {} {}, offset and limit pushed down: {}", query, jpql, params, pushedDown);
+
+        // nothing is queried before a terminal operation
+        Stream<Resource> resources = StreamSupport.stream(
+                () -> Spliterators.spliteratorUnknownSize(new Pages(jpql.toString(), params, pushedDown ? query : null),
+                        Spliterator.ORDERED | Spliterator.NONNULL),
+                Spliterator.ORDERED | Spliterator.NONNULL, false);
+        Stream<ImmutableNodeObject> nodes = resources.map(r -> reader.lazyNodeOf(r, type));
+        if (pushedDown) {
+            Condition condition = query.getCondition();
+            return condition == Conditions.ALL ? nodes : nodes.filter(condition::test);
+        }
+        return InMemoryQueryExecutor.apply(query, nodes);
+    }
+
+    /**
+     * Resources of the query ordered by id, a page at a time
+     */
+    private final class Pages implements Iterator<Resource> {
+        private final String jpql;
+        private final Map<String, Object> params;
+        private final long offset;
+        // rows left to read, negative if unlimited
+        private long remaining;
+        private Iterator<Resource> page = Collections.emptyIterator();
+        @Nullable
+        private Long lastId;
+        private boolean done;
+
+        Pages(String jpql, Map<String, Object> params, @Nullable Query page) {
+            this.jpql = jpql;
+            this.params = params;
+            this.offset = page != null ? page.getOffset() : 0;
+            this.remaining = page != null ? page.getLimit() : -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !done) {
+                readPage();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public Resource next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+
+        private void readPage() {
+            int size = remaining >= 0 ? (int) Math.min(PAGE_SIZE, remaining) : PAGE_SIZE;
+            if (size == 0) {
+                done = true;
+                return;
+            }
+            TypedQuery<Resource> q = em.createQuery(
+                    jpql + (lastId != null ? " AND R.id > :lastId" : "") + " ORDER BY R.id ASC", Resource.class);
+            params.forEach(q::setParameter);
+            if (lastId != null) {
+                q.setParameter("lastId", lastId);
+            } else if (offset > 0) {
+                q.setFirstResult(Math.toIntExact(offset));
+            }
+            q.setMaxResults(size);
+
+            List<Resource> rows = q.getResultList();
+            done = rows.size() < size;
+            if (!rows.isEmpty()) {
+                lastId = rows.get(rows.size() - 1).getId();
+            }
+            if (remaining >= 0) {
+                remaining -= rows.size();
+            }
+            page = rows.iterator();
+        }
+    }
+
+    /**
+     * Builds the JPQL condition on resource <code>R</code>, parameters are collected into the context.
+     * Returns null if the condition can not be translated, an empty string if it is always true
+     */
+    private static final class JpqlBuilder implements ConditionVisitor<String> {
+        private final TypeDefinition type;
+        // false if a part of a conjunction was dropped
+        private boolean complete = true;
+
+        JpqlBuilder(TypeDefinition type) {
+            this.type = type;
+        }
+
+        @Override
+        public String visit(Conditions.All condition, Object context) {
+            return "";
+        }
+
+        @Override
+        public String visit(Conditions.Equals condition, Object context) {
+            Object value = condition.getValue();
+            String column = columnOf(condition.getProperty(), value);
+            if (column == null) {
+                return null;
+            }
+            return exists(condition.getProperty(), column + " = :" + param(context, valueOf(value)), context);
+        }
+
+        @Override
+        public String visit(Conditions.Range condition, Object context) {
+            Object bound = condition.getLower() != null ? condition.getLower() : condition.getUpper();
+            String column = columnOf(condition.getProperty(), bound);
+            if (column == null || bound instanceof Boolean) {
+                return null;
+            }
+            List<String> terms = new ArrayList<>(2);
+            if (condition.getLower() != null) {
+                terms.add(column + (condition.isLowerInclusive() ? " >= :" : " > :") + param(context, valueOf(condition.getLower())));
+            }
+            if (condition.getUpper() != null) {
+                terms.add(column + (condition.isUpperInclusive() ? " <= :" : " < :") + param(context, valueOf(condition.getUpper())));
+            }
+            return exists(condition.getProperty(), String.join(" AND ", terms), context);
+        }
+
+        @Override
+        public String visit(Conditions.In condition, Object context) {
+            List<Object> values = new ArrayList<>(condition.getValues().size());
+            String column = null;
+            for (Object v : condition.getValues()) {
+                String c = columnOf(condition.getProperty(), v);
+                if (c == null || (column != null && !column.equals(c))) {
+                    return null;
+                }
+                column = c;
+                values.add(valueOf(v));
+            }
+            if (column == null) {
+                return null;
+            }
+            return exists(condition.getProperty(), column + " IN (:" + param(context, values) + ")", context);
+        }
+
+        @Override
+        public String visit(Conditions.Prefix condition, Object context) {
+            if (!isString(condition.getProperty())) {
+                return null;
+            }
+            String pattern = condition.getPrefix()
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_") + "%";
+            return exists(condition.getProperty(), "RL.stringValue LIKE :" + param(context, pattern) + " ESCAPE '\\'", context);
+        }
+
+        @Override
+        public String visit(Conditions.And condition, Object context) {
+            List<String> terms = new ArrayList<>();
+            for (Condition c : condition.getOperands()) {
+                String term = c.accept(this, context);
+                if (term == null) {
+                    complete = false;
+                } else if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+            return terms.isEmpty() ? "" : "(" + String.join(" AND ", terms) + ")";
+        }
+
+        @Override
+        public String visit(Conditions.Or condition, Object context) {
+            List<String> terms = new ArrayList<>();
+            for (Condition c : condition.getOperands()) {
+                String term = c.accept(this, context);
+                if (term == null) {
+                    return null;
+                } else if (term.isEmpty()) {
+                    return "";
+                }
+                terms.add(term);
+            }
+            return "(" + String.join(" OR ", terms) + ")";
+        }
+
+        @Override
+        public String visit(Conditions.Not condition, Object context) {
+            // not exists would also match objects without the field, evaluated in memory
+            return null;
+        }
+
+        private String exists(PropertyDefinition p, String valueCondition, Object context) {
+            String field = param(context, type.getIdentifier() + "." + p.getIdentifier());
+            return "EXISTS (SELECT RL.id FROM ResourceRelation RL WHERE RL.parent = R AND RL.child.reference = :"
+                    + field + " AND " + valueCondition + ")";
+        }
+
+        @SuppressWarnings("unchecked")
+        private static String param(Object context, Object value) {
+            Map<String, Object> params = (Map<String, Object>) context;
+            String name = "p" + params.size();
+            params.put(name, value);
+            return name;
+        }
+
+        @Nullable
+        private static String columnOf(PropertyDefinition p, @Nullable Object value) {
+            if (value instanceof CharSequence && isString(p)) {
+                return "RL.stringValue";
+            } else if ((value instanceof Number || value instanceof Boolean) && isNumeric(p)) {
+                return "RL.decimal";
+            }
+            return null;
+        }
+
+        private static boolean isString(PropertyDefinition p) {
+            TypeDefinition t = p.getType();
+            return t == StandardTypes.STRING || t == StandardTypes.NAME;
+        }
+
+        private static boolean isNumeric(PropertyDefinition p) {
+            TypeDefinition t = p.getType();
+            return t == StandardTypes.LONG || t == StandardTypes.DOUBLE
+                    || t == StandardTypes.DECIMAL || t == StandardTypes.BOOLEAN;
+        }
+
+        private static Object valueOf(Object value) {
+            if (value instanceof CharSequence) {
+                return value.toString();
+            } else if (value instanceof Boolean) {
+                return (Boolean) value ? BigDecimal.ONE : BigDecimal.ZERO;
+            } else if (value instanceof BigDecimal) {
+                return value;
+            } else if (value instanceof BigInteger) {
+                return new BigDecimal((BigInteger) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                return BigDecimal.valueOf(((Number) value).doubleValue());
+            }
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+    }
+}
@@ -154,7 +154,7 @@ public class RelationalResourceBuilder implements ObjectBuilder<RelationalResour
         return null;
     }
 
-    private Resource findFieldResource(PropertyDefinition field) {
+    Resource findFieldResource(PropertyDefinition field) {
         final Long typeId;
         if (field.getType() instanceof RelationalTypeDefinition) {
             typeId = ((RelationalTypeDefinition) field.getType()).getTypeResource().getId();
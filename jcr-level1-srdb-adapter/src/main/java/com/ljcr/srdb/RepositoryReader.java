@@ -1,11 +1,14 @@
 package com.ljcr.srdb;
 
 import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.ImmutableNodeObject;
 import com.ljcr.api.ImmutableNodeScalar;
 import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.PropertyIndex;
 import com.ljcr.api.definitions.StandardTypeVisitor;
 import com.ljcr.api.definitions.StandardTypes;
 import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.api.definitions.TypeSwitch;
 import com.ljcr.api.exceptions.ItemNotFoundException;
 import com.ljcr.srdb.mods.visitors.*;
 import com.ljcr.srdb.readers.*;
@@ -33,6 +36,10 @@ public class RepositoryReader {
 
     private final RelationRepository rels;
 
+    private final TypeSwitch<ImmutableNodeScalar> eagerValueFactory = TypeSwitch.of(eagerRelationFactory());
+
+    private final TypeSwitch<ImmutableNodeScalar> lazyValueFactory = TypeSwitch.of(lazyRelationFactory());
+
     public RepositoryReader(ResourceRepository res, RelationRepository rels) {
         this.res = res;
         this.rels = rels;
@@ -74,18 +81,17 @@ public class RepositoryReader {
 
         relationsByParentId.entrySet().forEach(te -> {
             Resource typeRes = typeById.get(te.getKey());
-            List<PropertyDefinition> fieldTypes = te.getValue().stream()
-                    .map(rr -> {
-                        Long fid = rr.getChild().getId();
-                        Resource fieldRes = fieldById.get(fid);
-                        String name = fieldRes.getReference().substring(typeRes.getReference().length() + 1);
-                        Resource fieldTypeRes = typeById.get(fieldRes.getTypeId());
-                        TypeDefinition type = typesByRef.get(fieldTypeRes.getReference());
-                        return StandardTypes.propertyOf(name, type);
-                    })
-                    .collect(toList());
-
-            TypeSchema type = new TypeSchema(typeRes.getReference(), fieldTypes.stream().collect(toMap(p -> p.getIdentifier(), Function.identity())));
+            List<PropertyDefinition> fieldTypes = new ArrayList<>(te.getValue().size());
+            for (ResourceRelation rr : te.getValue()) {
+                Long fid = rr.getChild().getId();
+                Resource fieldRes = fieldById.get(fid);
+                String name = fieldRes.getReference().substring(typeRes.getReference().length() + 1);
+                Resource fieldTypeRes = typeById.get(fieldRes.getTypeId());
+                TypeDefinition type = typesByRef.get(fieldTypeRes.getReference());
+                fieldTypes.add(StandardTypes.propertyOf(name, type, fieldTypes.size()));
+            }
+
+            TypeSchema type = new TypeSchema(typeRes.getReference(), PropertyIndex.of(fieldTypes));
             typesByRef.put(typeRes.getReference(), type);
 
             logger.info("Found: {} -> {}", typeRes, fieldTypes);
@@ -111,8 +117,7 @@ public class RepositoryReader {
             return new ImmutableResourceNoRelObject(actualType, objResource);
         }
 
-        StandardTypeVisitor<ImmutableNodeScalar> simpleTypesFactory = eagerRelationFactory();
-        PropertyFactory simplePropertiesFactory = p -> getValueFromMap(simpleTypesFactory, p, relationMap);
+        PropertyFactory simplePropertiesFactory = p -> getValueFromMap(eagerValueFactory, p, relationMap);
 
         ImmutableRelationsObject imRelations = new ImmutableRelationsObject(actualType, simplePropertiesFactory);
         ImmutableResourceNoRelObject imReferencable = new ImmutableResourceNoRelObject(referencableType(), objResource);
@@ -130,12 +135,11 @@ public class RepositoryReader {
         return idx > 0 ? reference.substring(idx + 1) : reference;
     }
 
-    private ImmutableNodeScalar getValueFromMap(StandardTypeVisitor<ImmutableNodeScalar> factory, PropertyDefinition p, Map<String, List<ResourceRelation>> relationMap) {
+    private ImmutableNodeScalar getValueFromMap(TypeSwitch<ImmutableNodeScalar> factory, PropertyDefinition p, Map<String, List<ResourceRelation>> relationMap) {
         try {
             final String identifier = p.getIdentifier();
             final List<ResourceRelation> context = relationMap.get(identifier);
-            return p.getType()
-                    .accept(factory, context);
+            return factory.apply(p.getType(), context);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to fetch " + p + " from map: " + relationMap, e);
         } catch (RuntimeException e) {
@@ -154,12 +158,16 @@ public class RepositoryReader {
         Resource objResource = res.findObject(reference, type)
                 .orElseThrow(() -> new ItemNotFoundException("ref=" + reference + ",type=" + type));
 
+        return lazyNodeOf(objResource, type);
+    }
 
-        StandardTypeVisitor<ImmutableNodeScalar> simpleTypesFactory = lazyRelationFactory();
+    /**
+     * @return object of the given resource, its relations are queried field by field when accessed
+     */
+    public ImmutableNodeObject lazyNodeOf(Resource objResource, TypeDefinition type) {
         PropertyFactory simplePropertiesFactory = p -> {
-            Iterable<ResourceRelation> relations = rels.relationsBetween(objResource, p);
-            return p.getType()
-                    .accept(simpleTypesFactory, relations);
+            Iterable<ResourceRelation> relations = rels.relationsBetween(objResource, type, p);
+            return lazyValueFactory.apply(p.getType(), relations);
         };
 
         return new ImmutableRelationsObject(type, simplePropertiesFactory);
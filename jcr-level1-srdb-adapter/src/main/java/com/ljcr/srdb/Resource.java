@@ -25,6 +25,9 @@ public class Resource {
     @Column(name = "ver")
     private Long version;
 
+    @Column(name = "chg", insertable = false, updatable = false)
+    private Long change;
+
     public Resource(Long id, Resource type, String reference) {
         this(id, type.getId(), reference);
     }
@@ -80,6 +83,13 @@ public class Resource {
         this.version = version;
     }
 
+    /**
+     * @return value of the global change counter when the resource was last inserted or updated, set by the database
+     */
+    public Long getChange() {
+        return change;
+    }
+
     @Override
     public String toString() {
         if (version == null || version == 0L) {
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ResourceRepository extends CrudRepository<Resource, Long> {
@@ -66,4 +67,14 @@ public interface ResourceRepository extends CrudRepository<Resource, Long> {
     default Optional<Resource> findObject(String reference, TypeDefinition type) {
         return findObject(reference, type.getIdentifier(), StandardTypes.TYPEDEF.getNumericCode() * 1L);
     }
+
+    /**
+     * @return id, type id, reference and change counter of the resources inserted or updated after
+     * the given change, in the order of the changes
+     */
+    @Query("SELECT R.id, R.typeId, R.reference, R.change FROM Resource R WHERE R.change > :since ORDER BY R.change")
+    List<Object[]> changedSince(@Param("since") long since);
+
+    @Query("SELECT R.id FROM Resource R")
+    List<Long> allIds();
 }
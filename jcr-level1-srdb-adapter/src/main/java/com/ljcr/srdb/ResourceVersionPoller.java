@@ -0,0 +1,132 @@
+package com.ljcr.srdb;
+
+import com.ljcr.api.NodePath;
+import com.ljcr.api.observation.Event;
+import com.ljcr.api.observation.PollingEventSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Source of the changes of the <code>res</code> table, polling the resources whose change counter
+ * is above the last one seen. The <code>chg</code> column is set from a global sequence by the database
+ * on each insert and update, and indexed, so that a poll reads the changed rows only.
+ * <p>
+ * A resource is at <code>/type/reference</code>: new ids are added, ids with another reference are moved,
+ * other changed ids are changed. Removed ids leave no row behind: the table is scanned for them only when
+ * it has fewer rows than the known ids. Relations are seen through their parent resource, which is updated
+ * when the resource is saved. A change committed after a later change was polled is missed.
+ * <p>
+ * Used as the source of the {@link com.ljcr.api.observation.EventDispatcher} of
+ * {@link RdbAdapter#watchWs(String, javax.persistence.EntityManager, RepositoryReader, ResourceVersionPoller)}.
+ */
+public class ResourceVersionPoller extends PollingEventSource {
+    private final ResourceRepository res;
+    private final Map<Long, ResourceVersion> known = new HashMap<>();
+    private long lastSeen;
+    private Consumer<Event> sink;
+
+    public ResourceVersionPoller(ResourceRepository res, long intervalMillis) {
+        super(intervalMillis);
+        this.res = res;
+    }
+
+    @Override
+    public synchronized Closeable start(Consumer<Event> sink) {
+        known.clear();
+        lastSeen = Long.MIN_VALUE;
+        readChanges(e -> {
+        });
+        this.sink = sink;
+        Closeable polling = super.start(sink);
+        return () -> {
+            synchronized (this) {
+                this.sink = null;
+            }
+            polling.close();
+        };
+    }
+
+    /**
+     * Polls the table now, on the calling thread and in its transaction
+     *
+     * @return true if changes were posted, false if nothing changed or the source is not started
+     */
+    public synchronized boolean refresh() {
+        if (sink == null) {
+            return false;
+        }
+        Consumer<Event> started = sink;
+        boolean[] changed = new boolean[1];
+        poll(e -> {
+            changed[0] = true;
+            started.accept(e);
+        });
+        return changed[0];
+    }
+
+    @Override
+    protected synchronized void poll(Consumer<Event> sink) {
+        readChanges(sink);
+        if (res.count() < known.size()) {
+            readRemovals(sink);
+        }
+    }
+
+    private void readChanges(Consumer<Event> sink) {
+        List<Object[]> rows = res.changedSince(lastSeen);
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            String typeName = typeNameOf((Long) row[1]);
+            ResourceVersion after = new ResourceVersion(NodePath.of(typeName, (String) row[2]), typeName);
+            ResourceVersion before = known.put(id, after);
+            if (before == null) {
+                sink.accept(Event.added(after.path, after.typeName));
+            } else if (!before.path.equals(after.path)) {
+                sink.accept(Event.removed(before.path, before.typeName));
+                sink.accept(Event.added(after.path, after.typeName));
+            } else {
+                sink.accept(Event.changed(after.path, after.typeName));
+            }
+            lastSeen = Math.max(lastSeen, (Long) row[3]);
+        }
+    }
+
+    private void readRemovals(Consumer<Event> sink) {
+        Set<Long> ids = new HashSet<>(res.allIds());
+        for (Iterator<Map.Entry<Long, ResourceVersion>> it = known.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, ResourceVersion> e = it.next();
+            if (!ids.contains(e.getKey())) {
+                it.remove();
+                sink.accept(Event.removed(e.getValue().path, e.getValue().typeName));
+            }
+        }
+    }
+
+    /**
+     * @return reference of the type resource, types being polled before their instances
+     */
+    private String typeNameOf(Long typeId) {
+        ResourceVersion type = known.get(typeId);
+        if (type != null) {
+            return type.path.getName(1);
+        }
+        return res.findById(typeId).map(Resource::getReference).orElse(String.valueOf(typeId));
+    }
+
+    private static final class ResourceVersion {
+        private final NodePath path;
+        private final String typeName;
+
+        private ResourceVersion(NodePath path, String typeName) {
+            this.path = path;
+            this.typeName = typeName;
+        }
+    }
+}
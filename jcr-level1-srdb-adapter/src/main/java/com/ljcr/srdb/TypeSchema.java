@@ -1,28 +1,30 @@
 package com.ljcr.srdb;
 
 import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.PropertyIndex;
 import com.ljcr.api.definitions.StandardTypes;
 import com.ljcr.api.definitions.TypeDefinition;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class TypeSchema extends StandardTypes.TypeDefinitionType {
 
-    private final Map<String, PropertyDefinition> fields;
+    private final PropertyIndex fields;
 
-    protected TypeSchema(String name, Map<String, PropertyDefinition> fields) {
+    protected TypeSchema(String name, PropertyIndex fields) {
         super(name);
-        this.fields = Collections.unmodifiableMap(fields);
+        this.fields = fields;
     }
 
     public static TypeSchema metaSchemaOf(TypeDefinition fieldSchema) {
         return new TypeSchema(StandardTypes.TYPEDEF.getIdentifier(), initFields(fieldSchema));
     }
 
-    private static Map<String, PropertyDefinition> initFields(TypeDefinition fieldSchema) {
+    private static PropertyIndex initFields(TypeDefinition fieldSchema) {
         Map<String, TypeDefinition> fields = new LinkedHashMap<>();
         fields.put("name", StandardTypes.NAME);
         fields.put("doc", StandardTypes.STRING);
@@ -31,19 +33,19 @@ public class TypeSchema extends StandardTypes.TypeDefinitionType {
         fields.put("namespace", StandardTypes.STRING);
         fields.put("referencable", StandardTypes.BOOLEAN);
 
-        Map<String, PropertyDefinition> defs = new LinkedHashMap<>();
+        List<PropertyDefinition> defs = new ArrayList<>(fields.size());
         for (Map.Entry<String, TypeDefinition> e : fields.entrySet()) {
             if ("name".equals(e.getKey()) || "type".equals(e.getKey())) {
-                defs.put(e.getKey(), StandardTypes.mandatoryPropertyOf(e.getKey(), e.getValue()));
+                defs.add(StandardTypes.mandatoryPropertyOf(e.getKey(), e.getValue(), defs.size()));
             } else {
-                defs.put(e.getKey(), StandardTypes.propertyOf(e.getKey(), e.getValue()));
+                defs.add(StandardTypes.propertyOf(e.getKey(), e.getValue(), defs.size()));
             }
         }
 
-        return Collections.unmodifiableMap(defs);
+        return PropertyIndex.of(defs);
     }
 
-    protected Map<String, PropertyDefinition> getInternalMap() {
+    protected PropertyIndex getInternalIndex() {
         return fields;
     }
 
@@ -54,11 +56,16 @@ public class TypeSchema extends StandardTypes.TypeDefinitionType {
 
     @Override
     public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
-        return getInternalMap().values();
+        return getInternalIndex().values();
     }
 
     @Override
     public PropertyDefinition getFieldDefByName(String name) {
-        return getInternalMap().get(name);
+        return getInternalIndex().byName(name);
+    }
+
+    @Override
+    public PropertyDefinition getFieldDefByOrdinal(int ordinal) {
+        return getInternalIndex().byOrdinal(ordinal);
     }
 }
@@ -1,6 +1,7 @@
 package com.ljcr.srdb.mods;
 
 import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.PropertyIndex;
 import com.ljcr.api.definitions.StandardTypeVisitor;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.srdb.RelationalTypeDefinition;
@@ -8,7 +9,6 @@ import com.ljcr.srdb.Resource;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
@@ -16,7 +16,7 @@ class RelationalTypeDefinitionImpl implements RelationalTypeDefinition {
     private final String typeName;
     private final Resource typeRes;
     private final CompletableFuture<RelationalTypeDefinition> fRefType;
-    private final Map<String, PropertyDefinition> fieldsMap;
+    private final PropertyIndex fields;
     private final boolean referencable;
     private final TypeDefinition valueType;
 
@@ -24,13 +24,13 @@ class RelationalTypeDefinitionImpl implements RelationalTypeDefinition {
                                         Resource typeRes,
                                         boolean referencable,
                                         CompletableFuture<RelationalTypeDefinition> fRefType,
-                                        Map<String, PropertyDefinition> fieldsMap,
+                                        PropertyIndex fields,
                                         TypeDefinition valueType
     ) {
         this.typeName = typeName;
         this.typeRes = typeRes;
         this.fRefType = fRefType;
-        this.fieldsMap = fieldsMap;
+        this.fields = fields;
         this.referencable = referencable;
         this.valueType = valueType;
     }
@@ -62,12 +62,17 @@ class RelationalTypeDefinitionImpl implements RelationalTypeDefinition {
 
     @Override
     public Collection<PropertyDefinition> getDeclaredPropertyDefinitions() {
-        return fieldsMap.values();
+        return fields.values();
     }
 
     @Override
     public PropertyDefinition getFieldDefByName(String name) {
-        return fieldsMap.get(name);
+        return fields.byName(name);
+    }
+
+    @Override
+    public PropertyDefinition getFieldDefByOrdinal(int ordinal) {
+        return fields.byOrdinal(ordinal);
     }
 
     @Override
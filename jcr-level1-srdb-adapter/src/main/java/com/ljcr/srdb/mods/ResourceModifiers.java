@@ -2,6 +2,7 @@ package com.ljcr.srdb.mods;
 
 import com.ljcr.api.definitions.PropertyDefinition;
 import com.ljcr.api.definitions.StandardTypeVisitor;
+import com.ljcr.api.definitions.TypeSwitch;
 import com.ljcr.srdb.ObjectBuilder;
 import com.ljcr.srdb.RelationalResourceBuilder;
 import com.ljcr.srdb.Resource;
@@ -13,6 +14,8 @@ import java.util.Objects;
 import java.util.function.Supplier;
 
 public final class ResourceModifiers {
+    private static final TypeSwitch<ResourceRelation> RELATION_FACTORY = TypeSwitch.of(relationFactory());
+
     static ResourceModifier updateReference(Resource res, String reference) {
         Objects.requireNonNull(res);
         Objects.requireNonNull(reference);
@@ -128,13 +131,17 @@ public final class ResourceModifiers {
         };
     }
 
-    public static ResourceModifier newPrimitiveRelation(Resource fieldRes, PropertyDefinition field, String locale, Object value) {
-        StandardTypeVisitor<ResourceRelation> factory = relationFactory();
-
-        ResourceRelation rel = field.getType()
-                .accept(factory, value)
+    /**
+     * @return relation holding the value of the field, its parent is not set
+     */
+    public static ResourceRelation newRelation(Resource fieldRes, PropertyDefinition field, String locale, Object value) {
+        return RELATION_FACTORY.apply(field.getType(), value)
                 .withLocale(locale)
                 .withChild(fieldRes);
+    }
+
+    public static ResourceModifier newPrimitiveRelation(Resource fieldRes, PropertyDefinition field, String locale, Object value) {
+        ResourceRelation rel = newRelation(fieldRes, field, locale, value);
 
         return new ResourceModifier() {
             @Override
@@ -206,7 +213,6 @@ public final class ResourceModifiers {
     }
 
     public static ResourceModifier newLazyRelation(Resource fieldRes, PropertyDefinition field, String locale, Supplier<Resource> valueSupplier) {
-        StandardTypeVisitor<ResourceRelation> factory = relationFactory();
         Objects.requireNonNull(fieldRes);
         Objects.requireNonNull(valueSupplier);
 
@@ -215,10 +221,7 @@ public final class ResourceModifiers {
             public DatabaseOperation getDbOperation() {
                 Resource value = valueSupplier.get();
 
-                ResourceRelation rel = field.getType()
-                        .accept(factory, value)
-                        .withLocale(locale)
-                        .withChild(fieldRes);
+                ResourceRelation rel = newRelation(fieldRes, field, locale, value);
 
                 return new InsertOperation() {
                     @Override
@@ -1,15 +1,14 @@
 package com.ljcr.srdb.mods;
 
 import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.PropertyIndex;
 import com.ljcr.api.definitions.StandardType;
 import com.ljcr.api.definitions.StandardTypes;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.srdb.*;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public class TypeDefinitionBuilder {
@@ -143,29 +142,29 @@ public class TypeDefinitionBuilder {
         final Resource typeRes = res.save(initialResource);
         final String typeName = initialResource.getReference();
 
-        final Map<String, PropertyDefinition> fieldsMap = new LinkedHashMap<>();
+        final List<PropertyDefinition> fieldsList = new ArrayList<>();
 
         if (referencable) {
-            PropertyDefinition p = createField(res, rels, typeRes, new FieldDescriptor("reference", StandardTypes.NAME));
-            fieldsMap.put("reference", p);
+            PropertyDefinition p = createField(res, rels, typeRes, new FieldDescriptor("reference", StandardTypes.NAME), fieldsList.size());
+            fieldsList.add(p);
         }
 
         for (FieldDescriptor fd : fields) {
-            PropertyDefinition field = createField(res, rels, typeRes, fd);
-            fieldsMap.put(fd.fieldName, field);
+            PropertyDefinition field = createField(res, rels, typeRes, fd, fieldsList.size());
+            fieldsList.add(field);
         }
         for (ContainerDescriptor cd : arrays) {
-            PropertyDefinition arrayField = createArrayField(res, rels, typeRes, cd);
-            fieldsMap.put(cd.fieldName, arrayField);
+            PropertyDefinition arrayField = createArrayField(res, rels, typeRes, cd, fieldsList.size());
+            fieldsList.add(arrayField);
         }
         for (ContainerDescriptor cd : containers) {
-            PropertyDefinition mapField = createMapField(res, rels, typeRes, cd);
-            fieldsMap.put(cd.fieldName, mapField);
+            PropertyDefinition mapField = createMapField(res, rels, typeRes, cd, fieldsList.size());
+            fieldsList.add(mapField);
         }
 
         CompletableFuture<RelationalTypeDefinition> fRefType = new CompletableFuture<>();
 
-        RelationalTypeDefinition typeDef = new RelationalTypeDefinitionImpl(typeName, typeRes, referencable, fRefType, fieldsMap, valueType);
+        RelationalTypeDefinition typeDef = new RelationalTypeDefinitionImpl(typeName, typeRes, referencable, fRefType, PropertyIndex.of(fieldsList), valueType);
         RelationalTypeDefinition refType = buildRefType(res, rels, typeDef);
         fRefType.complete(refType);
 
@@ -187,7 +186,7 @@ public class TypeDefinitionBuilder {
         return this;
     }
 
-    private PropertyDefinition createField(ResourceRepository res, RelationRepository rels, Resource parentType, FieldDescriptor fd) {
+    private PropertyDefinition createField(ResourceRepository res, RelationRepository rels, Resource parentType, FieldDescriptor fd, int ordinal) {
         TypeDefinition type = fd.type;
         final Resource fieldTypeRes;
         if (type instanceof RelationalTypeDefinition) {
@@ -220,23 +219,28 @@ public class TypeDefinitionBuilder {
                 public boolean isIdentifier() {
                     return true;
                 }
+
+                @Override
+                public int getOrdinal() {
+                    return ordinal;
+                }
             };
         }
-        return StandardTypes.propertyOf(rel.getStringValue(), type);
+        return StandardTypes.propertyOf(rel.getStringValue(), type, ordinal);
     }
 
-    private PropertyDefinition createArrayField(ResourceRepository res, RelationRepository rels, Resource parentTypeRes, ContainerDescriptor cd) {
+    private PropertyDefinition createArrayField(ResourceRepository res, RelationRepository rels, Resource parentTypeRes, ContainerDescriptor cd, int ordinal) {
         StandardTypes.ArrayType type = StandardTypes.arrayOf(cd.valueType);
         Resource tArr = res.getOrCreateValueType(type);
         createArrayField(tArr, res, rels, parentTypeRes, cd);
-        return StandardTypes.propertyOf(cd.fieldName, type);
+        return StandardTypes.propertyOf(cd.fieldName, type, ordinal);
     }
 
-    private PropertyDefinition createMapField(ResourceRepository res, RelationRepository rels, Resource parentTypeRes, ContainerDescriptor cd) {
+    private PropertyDefinition createMapField(ResourceRepository res, RelationRepository rels, Resource parentTypeRes, ContainerDescriptor cd, int ordinal) {
         StandardTypes.MapType type = StandardTypes.mapOf(cd.valueType);
         Resource tArr = res.getOrCreateValueType(type);
         createArrayField(tArr, res, rels, parentTypeRes, cd);
-        return StandardTypes.propertyOf(cd.fieldName, type);
+        return StandardTypes.propertyOf(cd.fieldName, type, ordinal);
     }
 
     private ResourceRelation createArrayField(Resource tArr, ResourceRepository res, RelationRepository rels, Resource parentTypeRes, ContainerDescriptor cd) {
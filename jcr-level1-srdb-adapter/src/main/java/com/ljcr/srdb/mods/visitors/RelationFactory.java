@@ -1,15 +1,16 @@
 package com.ljcr.srdb.mods.visitors;
 
 import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeSwitch;
 import com.ljcr.srdb.Resource;
 import com.ljcr.srdb.ResourceRelation;
 
 public class RelationFactory {
-    public ResourceRelation newRelation(Resource parent, Resource typeRes, PropertyDefinition field, Object value) {
-        ConditionalVisitorOrThrow<ResourceRelation> factory = new ConditionalVisitorOrThrow<>(new RelationBuilderTypeSafeFilter(), new RelationBuilder());
+    private static final TypeSwitch<ResourceRelation> FACTORY = TypeSwitch.of(
+            new ConditionalVisitorOrThrow<>(new RelationBuilderTypeSafeFilter(), new RelationBuilder()));
 
-        ResourceRelation newRelation = field.getType()
-                .accept(factory, value)
+    public ResourceRelation newRelation(Resource parent, Resource typeRes, PropertyDefinition field, Object value) {
+        ResourceRelation newRelation = FACTORY.apply(field.getType(), value)
                 .withParent(parent)
                 .withChild(typeRes);
 
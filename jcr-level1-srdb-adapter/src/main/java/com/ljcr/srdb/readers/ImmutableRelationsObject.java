@@ -3,6 +3,7 @@ package com.ljcr.srdb.readers;
 import com.ljcr.api.ImmutableNode;
 import com.ljcr.api.ImmutableNodeObject;
 import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.NodeCursor;
 import com.ljcr.api.definitions.PropertyDefinition;
 import com.ljcr.api.definitions.TypeDefinition;
 import com.ljcr.srdb.PropertyFactory;
@@ -44,6 +45,12 @@ public class ImmutableRelationsObject implements ImmutableNodeObject {
         return new ImmutableNodeScalarNodeWrapper(field.getIdentifier(), value);
     }
 
+    @Nonnull
+    @Override
+    public NodeCursor cursor() {
+        return new RelationsNodeCursor(getName(), type, factory);
+    }
+
     @Nonnull
     @Override
     public TypeDefinition getTypeDefinition() {
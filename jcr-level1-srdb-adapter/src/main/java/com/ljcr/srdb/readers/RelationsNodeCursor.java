@@ -0,0 +1,88 @@
+package com.ljcr.srdb.readers;
+
+import com.ljcr.api.AbstractNodeCursor;
+import com.ljcr.api.ImmutableNodeScalar;
+import com.ljcr.api.PrimitiveValueVisitor;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.TypeDefinition;
+import com.ljcr.srdb.PropertyFactory;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+
+/**
+ * Cursor over the fields of a resource, reading values directly from the property factory
+ * without wrapping them into named nodes
+ */
+class RelationsNodeCursor extends AbstractNodeCursor<RelationsNodeCursor.RelationFrame> {
+
+    static final class RelationFrame extends AbstractNodeCursor.Frame {
+        private PropertyDefinition field;
+        private ImmutableNodeScalar value;
+        private Iterator<PropertyDefinition> fields;
+    }
+
+    private final String rootName;
+    private final TypeDefinition type;
+    private final PropertyFactory factory;
+
+    RelationsNodeCursor(String rootName, TypeDefinition type, PropertyFactory factory) {
+        this.rootName = rootName;
+        this.type = type;
+        this.factory = factory;
+    }
+
+    @Override
+    protected RelationFrame newFrame() {
+        return new RelationFrame();
+    }
+
+    @Override
+    protected void setRoot(RelationFrame frame) {
+        frame.field = null;
+        frame.value = null;
+        frame.reset(rootName, true, false);
+    }
+
+    @Override
+    protected void open(RelationFrame frame) {
+        frame.fields = type.getPropertyDefinitions().iterator();
+    }
+
+    @Override
+    protected boolean nextChild(RelationFrame parent, RelationFrame child) {
+        if (!parent.fields.hasNext()) {
+            return false;
+        }
+        PropertyDefinition field = parent.fields.next();
+        child.field = field;
+        child.value = factory.getValue(field);
+        child.reset(field.getIdentifier(), false, false);
+        return true;
+    }
+
+    @Override
+    protected void close(RelationFrame frame) {
+        frame.fields = null;
+    }
+
+    @Nonnull
+    @Override
+    public TypeDefinition getTypeDefinition() {
+        RelationFrame frame = current();
+        if (frame.field == null) {
+            return type;
+        }
+        return frame.value != null ? frame.value.getTypeDefinition() : frame.field.getType();
+    }
+
+    @Override
+    public void acceptValue(@Nonnull PrimitiveValueVisitor visitor) {
+        ImmutableNodeScalar value = currentValue().value;
+        if (value == null) {
+            visitor.onNull();
+        } else {
+            value.acceptValue(visitor);
+        }
+    }
+}
@@ -46,17 +46,26 @@ public class SimpleValueNodeFactory extends DelegatingVisitor<ImmutableNodeScala
 
     @Override
     public ImmutableNodeScalar visit(StandardTypes.LongType type, Object context) {
-        return StandardValueNodes.of((Long) context);
+        if (context == null) {
+            return StandardValueNodes.of((Long) null);
+        }
+        return StandardValueNodes.ofLong((Long) context);
     }
 
     @Override
     public ImmutableNodeScalar visit(StandardTypes.DoubleType type, Object context) {
-        return StandardValueNodes.of((Long) context);
+        if (context == null) {
+            return new StandardValueNodes.StandardNode<Double>(type, null);
+        }
+        return StandardValueNodes.ofDouble((Double) context);
     }
 
     @Override
     public ImmutableNodeScalar visit(StandardTypes.BooleanType type, Object context) {
-        return StandardValueNodes.of((Long) context);
+        if (context == null) {
+            return StandardValueNodes.of((Boolean) null);
+        }
+        return StandardValueNodes.ofBoolean((Boolean) context);
     }
 
     @Override
@@ -1,11 +1,14 @@
 create sequence sq_res_id start with 101 increment by 1;
 create sequence sq_rel_id start with 1100 increment by 10;
+create sequence sq_res_chg start with 1 increment by 1;
 
 create table res (
     id bigint default sq_res_id.nextval not null,
     type_id bigint not null,
     ref varchar(255) not null,
     ver bigint,
+    -- global change counter, polled by the observation of the repository
+    chg bigint default sq_res_chg.nextval on update sq_res_chg.nextval not null,
     primary key (id));
 
 create table rel (
@@ -31,6 +34,7 @@ insert into res (id, type_id, ref, ver) values(19, 16, 'Map', 0);
 insert into res (id, type_id, ref, ver) values(65, 16, 'RepositoryRoot', 0);
 
 alter table res add constraint res_type_ref unique (type_id,ref);
+create index res_chg on res (chg);
 alter table res add constraint res_type_id_parent_id foreign key (type_id) references res;
 
 alter table rel add constraint res_id_parent_id foreign key (parent_id) references res;
@@ -0,0 +1,132 @@
+package com.ljcr.srdb;
+
+import com.ljcr.api.ImmutableNode;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.definitions.StandardValueNodes;
+import com.ljcr.api.query.Query;
+import com.ljcr.srdb.mods.TypeDefinitionBuilder;
+import com.ljcr.utils.export.Exporter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ljcr.tests.TestNodes.array;
+import static com.ljcr.tests.TestNodes.doc;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SpringBootTest(classes = TestApplication.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(locations = "classpath:application-query-04.properties")
+@DataJpaTest
+
+public class RelationalExportWriterTest {
+
+    @Autowired
+    RelationRepository rels;
+    @Autowired
+    ResourceRepository res;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    private RelationalTypeDefinition shape;
+    private PropertyDefinition order;
+    private PropertyDefinition code;
+
+    @Before
+    public void shapes() {
+        shape = new TypeDefinitionBuilder("Shape")
+                .field("displayOrder", StandardTypes.LONG)
+                .field("code", StandardTypes.STRING)
+                .isReferencable()
+                .build(res, rels);
+        order = shape.getFieldDefByName("displayOrder");
+        code = shape.getFieldDefByName("code");
+        em.flush();
+    }
+
+    @Test
+    public void rowsAreInsertedByBatches() {
+        Map<String, ImmutableNode> rows = new LinkedHashMap<>();
+        for (int i = 1; i <= 7; i++) {
+            rows.put("s" + i, doc("s" + i,
+                    "displayOrder", StandardValueNodes.ofLong("displayOrder", i),
+                    "code", string("code", i % 2 == 0 ? "even" : "odd"),
+                    "unknown", string("unknown", "ignored")));
+        }
+
+        RelationalExportWriter writer = new RelationalExportWriter(dataSource, res, rels, txManager, shape, 3);
+        new Exporter().export(doc("", rows), writer);
+        writer.close();
+        assertThat(writer.getRows(), equalTo(7L));
+
+        Repository ws = RdbAdapter.createWs("shapes", em, new RepositoryReader(res, rels));
+        List<String> shapes = ws.query(Query.from(shape))
+                .map(n -> n.getItem(order).asLong() + ":" + n.getItem(code).asString())
+                .sorted()
+                .collect(toList());
+        assertThat(shapes, equalTo(Arrays.asList("1:odd", "2:even", "3:odd", "4:even", "5:odd", "6:even", "7:odd")));
+        for (int i = 1; i <= 7; i++) {
+            assertThat(res.findByReference("s" + i, shape).isPresent(), equalTo(true));
+        }
+    }
+
+    @Test
+    public void rowsWithoutReferenceAreReferencedByTheirId() {
+        RelationalTypeDefinition point = new TypeDefinitionBuilder("Point")
+                .field("x", StandardTypes.LONG)
+                .build(res, rels);
+        em.flush();
+        ImmutableNode[] rows = new ImmutableNode[7];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = doc(null, "x", StandardValueNodes.ofLong("x", i));
+        }
+
+        RelationalExportWriter writer = new RelationalExportWriter(dataSource, res, rels, txManager, point, 3);
+        new Exporter().export(array(rows), writer);
+        writer.close();
+
+        int points = 0;
+        for (Resource p : res.allOf(point.getTypeResource().getId())) {
+            assertThat(p.getReference(), equalTo(p.getId().toString()));
+            points++;
+        }
+        assertThat(points, equalTo(7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownReferencesAreRejected() {
+        RelationalExportWriter writer = new RelationalExportWriter(dataSource, res, rels, txManager, shape, 3);
+        // rows of a collection have no name, referencable rows need an identifier field then
+        new Exporter().export(array(doc(null, "code", string("code", "odd"))), writer);
+    }
+
+    private static ImmutableNode string(String name, String value) {
+        return new StandardValueNodes.StandardNode<String>(StandardTypes.STRING, value) {
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
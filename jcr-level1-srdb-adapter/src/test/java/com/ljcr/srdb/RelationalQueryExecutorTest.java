@@ -0,0 +1,115 @@
+package com.ljcr.srdb;
+
+import com.ljcr.api.ImmutableNodeObject;
+import com.ljcr.api.Repository;
+import com.ljcr.api.definitions.PropertyDefinition;
+import com.ljcr.api.definitions.StandardTypes;
+import com.ljcr.api.query.Conditions;
+import com.ljcr.api.query.Query;
+import com.ljcr.srdb.mods.TypeDefinitionBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SpringBootTest(classes = TestApplication.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(locations = "classpath:application-query-04.properties")
+@DataJpaTest
+
+public class RelationalQueryExecutorTest {
+
+    @Autowired
+    RelationRepository rels;
+    @Autowired
+    ResourceRepository res;
+    @Autowired
+    EntityManager em;
+
+    private RelationalTypeDefinition shape;
+    private PropertyDefinition order;
+    private PropertyDefinition code;
+    private Repository ws;
+
+    @Before
+    public void shapes() {
+        shape = new TypeDefinitionBuilder("Shape")
+                .field("displayOrder", StandardTypes.LONG)
+                .field("code", StandardTypes.STRING)
+                .isReferencable()
+                .build(res, rels);
+        order = shape.getFieldDefByName("displayOrder");
+        code = shape.getFieldDefByName("code");
+        for (int i = 1; i <= 5; i++) {
+            new RelationalResourceBuilder(res, rels, shape)
+                    .setReference("s" + i)
+                    .set("displayOrder", (long) i)
+                    .set("code", i % 2 == 0 ? "even" : "odd")
+                    .build();
+        }
+        em.flush();
+        ws = RdbAdapter.createWs("shapes", em, new RepositoryReader(res, rels));
+    }
+
+    @Test
+    public void translatedConditionsArePagedByTheDatabase() {
+        Query query = Query.from(shape)
+                .where(Conditions.and(Conditions.ge(order, 2L), Conditions.eq(code, "odd")));
+
+        assertThat(orders(ws.query(query)), equalTo(Arrays.asList(3L, 5L)));
+        assertThat(orders(ws.query(query.offset(1))), equalTo(Arrays.asList(5L)));
+        assertThat(orders(ws.query(query.limit(1))), equalTo(Arrays.asList(3L)));
+        assertThat(orders(ws.query(Query.from(shape).where(Conditions.prefix(code, "ev")).offset(1).limit(1))),
+                equalTo(Arrays.asList(4L)));
+    }
+
+    @Test
+    public void untranslatedConditionsAreEvaluatedInMemory() {
+        // the negation is not translated, the range alone is queried
+        Query query = Query.from(shape)
+                .where(Conditions.and(Conditions.le(order, 4L), Conditions.not(Conditions.eq(code, "odd"))));
+
+        assertThat(orders(ws.query(query)), equalTo(Arrays.asList(2L, 4L)));
+        assertThat(orders(ws.query(query.offset(1).limit(1))), equalTo(Arrays.asList(4L)));
+        assertThat(orders(ws.query(Query.from(shape).where(Conditions.not(Conditions.eq(code, "even"))).limit(2))),
+                equalTo(Arrays.asList(1L, 3L)));
+    }
+
+    @Test
+    public void resultsAreReadByPages() {
+        int count = RelationalQueryExecutor.PAGE_SIZE + 7;
+        for (int i = 6; i <= count; i++) {
+            new RelationalResourceBuilder(res, rels, shape)
+                    .setReference("s" + i)
+                    .set("displayOrder", (long) i)
+                    .set("code", "many")
+                    .build();
+        }
+        em.flush();
+
+        List<Long> all = orders(ws.query(Query.from(shape)));
+        assertThat(all.size(), equalTo(count));
+        assertThat(all.get(count - 1), equalTo((long) count));
+        List<Long> page = orders(ws.query(Query.from(shape).offset(3).limit(RelationalQueryExecutor.PAGE_SIZE + 2)));
+        assertThat(page, equalTo(all.subList(3, RelationalQueryExecutor.PAGE_SIZE + 5)));
+        assertThat(orders(ws.query(Query.from(shape).where(Conditions.eq(code, "many")).offset(RelationalQueryExecutor.PAGE_SIZE))),
+                equalTo(all.subList(RelationalQueryExecutor.PAGE_SIZE + 5, count)));
+    }
+
+    private List<Long> orders(Stream<ImmutableNodeObject> nodes) {
+        return nodes.map(n -> n.getItem(order).asLong()).collect(toList());
+    }
+}
@@ -0,0 +1,94 @@
+package com.ljcr.srdb;
+
+import com.ljcr.api.Repository;
+import com.ljcr.api.observation.Event;
+import com.ljcr.api.observation.EventFilter;
+import com.ljcr.api.observation.EventListener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SpringBootTest(classes = TestApplication.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(locations = "classpath:application-query-04.properties")
+@DataJpaTest
+
+public class ResourceVersionPollerTest {
+
+    @Autowired
+    RelationRepository rels;
+    @Autowired
+    ResourceRepository res;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    public void changedResourcesAreDeliveredToTheListeners() throws InterruptedException {
+        ResourceVersionPoller poller = new ResourceVersionPoller(res, 60_000);
+        Repository ws = RdbAdapter.watchWs("shapes", em, new RepositoryReader(res, rels), poller);
+        List<Event> events = Collections.synchronizedList(new ArrayList<>());
+        EventListener listener = events::addAll;
+        assertThat(poller.refresh(), equalTo(false));
+
+        ws.getObservationManager().addEventListener(listener, EventFilter.all());
+        try {
+            // the resources of the schema are known once started
+            assertThat(poller.refresh(), equalTo(false));
+
+            Resource type = res.save(Resource.newObjectType("Shape"));
+            Resource circle = res.save(new Resource(type, "circle"));
+            Resource square = res.save(new Resource(type, "square"));
+            em.flush();
+            assertThat(poller.refresh(), equalTo(true));
+            assertThat(paths(events, 3), equalTo(Arrays.asList(
+                    "NODE_ADDED /TypeDef/Shape", "NODE_ADDED /Shape/circle", "NODE_ADDED /Shape/square")));
+            assertThat(poller.refresh(), equalTo(false));
+
+            events.clear();
+            circle.setReference("disc");
+            em.createNativeQuery("update res set ver = ver + 1 where id = " + square.getId()).executeUpdate();
+            em.flush();
+            assertThat(poller.refresh(), equalTo(true));
+            assertThat(paths(events, 3), equalTo(Arrays.asList(
+                    "NODE_REMOVED /Shape/circle", "NODE_ADDED /Shape/disc", "NODE_CHANGED /Shape/square")));
+
+            events.clear();
+            em.refresh(square);
+            res.delete(square);
+            em.flush();
+            assertThat(poller.refresh(), equalTo(true));
+            assertThat(paths(events, 1), equalTo(Collections.singletonList("NODE_REMOVED /Shape/square")));
+        } finally {
+            ws.getObservationManager().removeEventListener(listener);
+        }
+        assertThat(poller.refresh(), equalTo(false));
+    }
+
+    /**
+     * @return events delivered by the dispatcher thread, once there are <code>count</code> of them
+     */
+    private static List<String> paths(List<Event> events, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        synchronized (events) {
+            return events.stream().map(e -> e.getType() + " " + e.getPath()).collect(toList());
+        }
+    }
+}